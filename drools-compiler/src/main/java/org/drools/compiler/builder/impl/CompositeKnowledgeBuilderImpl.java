@@ -20,6 +20,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 import org.drools.compiler.lang.descr.CompositePackageDescr;
@@ -174,15 +176,15 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
 
     private Collection<CompositePackageDescr> buildPackageDescr() {
         Map<String, CompositePackageDescr> packages = new HashMap<>();
-        buildResource(packages, ResourceType.DRL, ResourceToPkgDescrMapper.DRL_TO_PKG_DESCR);
-        buildResource(packages, ResourceType.GDRL,ResourceToPkgDescrMapper. DRL_TO_PKG_DESCR);
-        buildResource(packages, ResourceType.RDRL, ResourceToPkgDescrMapper.DRL_TO_PKG_DESCR);
-        buildResource(packages, ResourceType.DESCR, ResourceToPkgDescrMapper.DRL_TO_PKG_DESCR);
+        buildDrlResource(packages, ResourceType.DRL);
+        buildDrlResource(packages, ResourceType.GDRL);
+        buildDrlResource(packages, ResourceType.RDRL);
+        buildDrlResource(packages, ResourceType.DESCR);
         buildResource(packages, ResourceType.DSLR, ResourceToPkgDescrMapper.DSLR_TO_PKG_DESCR);
         buildResource(packages, ResourceType.RDSLR, ResourceToPkgDescrMapper.DSLR_TO_PKG_DESCR);
         buildResource(packages, ResourceType.XDRL, ResourceToPkgDescrMapper.XML_TO_PKG_DESCR);
         buildResource(packages, ResourceType.DTABLE, ResourceToPkgDescrMapper.DTABLE_TO_PKG_DESCR);
-        buildResource(packages, ResourceType.TDRL, ResourceToPkgDescrMapper.DRL_TO_PKG_DESCR);
+        buildDrlResource(packages, ResourceType.TDRL);
         buildResource(packages, ResourceType.TEMPLATE, ResourceToPkgDescrMapper.TEMPLATE_TO_PKG_DESCR);
         buildResource(packages, ResourceType.GDST, ResourceToPkgDescrMapper.GUIDED_DTABLE_TO_PKG_DESCR);
         this.resourcesByType.remove(ResourceType.DRT); // drt is a template for dtables but doesn't have to be built on its own
@@ -208,6 +210,40 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
         }
     }
 
+    /**
+     * Parses the drl resources of the given type concurrently on the rules compiler pool, when there are
+     * many of them, and then registers the resulting PackageDescrs in the order of the resources, so that
+     * the composite package descriptors are the same as when parsing them one after another.
+     */
+    private void buildDrlResource(Map<String, CompositePackageDescr> packages, ResourceType resourceType) {
+        List<ResourceDescr> resourcesByType = this.resourcesByType.get(resourceType);
+        if (resourcesByType == null || !kBuilder.isParallelDrlParsing(resourcesByType.size())) {
+            buildResource(packages, resourceType, ResourceToPkgDescrMapper.DRL_TO_PKG_DESCR);
+            return;
+        }
+        this.resourcesByType.remove(resourceType);
+
+        List<ForkJoinTask<KnowledgeBuilderImpl.ParsedDrl>> parsedDrls = new ArrayList<>();
+        for (ResourceDescr resourceDescr : resourcesByType) {
+            parsedDrls.add(KnowledgeBuilderImpl.getCompilerPool().submit(() -> kBuilder.parseDrl(resourceDescr.resource)));
+        }
+        for (int i = 0; i < resourcesByType.size(); i++) {
+            ResourceDescr resourceDescr = resourcesByType.get(i);
+            try {
+                registerPackageDescr(resourceDescr, packages, resourceDescr.resource, kBuilder.parsedDrlToPackageDescr(parsedDrls.get(i).get()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (buildException == null) {
+                    buildException = new RuntimeException("Drl parsing interrupted", e);
+                }
+            } catch (ExecutionException e) {
+                if (buildException == null) {
+                    buildException = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+                }
+            }
+        }
+    }
+
     private void registerPackageDescr(ResourceDescr resourceDescr, Map<String, CompositePackageDescr> packages, Resource resource, PackageDescr packageDescr) {
         if (packageDescr != null) {
             CompositePackageDescr compositePackageDescr = packages.get(packageDescr.getNamespace());
@@ -548,25 +548,63 @@ public class KnowledgeBuilderImpl implements InternalKnowledgeBuilder {
 
     PackageDescr drlToPackageDescr(Resource resource) throws DroolsParserException,
             IOException {
-        PackageDescr pkg;
-        boolean hasErrors = false;
+        return parsedDrlToPackageDescr(parseDrl(resource));
+    }
+
+    /**
+     * Parses a drl resource without changing the state of this builder, so that
+     * different resources can be parsed concurrently. The parser errors are only
+     * collected when the result is passed to {@link #parsedDrlToPackageDescr(ParsedDrl)}.
+     */
+    ParsedDrl parseDrl(Resource resource) throws DroolsParserException,
+            IOException {
         if (resource instanceof DescrResource) {
-            pkg = (PackageDescr) ((DescrResource) resource).getDescr();
-        } else {
-            final DrlParser parser = new DrlParser(configuration.getLanguageLevel());
-            pkg = parser.parse(resource);
-            this.results.addAll(parser.getErrors());
+            return new ParsedDrl(resource, null, (PackageDescr) ((DescrResource) resource).getDescr());
+        }
+        final DrlParser parser = new DrlParser(configuration.getLanguageLevel());
+        return new ParsedDrl(resource, parser, parser.parse(resource));
+    }
+
+    PackageDescr parsedDrlToPackageDescr(ParsedDrl parsedDrl) {
+        PackageDescr pkg = parsedDrl.pkg;
+        boolean hasErrors = false;
+        if (parsedDrl.parser != null) {
+            this.results.addAll(parsedDrl.parser.getErrors());
             if (pkg == null) {
-                addBuilderResult(new ParserError(resource, "Parser returned a null Package", 0, 0));
+                addBuilderResult(new ParserError(parsedDrl.resource, "Parser returned a null Package", 0, 0));
             }
-            hasErrors = parser.hasErrors();
+            hasErrors = parsedDrl.parser.hasErrors();
         }
         if (pkg != null) {
-            pkg.setResource(resource);
+            pkg.setResource(parsedDrl.resource);
         }
         return hasErrors ? null : pkg;
     }
 
+    static class ParsedDrl {
+        private final Resource resource;
+        private final DrlParser parser;
+        private final PackageDescr pkg;
+
+        private ParsedDrl(Resource resource, DrlParser parser, PackageDescr pkg) {
+            this.resource = resource;
+            this.parser = parser;
+            this.pkg = pkg;
+        }
+    }
+
+    /**
+     * Returns true if the given number of drl resources can be parsed concurrently.
+     * As for the rules compilation, a parallelRulesBuildThreshold of -1 disables it.
+     */
+    boolean isParallelDrlParsing(int resources) {
+        return parallelRulesBuildThreshold != -1 && resources > 1;
+    }
+
+    static ForkJoinPool getCompilerPool() {
+        return ForkJoinPoolHolder.COMPILER_POOL;
+    }
+
     /**
      * Load a rule package from XML source.
      *
@@ -19,6 +19,7 @@ package org.drools.compiler.kie.builder.impl;
 import java.util.Collection;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 import org.drools.compiler.kie.builder.impl.event.KieScannerEventSupport;
 import org.drools.core.impl.InternalKieContainer;
@@ -42,6 +43,10 @@ public abstract class AbstractKieScanner<T> implements KieScanner {
 
     protected KieScannerEventSupport listeners = new KieScannerEventSupport();
 
+    private volatile long lastScanTime;
+
+    private volatile long lastUpdateTime;
+
     @Override
     public final void addListener( KieScannerEventListener listener ) {
         listeners.addEventListener( listener );
@@ -103,6 +108,24 @@ public abstract class AbstractKieScanner<T> implements KieScanner {
         return this.pollingInterval;
     }
 
+    /**
+     * @return the time in milliseconds spent by the last scan looking for updated artifacts
+     */
+    public final long getLastScanTime() {
+        return lastScanTime;
+    }
+
+    /**
+     * @return the overall time in milliseconds spent by the last update of the KieContainer
+     */
+    public final long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    protected static long elapsedMillis( long startNanos ) {
+        return TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startNanos );
+    }
+
     public final void shutdown() {
         if ( getStatus() != Status.SHUTDOWN ) {
             stop(); // making sure it is stopped
@@ -138,13 +161,17 @@ public abstract class AbstractKieScanner<T> implements KieScanner {
         final Status originalStatus = status;
         try {
             changeStatus( Status.SCANNING );
+            long scanStart = System.nanoTime();
             T updatedArtifacts = internalScan();
+            lastScanTime = elapsedMillis( scanStart );
             if ( updatedArtifacts == null ) {
                 changeStatus( originalStatus );
                 return;
             }
             changeStatus( Status.UPDATING );
+            long updateStart = System.nanoTime();
             internalUpdate( updatedArtifacts );
+            lastUpdateTime = elapsedMillis( updateStart );
         } finally {
             changeStatus( originalStatus );
         }
@@ -42,4 +42,14 @@ public interface InternalKieScanner extends KieScanner {
     Status getStatus();
 
     long getPollingInterval();
+
+    long getLastScanTime();
+
+    long getLastBuildTime();
+
+    long getLastPrebuildTime();
+
+    long getLastApplyTime();
+
+    long getLastUpdateTime();
 }
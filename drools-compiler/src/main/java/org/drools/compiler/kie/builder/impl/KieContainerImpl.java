@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.management.ObjectName;
@@ -80,6 +81,7 @@ import org.slf4j.LoggerFactory;
 
 import static java.util.stream.Collectors.toList;
 
+import static org.drools.compiler.kie.builder.impl.AbstractKieScanner.elapsedMillis;
 import static org.drools.compiler.kie.util.InjectionHelper.wireSessionComponents;
 import static org.drools.core.util.ClassUtils.convertResourceToClassName;
 import static org.drools.core.util.Drools.isJndiAvailable;
@@ -90,9 +92,18 @@ public class KieContainerImpl
 
     private static final Logger log = LoggerFactory.getLogger( KieContainerImpl.class );
 
-    private KieProject kProject;
+    /**
+     * When enabled an update fully builds the kbases of the new KieModule on a separate KieProject, including
+     * alpha network compilation and executable model class loading, and then swaps them in one step instead of
+     * incrementally modifying the kbases currently in use.
+     */
+    public static final String PREBUILD_UPDATES_PROPERTY = "kie.container.update.prebuild";
 
-    private final Map<String, KieBase> kBases = new ConcurrentHashMap<String, KieBase>();
+    // kBases and kProject are replaced together when a prebuilt update is swapped in:
+    // kProject is always written before kBases and read after it
+    private volatile KieProject kProject;
+
+    private volatile Map<String, KieBase> kBases = new ConcurrentHashMap<String, KieBase>();
 
     private final Map<String, KieSession> kSessions = new ConcurrentHashMap<String, KieSession>();
     private final Map<String, StatelessKieSession> statelessKSessions = new ConcurrentHashMap<String, StatelessKieSession>();
@@ -106,6 +117,13 @@ public class KieContainerImpl
 
     private final Map<String, KieSessionConfiguration> sessionConfsCache = new ConcurrentHashMap<>();
 
+    private volatile boolean prebuildUpdates = Boolean.getBoolean( PREBUILD_UPDATES_PROPERTY );
+
+    private final Object updateLock = new Object();
+
+    private volatile long lastUpdatePrebuildTime;
+    private volatile long lastUpdateApplyTime;
+
     public KieModule getMainKieModule() {
         return kr.getKieModule(getReleaseId());
     }
@@ -192,25 +210,70 @@ public class KieContainerImpl
         return containerReleaseId != null ? containerReleaseId : getReleaseId();
     }
 
+    public boolean isPrebuildUpdates() {
+        return prebuildUpdates;
+    }
+
+    public void setPrebuildUpdates(boolean prebuildUpdates) {
+        this.prebuildUpdates = prebuildUpdates;
+    }
+
+    /**
+     * @return the time in milliseconds spent by the last update building the new kbases before swapping them in,
+     * always 0 when the last update has been applied incrementally
+     */
+    public long getLastUpdatePrebuildTime() {
+        return lastUpdatePrebuildTime;
+    }
+
+    /**
+     * @return the time in milliseconds spent by the last update applying the changes to the container,
+     * i.e. the incremental update of the existing kbases or the swap of the prebuilt ones
+     */
+    public long getLastUpdateApplyTime() {
+        return lastUpdateApplyTime;
+    }
+
     public Results updateToVersion(ReleaseId newReleaseId) {
         checkNotClasspathKieProject();
+        if (prebuildUpdates) {
+            return prebuildAndSwap( newReleaseId );
+        }
         Results results = update(((KieModuleKieProject) kProject).getInternalKieModule(), newReleaseId);
         if (results != null) {
             containerReleaseId = newReleaseId;
         } else {
-            results = new ResultsImpl();
-            ( (ResultsImpl) results ).addMessage( Message.Level.ERROR, null, "Cannot find KieModule with ReleaseId: " + newReleaseId );
+            results = kieModuleNotFound( newReleaseId );
         }
         return results;
     }
 
+    /**
+     * Builds the kbases of the KieModule with the given ReleaseId in background and, if they don't contain any error,
+     * swaps them in the container. The kbases currently in use are left untouched, so the sessions already created
+     * from them keep working on the old version while the new one is built.
+     */
+    public CompletableFuture<Results> updateToVersionInBackground(ReleaseId newReleaseId) {
+        checkNotClasspathKieProject();
+        return CompletableFuture.supplyAsync( () -> prebuildAndSwap( newReleaseId ) );
+    }
+
     public Results updateToKieModule(InternalKieModule newKM) {
         checkNotClasspathKieProject();
+        if (prebuildUpdates) {
+            return prebuildAndSwap( newKM, newKM.getReleaseId() );
+        }
         Results results = update(((KieModuleKieProject) kProject).getInternalKieModule(), newKM);
         containerReleaseId = newKM.getReleaseId();
         return results;
     }
 
+    private Results kieModuleNotFound(ReleaseId releaseId) {
+        ResultsImpl results = new ResultsImpl();
+        results.addMessage( Message.Level.ERROR, null, "Cannot find KieModule with ReleaseId: " + releaseId );
+        return results;
+    }
+
     public Results updateDependencyToVersion(ReleaseId currentReleaseId, ReleaseId newReleaseId) {
         ReleaseId installedReleaseId = getReleaseId();
         if (currentReleaseId.getGroupId().equals(installedReleaseId.getGroupId()) &&
@@ -234,12 +297,87 @@ public class KieContainerImpl
         }
     }
 
+    private Results prebuildAndSwap(ReleaseId newReleaseId) {
+        InternalKieModule newKM = (InternalKieModule) kr.getKieModule( newReleaseId );
+        return newKM == null ? kieModuleNotFound( newReleaseId ) : prebuildAndSwap( newKM, newReleaseId );
+    }
+
+    private Results prebuildAndSwap(InternalKieModule newKM, ReleaseId newReleaseId) {
+        synchronized (updateLock) {
+            long start = System.nanoTime();
+            ResultsImpl results = new ResultsImpl();
+
+            KieProject newProject = new KieModuleKieProject( newKM, getPrebuildParentClassLoader( newKM ) );
+            newProject.init();
+
+            // rebuild all the kbases already in use, the others will be lazily created from the new project
+            Map<String, KieBase> newKBases = new ConcurrentHashMap<String, KieBase>();
+            for (String kBaseName : kBases.keySet()) {
+                KieBaseModelImpl kBaseModel = (KieBaseModelImpl) newProject.getKieBaseModel( kBaseName );
+                if (kBaseModel == null) {
+                    continue;
+                }
+                InternalKnowledgeBase kBase = buildKieBase( kBaseModel, newProject, results, null, newReleaseId );
+                if (kBase == null) {
+                    // the new version is invalid: keep on using the current one
+                    lastUpdatePrebuildTime = elapsedMillis( start );
+                    lastUpdateApplyTime = 0;
+                    log.error( "Cannot update KieContainer " + containerId + " to " + newReleaseId + ": " + results.filterMessages( Level.ERROR ) );
+                    return results;
+                }
+                newKBases.put( kBaseName, kBase );
+            }
+            lastUpdatePrebuildTime = elapsedMillis( start );
+
+            long swapStart = System.nanoTime();
+            Map<String, KieBase> oldKBases = kBases;
+            kProject = newProject;
+            kBases = newKBases;
+            containerReleaseId = newReleaseId;
+            lastUpdateApplyTime = elapsedMillis( swapStart );
+
+            // the configurations reference the classloader of the old project
+            sessionConfsCache.clear();
+            // stateless sessions are recreated on the new kbases, stateful ones stay on the version they have been created with
+            this.statelessKSessions.clear();
+            this.kSessions.entrySet().removeIf( ksession -> newProject.getKieSessionModel( ksession.getKey() ) == null );
+
+            if ( isMBeanOptionEnabled() ) {
+                for (KieBase kb : oldKBases.values()) {
+                    DroolsManagementAgent.getInstance().unregisterKnowledgeBase((InternalKnowledgeBase) kb);
+                }
+            }
+            newKBases.values().forEach( kb -> ( (InternalKnowledgeBase) kb ).initMBeans() );
+            return results;
+        }
+    }
+
+    private ClassLoader getPrebuildParentClassLoader(InternalKieModule newKM) {
+        ClassLoader currentClassLoader = kProject.getClassLoader();
+        InternalKieModule currentKM = ((KieModuleKieProject) kProject).getInternalKieModule();
+        // as in KieServices.newKieContainer() reuse the classloader of the new module unless a custom one has been provided
+        return currentClassLoader == currentKM.getModuleClassLoader() ? newKM.getModuleClassLoader() : currentClassLoader.getParent();
+    }
+
     private Results update(final InternalKieModule currentKM, final ReleaseId newReleaseId) {
         final InternalKieModule newKM = (InternalKieModule) kr.getKieModule( newReleaseId );
         return newKM == null ? null : update( currentKM, newKM );
     }
 
     private Results update( InternalKieModule currentKM, InternalKieModule newKM ) {
+        // serialized with the prebuilt updates, which replace the kProject and the kbases this one is modifying
+        synchronized (updateLock) {
+            long start = System.nanoTime();
+            try {
+                return incrementalUpdate( currentKM, newKM );
+            } finally {
+                lastUpdatePrebuildTime = 0;
+                lastUpdateApplyTime = elapsedMillis( start );
+            }
+        }
+    }
+
+    private Results incrementalUpdate( InternalKieModule currentKM, InternalKieModule newKM ) {
         final KieJarChangeSet cs = currentKM.getChanges( newKM );
         List<String> modifiedClassNames = getModifiedClasses(cs);
         final boolean modifyingUsedClass = isModifyingUsedClass( modifiedClassNames, getClassLoader() ) || isModifyingUsedFunction(cs);
@@ -428,19 +566,21 @@ public class KieContainerImpl
     }
 
     public KieBase getKieBase(String kBaseName) {
-        KieBase kBase = kBases.get( kBaseName );
+        Map<String, KieBase> currentKBases = kBases;
+        KieBase kBase = currentKBases.get( kBaseName );
         if ( kBase == null ) {
-            KieBaseModelImpl kBaseModel = getKieBaseModelImpl(kBaseName);
+            KieProject currentProject = kProject;
+            KieBaseModelImpl kBaseModel = getKieBaseModelImpl(currentProject, kBaseName);
             synchronized (kBaseModel) {
-                kBase = kBases.get( kBaseName );
+                kBase = currentKBases.get( kBaseName );
                 if ( kBase == null ) {
                     ResultsImpl msgs = new ResultsImpl();
-                    kBase = createKieBase(kBaseModel, kProject, msgs, null);
+                    kBase = createKieBase(kBaseModel, currentProject, msgs, null);
                     if (kBase == null) {
                         // build error, throw runtime exception
                         throw new RuntimeException("Error while creating KieBase" + msgs.filterMessages(Level.ERROR));
                     }
-                    kBases.put(kBaseName, kBase);
+                    currentKBases.put(kBaseName, kBase);
                 }
             }
         }
@@ -466,6 +606,14 @@ public class KieContainerImpl
     }
 
     private KieBase createKieBase(KieBaseModelImpl kBaseModel, KieProject kieProject, ResultsImpl messages, KieBaseConfiguration conf) {
+        InternalKnowledgeBase kBase = buildKieBase(kBaseModel, kieProject, messages, conf, containerReleaseId);
+        if ( kBase != null ) {
+            kBase.initMBeans();
+        }
+        return kBase;
+    }
+
+    private InternalKnowledgeBase buildKieBase(KieBaseModelImpl kBaseModel, KieProject kieProject, ResultsImpl messages, KieBaseConfiguration conf, ReleaseId resolvedReleaseId) {
         InternalKieModule kModule = kieProject.getKieModuleForKBase( kBaseModel.getName() );
         InternalKnowledgeBase kBase = kModule.createKieBase(kBaseModel, kieProject, messages, conf);
         kModule.afterKieBaseCreationUpdate(kBaseModel.getName(), kBase);
@@ -473,16 +621,19 @@ public class KieContainerImpl
         if ( kBase == null ) {
             return null;
         }
-        kBase.setResolvedReleaseId(containerReleaseId);
+        kBase.setResolvedReleaseId(resolvedReleaseId);
         kBase.setContainerId(containerId);
         kBase.setKieContainer(this);
-        kBase.initMBeans();
 
         return kBase;
     }
 
     private KieBaseModelImpl getKieBaseModelImpl(String kBaseName) {
-        KieBaseModelImpl kBaseModel = (KieBaseModelImpl) kProject.getKieBaseModel(kBaseName);
+        return getKieBaseModelImpl(kProject, kBaseName);
+    }
+
+    private KieBaseModelImpl getKieBaseModelImpl(KieProject kieProject, String kBaseName) {
+        KieBaseModelImpl kBaseModel = (KieBaseModelImpl) kieProject.getKieBaseModel(kBaseName);
         if (kBaseModel == null) {
             throw new RuntimeException( "The requested KieBase \"" + kBaseName + "\" does not exist" );
         }
@@ -25,7 +25,9 @@ import org.drools.compiler.builder.InternalKnowledgeBuilder;
 import org.drools.compiler.commons.jci.stores.ResourceStore;
 import org.drools.compiler.compiler.PackageRegistry;
 import org.drools.compiler.kproject.models.KieModuleModelImpl;
+import org.drools.core.definitions.InternalKnowledgePackage;
 import org.drools.core.factmodel.ClassDefinition;
+import org.drools.core.factmodel.traits.TraitRegistry;
 import org.drools.core.rule.JavaDialectRuntimeData;
 import org.drools.core.rule.KieModuleMetaInfo;
 import org.drools.core.rule.TypeDeclaration;
@@ -65,6 +67,7 @@ public class KieMetaInfoBuilder {
         Map<String, Set<String>> rulesPerPackage = new HashMap<>();
 
         KieModuleModel kieModuleModel = kModule.getKieModuleModel();
+        boolean precompileTraitProxies = isTraitProxiesPrecompilationEnabled( trgMfs );
         for ( String kieBaseName : kieModuleModel.getKieBaseModels().keySet() ) {
             KnowledgeBuilder kBuilder = kModule.getKnowledgeBuilderForKieBase( kieBaseName );
 
@@ -91,6 +94,10 @@ public class KieMetaInfoBuilder {
                     types.add( internalName );
                 }
 
+                if ( precompileTraitProxies ) {
+                    writeTraitProxies( (InternalKnowledgeBuilder) kBuilder, pkgRegistry.getPackage(), trgMfs );
+                }
+
                 Set<String> rules = rulesPerPackage.get( kPkg.getName() );
                 if( rules == null ) {
                     rules = new HashSet<>();
@@ -105,4 +112,17 @@ public class KieMetaInfoBuilder {
         }
         return new KieModuleMetaInfo(typeInfos, rulesPerPackage);
     }
+
+    protected boolean isTraitProxiesPrecompilationEnabled( ResourceStore trgMfs ) {
+        return trgMfs != null &&
+                Boolean.parseBoolean( kModule.getKieModuleModel().getConfigurationProperty( TraitRegistry.PRECOMPILE_PROXIES_PROPERTY ) );
+    }
+
+    protected void writeTraitProxies( InternalKnowledgeBuilder kBuilder, InternalKnowledgePackage pkg, ResourceStore trgMfs ) {
+        if ( pkg.hasTraitRegistry() ) {
+            for ( Map.Entry<String, byte[]> proxy : pkg.getTraitRegistry().generateProxyClasses( kBuilder.getRootClassLoader() ).entrySet() ) {
+                trgMfs.write( proxy.getKey(), proxy.getValue(), true );
+            }
+        }
+    }
 }
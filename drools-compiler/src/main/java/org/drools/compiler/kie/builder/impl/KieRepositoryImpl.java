@@ -244,6 +244,16 @@ public class KieRepositoryImpl
 
         public long getPollingInterval() { return 0; }
 
+        public long getLastScanTime() { return 0; }
+
+        public long getLastBuildTime() { return 0; }
+
+        public long getLastPrebuildTime() { return 0; }
+
+        public long getLastApplyTime() { return 0; }
+
+        public long getLastUpdateTime() { return 0; }
+
         public void addListener(KieScannerEventListener listener) { }
 
         public void removeListener(KieScannerEventListener listener) { }
@@ -22,9 +22,11 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.drools.core.base.CoreComponentsBuilder;
 import org.drools.core.common.AgendaGroupFactory;
@@ -110,6 +112,15 @@ import static org.drools.core.util.MemoryUtil.hasPermGen;
  * drools.declarativeAgendaEnabled =  &lt;true|false&gt; 
  * drools.permgenThreshold = &lt;1...n&gt;
  * drools.jittingThreshold = &lt;1...n&gt;
+ * drools.lazyAgendaGroupNetwork = &lt;true|false&gt;
+ * drools.versionedKieBase = &lt;true|false&gt;
+ * drools.fromResultsCache = &lt;true|false&gt;
+ * drools.sessionUpdateParallelism = &lt;1...n&gt;
+ * drools.compactFactClasses = &lt;comma separated list of class names&gt;
+ * drools.alphaNodeAdaptiveIndexing = &lt;true|false&gt;
+ * drools.jitProfileRecording = &lt;true|false&gt;
+ * drools.jitDispatcherSize = &lt;0...n&gt;
+ * drools.mvelStatementJitting = &lt;true|false&gt;
  * </pre>
  */
 public class RuleBaseConfiguration
@@ -177,6 +188,24 @@ public class RuleBaseConfiguration
 
     private int sessionPoolSize;
 
+    private boolean lazyAgendaGroupNetwork;
+
+    private boolean versionedKieBase;
+
+    private boolean fromResultsCache;
+
+    private int sessionUpdateParallelism;
+
+    private Set<String> compactFactClasses;
+
+    private boolean alphaNodeAdaptiveIndexing;
+
+    private boolean jitProfileRecording;
+
+    private int jitDispatcherSize;
+
+    private boolean mvelStatementJitting;
+
     private static class DefaultRuleBaseConfigurationHolder {
         private static final RuleBaseConfiguration defaultConf = new RuleBaseConfiguration();
     }
@@ -215,6 +244,15 @@ public class RuleBaseConfiguration
         out.writeBoolean(declarativeAgenda);
         out.writeObject(componentFactory);
         out.writeInt(sessionPoolSize);
+        out.writeBoolean(lazyAgendaGroupNetwork);
+        out.writeBoolean(versionedKieBase);
+        out.writeBoolean(fromResultsCache);
+        out.writeInt(sessionUpdateParallelism);
+        out.writeObject(compactFactClasses);
+        out.writeBoolean(alphaNodeAdaptiveIndexing);
+        out.writeBoolean(jitProfileRecording);
+        out.writeInt(jitDispatcherSize);
+        out.writeBoolean(mvelStatementJitting);
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -248,6 +286,15 @@ public class RuleBaseConfiguration
         declarativeAgenda = in.readBoolean();
         componentFactory = (KieComponentFactory) in.readObject();
         sessionPoolSize = in.readInt();
+        lazyAgendaGroupNetwork = in.readBoolean();
+        versionedKieBase = in.readBoolean();
+        fromResultsCache = in.readBoolean();
+        sessionUpdateParallelism = in.readInt();
+        compactFactClasses = (Set<String>) in.readObject();
+        alphaNodeAdaptiveIndexing = in.readBoolean();
+        jitProfileRecording = in.readBoolean();
+        jitDispatcherSize = in.readInt();
+        mvelStatementJitting = in.readBoolean();
     }
 
     /**
@@ -341,6 +388,24 @@ public class RuleBaseConfiguration
             setMBeansEnabled( MBeansOption.isEnabled(value));
         } else if ( name.equals( ClassLoaderCacheOption.PROPERTY_NAME ) ) {
             setClassLoaderCacheEnabled( StringUtils.isEmpty( value ) ? true : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.lazyAgendaGroupNetwork" ) ) {
+            setLazyAgendaGroupNetwork( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.versionedKieBase" ) ) {
+            setVersionedKieBase( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.fromResultsCache" ) ) {
+            setFromResultsCache( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.sessionUpdateParallelism" ) ) {
+            setSessionUpdateParallelism( StringUtils.isEmpty( value ) ? 1 : Integer.parseInt(value));
+        } else if ( name.equals( "drools.compactFactClasses" ) ) {
+            setCompactFactClasses( value );
+        } else if ( name.equals( "drools.alphaNodeAdaptiveIndexing" ) ) {
+            setAlphaNodeAdaptiveIndexing( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.jitProfileRecording" ) ) {
+            setJitProfileRecording( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.jitDispatcherSize" ) ) {
+            setJitDispatcherSize( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
+        } else if ( name.equals( "drools.mvelStatementJitting" ) ) {
+            setMvelStatementJitting( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
         }
     }
 
@@ -396,6 +461,24 @@ public class RuleBaseConfiguration
             return isMBeansEnabled() ? "enabled" : "disabled";
         } else if ( name.equals( ClassLoaderCacheOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isClassLoaderCacheEnabled() );
+        } else if ( name.equals( "drools.lazyAgendaGroupNetwork" ) ) {
+            return Boolean.toString( isLazyAgendaGroupNetwork() );
+        } else if ( name.equals( "drools.versionedKieBase" ) ) {
+            return Boolean.toString( isVersionedKieBase() );
+        } else if ( name.equals( "drools.fromResultsCache" ) ) {
+            return Boolean.toString( isFromResultsCache() );
+        } else if ( name.equals( "drools.sessionUpdateParallelism" ) ) {
+            return Integer.toString( getSessionUpdateParallelism() );
+        } else if ( name.equals( "drools.compactFactClasses" ) ) {
+            return String.join( ",", getCompactFactClasses() );
+        } else if ( name.equals( "drools.alphaNodeAdaptiveIndexing" ) ) {
+            return Boolean.toString( isAlphaNodeAdaptiveIndexing() );
+        } else if ( name.equals( "drools.jitProfileRecording" ) ) {
+            return Boolean.toString( isJitProfileRecording() );
+        } else if ( name.equals( "drools.jitDispatcherSize" ) ) {
+            return Integer.toString( getJitDispatcherSize() );
+        } else if ( name.equals( "drools.mvelStatementJitting" ) ) {
+            return Boolean.toString( isMvelStatementJitting() );
         }
 
         return null;
@@ -488,6 +571,24 @@ public class RuleBaseConfiguration
         
         setDeclarativeAgendaEnabled( Boolean.valueOf( this.chainedProperties.getProperty( DeclarativeAgendaOption.PROPERTY_NAME,
                                                                                           "false" ) ) );
+
+        setLazyAgendaGroupNetwork( Boolean.valueOf( this.chainedProperties.getProperty( "drools.lazyAgendaGroupNetwork", "false" ) ) );
+
+        setVersionedKieBase( Boolean.valueOf( this.chainedProperties.getProperty( "drools.versionedKieBase", "false" ) ) );
+
+        setFromResultsCache( Boolean.valueOf( this.chainedProperties.getProperty( "drools.fromResultsCache", "false" ) ) );
+
+        setSessionUpdateParallelism( Integer.parseInt( this.chainedProperties.getProperty( "drools.sessionUpdateParallelism", "1" ) ) );
+
+        setCompactFactClasses( this.chainedProperties.getProperty( "drools.compactFactClasses", "" ) );
+
+        setAlphaNodeAdaptiveIndexing( Boolean.valueOf( this.chainedProperties.getProperty( "drools.alphaNodeAdaptiveIndexing", "false" ) ) );
+
+        setJitProfileRecording( Boolean.valueOf( this.chainedProperties.getProperty( "drools.jitProfileRecording", "false" ) ) );
+
+        setJitDispatcherSize( Integer.parseInt( this.chainedProperties.getProperty( "drools.jitDispatcherSize", "0" ) ) );
+
+        setMvelStatementJitting( Boolean.valueOf( this.chainedProperties.getProperty( "drools.mvelStatementJitting", "false" ) ) );
     }
 
     /**
@@ -586,6 +687,48 @@ public class RuleBaseConfiguration
         this.jittingThreshold = jittingThreshold;
     }
 
+    public boolean isJitProfileRecording() {
+        return jitProfileRecording;
+    }
+
+    /**
+     * When enabled, the bytecode of the constraints jitted while the kbase runs is recorded in its jit profile,
+     * so that it can be stored in the kjar and loaded by the kbases created from it without waiting for the
+     * jitting threshold
+     */
+    public void setJitProfileRecording( boolean jitProfileRecording ) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.jitProfileRecording = jitProfileRecording;
+    }
+
+    public int getJitDispatcherSize() {
+        return jitDispatcherSize;
+    }
+
+    /**
+     * When greater than 1, the constraints reaching the jitting threshold together are jitted as methods of
+     * shared dispatcher classes, each one holding up to this number of constraints, instead of one class
+     * per constraint
+     */
+    public void setJitDispatcherSize( int jitDispatcherSize ) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.jitDispatcherSize = jitDispatcherSize;
+    }
+
+    public boolean isMvelStatementJitting() {
+        return mvelStatementJitting;
+    }
+
+    /**
+     * When enabled, the MVEL consequences, accumulate blocks and return value expressions executed more times than
+     * the jitting threshold are compiled again with the ASM accessor optimizer of MVEL. Disabled by default, so that
+     * these statements are always interpreted with the reflective optimizer
+     */
+    public void setMvelStatementJitting( boolean mvelStatementJitting ) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.mvelStatementJitting = mvelStatementJitting;
+    }
+
     public int getAlphaNodeHashingThreshold() {
         return this.alphaNodeHashingThreshold;
     }
@@ -604,6 +747,19 @@ public class RuleBaseConfiguration
         this.alphaNodeRangeIndexThreshold = alphaNodeRangeIndexThreshold;
     }
 
+    public boolean isAlphaNodeAdaptiveIndexing() {
+        return this.alphaNodeAdaptiveIndexing;
+    }
+
+    /**
+     * When enabled, the alpha nodes of the same field are hashed or range indexed according to the rate of the
+     * inserted facts and to the selectivity of their constraints, instead of only on the static thresholds
+     */
+    public void setAlphaNodeAdaptiveIndexing(final boolean alphaNodeAdaptiveIndexing) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.alphaNodeAdaptiveIndexing = alphaNodeAdaptiveIndexing;
+    }
+
     public int getSessionPoolSize() {
         return this.sessionPoolSize;
     }
@@ -613,6 +769,78 @@ public class RuleBaseConfiguration
         this.sessionPoolSize = sessionPoolSize;
     }
 
+    public boolean isLazyAgendaGroupNetwork() {
+        return this.lazyAgendaGroupNetwork;
+    }
+
+    public void setLazyAgendaGroupNetwork(final boolean lazyAgendaGroupNetwork) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.lazyAgendaGroupNetwork = lazyAgendaGroupNetwork;
+    }
+
+    public boolean isVersionedKieBase() {
+        return this.versionedKieBase;
+    }
+
+    public void setVersionedKieBase(final boolean versionedKieBase) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.versionedKieBase = versionedKieBase;
+    }
+
+    public boolean isFromResultsCache() {
+        return this.fromResultsCache;
+    }
+
+    /**
+     * When enabled, a from node reuses the results of its data provider for a left tuple until one of the facts it
+     * reads is modified, and evaluates it only once per input object in each network evaluation for many left tuples
+     * sharing the same input. It only applies to the froms whose results depend on their input facts alone, so not to
+     * the ones reading a global or invoking a method or a function
+     */
+    public void setFromResultsCache(final boolean fromResultsCache) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.fromResultsCache = fromResultsCache;
+    }
+
+    public int getSessionUpdateParallelism() {
+        return this.sessionUpdateParallelism;
+    }
+
+    /**
+     * The number of threads updating the memories of the existing sessions when a rule is added or removed.
+     * With the default of 1 the sessions are updated one after the other by the thread changing the kbase
+     */
+    public void setSessionUpdateParallelism(final int sessionUpdateParallelism) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        if ( sessionUpdateParallelism < 1 ) {
+            throw new IllegalArgumentException( "The session update parallelism must be positive: " + sessionUpdateParallelism );
+        }
+        this.sessionUpdateParallelism = sessionUpdateParallelism;
+    }
+
+    public Set<String> getCompactFactClasses() {
+        return this.compactFactClasses;
+    }
+
+    /**
+     * The names of the classes of the facts kept by the object store in a compact table, which allocates
+     * no entry for each fact, meant for large sets of long lived reference facts.
+     * It only saves memory in identity mode: in equality mode every fact of these classes is still put in the equality
+     * map shared by all the classes, which allocates an entry for each fact, so the per fact entry is not avoided there
+     */
+    public void setCompactFactClasses(final String compactFactClasses) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        Set<String> classes = new HashSet<String>();
+        if ( !StringUtils.isEmpty( compactFactClasses ) ) {
+            for ( String className : compactFactClasses.split( "," ) ) {
+                if ( !className.trim().isEmpty() ) {
+                    classes.add( className.trim() );
+                }
+            }
+        }
+        this.compactFactClasses = classes;
+    }
+
     public AssertBehaviour getAssertBehaviour() {
         return this.assertBehaviour;
     }
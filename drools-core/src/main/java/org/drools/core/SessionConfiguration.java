@@ -20,6 +20,7 @@ import java.io.Externalizable;
 import java.util.Map;
 import java.util.Properties;
 
+import org.drools.core.event.AsyncEventDispatcher;
 import org.drools.core.process.instance.WorkItemManagerFactory;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.impl.TimerJobFactoryManager;
@@ -45,6 +46,11 @@ import org.kie.internal.runtime.conf.ForceEagerActivationOption;
 
 public abstract class SessionConfiguration implements KieSessionConfiguration, Externalizable {
 
+    public static final String ASYNC_EVENT_DISPATCH_PROPERTY = "drools.asyncEventDispatch";
+    public static final String ASYNC_EVENT_BUFFER_SIZE_PROPERTY = "drools.asyncEventBufferSize";
+    public static final String ASYNC_EVENT_OVERFLOW_POLICY_PROPERTY = "drools.asyncEventOverflowPolicy";
+    public static final String IDLE_SEGMENT_RELEASE_TIME_PROPERTY = "drools.idleSegmentReleaseTime";
+
     public static SessionConfiguration newInstance() {
         return new SessionConfigurationImpl();
     }
@@ -101,6 +107,18 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
     public abstract QueryListenerOption getQueryListenerOption();
     public abstract void setQueryListenerOption( QueryListenerOption queryListener );
 
+    public abstract boolean isAsyncEventDispatch();
+    public abstract void setAsyncEventDispatch( boolean asyncEventDispatch );
+
+    public abstract int getAsyncEventBufferSize();
+    public abstract void setAsyncEventBufferSize( int asyncEventBufferSize );
+
+    public abstract AsyncEventDispatcher.OverflowPolicy getAsyncEventOverflowPolicy();
+    public abstract void setAsyncEventOverflowPolicy( AsyncEventDispatcher.OverflowPolicy asyncEventOverflowPolicy );
+
+    public abstract long getIdleSegmentReleaseTime();
+    public abstract void setIdleSegmentReleaseTime( long idleSegmentReleaseTime );
+
     public final <T extends KieSessionOption> void setOption(T option) {
         if ( option instanceof ClockTypeOption ) {
             setClockType( ClockType.resolveClockType( ((ClockTypeOption) option).getClockType() ) );
@@ -170,6 +188,14 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             setQueryListenerOption( QueryListenerOption.determineQueryListenerClassOption( property ) );
         } else if ( name.equals( BeliefSystemTypeOption.PROPERTY_NAME ) ) {
             setBeliefSystemType(StringUtils.isEmpty(value) ? BeliefSystemType.SIMPLE : BeliefSystemType.resolveBeliefSystemType(value));
+        } else if ( name.equals( ASYNC_EVENT_DISPATCH_PROPERTY ) ) {
+            setAsyncEventDispatch(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+        } else if ( name.equals( ASYNC_EVENT_BUFFER_SIZE_PROPERTY ) ) {
+            setAsyncEventBufferSize(StringUtils.isEmpty(value) ? AsyncEventDispatcher.DEFAULT_BUFFER_SIZE : Integer.parseInt(value));
+        } else if ( name.equals( ASYNC_EVENT_OVERFLOW_POLICY_PROPERTY ) ) {
+            setAsyncEventOverflowPolicy(AsyncEventDispatcher.OverflowPolicy.resolve(value));
+        } else if ( name.equals( IDLE_SEGMENT_RELEASE_TIME_PROPERTY ) ) {
+            setIdleSegmentReleaseTime(StringUtils.isEmpty(value) ? 0 : Long.parseLong(value));
         }
     }
 
@@ -189,6 +215,14 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             return getQueryListenerOption().getAsString();
         } else if ( name.equals( BeliefSystemTypeOption.PROPERTY_NAME ) ) {
             return getBeliefSystemType().getId();
+        } else if ( name.equals( ASYNC_EVENT_DISPATCH_PROPERTY ) ) {
+            return Boolean.toString(isAsyncEventDispatch());
+        } else if ( name.equals( ASYNC_EVENT_BUFFER_SIZE_PROPERTY ) ) {
+            return Integer.toString(getAsyncEventBufferSize());
+        } else if ( name.equals( ASYNC_EVENT_OVERFLOW_POLICY_PROPERTY ) ) {
+            return getAsyncEventOverflowPolicy().toString();
+        } else if ( name.equals( IDLE_SEGMENT_RELEASE_TIME_PROPERTY ) ) {
+            return Long.toString(getIdleSegmentReleaseTime());
         }
         return null;
     }
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Properties;
 
 import org.drools.core.base.CoreComponentsBuilder;
+import org.drools.core.event.AsyncEventDispatcher;
 import org.drools.core.process.instance.WorkItemManagerFactory;
 import org.drools.core.time.TimerService;
 import org.drools.core.util.ConfFileUtils;
@@ -61,6 +62,10 @@ import org.kie.internal.utils.ChainedProperties;
  * 
  * drools.keepReference = <true|false>
  * drools.clockType = <pseudo|realtime|heartbeat|implicit>
+ * drools.asyncEventDispatch = <true|false>
+ * drools.asyncEventBufferSize = <1...n>
+ * drools.asyncEventOverflowPolicy = <block|drop|synchronous>
+ * drools.idleSegmentReleaseTime = <0...n>
  */
 public class SessionConfigurationImpl extends SessionConfiguration {
 
@@ -89,6 +94,12 @@ public class SessionConfigurationImpl extends SessionConfiguration {
     
     private TimerJobFactoryType            timerJobFactoryType;
 
+    private boolean                        asyncEventDispatch;
+    private int                            asyncEventBufferSize;
+    private AsyncEventDispatcher.OverflowPolicy asyncEventOverflowPolicy;
+
+    private long                           idleSegmentReleaseTime;
+
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject( chainedProperties );
         out.writeBoolean(immutable);
@@ -168,6 +179,14 @@ public class SessionConfigurationImpl extends SessionConfiguration {
         setQueryListenerOption( QueryListenerOption.determineQueryListenerClassOption( getPropertyValue( QueryListenerOption.PROPERTY_NAME, QueryListenerOption.STANDARD.getAsString() ) ) );
 
         setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType( getPropertyValue( TimerJobFactoryOption.PROPERTY_NAME, TimerJobFactoryType.THREAD_SAFE_TRACKABLE.getId() ) ));
+
+        setAsyncEventDispatch( Boolean.valueOf( getPropertyValue( ASYNC_EVENT_DISPATCH_PROPERTY, "false" ) ) );
+
+        setAsyncEventBufferSize( Integer.parseInt( getPropertyValue( ASYNC_EVENT_BUFFER_SIZE_PROPERTY, "" + AsyncEventDispatcher.DEFAULT_BUFFER_SIZE ) ) );
+
+        setAsyncEventOverflowPolicy( AsyncEventDispatcher.OverflowPolicy.resolve( getPropertyValue( ASYNC_EVENT_OVERFLOW_POLICY_PROPERTY, AsyncEventDispatcher.OverflowPolicy.BLOCK.toString() ) ) );
+
+        setIdleSegmentReleaseTime( Long.parseLong( getPropertyValue( IDLE_SEGMENT_RELEASE_TIME_PROPERTY, "0" ) ) );
     }
 
     public SessionConfigurationImpl addDefaultProperties(Properties properties) {
@@ -435,4 +454,50 @@ public class SessionConfigurationImpl extends SessionConfiguration {
         checkCanChange();
         this.queryListener = queryListener;
     }
+
+    public boolean isAsyncEventDispatch() {
+        return this.asyncEventDispatch;
+    }
+
+    public void setAsyncEventDispatch( boolean asyncEventDispatch ) {
+        checkCanChange();
+        this.asyncEventDispatch = asyncEventDispatch;
+    }
+
+    public int getAsyncEventBufferSize() {
+        return this.asyncEventBufferSize;
+    }
+
+    public void setAsyncEventBufferSize( int asyncEventBufferSize ) {
+        checkCanChange();
+        if ( asyncEventBufferSize <= 0 ) {
+            throw new IllegalArgumentException( "The size of the event buffer must be positive" );
+        }
+        this.asyncEventBufferSize = asyncEventBufferSize;
+    }
+
+    public AsyncEventDispatcher.OverflowPolicy getAsyncEventOverflowPolicy() {
+        return this.asyncEventOverflowPolicy;
+    }
+
+    public void setAsyncEventOverflowPolicy( AsyncEventDispatcher.OverflowPolicy asyncEventOverflowPolicy ) {
+        checkCanChange();
+        this.asyncEventOverflowPolicy = asyncEventOverflowPolicy;
+    }
+
+    public long getIdleSegmentReleaseTime() {
+        return this.idleSegmentReleaseTime;
+    }
+
+    /**
+     * The time in milliseconds after which the memories of the unlinked and empty segments are released,
+     * or 0 to keep them for the whole life of the session
+     */
+    public void setIdleSegmentReleaseTime( long idleSegmentReleaseTime ) {
+        checkCanChange();
+        if ( idleSegmentReleaseTime < 0 ) {
+            throw new IllegalArgumentException( "The idle segment release time can't be negative" );
+        }
+        this.idleSegmentReleaseTime = idleSegmentReleaseTime;
+    }
 }
@@ -16,6 +16,9 @@
 
 package org.drools.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.ObjectStore;
@@ -54,6 +57,23 @@ public interface WorkingMemoryEntryPoint extends EntryPoint {
     FactHandle insert(Object object,
                       boolean dynamic);
 
+    /**
+     * Inserts all the given objects, with the same semantics of inserting them one by one in iteration order,
+     * but allowing the implementation to amortize the per-insert overhead over the whole collection.
+     *
+     * @param objects
+     *            The fact objects.
+     *
+     * @return The fact-handles associated with the objects, in the same order. Null objects have a null handle.
+     */
+    default List<FactHandle> insertAll(Collection<?> objects) {
+        List<FactHandle> handles = new ArrayList<>( objects.size() );
+        for ( Object object : objects ) {
+            handles.add( insert( object ) );
+        }
+        return handles;
+    }
+
     WorkingMemoryEntryPoint getWorkingMemoryEntryPoint(String name);
     
     /**
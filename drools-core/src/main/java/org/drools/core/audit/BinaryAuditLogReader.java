@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.thoughtworks.xstream.XStream;
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
+import org.drools.core.audit.event.RuleBaseLogEvent;
+import org.drools.core.audit.event.RuleFlowGroupLogEvent;
+import org.drools.core.audit.event.RuleFlowLogEvent;
+import org.drools.core.audit.event.RuleFlowNodeLogEvent;
+import org.drools.core.audit.event.RuleFlowVariableLogEvent;
+import org.drools.core.util.IoUtils;
+
+import static org.drools.core.audit.BinaryAuditLogWriter.ACTIVATION_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.FORMAT_VERSION;
+import static org.drools.core.audit.BinaryAuditLogWriter.HEADER_SIZE;
+import static org.drools.core.audit.BinaryAuditLogWriter.LOG_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.LONG_ID;
+import static org.drools.core.audit.BinaryAuditLogWriter.MAGIC;
+import static org.drools.core.audit.BinaryAuditLogWriter.NULL_ID;
+import static org.drools.core.audit.BinaryAuditLogWriter.OBJECT_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.RULEBASE_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.RULEFLOW_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.RULEFLOW_GROUP_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.RULEFLOW_NODE_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.RULEFLOW_VARIABLE_EVENT;
+import static org.drools.core.audit.BinaryAuditLogWriter.getSegmentFileName;
+import static org.kie.soup.xstream.XStreamUtils.createTrustingXStream;
+
+/**
+ * Reads back, one at a time and following the rolled over files, the events written by a {@link BinaryAuditLogWriter}.
+ * It can also convert a binary log into the XML format written by the {@link WorkingMemoryFileLogger}, so the
+ * existing consumers of that format, like the audit view, can still be used.
+ */
+public class BinaryAuditLogReader implements Closeable {
+
+    private final String fileName;
+
+    private final List<String> symbols = new ArrayList<>();
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private int segment = -1;
+
+    /**
+     * @param fileName the name of the log without extension, as passed to the {@link BinaryAuditLogWriter}
+     */
+    public BinaryAuditLogReader(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * @return the next event in the log, or null when all the events have been read
+     */
+    public LogEvent next() throws IOException {
+        while ( buffer == null || !hasRecord() ) {
+            if ( !openNextSegment() ) {
+                return null;
+            }
+        }
+        int size = buffer.getInt();
+        int end = buffer.position() + size;
+        LogEvent event = decode();
+        buffer.position( end );
+        return event;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        if ( channel != null ) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    public static List<LogEvent> readEvents(String fileName) throws IOException {
+        List<LogEvent> events = new ArrayList<>();
+        try (BinaryAuditLogReader reader = new BinaryAuditLogReader( fileName )) {
+            for ( LogEvent event = reader.next(); event != null; event = reader.next() ) {
+                events.add( event );
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Converts a binary log into a single XML log, as written by the {@link WorkingMemoryFileLogger}.
+     * The events are streamed in blocks, so the whole log is never loaded in memory.
+     *
+     * @param fileName the name of the binary log without extension
+     * @param xmlFileName the name of the XML log without extension, .log is automatically appended to it
+     */
+    public static void convertToXml(String fileName, String xmlFileName) throws IOException {
+        final XStream xstream = createTrustingXStream();
+        try (BinaryAuditLogReader reader = new BinaryAuditLogReader( fileName );
+             Writer writer = new OutputStreamWriter( new FileOutputStream( xmlFileName + ".log" ), IoUtils.UTF8_CHARSET )) {
+            writer.write( "<object-stream>\n" );
+            List<LogEvent> events = new ArrayList<>();
+            for ( LogEvent event = reader.next(); event != null; event = reader.next() ) {
+                events.add( event );
+                if ( events.size() == WorkingMemoryFileLogger.DEFAULT_MAX_EVENTS_IN_MEMORY ) {
+                    writer.write( xstream.toXML( new WorkingMemoryLog( events ) ) + "\n" );
+                    events = new ArrayList<>();
+                }
+            }
+            if ( !events.isEmpty() ) {
+                writer.write( xstream.toXML( new WorkingMemoryLog( events ) ) + "\n" );
+            }
+            writer.write( "</object-stream>\n" );
+        }
+    }
+
+    private boolean hasRecord() {
+        // the unused tail of a mapped file is filled with zeros
+        return buffer.remaining() >= 4 && buffer.getInt( buffer.position() ) > 0;
+    }
+
+    private boolean openNextSegment() throws IOException {
+        close();
+        File file = new File( getSegmentFileName( fileName, segment + 1 ) );
+        if ( !file.exists() ) {
+            return false;
+        }
+        segment++;
+        channel = FileChannel.open( file.toPath(), StandardOpenOption.READ );
+        buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        if ( buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC ) {
+            throw new IOException( "The file " + file + " is not a binary audit log" );
+        }
+        int version = buffer.getInt();
+        if ( version != FORMAT_VERSION ) {
+            throw new IOException( "Unsupported version " + version + " of the binary audit log " + file );
+        }
+        symbols.clear();
+        return true;
+    }
+
+    private LogEvent decode() throws IOException {
+        byte kind = buffer.get();
+        int type = (int) readUnsigned();
+        switch ( kind ) {
+            case LOG_EVENT:
+                return new LogEvent( type );
+            case OBJECT_EVENT:
+                return new ObjectLogEvent( type, readLong(), readString() );
+            case ACTIVATION_EVENT:
+                return new ActivationLogEvent( type, readString(), readSymbol(), readString(), readSymbol(), readString() );
+            case RULEBASE_EVENT:
+                return new RuleBaseLogEvent( type, readSymbol(), readSymbol() );
+            case RULEFLOW_GROUP_EVENT:
+                return new RuleFlowGroupLogEvent( type, readSymbol(), (int) readLong() );
+            case RULEFLOW_EVENT:
+                return new RuleFlowLogEvent( type, readSymbol(), readSymbol(), readProcessInstanceId() );
+            case RULEFLOW_NODE_EVENT: {
+                String processId = readSymbol();
+                String processName = readSymbol();
+                Object processInstanceId = readProcessInstanceId();
+                return new RuleFlowNodeLogEvent( type, readSymbol(), readSymbol(), readString(), processId, processName, processInstanceId );
+            }
+            case RULEFLOW_VARIABLE_EVENT: {
+                String processId = readSymbol();
+                String processName = readSymbol();
+                Object processInstanceId = readProcessInstanceId();
+                return new RuleFlowVariableLogEvent( type, readSymbol(), readString(), processId, processName, processInstanceId, readString() );
+            }
+            default:
+                throw new IOException( "Unknown event kind " + kind + " in the binary audit log " + getSegmentFileName( fileName, segment ) );
+        }
+    }
+
+    private Object readProcessInstanceId() {
+        switch ( buffer.get() ) {
+            case NULL_ID:
+                return null;
+            case LONG_ID:
+                return readLong();
+            default:
+                return readString();
+        }
+    }
+
+    private String readSymbol() {
+        int code = (int) readUnsigned();
+        if ( code == 0 ) {
+            return null;
+        }
+        if ( code == 1 ) {
+            String symbol = readString();
+            symbols.add( symbol );
+            return symbol;
+        }
+        return symbols.get( code - 2 );
+    }
+
+    private String readString() {
+        int length = (int) readUnsigned();
+        if ( length == 0 ) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        buffer.get( bytes );
+        return new String( bytes, IoUtils.UTF8_CHARSET );
+    }
+
+    private long readLong() {
+        long value = readUnsigned();
+        return ( value >>> 1 ) ^ -( value & 1 );
+    }
+
+    private long readUnsigned() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) ( b & 0x7F ) << shift;
+            shift += 7;
+        } while ( ( b & 0x80 ) != 0 );
+        return value;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
+import org.drools.core.audit.event.RuleBaseLogEvent;
+import org.drools.core.audit.event.RuleFlowGroupLogEvent;
+import org.drools.core.audit.event.RuleFlowLogEvent;
+import org.drools.core.audit.event.RuleFlowNodeLogEvent;
+import org.drools.core.audit.event.RuleFlowVariableLogEvent;
+import org.drools.core.util.IoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends log events to a set of memory-mapped files using a compact binary encoding.
+ *
+ * Every file (segment) starts with a small header followed by the records, each one prefixed by its length.
+ * Numbers are written as variable length integers and the names that are repeated over and over (rules,
+ * packages, processes, nodes ...) are written only once per segment and then referenced by index.
+ * Writing an event never performs any I/O: the record is copied into the mapped file and the operating system
+ * takes care of flushing it to disk. When a segment is full the log rolls over to the next file, named as
+ * the previous one followed by an increasing number (event.audit, event1.audit, event2.audit ...).
+ *
+ * The files can be read back, or converted to the XML format used by the {@link WorkingMemoryFileLogger},
+ * with the {@link BinaryAuditLogReader}.
+ */
+public class BinaryAuditLogWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger( BinaryAuditLogWriter.class );
+
+    public static final String FILE_EXTENSION = ".audit";
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int MAGIC = 0x44414C47;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    static final byte LOG_EVENT = 0;
+    static final byte OBJECT_EVENT = 1;
+    static final byte ACTIVATION_EVENT = 2;
+    static final byte RULEBASE_EVENT = 3;
+    static final byte RULEFLOW_GROUP_EVENT = 4;
+    static final byte RULEFLOW_EVENT = 5;
+    static final byte RULEFLOW_NODE_EVENT = 6;
+    static final byte RULEFLOW_VARIABLE_EVENT = 7;
+
+    static final byte NULL_ID = 0;
+    static final byte LONG_ID = 1;
+    static final byte STRING_ID = 2;
+
+    private final String fileName;
+    private final int segmentSize;
+
+    private final Map<String, Integer> symbols = new HashMap<>();
+    private byte[] record = new byte[256];
+    private int recordSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segment = -1;
+    private long writtenEvents;
+    private boolean closed;
+
+    public BinaryAuditLogWriter(String fileName) {
+        this( fileName, DEFAULT_SEGMENT_SIZE );
+    }
+
+    /**
+     * @param fileName the name of the log without extension, as in {@link WorkingMemoryFileLogger#setFileName(String)}
+     * @param segmentSize the size in bytes of each file before rolling over to the next one
+     */
+    public BinaryAuditLogWriter(String fileName, int segmentSize) {
+        if ( segmentSize <= HEADER_SIZE ) {
+            throw new IllegalArgumentException( "The size of an audit log file must be greater than " + HEADER_SIZE + " bytes" );
+        }
+        this.fileName = fileName;
+        this.segmentSize = segmentSize;
+    }
+
+    public static String getSegmentFileName(String fileName, int segment) {
+        return fileName + ( segment == 0 ? "" : segment ) + FILE_EXTENSION;
+    }
+
+    public synchronized void write(LogEvent event) {
+        if ( closed ) {
+            throw new IllegalStateException( "The audit log " + fileName + " has already been closed" );
+        }
+        try {
+            if ( buffer == null ) {
+                deleteSegmentsFrom( 0 );
+                openSegment( 0, 0 );
+            }
+            encode( event );
+            if ( buffer.remaining() < recordSize + 4 ) {
+                openSegment( segment + 1, recordSize + 4 );
+                // the symbols table is per segment, so the record has to be encoded again
+                encode( event );
+            }
+            // the length is written last, so a reader never sees a partially written record
+            int position = buffer.position();
+            buffer.position( position + 4 );
+            buffer.put( record, 0, recordSize );
+            buffer.putInt( position, recordSize );
+            writtenEvents++;
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException( "Could not create the log file.  Please make sure that directory that the log file should be placed in does exist." );
+        } catch (IOException e) {
+            throw new RuntimeException( "Could not write to the audit log " + getSegmentFileName( fileName, segment ), e );
+        }
+    }
+
+    /**
+     * Forces the events written so far to be stored on disk. This is not needed in order to read the log
+     * from the same machine and, being a blocking operation, should not be invoked by the engine thread.
+     */
+    public synchronized void flush() {
+        if ( buffer != null ) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if ( !closed ) {
+            closed = true;
+            closeSegment();
+        }
+    }
+
+    public synchronized long getWrittenEvents() {
+        return writtenEvents;
+    }
+
+    /**
+     * @return the number of files written so far
+     */
+    public synchronized int getSegments() {
+        return segment + 1;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    private void openSegment(int index, int minSize) throws IOException {
+        closeSegment();
+        File file = new File( getSegmentFileName( fileName, index ) );
+        channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                    StandardOpenOption.READ, StandardOpenOption.WRITE );
+        buffer = channel.map( FileChannel.MapMode.READ_WRITE, 0, Math.max( segmentSize, HEADER_SIZE + minSize ) );
+        buffer.putInt( MAGIC );
+        buffer.putInt( FORMAT_VERSION );
+        symbols.clear();
+        segment = index;
+    }
+
+    private void closeSegment() {
+        if ( channel == null ) {
+            return;
+        }
+        int size = buffer.position();
+        buffer = null;
+        try {
+            // some platforms don't allow to truncate a mapped file: the reader stops at the first empty record anyway
+            channel.truncate( size );
+        } catch (IOException e) {
+            logger.debug( "Unable to truncate the audit log " + getSegmentFileName( fileName, segment ), e );
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error( "Unable to close the audit log " + getSegmentFileName( fileName, segment ), e );
+        }
+        channel = null;
+    }
+
+    private void deleteSegmentsFrom(int index) {
+        // remove the files of a previous log with the same name, otherwise they would be read as part of this one
+        for ( File file = new File( getSegmentFileName( fileName, index ) ); file.exists(); file = new File( getSegmentFileName( fileName, ++index ) ) ) {
+            if ( !file.delete() ) {
+                logger.warn( "Unable to delete the old audit log " + file );
+            }
+        }
+    }
+
+    private void encode(LogEvent event) {
+        recordSize = 0;
+        if ( event instanceof RuleFlowNodeLogEvent ) {
+            RuleFlowNodeLogEvent nodeEvent = (RuleFlowNodeLogEvent) event;
+            writeHeader( RULEFLOW_NODE_EVENT, event );
+            writeRuleFlow( nodeEvent );
+            writeSymbol( nodeEvent.getNodeId() );
+            writeSymbol( nodeEvent.getNodeName() );
+            writeString( nodeEvent.getNodeInstanceId() );
+        } else if ( event instanceof RuleFlowVariableLogEvent ) {
+            RuleFlowVariableLogEvent variableEvent = (RuleFlowVariableLogEvent) event;
+            writeHeader( RULEFLOW_VARIABLE_EVENT, event );
+            writeRuleFlow( variableEvent );
+            writeSymbol( variableEvent.getVariableId() );
+            writeString( variableEvent.getVariableInstanceId() );
+            writeString( variableEvent.getObjectToString() );
+        } else if ( event instanceof RuleFlowLogEvent ) {
+            writeHeader( RULEFLOW_EVENT, event );
+            writeRuleFlow( (RuleFlowLogEvent) event );
+        } else if ( event instanceof ObjectLogEvent ) {
+            ObjectLogEvent objectEvent = (ObjectLogEvent) event;
+            writeHeader( OBJECT_EVENT, event );
+            writeLong( objectEvent.getFactId() );
+            writeString( objectEvent.getObjectToString() );
+        } else if ( event instanceof ActivationLogEvent ) {
+            ActivationLogEvent activationEvent = (ActivationLogEvent) event;
+            writeHeader( ACTIVATION_EVENT, event );
+            writeString( activationEvent.getActivationId() );
+            writeSymbol( activationEvent.getRule() );
+            writeString( activationEvent.getDeclarations() );
+            writeSymbol( activationEvent.getRuleFlowGroup() );
+            writeString( activationEvent.getFactHandleIds() );
+        } else if ( event instanceof RuleBaseLogEvent ) {
+            RuleBaseLogEvent ruleBaseEvent = (RuleBaseLogEvent) event;
+            writeHeader( RULEBASE_EVENT, event );
+            writeSymbol( ruleBaseEvent.getPackageName() );
+            writeSymbol( ruleBaseEvent.getRuleName() );
+        } else if ( event instanceof RuleFlowGroupLogEvent ) {
+            RuleFlowGroupLogEvent groupEvent = (RuleFlowGroupLogEvent) event;
+            writeHeader( RULEFLOW_GROUP_EVENT, event );
+            writeSymbol( groupEvent.getGroupName() );
+            writeLong( groupEvent.getSize() );
+        } else {
+            writeHeader( LOG_EVENT, event );
+        }
+    }
+
+    private void writeHeader(byte kind, LogEvent event) {
+        writeByte( kind );
+        writeUnsigned( event.getType() );
+    }
+
+    private void writeRuleFlow(RuleFlowLogEvent event) {
+        writeSymbol( event.getProcessId() );
+        writeSymbol( event.getProcessName() );
+        Object processInstanceId = event.getProcessInstanceId();
+        if ( processInstanceId == null ) {
+            writeByte( NULL_ID );
+        } else if ( processInstanceId instanceof Long ) {
+            writeByte( LONG_ID );
+            writeLong( (Long) processInstanceId );
+        } else {
+            writeByte( STRING_ID );
+            writeString( processInstanceId.toString() );
+        }
+    }
+
+    /**
+     * Writes a string that is likely to be repeated: 0 stands for null, 1 for a new symbol that follows
+     * and any other value for the index + 2 of a symbol already written in this segment.
+     */
+    private void writeSymbol(String value) {
+        if ( value == null ) {
+            writeUnsigned( 0 );
+            return;
+        }
+        Integer index = symbols.get( value );
+        if ( index != null ) {
+            writeUnsigned( index + 2 );
+        } else {
+            symbols.put( value, symbols.size() );
+            writeUnsigned( 1 );
+            writeString( value );
+        }
+    }
+
+    /**
+     * Writes the length + 1 of the string, or 0 when null, followed by its UTF-8 bytes
+     */
+    private void writeString(String value) {
+        if ( value == null ) {
+            writeUnsigned( 0 );
+        } else {
+            byte[] bytes = value.getBytes( IoUtils.UTF8_CHARSET );
+            writeUnsigned( bytes.length + 1 );
+            ensureCapacity( bytes.length );
+            System.arraycopy( bytes, 0, record, recordSize, bytes.length );
+            recordSize += bytes.length;
+        }
+    }
+
+    private void writeLong(long value) {
+        // zig-zag encoding, so small negative numbers stay small
+        writeUnsigned( ( value << 1 ) ^ ( value >> 63 ) );
+    }
+
+    private void writeUnsigned(long value) {
+        ensureCapacity( 10 );
+        while ( ( value & ~0x7FL ) != 0 ) {
+            record[recordSize++] = (byte) ( ( value & 0x7F ) | 0x80 );
+            value >>>= 7;
+        }
+        record[recordSize++] = (byte) value;
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity( 1 );
+        record[recordSize++] = value;
+    }
+
+    private void ensureCapacity(int length) {
+        if ( recordSize + length > record.length ) {
+            byte[] newRecord = new byte[Math.max( record.length * 2, recordSize + length )];
+            System.arraycopy( record, 0, newRecord, 0, recordSize );
+            record = newRecord;
+        }
+    }
+}
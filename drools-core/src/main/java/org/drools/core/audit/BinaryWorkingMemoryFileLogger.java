@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.audit.event.LogEvent;
+import org.kie.api.event.KieRuntimeEventManager;
+import org.kie.api.logger.KieRuntimeLogger;
+
+/**
+ * A logger of events generated by a working memory that, differently from the {@link WorkingMemoryFileLogger},
+ * doesn't keep the events in memory and doesn't serialize them to XML. Each event is immediately appended
+ * to a memory-mapped file in a compact binary format by a {@link BinaryAuditLogWriter}, rolling over to
+ * a new file when the current one reaches the maximum size.
+ *
+ * The log can be converted to the XML format with {@link BinaryAuditLogReader#convertToXml(String, String)}.
+ */
+public class BinaryWorkingMemoryFileLogger extends WorkingMemoryLogger implements KieRuntimeLogger {
+
+    private String               fileName    = "event";
+    private int                  maxFileSize = BinaryAuditLogWriter.DEFAULT_SEGMENT_SIZE;
+    private BinaryAuditLogWriter writer;
+
+    public BinaryWorkingMemoryFileLogger() {
+    }
+
+    public BinaryWorkingMemoryFileLogger(final WorkingMemory workingMemory) {
+        super( workingMemory );
+    }
+
+    public BinaryWorkingMemoryFileLogger(final KieRuntimeEventManager session) {
+        super( session );
+    }
+
+    /**
+     * Sets the name of the file the events are logged in. No extensions should
+     * be given since .audit is automatically appended to the file name.
+     * It has to be set before the first event is logged.
+     */
+    public void setFileName(final String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a log file, once reached the log continues on a new file.
+     * It has to be set before the first event is logged. The default is 64MB.
+     */
+    public void setMaxFileSize(final int maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public void logEventCreated(final LogEvent logEvent) {
+        getWriter().write( logEvent );
+    }
+
+    /**
+     * Forces the events logged so far to be stored on disk
+     */
+    public void flush() {
+        if ( writer != null ) {
+            writer.flush();
+        }
+    }
+
+    public long getLoggedEvents() {
+        return writer != null ? writer.getWrittenEvents() : 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        if ( writer != null ) {
+            writer.close();
+        }
+    }
+
+    private synchronized BinaryAuditLogWriter getWriter() {
+        if ( writer == null ) {
+            writer = new BinaryAuditLogWriter( fileName, maxFileSize );
+        }
+        return writer;
+    }
+}
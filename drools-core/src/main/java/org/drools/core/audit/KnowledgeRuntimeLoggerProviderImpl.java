@@ -55,6 +55,22 @@ public class KnowledgeRuntimeLoggerProviderImpl
         return registerRuntimeLogger(session, logger);
     }
 
+    public KieRuntimeLogger newBinaryFileLogger(KieRuntimeEventManager session,
+                                                String fileName) {
+        return newBinaryFileLogger(session, fileName, BinaryAuditLogWriter.DEFAULT_SEGMENT_SIZE);
+    }
+
+    public KieRuntimeLogger newBinaryFileLogger(KieRuntimeEventManager session,
+                                                String fileName,
+                                                int maxFileSize) {
+        BinaryWorkingMemoryFileLogger logger = new BinaryWorkingMemoryFileLogger( session );
+        logger.setMaxFileSize( maxFileSize );
+        if ( fileName != null ) {
+            logger.setFileName( fileName );
+        }
+        return registerRuntimeLogger(session, logger);
+    }
+
     public KieRuntimeLogger newConsoleLogger(KieRuntimeEventManager session) {
         WorkingMemoryConsoleLogger logger = new WorkingMemoryConsoleLogger( session );
         return registerRuntimeLogger(session, logger);
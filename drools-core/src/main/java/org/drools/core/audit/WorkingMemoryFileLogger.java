@@ -44,9 +44,9 @@ import static org.kie.soup.xstream.XStreamUtils.createTrustingXStream;
  * events logged serialized to XML using XStream. Every time a new logger is
  * created, the old event log will be overwritten.
  * 
- * TODO: make this class more scalable, for example - logging to several files
- * if log becomes too large - automatically write updates to file at certain
- * time intervals - ...
+ * For large logs consider the {@link BinaryWorkingMemoryFileLogger}, that
+ * appends the events to memory-mapped files in a compact binary format,
+ * rolling over to a new file when one becomes too large.
  */
 public class WorkingMemoryFileLogger extends WorkingMemoryLogger implements KieRuntimeLogger {
 
@@ -26,6 +26,7 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
+import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.command.IdentifiableResult;
 import org.drools.core.runtime.impl.ExecutionResultImpl;
 import org.drools.core.util.StringUtils;
@@ -89,8 +90,12 @@ public class InsertElementsCommand
             wmep = ksession.getEntryPoint( this.entryPoint );
         }
 
-        for ( Object object : objects ) {
-            handles.add( wmep.insert( object ) );
+        if ( wmep instanceof WorkingMemoryEntryPoint ) {
+            handles.addAll( ( (WorkingMemoryEntryPoint) wmep ).insertAll( objects ) );
+        } else {
+            for ( Object object : objects ) {
+                handles.add( wmep.insert( object ) );
+            }
         }
 
         if ( outIdentifier != null ) {
@@ -20,10 +20,12 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 
@@ -46,12 +48,15 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
     private boolean isEqualityBehaviour;
 
+    private Set<String> compactClasses = Collections.emptySet();
+
     private int size;
 
     public ClassAwareObjectStore() { }
 
     public ClassAwareObjectStore(RuleBaseConfiguration conf, Lock lock) {
         this(conf.getAssertBehaviour(), lock);
+        this.compactClasses = conf.getCompactFactClasses();
     }
 
     public ClassAwareObjectStore( RuleBaseConfiguration.AssertBehaviour assertBehaviour, Lock lock ) {
@@ -70,6 +75,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         out.writeObject(equalityMap);
         out.writeInt(size);
         out.writeBoolean(isEqualityBehaviour);
+        out.writeObject(compactClasses);
         out.writeObject(lock);
     }
 
@@ -80,6 +86,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         equalityMap = (ObjectHashMap) in.readObject();
         size = in.readInt();
         isEqualityBehaviour = in.readBoolean();
+        compactClasses = (Set<String>) in.readObject();
         lock = (Lock)in.readObject();
     }
 
@@ -127,8 +134,8 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
             }
 
             return handle.isNegated() ?
-                   (InternalFactHandle) ((ConcreteClassStore) store).getNegMap().get(handle) :
-                   (InternalFactHandle) ((ConcreteClassStore) store).getIdentityMap().get(handle);
+                   ((ConcreteClassStore) store).getNegatedHandle(handle) :
+                   ((ConcreteClassStore) store).getIdentityHandle(handle);
         }
 
         if (isEqualityBehaviour) {
@@ -136,9 +143,9 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
 
         for (ConcreteClassStore stores : concreteStores) {
-            Object reconnectedHandle = stores.getAssertMap().get(handle);
+            InternalFactHandle reconnectedHandle = stores.getAssertedHandle(handle);
             if (reconnectedHandle != null) {
-                return (InternalFactHandle) reconnectedHandle;
+                return reconnectedHandle;
             }
         }
 
@@ -153,12 +160,12 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
         return isEqualityBehaviour ?
                (InternalFactHandle) equalityMap.get(object) :
-               (InternalFactHandle) getOrCreateConcreteClassStore(object).getAssertMap().get(object);
+               getOrCreateConcreteClassStore(object).getAssertedHandle(object);
     }
 
     @Override
     public InternalFactHandle getHandleForObjectIdentity(Object object) {
-        return (InternalFactHandle) getOrCreateConcreteClassStore(object).getIdentityMap().get(object);
+        return getOrCreateConcreteClassStore(object).getIdentityHandle(object);
     }
 
     @Override
@@ -285,7 +292,12 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
     }
 
     private SingleClassStore createClassStoreAndAddConcreteSubStores(Class<?> clazz) {
-        SingleClassStore newStore = isEqualityBehaviour ? new ConcreteEqualityClassStore(clazz, equalityMap) : new ConcreteIdentityClassStore(clazz);
+        SingleClassStore newStore;
+        if (compactClasses.contains(clazz.getName())) {
+            newStore = new CompactClassStore(clazz, equalityMap);
+        } else {
+            newStore = isEqualityBehaviour ? new ConcreteEqualityClassStore(clazz, equalityMap) : new ConcreteIdentityClassStore(clazz);
+        }
         for (SingleClassStore classStore : storesMap.values()) {
             if (classStore.isConcrete() && clazz.isAssignableFrom(classStore.getStoredClass())) {
                 newStore.addConcreteStore(((ConcreteClassStore) classStore));
@@ -355,9 +367,11 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         boolean addHandle(InternalFactHandle handle, Object object);
         InternalFactHandle removeHandle(InternalFactHandle handle);
 
-        ObjectHashMap getAssertMap();
-        ObjectHashMap getIdentityMap();
-        ObjectHashMap getNegMap();
+        InternalFactHandle getAssertedHandle(Object key);
+        InternalFactHandle getIdentityHandle(Object key);
+        InternalFactHandle getNegatedHandle(InternalFactHandle handle);
+
+        Iterator<InternalFactHandle> storedHandlesIterator(boolean assrt);
     }
 
     private static class ConcreteIdentityClassStore extends AbstractClassStore implements ConcreteClassStore {
@@ -391,17 +405,28 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
 
         @Override
-        public ObjectHashMap getAssertMap() {
-            return identityMap;
+        public InternalFactHandle getAssertedHandle(Object key) {
+            return (InternalFactHandle) getAssertMap().get(key);
+        }
+
+        @Override
+        public InternalFactHandle getIdentityHandle(Object key) {
+            return (InternalFactHandle) identityMap.get(key);
         }
 
         @Override
-        public ObjectHashMap getNegMap() {
-            return negMap;
+        public InternalFactHandle getNegatedHandle(InternalFactHandle handle) {
+            return (InternalFactHandle) negMap.get(handle);
         }
 
         @Override
-        public ObjectHashMap getIdentityMap() {
+        public Iterator<InternalFactHandle> storedHandlesIterator(boolean assrt) {
+            HashTableIterator iterator = new HashTableIterator( assrt ? identityMap : negMap );
+            iterator.reset();
+            return new JavaIteratorAdapter<InternalFactHandle>( iterator, JavaIteratorAdapter.FACT_HANDLE );
+        }
+
+        protected ObjectHashMap getAssertMap() {
             return identityMap;
         }
 
@@ -459,7 +484,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
 
         @Override
-        public ObjectHashMap getAssertMap() {
+        protected ObjectHashMap getAssertMap() {
             return equalityMap;
         }
 
@@ -476,6 +501,124 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
     }
 
+    /**
+     * A store for the facts of a class designated with the drools.compactFactClasses option. It allocates no entry
+     * for each fact, since its handles are indexed by a {@link CompactFactHandleTable} made of primitive arrays.
+     * In equality mode the facts are also added to the equality map shared by all the stores, which has to find
+     * equal facts of any class, so in that mode an entry is still allocated for each fact.
+     */
+    private static class CompactClassStore extends AbstractClassStore implements ConcreteClassStore {
+
+        private static final IdentityAssertMapComparator IDENTITY_COMPARATOR = new IdentityAssertMapComparator();
+
+        private transient CompactFactHandleTable identityTable;
+
+        private ObjectHashMap negMap;
+
+        private ObjectHashMap equalityMap;
+
+        public CompactClassStore() { }
+
+        public CompactClassStore(Class<?> storedClass, ObjectHashMap equalityMap) {
+            super(storedClass);
+            this.equalityMap = equalityMap;
+        }
+
+        @Override
+        public boolean addHandle(InternalFactHandle handle, Object object) {
+            if ( handle.isNegated() ) {
+                negMap.put(handle, handle, false);
+                return false;
+            }
+            if (equalityMap != null) {
+                equalityMap.put(handle, handle, false);
+            }
+            return identityTable.add(handle);
+        }
+
+        @Override
+        public InternalFactHandle removeHandle(InternalFactHandle handle) {
+            if ( handle.isNegated() ) {
+                negMap.remove(handle);
+                return null;
+            }
+            if (equalityMap != null) {
+                equalityMap.remove(handle);
+            }
+            return identityTable.remove(handle);
+        }
+
+        @Override
+        public InternalFactHandle getAssertedHandle(Object key) {
+            return equalityMap != null ? (InternalFactHandle) equalityMap.get(key) : getIdentityHandle(key);
+        }
+
+        @Override
+        public InternalFactHandle getIdentityHandle(Object key) {
+            return key instanceof InternalFactHandle ?
+                   identityTable.get((InternalFactHandle) key) :
+                   identityTable.getByObject(key, IDENTITY_COMPARATOR);
+        }
+
+        @Override
+        public InternalFactHandle getNegatedHandle(InternalFactHandle handle) {
+            return (InternalFactHandle) negMap.get(handle);
+        }
+
+        @Override
+        public Iterator<InternalFactHandle> storedHandlesIterator(boolean assrt) {
+            if (assrt) {
+                return identityTable.iterator();
+            }
+            HashTableIterator iterator = new HashTableIterator( negMap );
+            iterator.reset();
+            return new JavaIteratorAdapter<InternalFactHandle>( iterator, JavaIteratorAdapter.FACT_HANDLE );
+        }
+
+        @Override
+        public boolean isConcrete() {
+            return identityTable != null;
+        }
+
+        @Override
+        public ConcreteClassStore makeConcrete() {
+            negMap = new ObjectHashMap();
+            identityTable = new CompactFactHandleTable();
+            return this;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            super.writeExternal(out);
+            out.writeObject(negMap);
+            out.writeObject(equalityMap);
+            out.writeBoolean(isConcrete());
+            if (isConcrete()) {
+                out.writeInt(identityTable.size());
+                for (Iterator<InternalFactHandle> it = identityTable.iterator(); it.hasNext(); ) {
+                    out.writeObject(it.next());
+                }
+            }
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            super.readExternal(in);
+            negMap = (ObjectHashMap)in.readObject();
+            equalityMap = (ObjectHashMap)in.readObject();
+            if (in.readBoolean()) {
+                identityTable = new CompactFactHandleTable();
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    InternalFactHandle handle = (InternalFactHandle) in.readObject();
+                    // the identity hash code kept by the handle is the one of the object before it was serialized
+                    handle.setObject(handle.getObject());
+                    identityTable.add(handle);
+                }
+            }
+        }
+    }
+
     private static abstract class AbstractCompositeIterator<T> implements Iterator<T> {
         protected final Iterator<ConcreteClassStore> stores;
         protected final boolean assrt;
@@ -553,11 +696,18 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
         @Override
         protected void fetchNextIterator() {
-            HashTableIterator iterator = assrt ?
-                                         new HashTableIterator( stores.next().getIdentityMap() ) :
-                                         new HashTableIterator( stores.next().getNegMap() );
-            iterator.reset();
-            currentIterator = new JavaIteratorAdapter<Object>( iterator, JavaIteratorAdapter.OBJECT );
+            Iterator<InternalFactHandle> handles = stores.next().storedHandlesIterator(assrt);
+            currentIterator = new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return handles.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return handles.next().getObject();
+                }
+            };
         }
 
         @Override
@@ -577,11 +727,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
         @Override
         protected void fetchNextIterator() {
-            HashTableIterator iterator = assrt ?
-                                         new HashTableIterator( stores.next().getIdentityMap() ) :
-                                         new HashTableIterator( stores.next().getNegMap() );
-            iterator.reset();
-            currentIterator = new JavaIteratorAdapter<InternalFactHandle>( iterator, JavaIteratorAdapter.FACT_HANDLE );
+            currentIterator = stores.next().storedHandlesIterator(assrt);
         }
 
         @Override
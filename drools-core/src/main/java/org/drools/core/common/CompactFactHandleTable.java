@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.drools.core.util.AbstractHashTable;
+
+/**
+ * An identity table of fact handles allocating no object for each fact.
+ *
+ * The handles are kept in a dense array, while the open addressing index from the identity hash code of the
+ * facts to the position of their handles is made of parallel primitive arrays. Each bucket of the index holds
+ * the id of the handle, so the lookups by handle never dereference the handles, and its identity hash code,
+ * so the lookups by object only dereference the handles with the same hash.
+ */
+public class CompactFactHandleTable {
+
+    private static final int MIN_CAPACITY = 1 << 6;
+
+    // the buckets of the index, an empty bucket has position 0 so the positions are stored incremented by 1
+    private long[] ids;
+    private int[] hashes;
+    private int[] positions;
+    private int capacity;
+
+    private InternalFactHandle[] handles;
+    private int size;
+
+    public CompactFactHandleTable() {
+        this.handles = new InternalFactHandle[MIN_CAPACITY / 2];
+        allocate( MIN_CAPACITY );
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean add( InternalFactHandle handle ) {
+        int hash = hashOf( handle.getIdentityHashCode() );
+        if ( findBucket( hash, handle.getId() ) >= 0 ) {
+            return false;
+        }
+        if ( size == handles.length ) {
+            handles = Arrays.copyOf( handles, size * 2 );
+        }
+        if ( size >= capacity / 2 ) {
+            resize( capacity * 2 );
+        }
+        handles[size] = handle;
+        insertBucket( hash, handle.getId(), size );
+        size++;
+        return true;
+    }
+
+    public InternalFactHandle remove( InternalFactHandle handle ) {
+        int bucket = findBucket( hashOf( handle.getIdentityHashCode() ), handle.getId() );
+        if ( bucket < 0 ) {
+            return null;
+        }
+        int position = positions[bucket] - 1;
+        InternalFactHandle removed = handles[position];
+        deleteBucket( bucket );
+
+        // fills the hole with the last handle, so the array stays dense
+        int last = --size;
+        if ( position != last ) {
+            InternalFactHandle moved = handles[last];
+            handles[position] = moved;
+            positions[findBucket( hashOf( moved.getIdentityHashCode() ), moved.getId() )] = position + 1;
+        }
+        handles[last] = null;
+        return removed;
+    }
+
+    public InternalFactHandle get( InternalFactHandle handle ) {
+        int bucket = findBucket( hashOf( handle.getIdentityHashCode() ), handle.getId() );
+        return bucket < 0 ? null : handles[positions[bucket] - 1];
+    }
+
+    public InternalFactHandle getByObject( Object object, IdentityAssertMapComparator comparator ) {
+        int hash = hashOf( System.identityHashCode( object ) );
+        for ( int bucket = hash & ( capacity - 1 ); positions[bucket] != 0; bucket = ( bucket + 1 ) & ( capacity - 1 ) ) {
+            InternalFactHandle handle = handles[positions[bucket] - 1];
+            if ( hashes[bucket] == hash && comparator.areEqual( object, handle ) ) {
+                return handle;
+            }
+        }
+        return null;
+    }
+
+    public Iterator<InternalFactHandle> iterator() {
+        return new Iterator<InternalFactHandle>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public InternalFactHandle next() {
+                if ( next >= size ) {
+                    throw new NoSuchElementException();
+                }
+                return handles[next++];
+            }
+        };
+    }
+
+    public void clear() {
+        Arrays.fill( handles, 0, size, null );
+        size = 0;
+        allocate( MIN_CAPACITY );
+    }
+
+    private static int hashOf( int identityHashCode ) {
+        return AbstractHashTable.rehash( identityHashCode );
+    }
+
+    private int findBucket( int hash, long id ) {
+        for ( int bucket = hash & ( capacity - 1 ); positions[bucket] != 0; bucket = ( bucket + 1 ) & ( capacity - 1 ) ) {
+            if ( ids[bucket] == id ) {
+                return bucket;
+            }
+        }
+        return -1;
+    }
+
+    private void insertBucket( int hash, long id, int position ) {
+        int bucket = hash & ( capacity - 1 );
+        while ( positions[bucket] != 0 ) {
+            bucket = ( bucket + 1 ) & ( capacity - 1 );
+        }
+        ids[bucket] = id;
+        hashes[bucket] = hash;
+        positions[bucket] = position + 1;
+    }
+
+    /**
+     * Removes a bucket shifting back the following ones of the same probe sequence, so that
+     * no tombstone is needed and the lookups can stop at the first empty bucket
+     */
+    private void deleteBucket( int bucket ) {
+        int hole = bucket;
+        for ( int next = ( hole + 1 ) & ( capacity - 1 ); positions[next] != 0; next = ( next + 1 ) & ( capacity - 1 ) ) {
+            int home = hashes[next] & ( capacity - 1 );
+            // the bucket can fill the hole only if its home doesn't lie cyclically in (hole, next]
+            boolean movable = hole <= next ? ( home <= hole || home > next ) : ( home <= hole && home > next );
+            if ( movable ) {
+                ids[hole] = ids[next];
+                hashes[hole] = hashes[next];
+                positions[hole] = positions[next];
+                hole = next;
+            }
+        }
+        positions[hole] = 0;
+    }
+
+    private void resize( int newCapacity ) {
+        allocate( newCapacity );
+        for ( int i = 0; i < size; i++ ) {
+            InternalFactHandle handle = handles[i];
+            insertBucket( hashOf( handle.getIdentityHashCode() ), handle.getId(), i );
+        }
+    }
+
+    private void allocate( int newCapacity ) {
+        this.ids = new long[newCapacity];
+        this.hashes = new int[newCapacity];
+        this.positions = new int[newCapacity];
+        this.capacity = newCapacity;
+    }
+}
@@ -311,6 +311,11 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
         }
     }
 
+    @Override
+    public void resetNetworkState() {
+        throw new UnsupportedOperationException( "org.drools.core.common.CompositeDefaultAgenda.resetNetworkState -> TODO" );
+    }
+
     @Override
     public void executeTask( ExecutableEntry executable ) {
         agendas[0].executeTask( executable );
@@ -430,6 +430,9 @@ public class DefaultAgenda
     public boolean setFocus(final AgendaGroup agendaGroup) {
         // Set the focus to the agendaGroup if it doesn't already have the focus
         if ( this.focusStack.getLast() != agendaGroup ) {
+            if ( this.workingMemory != null ) {
+                this.workingMemory.getKnowledgeBase().buildLazyNetwork( agendaGroup.getName() );
+            }
             ((InternalAgendaGroup) this.focusStack.getLast()).setActive( false );
             this.focusStack.add( agendaGroup );
             InternalAgendaGroup igroup = (InternalAgendaGroup) agendaGroup;
@@ -496,7 +499,8 @@ public class DefaultAgenda
             final boolean empty = agendaGroup.isEmpty();
 
             // No populated queues found so pop the focusStack and repeat
-            if ( empty && (this.focusStack.size() > 1) ) {
+            // unless the group is still waiting for its network to be built
+            if ( empty && (this.focusStack.size() > 1) && !isLazyNetworkPending( agendaGroup ) ) {
                 agendaGroup.setActive( false );
                 removeLast();
 
@@ -526,6 +530,10 @@ public class DefaultAgenda
         return agendaGroup;
     }
 
+    private boolean isLazyNetworkPending( InternalAgendaGroup agendaGroup ) {
+        return this.workingMemory.getKnowledgeBase().isLazyNetworkPending( agendaGroup.getName() );
+    }
+
     private void removeLast() {
         ( (InternalAgendaGroup) this.focusStack.removeLast() ).visited();
     }
@@ -748,6 +756,19 @@ public class DefaultAgenda
         propagationList.reset();
     }
 
+    @Override
+    public void resetNetworkState() {
+        for ( InternalAgendaGroup group : this.agendaGroups.values() ) {
+            group.reset();
+        }
+        for ( InternalActivationGroup group : this.activationGroups.values() ) {
+            group.reset();
+        }
+        eager.clear();
+        queries.clear();
+        activationObjectTypeConf = null;
+    }
+
     @Override
     public void clearAndCancel() {
         // Cancel all items and fire a Cancelled event for each Activation
@@ -1102,6 +1123,8 @@ public class DefaultAgenda
                     break;
                 }
 
+                workingMemory.onFireLoopSafePoint();
+
                 evaluateEagerList();
                 InternalAgendaGroup group = getNextFocus();
                 if ( group != null && !limitReached ) {
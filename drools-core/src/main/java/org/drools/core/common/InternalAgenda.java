@@ -212,6 +212,13 @@ public interface InternalAgenda
 
     void reset();
 
+    /**
+     * Drops the rule agenda items, the queued matches and the cached configurations referring to the nodes
+     * of the network this agenda has been evaluated on so far, keeping the focus stack, the agenda groups
+     * and the state of the execution. It is used when the session moves to another version of its kbase.
+     */
+    void resetNetworkState();
+
     AgendaGroup getAgendaGroup(String name);
 
     AgendaGroup getAgendaGroup(final String name,
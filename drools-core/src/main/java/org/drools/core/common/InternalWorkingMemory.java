@@ -210,6 +210,12 @@ public interface InternalWorkingMemory
     default void onSuspend() { }
     default void onResume() { }
 
+    /**
+     * Called by the agenda on the thread firing the rules, once the pending propagations have been flushed
+     * and before evaluating the next rule: no network evaluation nor consequence is in progress at this point.
+     */
+    default void onFireLoopSafePoint() { }
+
     default KnowledgeHelper createKnowledgeHelper() {
         return new DefaultKnowledgeHelper<>( this );
     }
@@ -24,6 +24,9 @@ import org.drools.core.reteoo.EvalConditionNode;
 import org.drools.core.reteoo.ExistsNode;
 import org.drools.core.reteoo.FromNode;
 import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.GroupByNode;
+import org.drools.core.reteoo.GroupByNode.GroupByContext;
+import org.drools.core.reteoo.GroupByNode.GroupContext;
 import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.LeftTuple;
@@ -76,6 +79,11 @@ public class LeftTupleIterator
     public LeftTuple getFirstLeftTuple(LeftTupleSource source,
                                        LeftTupleSink sink,
                                        InternalWorkingMemory wm) {
+        if ( source instanceof GroupByNode ) {
+            BetaMemory memory = ((AccumulateMemory) wm.getNodeMemory( (MemoryFactory) source )).getBetaMemory();
+            FastIterator localIt = memory.getLeftTupleMemory().fullFastIterator();
+            return getNextGroupResultLeftTuple( localIt, BetaNode.getFirstTuple( memory.getLeftTupleMemory(), localIt ), null );
+        }
         if ( source instanceof AccumulateNode ) {
             AccumulateMemory accmem = (AccumulateMemory) wm.getNodeMemory( (MemoryFactory) source );
             BetaMemory memory = accmem.getBetaMemory();
@@ -168,6 +176,31 @@ public class LeftTupleIterator
         return null;
     }
 
+    /**
+     * Returns the result tuple of the first propagated group following the given one, starting from the groups
+     * of the given left tuple and moving to the next left tuples of the group by node when they are exhausted.
+     */
+    private static LeftTuple getNextGroupResultLeftTuple(FastIterator localIt,
+                                                         Tuple leftTuple,
+                                                         LeftTuple previousResult) {
+        for ( ; leftTuple != null; leftTuple = (Tuple) localIt.next( leftTuple ) ) {
+            if ( leftTuple.getContextObject() instanceof GroupByContext ) {
+                boolean found = previousResult == null;
+                for ( GroupContext group : ((GroupByContext) leftTuple.getContextObject()).getGroups() ) {
+                    if ( found ) {
+                        if ( group.propagated ) {
+                            return group.getResultLeftTuple();
+                        }
+                    } else if ( group.getResultLeftTuple() == previousResult ) {
+                        found = true;
+                    }
+                }
+            }
+            previousResult = null;
+        }
+        return null;
+    }
+
     public LeftTuple getNextLeftTuple(LeftTupleSource source,
                                       LeftTupleSink sink,
                                       LeftTuple leftTuple,
@@ -218,6 +251,12 @@ public class LeftTupleIterator
             // We've exhausted this OTN so set the iterator to null
             otnIterator = null;
 
+        } else if ( source instanceof GroupByNode ) {
+            // the result tuples of the groups are not linked to their parent, so they are found through its context
+            BetaMemory memory = ((AccumulateMemory) wm.getNodeMemory( (MemoryFactory) source )).getBetaMemory();
+            FastIterator localIt = memory.getLeftTupleMemory().fullFastIterator( leftTuple.getParent() );
+            return getNextGroupResultLeftTuple( localIt, leftTuple.getParent(), leftTuple );
+
         } else if ( source instanceof AccumulateNode ) {
             // when using phreak, accumulate result tuples will not link to leftParent, but to parent instead 
             BetaMemory memory = ((AccumulateMemory) wm.getNodeMemory( (MemoryFactory) source )).getBetaMemory();
@@ -20,9 +20,14 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -32,6 +37,7 @@ import org.drools.core.base.TraitDisabledHelper;
 import org.drools.core.base.TraitHelper;
 import org.drools.core.beliefsystem.BeliefSet;
 import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.facttemplates.Fact;
 import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl.ObjectStoreWrapper;
@@ -148,6 +154,16 @@ public class NamedEntryPoint
         return this.entryPointNode;
     }
 
+    /**
+     * Binds this entry point to the node of the same entry point in another version of the kbase, keeping its
+     * object store and then its fact handles. The caller must hold the lock of this entry point.
+     */
+    public void rebind(InternalKnowledgeBase kBase, EntryPointNode entryPointNode) {
+        this.kBase = kBase;
+        this.entryPointNode = entryPointNode;
+        this.pctxFactory = kBase.getConfiguration().getComponentFactory().getPropagationContextFactory();
+    }
+
     public FactHandleFactory getHandleFactory() {
         return handleFactory;
     }
@@ -179,8 +195,6 @@ public class NamedEntryPoint
         try {
             this.wm.startOperation();
 
-            ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getObjectTypeConf( this.entryPoint, object );
-
             final PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.wm.getNextPropagationIdCounter(),
                                                                                                     PropagationContext.Type.INSERTION,
                                                                                                     rule,
@@ -188,6 +202,7 @@ public class NamedEntryPoint
                                                                                                     null,
                                                                                                     entryPoint);
             if ( this.wm.isSequential() ) {
+                ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getObjectTypeConf( this.entryPoint, object );
                 InternalFactHandle handle = createHandle( object, typeConf );
                 propagationContext.setFactHandle(handle);
                 insert( handle,
@@ -202,6 +217,9 @@ public class NamedEntryPoint
             try {
                 this.lock.lock();
 
+                // resolved under the lock, since a session on a versioned kbase can rebind its entry points to another network
+                ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getObjectTypeConf( this.entryPoint, object );
+
                 // check if the object already exists in the WM
                 handle = this.objectStore.getHandleForObject( object );
 
@@ -264,6 +282,80 @@ public class NamedEntryPoint
 
     }
 
+    @Override
+    public List<FactHandle> insertAll(Collection<?> objects) {
+        List<FactHandle> result = new ArrayList<>( objects.size() );
+        if ( this.wm.isSequential() ) {
+            for ( Object object : objects ) {
+                result.add( insert( object ) );
+            }
+            return result;
+        }
+
+        try {
+            this.wm.startOperation();
+            this.kBase.executeQueuedActions();
+
+            // the type conf is resolved only once per class, the registry is keyed by class for all non template facts
+            Map<Class<?>, ObjectTypeConf> typeConfs = new IdentityHashMap<>();
+            InternalFactHandle[] handles = new InternalFactHandle[objects.size()];
+            PropagationContext[] contexts = new PropagationContext[objects.size()];
+            ObjectTypeConf[] confs = new ObjectTypeConf[objects.size()];
+            int batchSize = 0;
+
+            try {
+                this.lock.lock();
+
+                for ( Object object : objects ) {
+                    if ( object == null ) {
+                        result.add( null );
+                        continue;
+                    }
+
+                    ObjectTypeConf typeConf = object instanceof Fact ?
+                                              getObjectTypeConfigurationRegistry().getObjectTypeConf( this.entryPoint, object ) :
+                                              typeConfs.computeIfAbsent( object.getClass(), c -> getObjectTypeConfigurationRegistry().getObjectTypeConf( this.entryPoint, object ) );
+
+                    if ( typeConf.isTMSEnabled() || typeConf.isDynamic() ) {
+                        // keep the insertion order: flush what has been batched so far and fall back to the single insert
+                        flushBatch( Arrays.copyOf( handles, batchSize ), Arrays.copyOf( contexts, batchSize ), Arrays.copyOf( confs, batchSize ), batchSize );
+                        batchSize = 0;
+                        result.add( insert( object ) );
+                        continue;
+                    }
+
+                    InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+                    if ( handle == null ) {
+                        handle = createHandle( object, typeConf );
+                        PropagationContext propagationContext = this.pctxFactory.createPropagationContext( this.wm.getNextPropagationIdCounter(),
+                                                                                                           PropagationContext.Type.INSERTION,
+                                                                                                           null, null, handle, entryPoint );
+                        this.objectStore.addHandle( handle, object );
+                        handles[batchSize] = handle;
+                        contexts[batchSize] = propagationContext;
+                        confs[batchSize] = typeConf;
+                        batchSize++;
+                    }
+                    result.add( handle );
+                }
+
+                flushBatch( handles, contexts, confs, batchSize );
+            } finally {
+                this.lock.unlock();
+            }
+            return result;
+        } finally {
+            this.wm.endOperation();
+        }
+    }
+
+    private void flushBatch(InternalFactHandle[] handles, PropagationContext[] contexts, ObjectTypeConf[] confs, int batchSize) {
+        this.entryPointNode.assertObjects( handles, contexts, confs, batchSize, this.wm );
+        for ( int i = 0; i < batchSize; i++ ) {
+            this.wm.getRuleRuntimeEventSupport().fireObjectInserted( contexts[i], handles[i], handles[i].getObject(), this.wm );
+        }
+    }
+
     public void insert(InternalFactHandle handle,
                        Object object,
                        RuleImpl rule,
@@ -29,6 +29,8 @@ import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
 import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.GroupByNode.GroupByContext;
+import org.drools.core.reteoo.GroupByNode.GroupContext;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleSink;
@@ -137,6 +139,12 @@ public class PhreakActivationIterator
                         FastIterator it = bm.getLeftTupleMemory().fullFastIterator();
                         Tuple lt = BetaNode.getFirstTuple( bm.getLeftTupleMemory(), it );
                         for (; lt != null; lt = (LeftTuple) it.next(lt)) {
+                            if (lt.getContextObject() instanceof GroupByContext) {
+                                for (GroupContext group : ((GroupByContext) lt.getContextObject()).getGroups()) {
+                                    collectFromPeers(group.getResultLeftTuple(), agendaItems, nodeSet, wm);
+                                }
+                                continue;
+                            }
                             AccumulateContext accctx = (AccumulateContext) lt.getContextObject();
                             collectFromPeers(accctx.getResultLeftTuple(), agendaItems, nodeSet, wm);
                         }
@@ -217,7 +225,11 @@ public class PhreakActivationIterator
         while (peer != null) {
             if ( peer.getTupleSink().getType() == NodeTypeEnums.AccumulateNode ) {
                 AccumulateContext accctx = (AccumulateContext) peer.getContextObject();
-                if (accctx != null) {
+                if (accctx instanceof GroupByContext) {
+                    for (GroupContext group : ((GroupByContext) accctx).getGroups()) {
+                        collectFromLeftInput(group.getResultLeftTuple(), agendaItems, nodeSet, wm);
+                    }
+                } else if (accctx != null) {
                     // the accumulate context can be null if the lefttuple hasn't been evaluated yet
                     collectFromLeftInput(accctx.getResultLeftTuple(), agendaItems, nodeSet, wm);
                 }
@@ -150,6 +150,12 @@ public interface InternalKnowledgePackage extends KiePackage,
 
     InternalKnowledgePackage deepCloneIfAlreadyInUse(ClassLoader classLoader);
 
+    /**
+     * Returns a copy of this package sharing none of its rules and definitions, even when the class loader is
+     * the one this package has been built with.
+     */
+    InternalKnowledgePackage deepClone(ClassLoader classLoader);
+
     boolean hasTraitRegistry();
 
     TraitRegistry getTraitRegistry();
@@ -811,6 +811,11 @@ public class KnowledgePackageImpl
             }
         }
 
+        return deepClone(classLoader);
+    }
+
+    @Override
+    public KnowledgePackageImpl deepClone(ClassLoader classLoader) {
         KnowledgePackageImpl clonedPkg = ClassUtils.deepClone(this, classLoader, cloningResources);
         clonedPkg.setClassLoader( classLoader );
 
@@ -46,6 +46,8 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
 
     private volatile boolean hasListeners = false;
 
+    private transient AsyncEventDispatcher asyncEventDispatcher;
+
     @SuppressWarnings("unchecked")
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         listeners = (List<E>) in.readObject();
@@ -56,6 +58,26 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
     }
 
     public <O> void notifyAllListeners(O event, BiConsumer<E, O> consumer) {
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.publish( this, event, consumer );
+        } else {
+            deliverToListeners( event, consumer );
+        }
+    }
+
+    /**
+     * Notifies the listeners on the current thread even when an async dispatcher is set, once the events already
+     * published to it have been delivered. It is used for the events whose listeners are expected to have been
+     * notified when the operation generating them returns.
+     */
+    public <O> void notifyAllListenersSynchronously(O event, BiConsumer<E, O> consumer) {
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.flush();
+        }
+        deliverToListeners( event, consumer );
+    }
+
+    protected <O> void deliverToListeners(O event, BiConsumer<E, O> consumer) {
         if (listeners.size() == 1) {
             consumer.accept( listeners.get(0), event );
         } else {
@@ -69,6 +91,18 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
         return hasListeners;
     }
 
+    public AsyncEventDispatcher getAsyncEventDispatcher() {
+        return asyncEventDispatcher;
+    }
+
+    /**
+     * Makes the listeners to be notified on the thread of the given dispatcher instead of the one generating the events.
+     * Passing null restores the synchronous notification.
+     */
+    public void setAsyncEventDispatcher(AsyncEventDispatcher asyncEventDispatcher) {
+        this.asyncEventDispatcher = asyncEventDispatcher;
+    }
+
     /**
      * Adds the specified listener to the list of listeners. Note that this method needs to be
      * synchonized because it performs two independent operations on the underlying list
@@ -16,6 +16,9 @@
 
 package org.drools.core.event;
 
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
 import org.drools.core.WorkingMemory;
 import org.drools.core.common.InternalKnowledgeRuntime;
 import org.drools.core.common.InternalWorkingMemory;
@@ -34,9 +37,26 @@ import org.kie.api.event.rule.AfterMatchFiredEvent;
 import org.kie.api.event.rule.AgendaEventListener;
 import org.kie.api.event.rule.BeforeMatchFiredEvent;
 import org.kie.api.event.rule.MatchCancelledCause;
+import org.kie.api.event.rule.MatchCancelledEvent;
+import org.kie.api.event.rule.MatchCreatedEvent;
 
 public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener> {
 
+    // factories creating the match events from the snapshots stored by the AsyncEventDispatcher
+    private static final Function<AsyncEventDispatcher.EventSlot, Object> MATCH_CREATED_FACTORY =
+            slot -> new ActivationCreatedEventImpl( slot.getMatch(), slot.getKieRuntime() );
+    private static final Function<AsyncEventDispatcher.EventSlot, Object> MATCH_CANCELLED_FACTORY =
+            slot -> new ActivationCancelledEventImpl( slot.getMatch(), slot.getKieRuntime(), slot.getCause() );
+    private static final Function<AsyncEventDispatcher.EventSlot, Object> BEFORE_MATCH_FIRED_FACTORY =
+            slot -> new BeforeActivationFiredEventImpl( slot.getMatch(), slot.getKieRuntime() );
+    private static final Function<AsyncEventDispatcher.EventSlot, Object> AFTER_MATCH_FIRED_FACTORY =
+            slot -> new AfterActivationFiredEventImpl( slot.getMatch(), slot.getKieRuntime(), null );
+
+    private static final BiConsumer<AgendaEventListener, MatchCreatedEvent> MATCH_CREATED_CONSUMER = ( l, e ) -> l.matchCreated( e );
+    private static final BiConsumer<AgendaEventListener, MatchCancelledEvent> MATCH_CANCELLED_CONSUMER = ( l, e ) -> l.matchCancelled( e );
+    private static final BiConsumer<AgendaEventListener, BeforeMatchFiredEvent> BEFORE_MATCH_FIRED_CONSUMER = ( l, e ) -> l.beforeMatchFired( e );
+    private static final BiConsumer<AgendaEventListener, AfterMatchFiredEvent> AFTER_MATCH_FIRED_CONSUMER = ( l, e ) -> l.afterMatchFired( e );
+
     public AgendaEventSupport() { }
 
     private InternalKnowledgeRuntime getKRuntime(WorkingMemory workingMemory) {
@@ -46,8 +66,13 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
     public void fireActivationCreated(final Activation activation,
                                       final WorkingMemory workingMemory) {
         if ( hasListeners() ) {
+            AsyncEventDispatcher dispatcher = getAsyncEventDispatcher();
+            if ( dispatcher != null ) {
+                dispatcher.publishMatchEvent( this, activation, getKRuntime( workingMemory ), null, MATCH_CREATED_FACTORY, MATCH_CREATED_CONSUMER );
+                return;
+            }
             ActivationCreatedEventImpl event = new ActivationCreatedEventImpl( activation, getKRuntime( workingMemory ) );
-            notifyAllListeners( event, ( l, e ) -> l.matchCreated( e ) );
+            notifyAllListeners( event, MATCH_CREATED_CONSUMER );
         }
     }
 
@@ -55,16 +80,27 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
                                         final WorkingMemory workingMemory,
                                         final MatchCancelledCause cause) {
         if ( hasListeners() ) {
+            AsyncEventDispatcher dispatcher = getAsyncEventDispatcher();
+            if ( dispatcher != null ) {
+                dispatcher.publishMatchEvent( this, activation, getKRuntime( workingMemory ), cause, MATCH_CANCELLED_FACTORY, MATCH_CANCELLED_CONSUMER );
+                return;
+            }
             ActivationCancelledEventImpl event = new ActivationCancelledEventImpl( activation, getKRuntime( workingMemory ), cause );
-            notifyAllListeners( event, ( l, e ) -> l.matchCancelled( e ) );
+            notifyAllListeners( event, MATCH_CANCELLED_CONSUMER );
         }
     }
 
     public BeforeMatchFiredEvent fireBeforeActivationFired(final Activation activation,
                                                            final WorkingMemory workingMemory) {
         if ( hasListeners() ) {
+            AsyncEventDispatcher dispatcher = getAsyncEventDispatcher();
+            if ( dispatcher != null ) {
+                // the event is created by the dispatcher thread, so it cannot be linked to the after fired one
+                dispatcher.publishMatchEvent( this, activation, getKRuntime( workingMemory ), null, BEFORE_MATCH_FIRED_FACTORY, BEFORE_MATCH_FIRED_CONSUMER );
+                return null;
+            }
             BeforeMatchFiredEvent event = new BeforeActivationFiredEventImpl(activation, getKRuntime(workingMemory));
-            notifyAllListeners( event, ( l, e ) -> l.beforeMatchFired( e ) );
+            notifyAllListeners( event, BEFORE_MATCH_FIRED_CONSUMER );
             return event;
         }
         return null;
@@ -73,8 +109,13 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
     public void fireAfterActivationFired(final Activation activation,
                                          final InternalWorkingMemory workingMemory, BeforeMatchFiredEvent beforeMatchFiredEvent) {
         if ( hasListeners() ) {
+            AsyncEventDispatcher dispatcher = getAsyncEventDispatcher();
+            if ( dispatcher != null ) {
+                dispatcher.publishMatchEvent( this, activation, getKRuntime( workingMemory ), null, AFTER_MATCH_FIRED_FACTORY, AFTER_MATCH_FIRED_CONSUMER );
+                return;
+            }
             AfterMatchFiredEvent event = new AfterActivationFiredEventImpl( activation, getKRuntime( workingMemory ), beforeMatchFiredEvent );
-            notifyAllListeners( event, ( l, e ) -> l.afterMatchFired( e ) );
+            notifyAllListeners( event, AFTER_MATCH_FIRED_CONSUMER );
         }
     }
 
@@ -99,7 +140,7 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
             final InternalWorkingMemory workingMemory) {
         if ( hasListeners() ) {
             RuleFlowGroupActivatedEventImpl event = new RuleFlowGroupActivatedEventImpl( ruleFlowGroup, getKRuntime( workingMemory ) );
-            notifyAllListeners( event, ( l, e ) -> l.beforeRuleFlowGroupActivated( e ) );
+            notifyAllListenersSynchronously( event, ( l, e ) -> l.beforeRuleFlowGroupActivated( e ) );
         }
     }
 
@@ -108,7 +149,7 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
             final InternalWorkingMemory workingMemory) {
         if ( hasListeners() ) {
             RuleFlowGroupActivatedEventImpl event = new RuleFlowGroupActivatedEventImpl( ruleFlowGroup, getKRuntime( workingMemory ) );
-            notifyAllListeners( event, ( l, e ) -> l.afterRuleFlowGroupActivated( e ) );
+            notifyAllListenersSynchronously( event, ( l, e ) -> l.afterRuleFlowGroupActivated( e ) );
         }
     }
 
@@ -117,7 +158,7 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
             final InternalWorkingMemory workingMemory) {
         if ( hasListeners() ) {
             RuleFlowGroupDeactivatedEventImpl event = new RuleFlowGroupDeactivatedEventImpl( ruleFlowGroup, getKRuntime( workingMemory ) );
-            notifyAllListeners( event, ( l, e ) -> l.beforeRuleFlowGroupDeactivated( e ) );
+            notifyAllListenersSynchronously( event, ( l, e ) -> l.beforeRuleFlowGroupDeactivated( e ) );
         }
     }
 
@@ -126,7 +167,7 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
             final InternalWorkingMemory workingMemory) {
         if ( hasListeners() ) {
             RuleFlowGroupDeactivatedEventImpl event = new RuleFlowGroupDeactivatedEventImpl( ruleFlowGroup, getKRuntime( workingMemory ) );
-            notifyAllListeners( event, ( l, e ) -> l.afterRuleFlowGroupDeactivated( e ) );
+            notifyAllListenersSynchronously( event, ( l, e ) -> l.afterRuleFlowGroupDeactivated( e ) );
         }
     }
 }
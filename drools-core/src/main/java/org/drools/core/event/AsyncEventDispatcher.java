@@ -0,0 +1,450 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event;
+
+import java.util.EventListener;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.drools.core.event.rule.impl.SerializableActivation;
+import org.drools.core.rule.Declaration;
+import org.drools.core.spi.Activation;
+import org.drools.core.spi.PropagationContext;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.event.rule.MatchCancelledCause;
+import org.kie.api.runtime.KieRuntime;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.runtime.rule.Match;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the events of a session to its listeners on a separate thread.
+ *
+ * The events are captured by the firing thread into a preallocated ring buffer and consumed in batches
+ * by a drain task running on a small pool of daemon threads shared by all the dispatchers. At most one drain
+ * task per dispatcher is scheduled at any time, so the listeners are always notified in the same order in
+ * which the events happened, and no thread is kept busy, or even alive, by a dispatcher without events. Match events are not built on the firing thread: only a snapshot of the rule, of the
+ * fact handles and of the timestamp is stored in the buffer and the event is created when delivered.
+ *
+ * When the buffer is full the {@link OverflowPolicy} decides if the firing thread has to wait, if the
+ * event has to be discarded or if it has to be delivered synchronously.
+ */
+public class AsyncEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger( AsyncEventDispatcher.class );
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    // batches delivered by a drain task before giving its thread to the dispatchers of the other sessions
+    private static final int MAX_BATCHES_PER_DRAIN = 16;
+
+    private static class ExecutorHolder {
+        private static final AtomicInteger threadCount = new AtomicInteger();
+
+        private static final Executor executor = createExecutor();
+
+        private static Executor createExecutor() {
+            int size = Runtime.getRuntime().availableProcessors();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor( size, size, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread( r, "drools-event-dispatcher-" + threadCount.incrementAndGet() );
+                t.setDaemon( true );
+                return t;
+            } );
+            executor.allowCoreThreadTimeOut( true );
+            return executor;
+        }
+    }
+
+    public enum OverflowPolicy {
+        /** the firing thread waits until there is room in the buffer */
+        BLOCK,
+        /** the event is discarded and counted as dropped */
+        DROP,
+        /** the event is delivered on the firing thread, possibly before older events still in the buffer */
+        SYNCHRONOUS;
+
+        public static OverflowPolicy resolve( String value ) {
+            return value == null || value.trim().isEmpty() ? BLOCK : valueOf( value.trim().toUpperCase() );
+        }
+    }
+
+    public static final class EventSlot {
+
+        private volatile long sequence = -1;
+
+        private AbstractEventSupport<?> support;
+        private BiConsumer<?, ?> consumer;
+        private Object event;
+        private Function<EventSlot, Object> eventFactory;
+
+        private Rule rule;
+        private Declaration[] declarations;
+        private List<? extends FactHandle> factHandles;
+        private PropagationContext propagationContext;
+        private boolean active;
+        private KieRuntime kieRuntime;
+        private MatchCancelledCause cause;
+
+        private long timestamp;
+        private long publishNanos;
+
+        public Match getMatch() {
+            return new SerializableActivation( rule, declarations, factHandles, propagationContext, active );
+        }
+
+        public KieRuntime getKieRuntime() {
+            return kieRuntime;
+        }
+
+        public MatchCancelledCause getCause() {
+            return cause;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        private void clear() {
+            support = null;
+            consumer = null;
+            event = null;
+            eventFactory = null;
+            rule = null;
+            declarations = null;
+            factHandles = null;
+            propagationContext = null;
+            kieRuntime = null;
+            cause = null;
+        }
+    }
+
+    private final String name;
+    private final OverflowPolicy overflowPolicy;
+
+    private final EventSlot[] slots;
+    private final int mask;
+
+    private final AtomicLong producerSequence = new AtomicLong();
+    private volatile long consumerSequence;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong synchronousEvents = new AtomicLong();
+    private volatile long lastDeliveryLagNanos;
+    private volatile long maxDeliveryLagNanos;
+    private volatile long currentEventTimestamp;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+    private volatile Thread dispatcherThread;
+    private volatile boolean closed;
+
+    // threads waiting for the delivery of the events, because of a flush or of a full buffer
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Object deliveryMonitor = new Object();
+
+    public AsyncEventDispatcher( String name, int bufferSize, OverflowPolicy overflowPolicy ) {
+        if ( bufferSize <= 0 ) {
+            throw new IllegalArgumentException( "The size of the event buffer must be positive" );
+        }
+        int capacity = Integer.highestOneBit( bufferSize );
+        if ( capacity < bufferSize ) {
+            capacity <<= 1;
+        }
+        this.name = name;
+        this.overflowPolicy = overflowPolicy;
+        this.slots = new EventSlot[capacity];
+        for ( int i = 0; i < capacity; i++ ) {
+            slots[i] = new EventSlot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    public <E extends EventListener, O> void publish( AbstractEventSupport<E> support, O event, BiConsumer<E, O> consumer ) {
+        long sequence = claim();
+        if ( sequence < 0 ) {
+            if ( sequence == SYNCHRONOUS_SEQUENCE ) {
+                support.deliverToListeners( event, consumer );
+            }
+            return;
+        }
+        EventSlot slot = slots[(int) sequence & mask];
+        slot.support = support;
+        slot.consumer = consumer;
+        slot.event = event;
+        commit( slot, sequence );
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends EventListener> void publishMatchEvent( AbstractEventSupport<E> support, Activation activation, KieRuntime kieRuntime,
+                                                             MatchCancelledCause cause, Function<EventSlot, Object> eventFactory,
+                                                             BiConsumer<E, ?> consumer ) {
+        long sequence = claim();
+        if ( sequence < 0 ) {
+            if ( sequence == SYNCHRONOUS_SEQUENCE ) {
+                EventSlot slot = new EventSlot();
+                fillMatchSnapshot( slot, activation, kieRuntime, cause );
+                support.deliverToListeners( eventFactory.apply( slot ), (BiConsumer<E, Object>) consumer );
+            }
+            return;
+        }
+        EventSlot slot = slots[(int) sequence & mask];
+        slot.support = support;
+        slot.consumer = consumer;
+        slot.eventFactory = eventFactory;
+        fillMatchSnapshot( slot, activation, kieRuntime, cause );
+        commit( slot, sequence );
+    }
+
+    private static void fillMatchSnapshot( EventSlot slot, Activation activation, KieRuntime kieRuntime, MatchCancelledCause cause ) {
+        slot.rule = activation.getRule();
+        slot.declarations = SerializableActivation.findDeclarations( activation );
+        slot.factHandles = activation.getFactHandles();
+        slot.propagationContext = activation.getPropagationContext();
+        slot.active = activation.isQueued();
+        slot.kieRuntime = kieRuntime;
+        slot.cause = cause;
+    }
+
+    private static final long DROPPED_SEQUENCE = -1;
+    private static final long SYNCHRONOUS_SEQUENCE = -2;
+
+    private long claim() {
+        if ( closed ) {
+            return SYNCHRONOUS_SEQUENCE;
+        }
+        while (true) {
+            long sequence = producerSequence.get();
+            if ( sequence - consumerSequence >= slots.length ) {
+                if ( Thread.currentThread() == dispatcherThread ) {
+                    // a listener generated a new event: waiting for the buffer to be consumed would deadlock
+                    synchronousEvents.incrementAndGet();
+                    return SYNCHRONOUS_SEQUENCE;
+                }
+                switch (overflowPolicy) {
+                    case DROP:
+                        droppedEvents.incrementAndGet();
+                        return DROPPED_SEQUENCE;
+                    case SYNCHRONOUS:
+                        synchronousEvents.incrementAndGet();
+                        return SYNCHRONOUS_SEQUENCE;
+                    default:
+                        if ( !awaitDelivery( sequence - slots.length + 1 ) ) {
+                            // interrupted while waiting: the event is not lost, but delivered on this thread
+                            synchronousEvents.incrementAndGet();
+                            return SYNCHRONOUS_SEQUENCE;
+                        }
+                        continue;
+                }
+            }
+            if ( producerSequence.compareAndSet( sequence, sequence + 1 ) ) {
+                return sequence;
+            }
+        }
+    }
+
+    private void commit( EventSlot slot, long sequence ) {
+        slot.timestamp = System.currentTimeMillis();
+        slot.publishNanos = System.nanoTime();
+        slot.sequence = sequence;
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        // a drain task which is finishing checks the buffer again after resetting the flag, so it cannot miss this event
+        if ( !drainScheduled.get() && drainScheduled.compareAndSet( false, true ) ) {
+            ExecutorHolder.executor.execute( drainTask );
+        }
+    }
+
+    private void drain() {
+        dispatcherThread = Thread.currentThread();
+        try {
+            for ( int i = 0; i < MAX_BATCHES_PER_DRAIN; i++ ) {
+                if ( dispatchBatch() == 0 ) {
+                    break;
+                }
+            }
+        } finally {
+            dispatcherThread = null;
+        }
+        if ( hasCommittedEvents() ) {
+            // more events to deliver: the task is rescheduled, still owning the flag, after the ones of the other dispatchers
+            ExecutorHolder.executor.execute( drainTask );
+            return;
+        }
+        drainScheduled.set( false );
+        if ( hasCommittedEvents() && drainScheduled.compareAndSet( false, true ) ) {
+            ExecutorHolder.executor.execute( drainTask );
+        }
+    }
+
+    private boolean hasCommittedEvents() {
+        long next = consumerSequence;
+        return slots[(int) next & mask].sequence == next;
+    }
+
+    private int dispatchBatch() {
+        long next = consumerSequence;
+        int delivered = 0;
+        while ( delivered < MAX_BATCH_SIZE ) {
+            EventSlot slot = slots[(int) next & mask];
+            if ( slot.sequence != next ) {
+                break;
+            }
+            deliver( slot );
+            slot.clear();
+            next++;
+            delivered++;
+        }
+        if ( delivered > 0 ) {
+            consumerSequence = next;
+            if ( waiters.get() > 0 ) {
+                synchronized (deliveryMonitor) {
+                    deliveryMonitor.notifyAll();
+                }
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Waits, without spinning, until the events up to the given sequence, excluded, have been delivered.
+     * A thread registers itself as a waiter before checking the delivered events, while the drain task checks
+     * the waiters after having published them, so a notification cannot be lost.
+     *
+     * @return false if the thread has been interrupted while waiting
+     */
+    private boolean awaitDelivery( long sequence ) {
+        waiters.incrementAndGet();
+        try {
+            synchronized (deliveryMonitor) {
+                while ( consumerSequence < sequence ) {
+                    deliveryMonitor.wait();
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver( EventSlot slot ) {
+        long lag = System.nanoTime() - slot.publishNanos;
+        lastDeliveryLagNanos = lag;
+        if ( lag > maxDeliveryLagNanos ) {
+            maxDeliveryLagNanos = lag;
+        }
+        currentEventTimestamp = slot.timestamp;
+        try {
+            Object event = slot.eventFactory != null ? slot.eventFactory.apply( slot ) : slot.event;
+            ( (AbstractEventSupport<EventListener>) slot.support ).deliverToListeners( event, (BiConsumer<EventListener, Object>) slot.consumer );
+        } catch (Throwable t) {
+            // a failing listener must not stop the delivery of the other events
+            log.error( "Error while dispatching event of " + name + " to listeners", t );
+        }
+    }
+
+    /**
+     * Waits until all the events published so far have been delivered to the listeners
+     */
+    public void flush() {
+        if ( Thread.currentThread() == dispatcherThread ) {
+            return;
+        }
+        awaitDelivery( producerSequence.get() );
+    }
+
+    /**
+     * Delivers the pending events. Events published after this point are delivered synchronously.
+     */
+    public void close() {
+        flush();
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getBufferSize() {
+        return slots.length;
+    }
+
+    /**
+     * @return the number of events published and not yet delivered
+     */
+    public long getLag() {
+        return producerSequence.get() - consumerSequence;
+    }
+
+    public long getPublishedEvents() {
+        return producerSequence.get();
+    }
+
+    public long getDeliveredEvents() {
+        return consumerSequence;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return the number of events delivered on the firing thread because the buffer was full
+     */
+    public long getSynchronousEvents() {
+        return synchronousEvents.get();
+    }
+
+    /**
+     * @return the time elapsed between the publication and the delivery of the last event
+     */
+    public long getLastDeliveryLagNanos() {
+        return lastDeliveryLagNanos;
+    }
+
+    public long getMaxDeliveryLagNanos() {
+        return maxDeliveryLagNanos;
+    }
+
+    /**
+     * @return the time, in milliseconds, at which the event currently being delivered has been published.
+     * Listeners can use it to know when an event happened, since they are notified later
+     */
+    public long getCurrentEventTimestamp() {
+        return currentEventTimestamp;
+    }
+}
@@ -25,12 +25,13 @@ import java.util.Collections;
 import java.util.List;
 
 import org.drools.core.common.AgendaItem;
-import org.drools.core.common.AgendaItemImpl;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.reteoo.RuleTerminalNode;
 import org.drools.core.rule.Declaration;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.spi.Tuple;
 import org.kie.api.definition.rule.Rule;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.Match;
@@ -53,16 +54,34 @@ public class SerializableActivation
         this.rule = activation.getRule();
         this.factHandles = activation.getFactHandles();
         this.propgationContext = ((Activation)activation).getPropagationContext();
-        if ( activation instanceof AgendaItemImpl) {
-            declarations = ((org.drools.core.reteoo.RuleTerminalNode)((AgendaItem)activation).getTuple().getTupleSink()).getAllDeclarations();
-        } else if ( activation instanceof SerializableActivation ) {
-            this.declarations = ((SerializableActivation)activation).declarations;
-        } else {
+        this.declarations = findDeclarations( activation );
+        if ( this.declarations == null ) {
             throw new RuntimeException("Unable to get declarations " + activation);
         }
         this.active = ((Activation)activation).isQueued();
     }
 
+    public SerializableActivation(Rule rule, Declaration[] declarations, List< ? extends FactHandle> factHandles,
+                                  PropagationContext propagationContext, boolean active) {
+        this.rule = rule;
+        this.declarations = declarations != null ? declarations : new Declaration[0];
+        this.factHandles = factHandles;
+        this.propgationContext = propagationContext;
+        this.active = active;
+    }
+
+    public static Declaration[] findDeclarations(Match activation) {
+        if ( activation instanceof AgendaItem ) {
+            Tuple tuple = ((AgendaItem) activation).getTuple();
+            if ( tuple != null && tuple.getTupleSink() instanceof RuleTerminalNode ) {
+                return ((RuleTerminalNode) tuple.getTupleSink()).getAllDeclarations();
+            }
+        } else if ( activation instanceof SerializableActivation ) {
+            return ((SerializableActivation)activation).declarations;
+        }
+        return null;
+    }
+
     public void readExternal(ObjectInput in) throws IOException,
                                             ClassNotFoundException {
     }
@@ -16,11 +16,25 @@
 
 package org.drools.core.factmodel.traits;
 
+import java.util.Collections;
+import java.util.Map;
+
 import org.drools.core.util.HierarchyEncoder;
 
 public interface TraitRegistry {
 
+    String PRECOMPILE_PROXIES_PROPERTY = "drools.traits.precompileProxies";
+
     HierarchyEncoder<String> getHierarchy();
 
     void merge(TraitRegistry other);
+
+    /**
+     * Generates the proxy and property wrapper classes for the traits that can be applied to the traitable types
+     * known by this registry, so that they can be stored in the kjar at build time. Returns the bytecode indexed
+     * by the resource path where it has to be written.
+     */
+    default Map<String, byte[]> generateProxyClasses(ClassLoader classLoader) {
+        return Collections.emptyMap();
+    }
 }
@@ -95,6 +95,21 @@ public interface InternalKnowledgeBase extends KieBase {
 
     void disposeStatefulSession(StatefulKnowledgeSessionImpl statefulSession);
 
+    void addStatefulSession(StatefulKnowledgeSessionImpl statefulSession);
+    boolean removeStatefulSession(StatefulKnowledgeSessionImpl statefulSession);
+
+    /**
+     * Returns the kbase on which new sessions are created: this same kbase unless the versioned mode is enabled,
+     * in which case it is the last network version published after a modification.
+     */
+    InternalKnowledgeBase getLatestVersion();
+
+    /**
+     * Returns true if the given rule of this kbase is defined in the same way in the other one, i.e. if both are versions
+     * of the same versioned kbase and the rule has not been modified between them.
+     */
+    boolean isSameRuleDefinition(RuleImpl rule, InternalKnowledgeBase other);
+
     TripleStore getTripleStore();
 
     TraitRegistry getTraitRegistry();
@@ -117,6 +132,15 @@ public interface InternalKnowledgeBase extends KieBase {
 
     void processAllTypesDeclaration( Collection<InternalKnowledgePackage> pkgs );
 
+    void buildLazyNetwork( String agendaGroup );
+    boolean isLazyNetworkPending( String agendaGroup );
+    long getLazyBuiltRulesCount();
+    long getLazyNetworkBuildTime();
+
+    void recordSessionUpdateTime( long nanos );
+    long getLastSessionUpdateTime();
+    long getMaxSessionUpdateTime();
+
     void addRules( Collection<RuleImpl> rules ) throws InvalidPatternException;
     void removeRules( Collection<RuleImpl> rules ) throws InvalidPatternException;
 
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.common.ActivationsFilter;
+import org.drools.core.common.AgendaItem;
+import org.drools.core.common.EqualityKey;
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.common.NamedEntryPoint;
+import org.drools.core.common.NodeMemories;
+import org.drools.core.common.PhreakActivationIterator;
+import org.drools.core.common.PropagationContextFactory;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.marshalling.impl.ActivationKey;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.reteoo.ObjectTypeConf;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.core.reteoo.TimerNode.TimerNodeMemory;
+import org.drools.core.spi.Activation;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.spi.Tuple;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+
+import static org.drools.core.marshalling.impl.MarshallingHelper.createActivationKey;
+import static org.drools.core.marshalling.impl.MarshallingHelper.hasNodeMemory;
+
+/**
+ * Moves the state of a session from a version of a versioned kbase to another one.
+ *
+ * The memories of a session are bound to the nodes of the network they have been created for, so they cannot be
+ * carried across versions: the stated facts are propagated again, keeping their fact handles, through the network
+ * of the new version. The matches that had already fired on the previous version are rejected once when they are
+ * created again, so that only the matches of the added or modified rules are queued. The facts justified by a
+ * logical insertion are dropped, and the matches that justified them are queued again to derive them from scratch.
+ *
+ * It is used by the session on the thread firing the rules, at a point where no network evaluation is in progress,
+ * while holding the locks of all its entry points.
+ */
+class KieBaseVersionMigration {
+
+    private final StatefulKnowledgeSessionImpl session;
+    private final InternalKnowledgeBase previousVersion;
+    private final InternalKnowledgeBase nextVersion;
+
+    private final Set<ActivationKey> firedActivations = new HashSet<>();
+    private final List<StatedFact> statedFacts = new ArrayList<>();
+
+    KieBaseVersionMigration( StatefulKnowledgeSessionImpl session, InternalKnowledgeBase nextVersion ) {
+        this.session = session;
+        this.previousVersion = session.getKnowledgeBase();
+        this.nextVersion = nextVersion;
+    }
+
+    /**
+     * Collects the state of the session that has to survive the move, and detaches it from the previous network.
+     */
+    void detach() {
+        collectFiredActivations();
+        for ( NamedEntryPoint ep : getNamedEntryPoints() ) {
+            collectStatedFacts( ep );
+        }
+        cancelTimerNodeJobs( session.getNodeMemories(), session.getTimerService() );
+    }
+
+    /**
+     * Propagates the stated facts through the network of the new version, to which the session is now bound.
+     */
+    void attach() {
+        if ( !firedActivations.isEmpty() ) {
+            session.getAgenda().setActivationsFilter( new FiredActivationsFilter( firedActivations, session.getAgenda().getActivationsFilter() ) );
+        }
+
+        PropagationContextFactory pctxFactory = nextVersion.getConfiguration().getComponentFactory().getPropagationContextFactory();
+
+        // facts are propagated in the order they have been inserted, across the entry points
+        statedFacts.sort( Comparator.comparingLong( fact -> fact.handle.getRecency() ) );
+        for ( StatedFact fact : statedFacts ) {
+            if ( session.getEntryPoint( fact.entryPoint.getEntryPointId() ) != fact.entryPoint ) {
+                // the entry point doesn't exist anymore in the new version
+                continue;
+            }
+            ObjectTypeConf typeConf = fact.entryPoint.getObjectTypeConfigurationRegistry().getObjectTypeConf( fact.entryPoint.getEntryPoint(), fact.handle.getObject() );
+            PropagationContext pctx = pctxFactory.createPropagationContext( session.getNextPropagationIdCounter(), PropagationContext.Type.INSERTION,
+                                                                            null, null, fact.handle, fact.entryPoint.getEntryPoint() );
+            PropagationEntry.Insert.execute( fact.handle, pctx, session, typeConf );
+        }
+    }
+
+    private void collectFiredActivations() {
+        for ( AgendaItem item : PhreakActivationIterator.collectAgendaItems( previousVersion, session ) ) {
+            if ( item.isQueued() || hasLogicalDependencies( item ) || !previousVersion.isSameRuleDefinition( item.getRule(), nextVersion ) ) {
+                continue;
+            }
+            firedActivations.add( createKey( item.getRule(), item.getTuple(), item.getTerminalNode() ) );
+        }
+    }
+
+    private static boolean hasLogicalDependencies( Activation activation ) {
+        return activation.getLogicalDependencies() != null && !activation.getLogicalDependencies().isEmpty();
+    }
+
+    private void collectStatedFacts( NamedEntryPoint ep ) {
+        List<InternalFactHandle> handles = new ArrayList<>();
+        for ( Iterator<InternalFactHandle> it = ep.getObjectStore().iterateFactHandles(); it.hasNext(); ) {
+            handles.add( it.next() );
+        }
+
+        for ( InternalFactHandle handle : handles ) {
+            EqualityKey key = handle.getEqualityKey();
+            if ( key != null && key.getStatus() == EqualityKey.JUSTIFIED ) {
+                ep.getObjectStore().removeHandle( handle );
+                ep.getTruthMaintenanceSystem().remove( key );
+                continue;
+            }
+            if ( key != null ) {
+                // the justifications refer to the matches of the previous network
+                key.setBeliefSet( null );
+            }
+            if ( handle.isEvent() ) {
+                // the expiration is scheduled again by the propagation
+                (( EventFactHandle ) handle).unscheduleAllJobs( session );
+            }
+            handle.clearLeftTuples();
+            handle.clearRightTuples();
+            statedFacts.add( new StatedFact( ep, handle ) );
+        }
+    }
+
+    private static void cancelTimerNodeJobs( NodeMemories nodeMemories, TimerService timerService ) {
+        for ( int i = 0; i < nodeMemories.length(); i++ ) {
+            Memory memory = nodeMemories.peekNodeMemory( i );
+            if ( memory instanceof TimerNodeMemory ) {
+                for ( Tuple tuple = (( TimerNodeMemory ) memory).getInsertOrUpdateLeftTuples().getFirst(); tuple != null; tuple = tuple.getNext() ) {
+                    if ( tuple.getContextObject() instanceof JobHandle ) {
+                        timerService.removeJob( ( JobHandle ) tuple.getContextObject() );
+                    }
+                }
+            }
+        }
+    }
+
+    private List<NamedEntryPoint> getNamedEntryPoints() {
+        List<NamedEntryPoint> eps = new ArrayList<>();
+        for ( Object ep : session.getEntryPoints() ) {
+            eps.add( ( NamedEntryPoint ) ep );
+        }
+        return eps;
+    }
+
+    private static ActivationKey createKey( RuleImpl rule, Tuple tuple, TerminalNode rtn ) {
+        // the results of froms and accumulates get new fact handles in the new network, so they are matched by value
+        return hasNodeMemory( rtn ) ?
+               createActivationKey( rule.getPackageName(), rule.getName(), tuple.toObjects( true ) ) :
+               createActivationKey( rule.getPackageName(), rule.getName(), tuple );
+    }
+
+    private static class StatedFact {
+        private final NamedEntryPoint entryPoint;
+        private final InternalFactHandle handle;
+
+        private StatedFact( NamedEntryPoint entryPoint, InternalFactHandle handle ) {
+            this.entryPoint = entryPoint;
+            this.handle = handle;
+        }
+    }
+
+    /**
+     * Rejects, once, the matches that had already fired on the previous version, so that they are not queued again
+     * when they are created by the network of the new version. It removes itself once all of them have been found.
+     */
+    static class FiredActivationsFilter implements ActivationsFilter {
+
+        private final Set<ActivationKey> firedActivations;
+        private final ActivationsFilter delegate;
+
+        FiredActivationsFilter( Set<ActivationKey> firedActivations, ActivationsFilter delegate ) {
+            this.firedActivations = firedActivations;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean accept( Activation activation, InternalWorkingMemory workingMemory, TerminalNode rtn ) {
+            if ( !activation.isRuleAgendaItem() && firedActivations.remove( createKey( activation.getRule(), activation.getTuple(), rtn ) ) ) {
+                if ( firedActivations.isEmpty() ) {
+                    workingMemory.getAgenda().setActivationsFilter( delegate );
+                }
+                return false;
+            }
+            return delegate == null || delegate.accept( activation, workingMemory, rtn );
+        }
+
+        @Override
+        public Map<ActivationKey, Tuple> getTuplesCache() {
+            return delegate != null ? delegate.getTuplesCache() : Collections.emptyMap();
+        }
+
+        @Override
+        public void fireRNEAs( InternalWorkingMemory wm ) {
+            if ( delegate != null ) {
+                delegate.fireRNEAs( wm );
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.drools.core.RuleBaseConfiguration;
@@ -178,6 +179,22 @@ public class KnowledgeBaseImpl
 
     private transient InternalKieContainer kieContainer;
 
+    // agenda groups whose lazy network construction has been requested but not yet performed
+    private final transient Set<String> pendingLazyNetworks = ConcurrentHashMap.newKeySet();
+    private final transient AtomicLong lazyBuiltRulesCount = new AtomicLong();
+    private final transient AtomicLong lazyNetworkBuildTime = new AtomicLong();
+
+    // time spent updating a single session when a rule is added or removed
+    private final transient AtomicLong lastSessionUpdateTime = new AtomicLong();
+    private final transient AtomicLong maxSessionUpdateTime = new AtomicLong();
+
+    // versioned mode: the master kbase only holds the packages and never has sessions, they are created on the last published version
+    private transient KnowledgeBaseImpl master;
+    private transient volatile KnowledgeBaseImpl currentVersion;
+    private final transient AtomicLong publishedVersionsCount = new AtomicLong();
+    // for a version, the rules of the master it has been copied from, by fully qualified name
+    private transient Map<String, RuleImpl> masterRules;
+
     private ReleaseId resolvedReleaseId;
     private String containerId;
     private AtomicBoolean mbeanRegistered = new AtomicBoolean(false);
@@ -230,11 +247,12 @@ public class KnowledgeBaseImpl
     }
 
     public int nextWorkingMemoryCounter() {
-        return this.workingMemoryCounter.getAndIncrement();
+        // the session ids must be unique across all the versions of a versioned kbase
+        return master != null ? master.nextWorkingMemoryCounter() : this.workingMemoryCounter.getAndIncrement();
     }
 
     public int getWorkingMemoryCounter() {
-        return this.workingMemoryCounter.get();
+        return master != null ? master.getWorkingMemoryCounter() : this.workingMemoryCounter.get();
     }
 
     private void createRulebaseId(final String id) {
@@ -251,6 +269,11 @@ public class KnowledgeBaseImpl
     }
 
     public void addEventListener(KieBaseEventListener listener) {
+        if ( master != null ) {
+            // the kbase events of a versioned kbase are all fired by the master
+            master.addEventListener( listener );
+            return;
+        }
         synchronized (kieBaseListeners) {
             if ( !kieBaseListeners.contains( listener ) ) {
                 eventSupport.addEventListener( listener );
@@ -260,6 +283,10 @@ public class KnowledgeBaseImpl
     }
 
     public void removeEventListener(KieBaseEventListener listener) {
+        if ( master != null ) {
+            master.removeEventListener( listener );
+            return;
+        }
         synchronized (kieBaseListeners) {
             eventSupport.removeEventListener( listener );
             kieBaseListeners.remove( listener );
@@ -267,6 +294,9 @@ public class KnowledgeBaseImpl
     }
 
     public Collection<KieBaseEventListener> getKieBaseEventListeners() {
+        if ( master != null ) {
+            return master.getKieBaseEventListeners();
+        }
         return Collections.unmodifiableCollection( kieBaseListeners );
     }
 
@@ -275,6 +305,10 @@ public class KnowledgeBaseImpl
     }
 
     public void removeKiePackage(String packageName) {
+        if ( master != null ) {
+            master.removeKiePackage( packageName );
+            return;
+        }
         enqueueModification( () -> {
             final InternalKnowledgePackage pkg = this.pkgs.get( packageName );
             if (pkg == null) {
@@ -363,6 +397,9 @@ public class KnowledgeBaseImpl
 
     @Override
     public StatefulKnowledgeSessionImpl createSession(long id, FactHandleFactory handleFactory, long propagationContext, SessionConfiguration config, InternalAgenda agenda, Environment environment) {
+        if ( isVersionsMaster() ) {
+            return getCurrentVersion().createSession( id, handleFactory, propagationContext, config, agenda, environment );
+        }
         StatefulKnowledgeSessionImpl session = ( StatefulKnowledgeSessionImpl ) kieComponentFactory.getWorkingMemoryFactory()
                 .createWorkingMemory( id, this, handleFactory, propagationContext, config, agenda, environment );
         return internalInitSession( config, session );
@@ -370,6 +407,9 @@ public class KnowledgeBaseImpl
 
     public StatefulKnowledgeSessionImpl internalCreateStatefulKnowledgeSession( Environment environment, SessionConfiguration sessionConfig, boolean fromPool ) {
         if (fromPool || sessionPool == null) {
+            if ( isVersionsMaster() ) {
+                return getCurrentVersion().internalCreateStatefulKnowledgeSession( environment, sessionConfig, true );
+            }
             StatefulKnowledgeSessionImpl session = ( StatefulKnowledgeSessionImpl ) kieComponentFactory.getWorkingMemoryFactory()
                     .createWorkingMemory( nextWorkingMemoryCounter(), this, sessionConfig, environment );
             return internalInitSession( sessionConfig, session );
@@ -718,17 +758,28 @@ public class KnowledgeBaseImpl
      */
     @Override
     public void addPackages( Collection<? extends KiePackage> newPkgs ) {
+        if ( master != null ) {
+            master.addPackages( newPkgs );
+            return;
+        }
         final List<InternalKnowledgePackage> clonedPkgs = new ArrayList<>();
         for (KiePackage newPkg : newPkgs) {
             clonedPkgs.add(((InternalKnowledgePackage)newPkg).deepCloneIfAlreadyInUse(rootClassLoader));
         }
 
+        addClonedPackages( clonedPkgs );
+    }
+
+    private void addClonedPackages( List<InternalKnowledgePackage> clonedPkgs ) {
         clonedPkgs.sort(Comparator.comparing( (InternalKnowledgePackage p) -> p.getRules().size() ).reversed().thenComparing( InternalKnowledgePackage::getName ));
         enqueueModification( () -> internalAddPackages( clonedPkgs ) );
     }
 
     @Override
     public Future<KiePackage> addPackage( final KiePackage newPkg ) {
+        if ( master != null ) {
+            return master.addPackage( newPkg );
+        }
         InternalKnowledgePackage clonedPkg = ((InternalKnowledgePackage)newPkg).deepCloneIfAlreadyInUse(rootClassLoader);
         CompletableFuture<KiePackage> result = new CompletableFuture<>();
         enqueueModification( () -> {
@@ -739,6 +790,10 @@ public class KnowledgeBaseImpl
     }
 
     public void enqueueModification(Runnable modification) {
+        if ( isVersionsMaster() ) {
+            modifyAndPublishVersion( modification );
+            return;
+        }
         if ( tryLockAndDeactivate() ) {
             try {
                 modification.run();
@@ -750,6 +805,106 @@ public class KnowledgeBaseImpl
         }
     }
 
+    private boolean isVersionsMaster() {
+        return master == null && getConfiguration().isVersionedKieBase();
+    }
+
+    /**
+     * The master of a versioned kbase only holds the packages: the networks are built by its versions.
+     */
+    private boolean hasNetwork() {
+        return !isVersionsMaster();
+    }
+
+    /**
+     * In versioned mode the master kbase doesn't have any network nor session, so the modification can be applied to its
+     * packages right away. Once done, if a version was already in use, a new one is built off to the side and published:
+     * the sessions created from now on use it, while the existing ones move to it at the next safe point of their firing.
+     */
+    private void modifyAndPublishVersion(Runnable modification) {
+        lock();
+        try {
+            modification.run();
+        } finally {
+            unlock();
+        }
+        if ( !this.lock.isWriteLockedByCurrentThread() && currentVersion != null ) {
+            KnowledgeBaseImpl previousVersion = currentVersion;
+            currentVersion = createVersion();
+            for ( StatefulKnowledgeSessionImpl session : previousVersion.statefulSessions ) {
+                session.onKieBaseVersionPublished();
+            }
+        }
+    }
+
+    private KnowledgeBaseImpl getCurrentVersion() {
+        KnowledgeBaseImpl version = currentVersion;
+        if ( version == null ) {
+            synchronized (this) {
+                version = currentVersion;
+                if ( version == null ) {
+                    version = createVersion();
+                    currentVersion = version;
+                }
+            }
+        }
+        return version;
+    }
+
+    private KnowledgeBaseImpl createVersion() {
+        readLock();
+        try {
+            KnowledgeBaseImpl version = new KnowledgeBaseImpl( this.id, this.config );
+            version.master = this;
+            version.kieContainer = this.kieContainer;
+            version.containerId = this.containerId;
+            version.resolvedReleaseId = this.resolvedReleaseId;
+
+            // each version owns a copy of the packages, so that the next modifications of the master never reach
+            // the definitions used by the sessions of the published versions
+            version.masterRules = new HashMap<>();
+            List<InternalKnowledgePackage> clonedPkgs = new ArrayList<>();
+            for ( InternalKnowledgePackage pkg : this.pkgs.values() ) {
+                for ( Rule rule : pkg.getRules() ) {
+                    version.masterRules.put( (( RuleImpl ) rule).getFullyQualifiedName(), ( RuleImpl ) rule );
+                }
+                clonedPkgs.add( pkg.deepClone( this.rootClassLoader ) );
+            }
+            version.addClonedPackages( clonedPkgs );
+            publishedVersionsCount.incrementAndGet();
+            return version;
+        } finally {
+            readUnlock();
+        }
+    }
+
+    @Override
+    public InternalKnowledgeBase getLatestVersion() {
+        if ( master != null ) {
+            return master.getLatestVersion();
+        }
+        return isVersionsMaster() ? getCurrentVersion() : this;
+    }
+
+    @Override
+    public boolean isSameRuleDefinition( RuleImpl rule, InternalKnowledgeBase other ) {
+        if ( other == this ) {
+            return true;
+        }
+        if ( master == null || !(other instanceof KnowledgeBaseImpl) || ((KnowledgeBaseImpl) other).master != master ) {
+            return false;
+        }
+        RuleImpl definition = masterRules.get( rule.getFullyQualifiedName() );
+        return definition != null && definition == ((KnowledgeBaseImpl) other).masterRules.get( rule.getFullyQualifiedName() );
+    }
+
+    /**
+     * Returns the number of network versions published by this kbase when the versioned mode is enabled.
+     */
+    public long getPublishedVersionsCount() {
+        return master != null ? master.getPublishedVersionsCount() : publishedVersionsCount.get();
+    }
+
     public boolean flushModifications() {
         if (!flushingUpdates.compareAndSet( false, true )) {
             return false;
@@ -908,21 +1063,27 @@ public class KnowledgeBaseImpl
             mergePackage( pkg,
                           newPkg );
 
-            // add the window declarations to the kbase
-            for( WindowDeclaration window : newPkg.getWindowDeclarations().values() ) {
-                this.reteooBuilder.addNamedWindow(window);
-            }
+            if ( hasNetwork() ) {
+                // add the window declarations to the kbase
+                for ( WindowDeclaration window : newPkg.getWindowDeclarations().values() ) {
+                    this.reteooBuilder.addNamedWindow( window );
+                }
 
-            // add entry points to the kbase
-            for (String entryPointId : newPkg.getEntryPointIds()) {
-                this.reteooBuilder.addEntryPoint(entryPointId);
+                // add entry points to the kbase
+                for ( String entryPointId : newPkg.getEntryPointIds() ) {
+                    this.reteooBuilder.addEntryPoint( entryPointId );
+                }
             }
 
             // add the rules to the RuleBase
             for ( Rule r : newPkg.getRules() ) {
                 RuleImpl rule = (RuleImpl)r;
                 checkMultithreadedEvaluation( rule );
-                internalAddRule( rule );
+                if ( hasNetwork() && isLazyNetworkRule( rule ) ) {
+                    this.reteooBuilder.addLazyRule( rule );
+                } else {
+                    internalAddRule( rule );
+                }
             }
 
             // add the flows to the RuleBase
@@ -945,7 +1106,7 @@ public class KnowledgeBaseImpl
             this.eventSupport.fireAfterPackageAdded( newPkg );
         }
 
-        if (config.isMultithreadEvaluation() && !hasMultiplePartitions()) {
+        if (config.isMultithreadEvaluation() && hasNetwork() && !hasMultiplePartitions()) {
             disableMultithreadEvaluation("The rete network cannot be partitioned: disabling multithread evaluation");
         }
     }
@@ -1517,9 +1678,85 @@ public class KnowledgeBaseImpl
         });
     }
 
+    private boolean isLazyNetworkRule( RuleImpl rule ) {
+        // auto-focus rules have to be in the network in order to be able to set the focus on their own agenda group
+        return config.isLazyAgendaGroupNetwork() && !rule.isMainAgendaGroup() && !rule.isQuery() && !rule.getAutoFocus() &&
+               rule.getParent() == null && !rule.hasChildren();
+    }
+
+    /**
+     * Builds the network of the rules belonging to the given agenda group if it has been deferred
+     * when the rules were added to this kbase. If some sessions are currently firing, the construction
+     * is enqueued as any other kbase modification and the agenda group is reported as pending until it is done.
+     */
+    @Override
+    public void buildLazyNetwork( String agendaGroup ) {
+        if ( this.reteooBuilder.hasLazyRules( agendaGroup ) && pendingLazyNetworks.add( agendaGroup ) ) {
+            enqueueModification( () -> internalBuildLazyNetwork( agendaGroup ) );
+        }
+    }
+
+    @Override
+    public boolean isLazyNetworkPending( String agendaGroup ) {
+        return !pendingLazyNetworks.isEmpty() && pendingLazyNetworks.contains( agendaGroup );
+    }
+
+    private void internalBuildLazyNetwork( String agendaGroup ) {
+        long start = System.nanoTime();
+        Collection<RuleImpl> rules = this.reteooBuilder.removeLazyRules( agendaGroup );
+        for (RuleImpl rule : rules) {
+            internalAddRule( rule );
+        }
+        pendingLazyNetworks.remove( agendaGroup );
+
+        long elapsed = System.nanoTime() - start;
+        lazyBuiltRulesCount.addAndGet( rules.size() );
+        lazyNetworkBuildTime.addAndGet( elapsed );
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "Built network for {} rules of agenda group {} in {} microseconds", rules.size(), agendaGroup, elapsed / 1000 );
+        }
+    }
+
+    @Override
+    public long getLazyBuiltRulesCount() {
+        return lazyBuiltRulesCount.get();
+    }
+
+    /**
+     * @return the total time in milliseconds spent building the networks of lazy agenda groups
+     */
+    @Override
+    public long getLazyNetworkBuildTime() {
+        return lazyNetworkBuildTime.get() / 1_000_000;
+    }
+
+    @Override
+    public void recordSessionUpdateTime( long nanos ) {
+        lastSessionUpdateTime.set( nanos );
+        maxSessionUpdateTime.accumulateAndGet( nanos, Math::max );
+    }
+
+    /**
+     * @return the time in microseconds spent updating the last session affected by the addition or removal of a rule
+     */
+    @Override
+    public long getLastSessionUpdateTime() {
+        return lastSessionUpdateTime.get() / 1000;
+    }
+
+    /**
+     * @return the longest time in microseconds spent updating a session affected by the addition or removal of a rule
+     */
+    @Override
+    public long getMaxSessionUpdateTime() {
+        return maxSessionUpdateTime.get() / 1000;
+    }
+
     private void internalAddRule( RuleImpl rule ) {
         this.eventSupport.fireBeforeRuleAdded( rule );
-        this.reteooBuilder.addRule(rule);
+        if ( hasNetwork() ) {
+            this.reteooBuilder.addRule(rule);
+        }
         this.eventSupport.fireAfterRuleAdded( rule );
     }
 
@@ -1531,6 +1768,10 @@ public class KnowledgeBaseImpl
 
     public void removeRule( final String packageName,
                             final String ruleName ) {
+        if ( master != null ) {
+            master.removeRule( packageName, ruleName );
+            return;
+        }
         enqueueModification( () -> {
             final InternalKnowledgePackage pkg = pkgs.get( packageName );
             if (pkg == null) {
@@ -1547,7 +1788,9 @@ public class KnowledgeBaseImpl
             }
 
             this.eventSupport.fireBeforeRuleRemoved(rule);
-            this.reteooBuilder.removeRules(Collections.singletonList(rule));
+            if ( hasNetwork() ) {
+                this.reteooBuilder.removeRules(Collections.singletonList(rule));
+            }
             this.eventSupport.fireAfterRuleRemoved(rule);
 
             pkg.removeRule( rule );
@@ -1563,7 +1806,9 @@ public class KnowledgeBaseImpl
         for (RuleImpl rule : rules) {
             this.eventSupport.fireBeforeRuleRemoved( rule );
         }
-        this.reteooBuilder.removeRules(rules);
+        if ( hasNetwork() ) {
+            this.reteooBuilder.removeRules(rules);
+        }
         for (RuleImpl rule : rules) {
             this.eventSupport.fireAfterRuleRemoved( rule );
         }
@@ -1571,6 +1816,10 @@ public class KnowledgeBaseImpl
 
     public void removeFunction( final String packageName,
                                 final String functionName ) {
+        if ( master != null ) {
+            master.removeFunction( packageName, functionName );
+            return;
+        }
         enqueueModification( () -> internalRemoveFunction( packageName, functionName ) );
     }
 
@@ -1616,6 +1865,10 @@ public class KnowledgeBaseImpl
     }
 
     public void removeProcess( final String id ) {
+        if ( master != null ) {
+            master.removeProcess( id );
+            return;
+        }
         enqueueModification( () -> internalRemoveProcess( id ) );
     }
 
@@ -1643,6 +1896,10 @@ public class KnowledgeBaseImpl
         this.statefulSessions.add( wm );
     }
 
+    public boolean removeStatefulSession( StatefulKnowledgeSessionImpl wm ) {
+        return this.statefulSessions.remove( wm );
+    }
+
     public InternalKnowledgePackage getPackage( final String name ) {
         return this.pkgs.get( name );
     }
@@ -1714,11 +1971,16 @@ public class KnowledgeBaseImpl
     }
 
     public boolean removeObjectsGeneratedFromResource(Resource resource) {
+        if ( master != null ) {
+            return master.removeObjectsGeneratedFromResource( resource );
+        }
         boolean modified = false;
         for (InternalKnowledgePackage pkg : pkgs.values()) {
             List<RuleImpl> rulesToBeRemoved = pkg.getRulesGeneratedFromResource(resource);
             if (!rulesToBeRemoved.isEmpty()) {
-                this.reteooBuilder.removeRules( rulesToBeRemoved );
+                if ( hasNetwork() ) {
+                    this.reteooBuilder.removeRules( rulesToBeRemoved );
+                }
                 // removal of rule from package has to be delayed after the rule has been removed from the phreak network
                 // in order to allow the correct flushing of all outstanding staged tuples
                 for (RuleImpl rule : rulesToBeRemoved) {
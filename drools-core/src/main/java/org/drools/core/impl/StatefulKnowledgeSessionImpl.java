@@ -73,6 +73,7 @@ import org.drools.core.common.WorkingMemoryAction;
 import org.drools.core.definitions.InternalKnowledgePackage;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.AgendaEventSupport;
+import org.drools.core.event.AsyncEventDispatcher;
 import org.drools.core.event.ProcessEventSupport;
 import org.drools.core.event.RuleEventListenerSupport;
 import org.drools.core.event.RuleRuntimeEventSupport;
@@ -80,6 +81,7 @@ import org.drools.core.factmodel.traits.Thing;
 import org.drools.core.factmodel.traits.TraitableBean;
 import org.drools.core.management.DroolsManagementAgent;
 import org.drools.core.marshalling.impl.MarshallerReaderContext;
+import org.drools.core.phreak.IdleSegmentReleaser;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.PropagationList;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -194,6 +196,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     protected AgendaEventSupport agendaEventSupport;
 
+    private AsyncEventDispatcher asyncEventDispatcher;
+
     protected List<KieBaseEventListener> kieBaseEventListeners;
 
     /** The <code>RuleBase</code> with which this memory is associated. */
@@ -237,6 +241,11 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
     // or -1 if there are operation being executed at this moment
     private AtomicLong lastIdleTimestamp;
 
+    private IdleSegmentReleaser idleSegmentReleaser;
+
+    // set when the versioned kbase of this session has published a version this session has to move to
+    private volatile boolean kieBaseVersionPending;
+
     private volatile InternalProcessRuntime processRuntime;
 
     private transient KieRuntimeFactory runtimeFactory;
@@ -327,6 +336,7 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         this.propagationIdCounter = new AtomicLong(propagationContext);
         init( config, environment, propagationContext );
+        initAsyncEventDispatcher();
         if (kBase != null) {
             bindRuleBase( this, kBase, agenda, initInitFactHandle );
         }
@@ -365,6 +375,26 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         this.opCounter = new AtomicLong(0);
         this.lastIdleTimestamp = new AtomicLong(-1);
+
+        this.idleSegmentReleaser = new IdleSegmentReleaser( config.getIdleSegmentReleaseTime() );
+    }
+
+    private void initAsyncEventDispatcher() {
+        if ( config.isAsyncEventDispatch() ) {
+            this.asyncEventDispatcher = new AsyncEventDispatcher( "drools-event-dispatcher-" + id,
+                                                                  config.getAsyncEventBufferSize(),
+                                                                  config.getAsyncEventOverflowPolicy() );
+            this.ruleRuntimeEventSupport.setAsyncEventDispatcher( asyncEventDispatcher );
+            this.agendaEventSupport.setAsyncEventDispatcher( asyncEventDispatcher );
+        }
+    }
+
+    /**
+     * @return the dispatcher delivering the events of this session to its listeners,
+     * or null if the listeners are notified synchronously
+     */
+    public AsyncEventDispatcher getAsyncEventDispatcher() {
+        return asyncEventDispatcher;
     }
 
     protected TimerService createTimerService() {
@@ -524,6 +554,10 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
             receiveMemory.dispose();
         }
 
+        if (asyncEventDispatcher != null) {
+            // deliver the pending events before the listeners are removed
+            asyncEventDispatcher.close();
+        }
         this.ruleRuntimeEventSupport.clear();
         this.ruleEventListenerSupport.clear();
         this.agendaEventSupport.clear();
@@ -1087,6 +1121,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
     }
 
     public void reset() {
+        switchToLatestKieBaseVersion();
+
         if (nodeMemories != null) {
             nodeMemories.resetAllMemories( this );
         }
@@ -1095,6 +1131,9 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         this.globalResolver.clear();
         this.kieBaseEventListeners.clear();
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.flush();
+        }
         this.ruleRuntimeEventSupport.clear();
         this.ruleEventListenerSupport.clear();
         this.agendaEventSupport.clear();
@@ -1117,6 +1156,110 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         this.initialFactHandle = initInitialFact(kBase, null);
     }
 
+    /**
+     * With a versioned kbase a reset moves the session to the last published network version without any migration,
+     * since all its state is going to be discarded anyway.
+     */
+    private void switchToLatestKieBaseVersion() {
+        InternalKnowledgeBase latestVersion = kBase.getLatestVersion();
+        if (latestVersion == kBase) {
+            return;
+        }
+        boolean keepReference = kBase.removeStatefulSession( this );
+        bindRuleBase( this, latestVersion, null, false );
+        if (keepReference) {
+            latestVersion.addStatefulSession( this );
+        }
+    }
+
+    /**
+     * Called by a versioned kbase when it publishes a new version while this session is on a previous one. The
+     * session moves to it at the next safe point of its firing: the propagation entry flags it and wakes up
+     * a session firing until halt.
+     */
+    public void onKieBaseVersionPublished() {
+        addPropagation( new PropagationEntry.AbstractPropagationEntry() {
+            @Override
+            public void execute( InternalWorkingMemory wm ) {
+                kieBaseVersionPending = true;
+            }
+        } );
+    }
+
+    @Override
+    public void onFireLoopSafePoint() {
+        if ( kieBaseVersionPending ) {
+            kieBaseVersionPending = false;
+            moveToLatestKieBaseVersion();
+        }
+    }
+
+    private void checkKieBaseVersion() {
+        if ( kBase.getLatestVersion() != kBase ) {
+            kieBaseVersionPending = true;
+        }
+    }
+
+    /**
+     * Moves this session, with its facts, to the last version published by its versioned kbase. The partitioned
+     * agendas of a multithreaded session evaluate the network concurrently, so such a session moves only at its next reset.
+     */
+    private void moveToLatestKieBaseVersion() {
+        InternalKnowledgeBase latestVersion = kBase.getLatestVersion();
+        if ( latestVersion == kBase || kBase.getConfiguration().isMultithreadEvaluation() ) {
+            return;
+        }
+
+        List<NamedEntryPoint> lockedEntryPoints = new ArrayList<>();
+        for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
+            (( NamedEntryPoint ) ep).lock();
+            lockedEntryPoints.add( ( NamedEntryPoint ) ep );
+        }
+        try {
+            // the propagations enqueued so far have been resolved against the nodes of the current network
+            flushPropagations();
+
+            InternalKnowledgeBase previousVersion = kBase;
+            KieBaseVersionMigration migration = new KieBaseVersionMigration( this, latestVersion );
+            migration.detach();
+            bindToKieBaseVersion( latestVersion );
+            migration.attach();
+
+            if ( previousVersion.removeStatefulSession( this ) ) {
+                latestVersion.addStatefulSession( this );
+            }
+        } finally {
+            for ( NamedEntryPoint ep : lockedEntryPoints ) {
+                ep.unlock();
+            }
+        }
+    }
+
+    /**
+     * Binds this session to the network of another version of its kbase, keeping its agenda, its entry points and their
+     * fact handles. The entry points not existing in the new version are removed.
+     */
+    private void bindToKieBaseVersion( InternalKnowledgeBase version ) {
+        this.kBase = version;
+        this.nodeMemories = new ConcurrentNodeMemories( version, DEFAULT_RULE_UNIT );
+        registerReceiveNodes( version.getReceiveNodes() );
+        this.pctxFactory = version.getConfiguration().getComponentFactory().getPropagationContextFactory();
+        this.agenda.resetNetworkState();
+
+        Map<EntryPointId, EntryPointNode> entryPointNodes = version.getRete().getEntryPointNodes();
+        for ( EntryPointNode entryPointNode : entryPointNodes.values() ) {
+            WorkingMemoryEntryPoint ep = this.entryPoints.get( entryPointNode.getEntryPoint().getEntryPointId() );
+            if ( ep != null ) {
+                (( NamedEntryPoint ) ep).rebind( version, entryPointNode );
+            } else {
+                this.entryPoints.put( entryPointNode.getEntryPoint().getEntryPointId(), createNamedEntryPoint( entryPointNode, entryPointNode.getEntryPoint(), this ) );
+            }
+        }
+        this.entryPoints.values().removeIf( ep -> !entryPointNodes.containsKey( (( NamedEntryPoint ) ep).getEntryPoint() ) );
+
+        this.initialFactHandle = initInitialFact( version, null );
+    }
+
     public void reset(long handleId,
                       long handleCounter,
                       long propagationCounter) {
@@ -1145,10 +1288,12 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     public void setRuleRuntimeEventSupport(RuleRuntimeEventSupport ruleRuntimeEventSupport) {
         this.ruleRuntimeEventSupport = ruleRuntimeEventSupport;
+        ruleRuntimeEventSupport.setAsyncEventDispatcher( asyncEventDispatcher );
     }
 
     public void setAgendaEventSupport(AgendaEventSupport agendaEventSupport) {
         this.agendaEventSupport = agendaEventSupport;
+        agendaEventSupport.setAsyncEventDispatcher( asyncEventDispatcher );
     }
 
     public boolean isSequential() {
@@ -1329,6 +1474,7 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
     public int fireAllRules(final AgendaFilter agendaFilter,
                             int fireLimit) {
         checkAlive();
+        checkKieBaseVersion();
         try {
             startOperation();
             return internalFireAllRules(agendaFilter, fireLimit);
@@ -1377,6 +1523,7 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
             throw new IllegalStateException( "fireUntilHalt() can not be called in sequential mode." );
         }
 
+        checkKieBaseVersion();
         try {
             startOperation();
             agenda.fireUntilHalt( agendaFilter );
@@ -1519,6 +1666,12 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
                                              terminalNode);
     }
 
+    @Override
+    public List<FactHandle> insertAll(Collection<?> objects) {
+        checkAlive();
+        return this.defaultEntryPoint.insertAll(objects);
+    }
+
     public void retract(FactHandle handle) {
         delete(handle);
     }
@@ -1995,9 +2148,14 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
             if (this.endOperationListener != null) {
                 this.endOperationListener.endOperation(this.getKnowledgeRuntime());
             }
+            this.idleSegmentReleaser.onIdle(this);
         }
     }
 
+    public IdleSegmentReleaser getIdleSegmentReleaser() {
+        return this.idleSegmentReleaser;
+    }
+
     /**
      * Returns the number of time units (usually ms) that the engine is idle
      * according to the session clock or -1 if it is not idle.
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.core.management;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.reteoo.CompositeObjectSinkAdapter;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter.FieldIndex;
+import org.drools.core.reteoo.ObjectSinkPropagator;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.util.LinkedList;
+
+/**
+ * The monitor MBean for the indexing of the alpha nodes of an ObjectTypeNode.
+ * The sink propagator is read on each invocation, since it is replaced when sinks are added or removed.
+ */
+public class AlphaIndexingMonitor implements AlphaIndexingMonitorMBean {
+
+    private final ObjectTypeNode node;
+
+    public AlphaIndexingMonitor(ObjectTypeNode node) {
+        this.node = node;
+    }
+
+    public int getObjectTypeNodeId() {
+        return node.getId();
+    }
+
+    public String getObjectType() {
+        return node.getObjectType().toString();
+    }
+
+    public boolean isAdaptiveIndexing() {
+        CompositeObjectSinkAdapter adapter = getAdapter();
+        return adapter != null && adapter.isAdaptiveIndexing();
+    }
+
+    public double getAssertRate() {
+        CompositeObjectSinkAdapter adapter = getAdapter();
+        return adapter != null ? adapter.getAssertRate() : 0;
+    }
+
+    public long getReorganizationCount() {
+        CompositeObjectSinkAdapter adapter = getAdapter();
+        return adapter != null ? adapter.getReorganizationCount() : 0;
+    }
+
+    /**
+     * Describes, for each indexable field, how its alpha nodes are currently evaluated
+     */
+    public String[] getFieldIndexes() {
+        CompositeObjectSinkAdapter adapter = getAdapter();
+        if ( adapter == null ) {
+            return new String[0];
+        }
+        List<String> result = new ArrayList<>();
+        describe( adapter.getHashedFieldIndexes(), false, result );
+        describe( adapter.getRangeIndexedFieldIndexes(), true, result );
+        return result.toArray( new String[result.size()] );
+    }
+
+    private static void describe(LinkedList<FieldIndex> fieldIndexes, boolean range, List<String> result) {
+        if ( fieldIndexes == null ) {
+            return;
+        }
+        for ( FieldIndex fieldIndex = fieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+            String mode;
+            if ( range ) {
+                mode = fieldIndex.isRangeIndexed() ? "RANGE_INDEXED" : "SCANNED";
+            } else {
+                mode = fieldIndex.isHashed() ? "HASHED" : "SCANNED";
+            }
+            result.add( "field=" + fieldIndex.getIndex() +
+                        ", constraints=" + ( range ? "range" : "equality" ) +
+                        ", mode=" + mode +
+                        ", sinks=" + fieldIndex.getCount() +
+                        ", hitsPerAssert=" + String.format( "%.2f", fieldIndex.getHitsPerAssert() ) );
+        }
+    }
+
+    private CompositeObjectSinkAdapter getAdapter() {
+        ObjectSinkPropagator propagator = node.getObjectSinkPropagator();
+        return propagator instanceof CompositeObjectSinkAdapter ? (CompositeObjectSinkAdapter) propagator : null;
+    }
+}
@@ -26,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.management.MBeanServer;
+import javax.management.NotCompliantMBeanException;
 import javax.management.ObjectName;
 import javax.management.StandardMBean;
 import java.lang.management.ManagementFactory;
@@ -175,6 +176,8 @@ public class DroolsManagementAgent
                         try {
                             KieSessionMonitoringImpl mbean = new KieSessionMonitoringImpl( cbsKey.kcontainerId, cbsKey.kbaseId, cbsKey.ksessionName );
                             registerMBean( cbsKey, mbean, mbean.getName() );
+                            registerMemoryMonitor( cbsKey, mbean );
+                            registerEventDispatchMonitor( cbsKey, mbean );
                             mbeansRefs.put(cbsKey, mbean);
                             return mbean;
                         } catch ( Exception e ) {
@@ -187,6 +190,24 @@ public class DroolsManagementAgent
         }
     }
 
+    private void registerMemoryMonitor(CBSKey cbsKey, KieSessionMonitoringImpl sessionMonitor) {
+        try {
+            StandardMBean adapter = new StandardMBean( new KieSessionMemoryMonitor( sessionMonitor ), KieSessionMemoryMonitorMBean.class );
+            registerMBean( cbsKey, adapter, createObjectName( sessionMonitor.getName().toString() + ",group=Memory" ) );
+        } catch ( NotCompliantMBeanException e ) {
+            logger.error("Unable to register KieSessionMemoryMonitor mbean into the platform MBean Server", e);
+        }
+    }
+
+    private void registerEventDispatchMonitor(CBSKey cbsKey, KieSessionMonitoringImpl sessionMonitor) {
+        try {
+            StandardMBean adapter = new StandardMBean( new KieSessionEventDispatchMonitor( sessionMonitor ), KieSessionEventDispatchMonitorMBean.class );
+            registerMBean( cbsKey, adapter, createObjectName( sessionMonitor.getName().toString() + ",group=EventDispatch" ) );
+        } catch ( NotCompliantMBeanException e ) {
+            logger.error("Unable to register KieSessionEventDispatchMonitor mbean into the platform MBean Server", e);
+        }
+    }
+
     public void registerMBean(Object owner,
                               Object mbean,
                               ObjectName name) {
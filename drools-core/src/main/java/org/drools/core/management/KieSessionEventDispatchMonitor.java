@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.core.management;
+package org.drools.core.management;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.drools.core.event.AsyncEventDispatcher;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.kie.api.event.KieRuntimeEventManager;
+
+/**
+ * The monitor MBean for the asynchronous event dispatchers of the sessions attached to a KieSession mbean.
+ * The counters are summed over the sessions, while the delivery lags are the largest among them.
+ * The sessions notifying their listeners synchronously are ignored.
+ */
+public class KieSessionEventDispatchMonitor implements KieSessionEventDispatchMonitorMBean {
+
+    private final KieSessionMonitoringImpl sessionMonitor;
+
+    public KieSessionEventDispatchMonitor(KieSessionMonitoringImpl sessionMonitor) {
+        this.sessionMonitor = sessionMonitor;
+    }
+
+    /**
+     * @return the number of events published and not yet delivered to the listeners
+     */
+    public long getEventLag() {
+        return sum( AsyncEventDispatcher::getLag );
+    }
+
+    public long getPublishedEvents() {
+        return sum( AsyncEventDispatcher::getPublishedEvents );
+    }
+
+    public long getDeliveredEvents() {
+        return sum( AsyncEventDispatcher::getDeliveredEvents );
+    }
+
+    /**
+     * @return the number of events discarded because the buffer was full
+     */
+    public long getDroppedEvents() {
+        return sum( AsyncEventDispatcher::getDroppedEvents );
+    }
+
+    /**
+     * @return the number of events delivered on the firing thread because the buffer was full
+     */
+    public long getSynchronousEvents() {
+        return sum( AsyncEventDispatcher::getSynchronousEvents );
+    }
+
+    public long getLastDeliveryLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis( max( AsyncEventDispatcher::getLastDeliveryLagNanos ) );
+    }
+
+    public long getMaxDeliveryLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis( max( AsyncEventDispatcher::getMaxDeliveryLagNanos ) );
+    }
+
+    private long sum(ToLongFunction<AsyncEventDispatcher> counter) {
+        long result = 0;
+        for ( AsyncEventDispatcher dispatcher : getDispatchers() ) {
+            result += counter.applyAsLong( dispatcher );
+        }
+        return result;
+    }
+
+    private long max(ToLongFunction<AsyncEventDispatcher> counter) {
+        long result = 0;
+        for ( AsyncEventDispatcher dispatcher : getDispatchers() ) {
+            result = Math.max( result, counter.applyAsLong( dispatcher ) );
+        }
+        return result;
+    }
+
+    private List<AsyncEventDispatcher> getDispatchers() {
+        List<AsyncEventDispatcher> dispatchers = new ArrayList<>();
+        for ( KieRuntimeEventManager ksession : sessionMonitor.ksessions ) {
+            if ( ksession instanceof StatefulKnowledgeSessionImpl && ( (StatefulKnowledgeSessionImpl) ksession ).getAsyncEventDispatcher() != null ) {
+                dispatchers.add( ( (StatefulKnowledgeSessionImpl) ksession ).getAsyncEventDispatcher() );
+            }
+        }
+        return dispatchers;
+    }
+}
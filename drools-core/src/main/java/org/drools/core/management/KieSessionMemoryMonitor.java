@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.core.management;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.phreak.NodeMemoryAccounting;
+import org.drools.core.phreak.NodeMemoryAccounting.MemoryUsage;
+import org.kie.api.event.KieRuntimeEventManager;
+
+/**
+ * The monitor MBean for the memory used by the sessions attached to a KieSession mbean.
+ * The memories are read on each invocation without synchronizing with the sessions, so while they are
+ * running the returned figures are an approximation.
+ */
+public class KieSessionMemoryMonitor implements KieSessionMemoryMonitorMBean {
+
+    private final KieSessionMonitoringImpl sessionMonitor;
+
+    public KieSessionMemoryMonitor(KieSessionMonitoringImpl sessionMonitor) {
+        this.sessionMonitor = sessionMonitor;
+    }
+
+    public long getTotalLeftTuples() {
+        long result = 0;
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            for ( MemoryUsage usage : NodeMemoryAccounting.getNodeMemoryUsages( session ).values() ) {
+                result += usage.getLeftTuples();
+            }
+        }
+        return result;
+    }
+
+    public long getTotalRightTuples() {
+        long result = 0;
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            for ( MemoryUsage usage : NodeMemoryAccounting.getNodeMemoryUsages( session ).values() ) {
+                result += usage.getRightTuples();
+            }
+        }
+        return result;
+    }
+
+    public long getEstimatedMemoryBytes() {
+        long result = 0;
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            for ( MemoryUsage usage : NodeMemoryAccounting.getNodeMemoryUsages( session ).values() ) {
+                result += usage.getEstimatedBytes();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Describes the memory used by each rule, summed over the sessions, from the largest
+     */
+    public String[] getRuleMemoryUsages() {
+        Map<String, MemoryUsage> usages = new HashMap<>();
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            NodeMemoryAccounting.getRuleMemoryUsages( session ).forEach( (rule, usage) -> usages.merge( rule, usage, MemoryUsage::sum ) );
+        }
+        return describe( usages );
+    }
+
+    /**
+     * Describes the memory used by each node, summed over the sessions, from the largest
+     */
+    public String[] getNodeMemoryUsages() {
+        Map<Integer, MemoryUsage> usages = new HashMap<>();
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            NodeMemoryAccounting.getNodeMemoryUsages( session ).forEach( (nodeId, usage) -> usages.merge( nodeId, usage, MemoryUsage::sum ) );
+        }
+        return describe( usages );
+    }
+
+    public long getReleasedSegmentCount() {
+        long result = 0;
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            result += session.getIdleSegmentReleaser().getReleasedSegments();
+        }
+        return result;
+    }
+
+    /**
+     * Releases the memories of all the segments currently unlinked and empty, regardless of how long they have been idle
+     */
+    public void releaseIdleSegmentMemories() {
+        for ( StatefulKnowledgeSessionImpl session : getSessions() ) {
+            session.getIdleSegmentReleaser().scheduleRelease( session, 0 );
+        }
+    }
+
+    private static String[] describe(Map<?, MemoryUsage> usages) {
+        List<String> result = new ArrayList<>();
+        for ( MemoryUsage usage : NodeMemoryAccounting.sortByEstimatedBytes( usages ) ) {
+            result.add( usage.toString() );
+        }
+        return result.toArray( new String[result.size()] );
+    }
+
+    private List<StatefulKnowledgeSessionImpl> getSessions() {
+        List<StatefulKnowledgeSessionImpl> sessions = new ArrayList<>();
+        for ( KieRuntimeEventManager ksession : sessionMonitor.ksessions ) {
+            if ( ksession instanceof StatefulKnowledgeSessionImpl ) {
+                sessions.add( (StatefulKnowledgeSessionImpl) ksession );
+            }
+        }
+        return sessions;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.core.management;
+
+/**
+ * The monitor MBean exposing the memory used by the beta memories of the sessions of a KieSession mbean
+ */
+public interface KieSessionMemoryMonitorMBean {
+
+    long getTotalLeftTuples();
+
+    long getTotalRightTuples();
+
+    long getEstimatedMemoryBytes();
+
+    String[] getRuleMemoryUsages();
+
+    String[] getNodeMemoryUsages();
+
+    long getReleasedSegmentCount();
+
+    void releaseIdleSegmentMemories();
+}
@@ -72,6 +72,10 @@ public class KnowledgeBaseMonitoring
     private static final String ATTR_GLOBALS       = "Globals";
     private static final String ATTR_SESSION_COUNT = "SessionCount";
     private static final String ATTR_ID            = "Id";
+    private static final String ATTR_LAZY_BUILT_RULES_COUNT  = "LazyBuiltRulesCount";
+    private static final String ATTR_LAZY_NETWORK_BUILD_TIME = "LazyNetworkBuildTime";
+    private static final String ATTR_LAST_SESSION_UPDATE_TIME = "LastSessionUpdateTime";
+    private static final String ATTR_MAX_SESSION_UPDATE_TIME  = "MaxSessionUpdateTime";
 
     private static final String OP_STOP_INTERNAL_MBEANS  = "stopInternalMBeans";
     private static final String OP_START_INTERNAL_MBEANS = "startInternalMBeans";
@@ -124,7 +128,7 @@ public class KnowledgeBaseMonitoring
      *  Initialize the open mbean metadata
      */
     private void initOpenMBeanInfo() {
-        OpenMBeanAttributeInfoSupport[] attributes = new OpenMBeanAttributeInfoSupport[4];
+        OpenMBeanAttributeInfoSupport[] attributes = new OpenMBeanAttributeInfoSupport[8];
         OpenMBeanConstructorInfoSupport[] constructors = new OpenMBeanConstructorInfoSupport[1];
         OpenMBeanOperationInfoSupport[] operations = new OpenMBeanOperationInfoSupport[2];
         MBeanNotificationInfo[] notifications = new MBeanNotificationInfo[0];
@@ -156,6 +160,30 @@ public class KnowledgeBaseMonitoring
                                                                true,
                                                                false,
                                                                false );
+            attributes[4] = new OpenMBeanAttributeInfoSupport( ATTR_LAZY_BUILT_RULES_COUNT,
+                                                               "Number of rules whose network has been lazily built when their agenda group got the focus",
+                                                               SimpleType.LONG,
+                                                               true,
+                                                               false,
+                                                               false );
+            attributes[5] = new OpenMBeanAttributeInfoSupport( ATTR_LAZY_NETWORK_BUILD_TIME,
+                                                               "Total time in milliseconds spent building the network of lazy agenda groups",
+                                                               SimpleType.LONG,
+                                                               true,
+                                                               false,
+                                                               false );
+            attributes[6] = new OpenMBeanAttributeInfoSupport( ATTR_LAST_SESSION_UPDATE_TIME,
+                                                               "Time in microseconds spent updating the last session affected by the addition or removal of a rule",
+                                                               SimpleType.LONG,
+                                                               true,
+                                                               false,
+                                                               false );
+            attributes[7] = new OpenMBeanAttributeInfoSupport( ATTR_MAX_SESSION_UPDATE_TIME,
+                                                               "Longest time in microseconds spent updating a session affected by the addition or removal of a rule",
+                                                               SimpleType.LONG,
+                                                               true,
+                                                               false,
+                                                               false );
             //No arg constructor                
             constructors[0] = new OpenMBeanConstructorInfoSupport( "KnowledgeBaseMonitoringMXBean",
                                                                    "Constructs a KnowledgeBaseMonitoringMXBean instance.",
@@ -226,6 +254,22 @@ public class KnowledgeBaseMonitoring
         return kbase.getWorkingMemoryCounter();
     }
 
+    public long getLazyBuiltRulesCount() {
+        return kbase.getLazyBuiltRulesCount();
+    }
+
+    public long getLazyNetworkBuildTime() {
+        return kbase.getLazyNetworkBuildTime();
+    }
+
+    public long getLastSessionUpdateTime() {
+        return kbase.getLastSessionUpdateTime();
+    }
+
+    public long getMaxSessionUpdateTime() {
+        return kbase.getMaxSessionUpdateTime();
+    }
+
     public void startInternalMBeans() {
         for ( EntryPointNode epn : kbase.getRete().getEntryPointNodes().values() ) {
             for ( ObjectTypeNode otn : epn.getObjectTypeNodes().values() ) {
@@ -239,6 +283,15 @@ public class KnowledgeBaseMonitoring
                 } catch ( NotCompliantMBeanException e ) {
                     logger.error( "Unable to register ObjectTypeNodeMonitor mbean for OTN "+otn.getObjectType()+" into the platform MBean Server", e);
                 }
+                try {
+                    final StandardMBean adapter = new StandardMBean(new AlphaIndexingMonitor( otn ), AlphaIndexingMonitorMBean.class);
+                    ObjectName name = DroolsManagementAgent.createObjectName( this.name.toString() + ",group=EntryPoints,EntryPoint=" + otnm.getNameSufix() + ",ObjectType=" + ((ClassObjectType) otn.getObjectType()).getClassName() + ",component=AlphaIndexing" );
+                    DroolsManagementAgent.getInstance().registerMBean( kbase,
+                                                                       adapter,
+                                                                       name );
+                } catch ( NotCompliantMBeanException e ) {
+                    logger.error( "Unable to register AlphaIndexingMonitor mbean for OTN "+otn.getObjectType()+" into the platform MBean Server", e);
+                }
             }
         }
         final KieBaseConfigurationMonitor kbcm = new KieBaseConfigurationMonitor( kbase.getConfiguration() );
@@ -277,6 +330,14 @@ public class KnowledgeBaseMonitoring
             }
         } else if ( attributeName.equals( ATTR_PACKAGES ) ) {
             return getPackages();
+        } else if ( attributeName.equals( ATTR_LAZY_BUILT_RULES_COUNT ) ) {
+            return Long.valueOf( getLazyBuiltRulesCount() );
+        } else if ( attributeName.equals( ATTR_LAZY_NETWORK_BUILD_TIME ) ) {
+            return Long.valueOf( getLazyNetworkBuildTime() );
+        } else if ( attributeName.equals( ATTR_LAST_SESSION_UPDATE_TIME ) ) {
+            return Long.valueOf( getLastSessionUpdateTime() );
+        } else if ( attributeName.equals( ATTR_MAX_SESSION_UPDATE_TIME ) ) {
+            return Long.valueOf( getMaxSessionUpdateTime() );
         }
         throw new AttributeNotFoundException( "Cannot find " + attributeName + " attribute " );
     }
@@ -24,6 +24,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.drools.core.common.EventFactHandle;
 import org.drools.core.common.InternalAgenda;
@@ -43,6 +48,8 @@ import org.drools.core.reteoo.AlphaTerminalNode;
 import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.GroupByNode.GroupByContext;
+import org.drools.core.reteoo.GroupByNode.GroupContext;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.LeftInputAdapterNode.RightTupleSinkAdapter;
 import org.drools.core.reteoo.LeftTuple;
@@ -71,6 +78,7 @@ import org.drools.core.spi.Tuple;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.LinkedList;
 import org.kie.api.definition.rule.Rule;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -100,10 +108,20 @@ public class AddRemoveRule {
         LeftTupleNode firstSplit = getNetworkSplitPoint(tn);
         PathEndNodes pathEndNodes = getPathEndNodes(kBase, firstSplit, tn, rule, hasProtos, hasWms);
 
+        if (!hasWms) {
+            for (PathEndNode node : pathEndNodes.otherEndNodes) {
+                node.resetPathMemSpec(null);
+            }
+            return;
+        }
+
+        initPathEndNodes(pathEndNodes, null);
+        List<BetaNode> newRightInputs = getNewRightInputs(pathEndNodes);
+
         // Insert the facts for the new paths. This will iterate each new path from EndNode to the splitStart - but will not process the splitStart itself (as tha already exist).
         // It does not matter that the prior segments have not yet been processed for splitting, as this will only apply for branches of paths that did not exist before
 
-        for (InternalWorkingMemory wm : wms) {
+        updateSessions(wms, kBase, "Adding", rule, wm -> {
             wm.flushPropagations();
 
             if (NodeTypeEnums.LeftInputAdapterNode == firstSplit.getType() && firstSplit.getAssociationsSize() == 1) {
@@ -112,31 +130,23 @@ public class AddRemoveRule {
             } else {
                 PathEndNodeMemories tnms = getPathEndMemories(wm, pathEndNodes);
 
-                if (tnms.subjectPmem == null) {
-                    // If the existing PathMemories are not yet initialized there are no Segments or tuples to process
-                    continue;
-                }
-
-                Map<PathMemory, SegmentMemory[]> prevSmemsLookup = reInitPathMemories(tnms.otherPmems, null);
+                // If the existing PathMemories are not yet initialized there are no Segments or tuples to process
+                if (tnms.subjectPmem != null) {
+                    Map<PathMemory, SegmentMemory[]> prevSmemsLookup = reInitPathMemories(tnms.otherPmems);
 
-                // must collect all visited SegmentMemories, for link notification
-                Set<SegmentMemory> smemsToNotify = handleExistingPaths(tn, prevSmemsLookup, tnms.otherPmems, wm, ExistingPathStrategy.ADD_STRATEGY);
+                    // must collect all visited SegmentMemories, for link notification
+                    Set<SegmentMemory> smemsToNotify = handleExistingPaths(tn, prevSmemsLookup, tnms.otherPmems, wm, ExistingPathStrategy.ADD_STRATEGY);
 
-                addNewPaths(wm, smemsToNotify, tnms.subjectPmems);
+                    addNewPaths(wm, smemsToNotify, tnms.subjectPmems);
 
-                processLeftTuples(firstSplit, wm, true, rule);
+                    processLeftTuples(firstSplit, wm, true, rule);
 
-                notifySegments(smemsToNotify, wm);
+                    notifySegments(smemsToNotify, wm);
+                }
             }
-        }
 
-        if (hasWms) {
-            insertFacts( pathEndNodes, wms );
-        } else {
-            for (PathEndNode node : pathEndNodes.otherEndNodes) {
-                node.resetPathMemSpec(null);
-            }
-        }
+            insertFacts(newRightInputs, wm);
+        });
     }
 
     /**
@@ -159,7 +169,11 @@ public class AddRemoveRule {
         LeftTupleNode firstSplit = getNetworkSplitPoint(tn);
         PathEndNodes pathEndNodes = getPathEndNodes(kBase, firstSplit, tn, rule, hasProtos, hasWms);
 
-        for (InternalWorkingMemory wm : wms) {
+        if (hasWms) {
+            initPathEndNodes(pathEndNodes, tn);
+        }
+
+        updateSessions(wms, kBase, "Removing", rule, wm -> {
             wm.flushPropagations();
 
             PathEndNodeMemories tnms = getPathEndMemories(wm, pathEndNodes);
@@ -180,7 +194,7 @@ public class AddRemoveRule {
 
                     removeNewPaths(wm, tnms.subjectPmems);
 
-                    Map<PathMemory, SegmentMemory[]> prevSmemsLookup = reInitPathMemories(tnms.otherPmems, tn);
+                    Map<PathMemory, SegmentMemory[]> prevSmemsLookup = reInitPathMemories(tnms.otherPmems);
 
                     // must collect all visited SegmentMemories, for link notification
                     Set<SegmentMemory> smemsToNotify = handleExistingPaths(tn, prevSmemsLookup, tnms.otherPmems, wm, ExistingPathStrategy.REMOVE_STRATEGY);
@@ -193,7 +207,7 @@ public class AddRemoveRule {
                 // SubjectPmem can be null, if it was never initialized
                 tnms.subjectPmem.getRuleAgendaItem().dequeue();
             }
-        }
+        });
 
         if (!hasWms) {
             for (PathEndNode node : pathEndNodes.otherEndNodes) {
@@ -202,6 +216,76 @@ public class AddRemoveRule {
         }
     }
 
+    /**
+     * Applies the update of a rule to each session. The memories of different sessions are independent,
+     * so when the kbase is configured with a session update parallelism greater than 1 they are updated
+     * concurrently, on the shared kie executor and on the calling thread.
+     */
+    private static void updateSessions(Collection<InternalWorkingMemory> wms, InternalKnowledgeBase kBase,
+                                       String action, RuleImpl rule, Consumer<InternalWorkingMemory> update) {
+        int parallelism = Math.min(kBase.getConfiguration().getSessionUpdateParallelism(), wms.size());
+        if (parallelism <= 1) {
+            for (InternalWorkingMemory wm : wms) {
+                updateSession(kBase, wm, action, rule, update);
+            }
+            return;
+        }
+
+        List<InternalWorkingMemory> sessions = new ArrayList<InternalWorkingMemory>(wms);
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < sessions.size(); i = next.getAndIncrement()) {
+                updateSession(kBase, sessions.get(i), action, rule, update);
+            }
+        };
+
+        Executor executor = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[parallelism - 1];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(worker, executor);
+        }
+        worker.run();
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static void updateSession(InternalKnowledgeBase kBase, InternalWorkingMemory wm, String action, RuleImpl rule, Consumer<InternalWorkingMemory> update) {
+        long start = System.nanoTime();
+        update.accept(wm);
+        long elapsed = System.nanoTime() - start;
+        kBase.recordSessionUpdateTime(elapsed);
+        if (log.isDebugEnabled()) {
+            log.debug("{} Rule {} updated session {} in {} us", action, rule.getName(), wm.getIdentifier(), elapsed / 1000);
+        }
+    }
+
+    /**
+     * Computes in advance the state of the nodes that is lazily initialized while updating a session,
+     * so that it is never written by the sessions updated concurrently
+     */
+    private static void initPathEndNodes(PathEndNodes pathEndNodes, TerminalNode removingTN) {
+        for (PathEndNode node : pathEndNodes.otherEndNodes) {
+            node.resetPathMemSpec(removingTN); // re-initialise the PathMemories
+            node.getPathMemSpec();
+            node.getPathNodes();
+        }
+        for (PathEndNode node : pathEndNodes.subjectEndNodes) {
+            node.getPathMemSpec();
+            node.getPathNodes();
+        }
+    }
+
     public interface ExistingPathStrategy {
         ExistingPathStrategy ADD_STRATEGY = new AddExistingPaths();
         ExistingPathStrategy REMOVE_STRATEGY = new RemoveExistingPaths();
@@ -692,7 +776,7 @@ public class AddRemoveRule {
     }
 
 
-    private static Map<PathMemory, SegmentMemory[]> reInitPathMemories(List<PathMemory> pathMems, TerminalNode removingTN) {
+    private static Map<PathMemory, SegmentMemory[]> reInitPathMemories(List<PathMemory> pathMems) {
         Map<PathMemory, SegmentMemory[]> previousSmems = new HashMap<PathMemory, SegmentMemory[]>();
         for (PathMemory pmem : pathMems) {
             // Re initialise all the PathMemories
@@ -702,9 +786,8 @@ public class AddRemoveRule {
                 RightInputAdapterNode rian = (RightInputAdapterNode) pmem.getPathEndNode();
                 startRianLts = rian.getStartTupleSource();
             }
-            PathEndNode pathEndNode = pmem.getPathEndNode();
-            pathEndNode.resetPathMemSpec(removingTN); // re-initialise the PathMemory
-            AbstractTerminalNode.initPathMemory(pathEndNode, pmem);
+            // the PathMemSpec of the PathEndNode has already been re-initialised
+            AbstractTerminalNode.initPathMemory(pmem.getPathEndNode(), pmem);
         }
         return previousSmems;
     }
@@ -759,7 +842,8 @@ public class AddRemoveRule {
         lian.getObjectSource().updateSink(liaAdapter, pctx, wm);
     }
 
-    private static void insertFacts(PathEndNodes endNodes, Collection<InternalWorkingMemory> wms) {
+    private static List<BetaNode> getNewRightInputs(PathEndNodes endNodes) {
+        List<BetaNode> betaNodes = new ArrayList<BetaNode>();
         Set<LeftTupleNode> visited = new HashSet<LeftTupleNode>();
 
         for ( PathEndNode endNode : endNodes.subjectEndNodes ) {
@@ -773,15 +857,20 @@ public class AddRemoveRule {
                     BetaNode bn = (BetaNode) node;
 
                     if (!bn.isRightInputIsRiaNode()) {
-                        for ( InternalWorkingMemory wm : wms ) {
-                            PropagationContextFactory pctxFactory = wm.getKnowledgeBase().getConfiguration().getComponentFactory().getPropagationContextFactory();
-                            final PropagationContext pctx = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.Type.RULE_ADDITION, null, null, null);
-                            bn.getRightInput().updateSink(bn, pctx, wm);
-                        }
+                        betaNodes.add( bn );
                     }
                 }
             }
         }
+        return betaNodes;
+    }
+
+    private static void insertFacts(List<BetaNode> betaNodes, InternalWorkingMemory wm) {
+        PropagationContextFactory pctxFactory = wm.getKnowledgeBase().getConfiguration().getComponentFactory().getPropagationContextFactory();
+        for ( BetaNode bn : betaNodes ) {
+            final PropagationContext pctx = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.Type.RULE_ADDITION, null, null, null);
+            bn.getRightInput().updateSink(bn, pctx, wm);
+        }
     }
 
     private static void deleteRightInputData(LeftTupleSink node, InternalWorkingMemory wm) {
@@ -874,6 +963,14 @@ public class AddRemoveRule {
                     FastIterator it = bm.getLeftTupleMemory().fullFastIterator();
                     Tuple        lt = BetaNode.getFirstTuple(bm.getLeftTupleMemory(), it);
                     for (; lt != null; lt = (LeftTuple) it.next(lt)) {
+                        if (lt.getContextObject() instanceof GroupByContext) {
+                            for (GroupContext group : (( GroupByContext ) lt.getContextObject()).getGroups()) {
+                                if (group.getResultLeftTuple() != null) {
+                                    visitChild(group.getResultLeftTuple(), insert, wm, rule);
+                                }
+                            }
+                            continue;
+                        }
                         AccumulateContext accctx = (AccumulateContext) lt.getContextObject();
                         visitChild(accctx.getResultLeftTuple(), insert, wm, rule);
                     }
@@ -1063,7 +1160,13 @@ public class AddRemoveRule {
                 PhreakRuleTerminalNode.doLeftDelete( pmem.getActualAgenda( wm ), pmem.getRuleAgendaItem().getRuleExecutor(), lt );
             }
         } else {
-            if (lt.getContextObject() instanceof AccumulateContext) {
+            if (lt.getContextObject() instanceof GroupByContext) {
+                for (GroupContext group : (( GroupByContext ) lt.getContextObject()).getGroups()) {
+                    if (group.getResultLeftTuple() != null) {
+                        iterateLeftTuple( group.getResultLeftTuple(), wm );
+                    }
+                }
+            } else if (lt.getContextObject() instanceof AccumulateContext) {
                 LeftTuple resultLt = (( AccumulateContext ) lt.getContextObject()).getResultLeftTuple();
                 if (resultLt != null) {
                     iterateLeftTuple( resultLt, wm );
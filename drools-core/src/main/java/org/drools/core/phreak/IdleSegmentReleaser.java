@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.phreak;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.common.NetworkNode;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable;
+
+/**
+ * Releases the memory held by the segments of a session that stay unlinked and without tuples.
+ *
+ * The beta memories of a segment keep the hash tables they grew to while the segment was active, even
+ * after all their tuples have been removed. When a segment is found unlinked and empty for longer than
+ * the idle time, its beta memories are reset, shrinking their tables back to the initial size: they
+ * grow again, lazily, when the segment receives new tuples. The segment and node memories themselves
+ * are kept, since path memories and parent segments refer to them.
+ *
+ * The segments are released on the thread evaluating the network, by a propagation entry that
+ * {@link #onIdle(InternalWorkingMemory)} enqueues when the session becomes idle.
+ */
+public class IdleSegmentReleaser {
+
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    private final long idleTime;
+
+    private Map<SegmentMemory, Long> idleSince = new IdentityHashMap<>();
+
+    private volatile long lastSweep;
+
+    private final AtomicBoolean sweepScheduled = new AtomicBoolean( false );
+
+    private final AtomicLong releasedSegments = new AtomicLong();
+
+    /**
+     * @param idleTime the time in milliseconds after which an unlinked and empty segment is released,
+     *                 or 0 to release segments only on request
+     */
+    public IdleSegmentReleaser( long idleTime ) {
+        this.idleTime = idleTime;
+        this.lastSweep = System.currentTimeMillis();
+    }
+
+    public long getIdleTime() {
+        return idleTime;
+    }
+
+    /**
+     * The number of segments released since the session has been created
+     */
+    public long getReleasedSegments() {
+        return releasedSegments.get();
+    }
+
+    /**
+     * Called when the session becomes idle: schedules the release of the idle segments if they haven't
+     * been checked for half the idle time
+     */
+    public void onIdle( InternalWorkingMemory wm ) {
+        if ( idleTime > 0 && System.currentTimeMillis() - lastSweep >= idleTime / 2 && sweepScheduled.compareAndSet( false, true ) ) {
+            scheduleRelease( wm, idleTime );
+        }
+    }
+
+    /**
+     * Schedules the release of the segments that have been found unlinked and empty for at least
+     * the given time, on the thread evaluating the network of the session
+     */
+    public void scheduleRelease( InternalWorkingMemory wm, long minIdleTime ) {
+        wm.getAgenda().addPropagation( new PropagationEntry.AbstractPropagationEntry() {
+            @Override
+            public boolean requiresImmediateFlushing() {
+                return true;
+            }
+
+            @Override
+            public void execute( InternalWorkingMemory wm ) {
+                try {
+                    releaseIdleSegments( wm, System.currentTimeMillis(), minIdleTime );
+                } finally {
+                    sweepScheduled.set( false );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Releases the segments that have been found unlinked and empty for at least the given time.
+     * It must be called by the thread evaluating the network of the session.
+     *
+     * @return the number of released segments
+     */
+    public int releaseIdleSegments( InternalWorkingMemory wm, long now, long minIdleTime ) {
+        lastSweep = now;
+        Map<SegmentMemory, Long> stillIdle = new IdentityHashMap<>();
+        int released = 0;
+        for ( SegmentMemory smem : getSegmentMemories( wm ) ) {
+            if ( !isIdle( smem ) ) {
+                continue;
+            }
+            Long since = idleSince.get( smem );
+            if ( since == null ) {
+                since = now;
+            }
+            if ( now - since >= minIdleTime && release( smem ) ) {
+                released++;
+            }
+            stillIdle.put( smem, since );
+        }
+        idleSince = stillIdle;
+        releasedSegments.addAndGet( released );
+        return released;
+    }
+
+    private static Set<SegmentMemory> getSegmentMemories( InternalWorkingMemory wm ) {
+        Set<SegmentMemory> smems = Collections.newSetFromMap( new IdentityHashMap<>() );
+        for ( NetworkNode node : NodeMemoryAccounting.getNetworkNodes( wm ) ) {
+            Memory memory = wm.getNodeMemories().peekNodeMemory( node );
+            if ( memory != null && memory.getSegmentMemory() != null ) {
+                smems.add( memory.getSegmentMemory() );
+            }
+        }
+        return smems;
+    }
+
+    private static boolean isIdle( SegmentMemory smem ) {
+        if ( smem.isSegmentLinked() || !smem.getStagedLeftTuples().isEmpty() ) {
+            return false;
+        }
+        for ( Memory memory = smem.getNodeMemories().getFirst(); memory != null; memory = memory.getNext() ) {
+            BetaMemory betaMemory = NodeMemoryAccounting.getBetaMemory( memory );
+            if ( betaMemory != null && ( size( betaMemory.getLeftTupleMemory() ) > 0 || size( betaMemory.getRightTupleMemory() ) > 0 ||
+                                         betaMemory.getCounter() != 0 || !betaMemory.getStagedRightTuples().isEmpty() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resets the beta memories of the given idle segment whose tables have grown
+     *
+     * @return true if any memory has been released
+     */
+    private static boolean release( SegmentMemory smem ) {
+        boolean released = false;
+        for ( Memory memory = smem.getNodeMemories().getFirst(); memory != null; memory = memory.getNext() ) {
+            BetaMemory betaMemory = NodeMemoryAccounting.getBetaMemory( memory );
+            if ( betaMemory != null && ( hasGrown( betaMemory.getLeftTupleMemory() ) || hasGrown( betaMemory.getRightTupleMemory() ) ) ) {
+                betaMemory.reset();
+                released = true;
+            }
+        }
+        return released;
+    }
+
+    private static int size( TupleMemory tupleMemory ) {
+        return tupleMemory != null ? tupleMemory.size() : 0;
+    }
+
+    private static boolean hasGrown( TupleMemory tupleMemory ) {
+        return tupleMemory instanceof AbstractHashTable && ( (AbstractHashTable) tupleMemory ).getTable().length > INITIAL_TABLE_SIZE;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.common.NetworkNode;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BaseNode;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.LeftTupleNode;
+import org.drools.core.reteoo.RightInputAdapterNode;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable;
+
+/**
+ * Computes how many tuples the beta memories of a session hold, and an estimate of the heap they use,
+ * for each node and for each rule.
+ *
+ * The memories are only peeked, so the ones not created yet are not created by the accounting. They
+ * are also read without synchronizing with the session, so while the session is running the result
+ * is an approximation.
+ */
+public class NodeMemoryAccounting {
+
+    /**
+     * Estimated shallow size of a LeftTuple, with compressed references
+     */
+    public static final int LEFT_TUPLE_BYTES = 96;
+
+    /**
+     * Estimated shallow size of a RightTuple, with compressed references
+     */
+    public static final int RIGHT_TUPLE_BYTES = 88;
+
+    private static final int REFERENCE_BYTES = 4;
+
+    private NodeMemoryAccounting() { }
+
+    /**
+     * Returns the usage of the memory of each node holding tuples, keyed by node id
+     */
+    public static Map<Integer, MemoryUsage> getNodeMemoryUsages( InternalWorkingMemory wm ) {
+        Map<Integer, MemoryUsage> usages = new LinkedHashMap<>();
+        for ( NetworkNode node : getNetworkNodes( wm ) ) {
+            MemoryUsage usage = getMemoryUsage( wm, node );
+            if ( usage != null ) {
+                usages.put( node.getId(), usage );
+            }
+        }
+        return usages;
+    }
+
+    /**
+     * Returns the usage of the memories of the nodes in the network of each rule, keyed by rule name.
+     * A node shared by many rules is accounted for each of them.
+     */
+    public static Map<String, MemoryUsage> getRuleMemoryUsages( InternalWorkingMemory wm ) {
+        Map<String, MemoryUsage> usages = new LinkedHashMap<>();
+        for ( Map.Entry<String, BaseNode[]> entry : wm.getKnowledgeBase().getReteooBuilder().getTerminalNodes().entrySet() ) {
+            Set<NetworkNode> visited = new HashSet<>();
+            for ( BaseNode terminalNode : entry.getValue() ) {
+                collectNodes( (LeftTupleNode) terminalNode, visited );
+            }
+            MemoryUsage ruleUsage = new MemoryUsage( -1, entry.getKey() );
+            for ( NetworkNode node : visited ) {
+                MemoryUsage usage = getMemoryUsage( wm, node );
+                if ( usage != null ) {
+                    ruleUsage.add( usage );
+                }
+            }
+            usages.put( entry.getKey(), ruleUsage );
+        }
+        return usages;
+    }
+
+    /**
+     * Returns the nodes of the left input networks of all the rules and queries of the kbase of the given session
+     */
+    public static Set<NetworkNode> getNetworkNodes( InternalWorkingMemory wm ) {
+        Set<NetworkNode> nodes = new HashSet<>();
+        for ( BaseNode[] terminalNodes : wm.getKnowledgeBase().getReteooBuilder().getTerminalNodes().values() ) {
+            for ( BaseNode terminalNode : terminalNodes ) {
+                collectNodes( (LeftTupleNode) terminalNode, nodes );
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the given usages sorted by decreasing estimated size
+     */
+    public static List<MemoryUsage> sortByEstimatedBytes( Map<?, MemoryUsage> usages ) {
+        List<MemoryUsage> sorted = new ArrayList<>( usages.values() );
+        sorted.sort( ( u1, u2 ) -> Long.compare( u2.getEstimatedBytes(), u1.getEstimatedBytes() ) );
+        return sorted;
+    }
+
+    private static void collectNodes( LeftTupleNode node, Set<NetworkNode> visited ) {
+        while ( node != null && visited.add( node ) ) {
+            if ( node instanceof BetaNode && ( (BetaNode) node ).isRightInputIsRiaNode() ) {
+                // the subnetwork feeding the right input shares the nodes before its start with the main path
+                collectNodes( ( (RightInputAdapterNode) ( (BetaNode) node ).getRightInput() ).getLeftTupleSource(), visited );
+            }
+            node = node.getLeftTupleSource();
+        }
+    }
+
+    private static MemoryUsage getMemoryUsage( InternalWorkingMemory wm, NetworkNode node ) {
+        BetaMemory betaMemory = getBetaMemory( wm.getNodeMemories().peekNodeMemory( node ) );
+        if ( betaMemory == null ) {
+            return null;
+        }
+        MemoryUsage usage = new MemoryUsage( node.getId(), node.getClass().getSimpleName() );
+        usage.leftTuples = size( betaMemory.getLeftTupleMemory() );
+        usage.rightTuples = size( betaMemory.getRightTupleMemory() );
+        usage.estimatedBytes = usage.leftTuples * LEFT_TUPLE_BYTES + usage.rightTuples * RIGHT_TUPLE_BYTES +
+                               buckets( betaMemory.getLeftTupleMemory() ) * REFERENCE_BYTES +
+                               buckets( betaMemory.getRightTupleMemory() ) * REFERENCE_BYTES;
+        return usage;
+    }
+
+    /**
+     * Returns the beta memory holding the tuples of the given node memory, if any
+     */
+    public static BetaMemory getBetaMemory( Memory memory ) {
+        if ( memory instanceof BetaMemory ) {
+            return (BetaMemory) memory;
+        }
+        if ( memory instanceof AccumulateMemory ) {
+            return ( (AccumulateMemory) memory ).getBetaMemory();
+        }
+        if ( memory instanceof FromMemory ) {
+            return ( (FromMemory) memory ).getBetaMemory();
+        }
+        return null;
+    }
+
+    private static long size( TupleMemory tupleMemory ) {
+        return tupleMemory != null ? tupleMemory.size() : 0;
+    }
+
+    private static long buckets( TupleMemory tupleMemory ) {
+        return tupleMemory instanceof AbstractHashTable ? ( (AbstractHashTable) tupleMemory ).getTable().length : 0;
+    }
+
+    public static class MemoryUsage {
+
+        private final int nodeId;
+        private final String name;
+
+        private long leftTuples;
+        private long rightTuples;
+        private long estimatedBytes;
+
+        private MemoryUsage( int nodeId, String name ) {
+            this.nodeId = nodeId;
+            this.name = name;
+        }
+
+        private void add( MemoryUsage other ) {
+            leftTuples += other.leftTuples;
+            rightTuples += other.rightTuples;
+            estimatedBytes += other.estimatedBytes;
+        }
+
+        /**
+         * Returns a new usage, with the id and name of the first one, summing the two given usages
+         */
+        public static MemoryUsage sum( MemoryUsage usage1, MemoryUsage usage2 ) {
+            MemoryUsage sum = new MemoryUsage( usage1.nodeId, usage1.name );
+            sum.add( usage1 );
+            sum.add( usage2 );
+            return sum;
+        }
+
+        /**
+         * The id of the node, or -1 for the usage of a rule
+         */
+        public int getNodeId() {
+            return nodeId;
+        }
+
+        /**
+         * The type of the node, or the name of the rule
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getLeftTuples() {
+            return leftTuples;
+        }
+
+        public long getRightTuples() {
+            return rightTuples;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return ( nodeId >= 0 ? "node=" + nodeId + ", type=" : "rule=" ) + name +
+                   ", leftTuples=" + leftTuples +
+                   ", rightTuples=" + rightTuples +
+                   ", estimatedBytes=" + estimatedBytes;
+        }
+    }
+}
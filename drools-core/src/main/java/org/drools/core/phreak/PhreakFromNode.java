@@ -15,8 +15,11 @@
 
 package org.drools.core.phreak;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.drools.core.common.BetaConstraints;
@@ -31,6 +34,7 @@ import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.reteoo.TupleMemory;
 import org.drools.core.rule.ContextEntry;
+import org.drools.core.rule.Declaration;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.DataProvider;
 import org.drools.core.spi.PropagationContext;
@@ -68,6 +72,7 @@ public class PhreakFromNode {
             doLeftInserts(fromNode, fm, sink, wm, srcLeftTuples, trgLeftTuples);
         }
 
+        fm.clearResultsCache();
         srcLeftTuples.resetAll();
     }
 
@@ -103,10 +108,7 @@ public class PhreakFromNode {
                                             wm,
                                             leftTuple);
 
-            for (final java.util.Iterator<?> it = dataProvider.getResults(leftTuple,
-                                                                          wm,
-                                                                          propagationContext,
-                                                                          fm.providerContext); it.hasNext(); ) {
+            for (final Iterator<?> it = getResults(dataProvider, leftTuple, wm, propagationContext, fm); it.hasNext(); ) {
                 final Object object = it.next();
                 if ( (object == null) || !resultClass.isAssignableFrom( object.getClass() ) ) {
                     continue; // skip anything if it not assignable
@@ -127,6 +129,7 @@ public class PhreakFromNode {
                 }
             }
 
+            fromNode.trackInput(leftTuple);
             leftTuple.clearStaged();
             leftTuple = next;
         }
@@ -161,10 +164,18 @@ public class PhreakFromNode {
                                             leftTuple);
 
             FastIterator rightIt = LinkedList.fastIterator;
-            for (final java.util.Iterator<?> it = dataProvider.getResults(leftTuple,
-                                                                          wm,
-                                                                          propagationContext,
-                                                                          fm.providerContext); it.hasNext(); ) {
+
+            // when none of the facts read by the data provider has been modified its results cannot change,
+            // so the previous ones are reused and only the constraints depending on the left tuple are reevaluated
+            final Iterator<?> results;
+            if (fromNode.isInputModified(leftTuple)) {
+                results = getResults(dataProvider, leftTuple, wm, propagationContext, fm);
+                fromNode.trackInput(leftTuple);
+            } else {
+                results = getPreviousResults(previousMatches);
+            }
+
+            for (final Iterator<?> it = results; it.hasNext(); ) {
                 final Object object = it.next();
                 if ( (object == null) || !resultClass.isAssignableFrom( object.getClass() ) ) {
                     continue; // skip anything if it not assignable
@@ -208,6 +219,40 @@ public class PhreakFromNode {
         betaConstraints.resetTuple(context);
     }
 
+    private static Iterator<?> getResults(DataProvider dataProvider,
+                                          LeftTuple leftTuple,
+                                          InternalWorkingMemory wm,
+                                          PropagationContext propagationContext,
+                                          FromMemory fm) {
+        Map<Object, List<Object>> resultsCache = fm.getResultsCache();
+        if (resultsCache == null) {
+            return dataProvider.getResults(leftTuple, wm, propagationContext, fm.providerContext);
+        }
+
+        Declaration declaration = dataProvider.getRequiredDeclarations()[0];
+        Object input = declaration.getValue(wm, leftTuple.getObject(declaration));
+        List<Object> results = resultsCache.get(input);
+        if (results == null) {
+            results = new ArrayList<Object>();
+            for (Iterator<?> it = dataProvider.getResults(leftTuple, wm, propagationContext, fm.providerContext); it.hasNext(); ) {
+                results.add(it.next());
+            }
+            resultsCache.put(input, results);
+        }
+        return results.iterator();
+    }
+
+    private static Iterator<?> getPreviousResults(Map<Object, RightTuple> previousMatches) {
+        List<Object> results = new ArrayList<Object>();
+        FastIterator rightIt = LinkedList.fastIterator;
+        for (RightTuple rightTuple : previousMatches.values()) {
+            for (RightTuple current = rightTuple; current != null; current = (RightTuple) rightIt.next(current)) {
+                results.add(current.getFactHandle().getObject());
+            }
+        }
+        return results.iterator();
+    }
+
     public void doLeftDeletes(FromMemory fm,
                               TupleSets<LeftTuple> srcLeftTuples,
                               TupleSets<LeftTuple> trgLeftTuples,
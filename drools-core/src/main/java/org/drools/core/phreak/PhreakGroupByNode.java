@@ -0,0 +1,628 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.phreak;
+
+import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.TupleSets;
+import org.drools.core.common.TupleSetsImpl;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.GroupByNode;
+import org.drools.core.reteoo.GroupByNode.GroupByContext;
+import org.drools.core.reteoo.GroupByNode.GroupContext;
+import org.drools.core.reteoo.LeftTuple;
+import org.drools.core.reteoo.LeftTupleSink;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.rule.ContextEntry;
+import org.drools.core.rule.GroupByAccumulate;
+import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.util.AbstractHashTable;
+import org.drools.core.util.FastIterator;
+
+import static org.drools.core.phreak.RuleNetworkEvaluator.normalizeStagedTuples;
+
+/**
+ * Evaluates a GroupByNode. Differently from the PhreakAccumulateNode, that has a single accumulation and
+ * a single result for each left tuple, here each left tuple accumulates its matches in one context per group key.
+ * Inserts, updates and deletes only mark the groups they touch as dirty, and only the dirty groups are
+ * re-evaluated and propagated at the end of the node evaluation: a group is inserted when it gets its first match,
+ * updated when its matches change and deleted when its last match is removed.
+ *
+ * When the accumulate functions don't support reverse, only the matches of the dirty groups are reaccumulated.
+ */
+public class PhreakGroupByNode {
+
+    public void doNode(GroupByNode groupByNode,
+                       LeftTupleSink sink,
+                       AccumulateMemory am,
+                       InternalWorkingMemory wm,
+                       TupleSets<LeftTuple> srcLeftTuples,
+                       TupleSets<LeftTuple> trgLeftTuples,
+                       TupleSets<LeftTuple> stagedLeftTuples) {
+
+        BetaMemory bm = am.getBetaMemory();
+        TupleSets<RightTuple> srcRightTuples = bm.getStagedRightTuples().takeAll();
+
+        // the left tuples having at least one dirty group, whose groups have to be evaluated at the end
+        TupleSets<LeftTuple> tempLeftTuples = new TupleSetsImpl<LeftTuple>();
+
+        if (srcLeftTuples.getDeleteFirst() != null) {
+            // use the real target here, as dealing direct with left tuples
+            doLeftDeletes(groupByNode, am, srcLeftTuples, trgLeftTuples, stagedLeftTuples);
+        }
+
+        if (srcRightTuples.getDeleteFirst() != null) {
+            doRightDeletes(groupByNode, am, wm, srcRightTuples, tempLeftTuples);
+        }
+
+        if (srcRightTuples.getUpdateFirst() != null) {
+            RuleNetworkEvaluator.doUpdatesReorderRightMemory(bm, srcRightTuples);
+            doRightUpdates(groupByNode, am, wm, srcRightTuples, tempLeftTuples);
+        }
+
+        if (srcLeftTuples.getUpdateFirst() != null ) {
+            RuleNetworkEvaluator.doUpdatesReorderLeftMemory(bm, srcLeftTuples);
+            doLeftUpdates(groupByNode, am, wm, srcLeftTuples, tempLeftTuples);
+        }
+
+        if (srcRightTuples.getInsertFirst() != null) {
+            doRightInserts(groupByNode, am, wm, srcRightTuples, tempLeftTuples);
+        }
+
+        if (srcLeftTuples.getInsertFirst() != null) {
+            doLeftInserts(groupByNode, am, wm, srcLeftTuples, tempLeftTuples);
+        }
+
+        for (LeftTuple leftTuple = tempLeftTuples.getInsertFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            evaluateDirtyGroups(groupByNode, sink, leftTuple, wm, am, trgLeftTuples, stagedLeftTuples);
+            leftTuple.clearStaged();
+            leftTuple = next;
+        }
+
+        for (LeftTuple leftTuple = tempLeftTuples.getUpdateFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            evaluateDirtyGroups(groupByNode, sink, leftTuple, wm, am, trgLeftTuples, stagedLeftTuples);
+            leftTuple.clearStaged();
+            leftTuple = next;
+        }
+
+        srcRightTuples.resetAll();
+
+        srcLeftTuples.resetAll();
+    }
+
+    public void doLeftInserts(GroupByNode groupByNode,
+                              AccumulateMemory am,
+                              InternalWorkingMemory wm,
+                              TupleSets<LeftTuple> srcLeftTuples,
+                              TupleSets<LeftTuple> trgLeftTuples) {
+
+        GroupByAccumulate groupBy = groupByNode.getGroupByAccumulate();
+        BetaMemory bm = am.getBetaMemory();
+        TupleMemory ltm = bm.getLeftTupleMemory();
+        TupleMemory rtm = bm.getRightTupleMemory();
+        ContextEntry[] contextEntry = bm.getContext();
+        BetaConstraints constraints = groupByNode.getRawConstraints();
+
+        boolean leftTupleMemoryEnabled = groupByNode.isLeftTupleMemoryEnabled();
+
+        for (LeftTuple leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+
+            boolean useLeftMemory = leftTupleMemoryEnabled || RuleNetworkEvaluator.useLeftMemory(groupByNode, leftTuple);
+
+            if (useLeftMemory) {
+                ltm.add(leftTuple);
+            }
+
+            GroupByContext groupByContext = new GroupByContext();
+            leftTuple.setContextObject( groupByContext );
+
+            constraints.updateFromTuple( contextEntry,
+                                         wm,
+                                         leftTuple );
+
+            FastIterator rightIt = groupByNode.getRightIterator(rtm);
+
+            for (RightTuple rightTuple = groupByNode.getFirstRightTuple(leftTuple,
+                                                                        rtm,
+                                                                        null,
+                                                                        rightIt); rightTuple != null; ) {
+                RightTuple nextRightTuple = (RightTuple) rightIt.next(rightTuple);
+
+                if (constraints.isAllowedCachedLeft(contextEntry,
+                                                    rightTuple.getFactHandleForEvaluation())) {
+                    addMatch(groupByNode, groupBy, leftTuple, rightTuple, wm, am,
+                             groupByContext, useLeftMemory, true);
+
+                    if (!useLeftMemory && groupByNode.isRightInputIsRiaNode()) {
+                        // RIAN with no left memory must have their right tuples removed
+                        rtm.remove(rightTuple);
+                    }
+                }
+
+                rightTuple = nextRightTuple;
+            }
+
+            leftTuple.clearStaged();
+            trgLeftTuples.addInsert( leftTuple );
+
+            constraints.resetTuple( contextEntry );
+
+            leftTuple = next;
+        }
+        constraints.resetTuple( contextEntry );
+    }
+
+    public void doRightInserts(GroupByNode groupByNode,
+                               AccumulateMemory am,
+                               InternalWorkingMemory wm,
+                               TupleSets<RightTuple> srcRightTuples,
+                               TupleSets<LeftTuple> trgLeftTuples) {
+        GroupByAccumulate groupBy = groupByNode.getGroupByAccumulate();
+
+        BetaMemory bm = am.getBetaMemory();
+        TupleMemory ltm = bm.getLeftTupleMemory();
+        TupleMemory rtm = bm.getRightTupleMemory();
+        ContextEntry[] contextEntry = bm.getContext();
+        BetaConstraints constraints = groupByNode.getRawConstraints();
+
+        if (srcRightTuples.getInsertSize() > 32 && rtm instanceof AbstractHashTable ) {
+            ((AbstractHashTable) rtm).ensureCapacity(srcRightTuples.getInsertSize());
+        }
+
+        for (RightTuple rightTuple = srcRightTuples.getInsertFirst(); rightTuple != null; ) {
+            RightTuple next = rightTuple.getStagedNext();
+            rtm.add( rightTuple );
+
+            if ( ltm != null && ltm.size() > 0 ) {
+                addMatchesForRightTuple( groupByNode, groupBy, am, wm, ltm, contextEntry, constraints, rightTuple, trgLeftTuples );
+            }
+            rightTuple.clearStaged();
+            rightTuple = next;
+        }
+        constraints.resetFactHandle( contextEntry );
+    }
+
+    public void doLeftUpdates(GroupByNode groupByNode,
+                              AccumulateMemory am,
+                              InternalWorkingMemory wm,
+                              TupleSets<LeftTuple> srcLeftTuples,
+                              TupleSets<LeftTuple> trgLeftTuples) {
+        GroupByAccumulate groupBy = groupByNode.getGroupByAccumulate();
+        BetaMemory bm = am.getBetaMemory();
+        TupleMemory rtm = bm.getRightTupleMemory();
+        ContextEntry[] contextEntry = bm.getContext();
+        BetaConstraints constraints = groupByNode.getRawConstraints();
+
+        for (LeftTuple leftTuple = srcLeftTuples.getUpdateFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            GroupByContext groupByContext = (GroupByContext) leftTuple.getContextObject();
+            if (groupByContext == null) {
+                groupByContext = new GroupByContext();
+                leftTuple.setContextObject( groupByContext );
+            }
+
+            // a modified left tuple changes the results of all its groups, so all the matches are recalculated
+            // from scratch: the groups still having matches at the end are updated, the others deleted
+            removePreviousMatchesForLeftTuple( leftTuple );
+            for (GroupContext group : groupByContext.getGroups()) {
+                group.reset();
+                groupBy.init( am.workingMemoryContext, group.context, leftTuple, wm );
+                groupByContext.setDirty( group );
+            }
+
+            constraints.updateFromTuple(contextEntry,
+                                        wm,
+                                        leftTuple);
+
+            FastIterator rightIt = groupByNode.getRightIterator(rtm);
+            for (RightTuple rightTuple = groupByNode.getFirstRightTuple(leftTuple,
+                                                                        rtm,
+                                                                        null,
+                                                                        rightIt); rightTuple != null; rightTuple = (RightTuple) rightIt.next(rightTuple)) {
+                if (constraints.isAllowedCachedLeft(contextEntry,
+                                                    rightTuple.getFactHandleForEvaluation())) {
+                    addMatch(groupByNode, groupBy, leftTuple, rightTuple, wm, am,
+                             groupByContext, true, true);
+                }
+            }
+
+            leftTuple.clearStaged();
+            trgLeftTuples.addUpdate(leftTuple);
+
+            leftTuple = next;
+        }
+        constraints.resetTuple(contextEntry);
+    }
+
+    public void doRightUpdates(GroupByNode groupByNode,
+                               AccumulateMemory am,
+                               InternalWorkingMemory wm,
+                               TupleSets<RightTuple> srcRightTuples,
+                               TupleSets<LeftTuple> trgLeftTuples) {
+        GroupByAccumulate groupBy = groupByNode.getGroupByAccumulate();
+        BetaMemory bm = am.getBetaMemory();
+        TupleMemory ltm = bm.getLeftTupleMemory();
+        ContextEntry[] contextEntry = bm.getContext();
+        BetaConstraints constraints = groupByNode.getRawConstraints();
+
+        for (RightTuple rightTuple = srcRightTuples.getUpdateFirst(); rightTuple != null; ) {
+            RightTuple next = rightTuple.getStagedNext();
+
+            if ( ltm != null && ltm.size() > 0 ) {
+                // the modification may have moved the fact to another group, so it is removed from the groups
+                // it was accumulated into and then added to the ones its new key and constraints lead to
+                removePreviousMatchesForRightTuple( groupByNode, groupBy, rightTuple, wm, am, trgLeftTuples );
+                addMatchesForRightTuple( groupByNode, groupBy, am, wm, ltm, contextEntry, constraints, rightTuple, trgLeftTuples );
+            }
+            rightTuple.clearStaged();
+            rightTuple = next;
+        }
+        constraints.resetFactHandle(contextEntry);
+    }
+
+    public void doLeftDeletes(GroupByNode groupByNode,
+                              AccumulateMemory am,
+                              TupleSets<LeftTuple> srcLeftTuples,
+                              TupleSets<LeftTuple> trgLeftTuples,
+                              TupleSets<LeftTuple> stagedLeftTuples) {
+        TupleMemory ltm = am.getBetaMemory().getLeftTupleMemory();
+
+        for (LeftTuple leftTuple = srcLeftTuples.getDeleteFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            if (leftTuple.getMemory() != null) {
+                // it may have been staged and never actually added
+                ltm.remove(leftTuple);
+
+                final GroupByContext groupByContext = (GroupByContext) leftTuple.getContextObject();
+                leftTuple.setContextObject( null );
+
+                removePreviousMatchesForLeftTuple( leftTuple );
+
+                for (GroupContext group : groupByContext.getGroups()) {
+                    if (group.propagated) {
+                        normalizeStagedTuples( stagedLeftTuples, group.resultLeftTuple );
+                        trgLeftTuples.addDelete( group.resultLeftTuple );
+                    }
+                }
+            }
+
+            leftTuple.clearStaged();
+            leftTuple = next;
+        }
+    }
+
+    public void doRightDeletes(GroupByNode groupByNode,
+                               AccumulateMemory am,
+                               InternalWorkingMemory wm,
+                               TupleSets<RightTuple> srcRightTuples,
+                               TupleSets<LeftTuple> trgLeftTuples) {
+        TupleMemory rtm = am.getBetaMemory().getRightTupleMemory();
+        GroupByAccumulate groupBy = groupByNode.getGroupByAccumulate();
+
+        for (RightTuple rightTuple = srcRightTuples.getDeleteFirst(); rightTuple != null; ) {
+            RightTuple next = rightTuple.getStagedNext();
+            if (rightTuple.getMemory() != null) {
+                // it may have been staged and never actually added
+                rtm.remove(rightTuple);
+                removePreviousMatchesForRightTuple( groupByNode, groupBy, rightTuple, wm, am, trgLeftTuples );
+            }
+            rightTuple.clearStaged();
+            rightTuple = next;
+        }
+    }
+
+    private static void addMatchesForRightTuple(GroupByNode groupByNode,
+                                                GroupByAccumulate groupBy,
+                                                AccumulateMemory am,
+                                                InternalWorkingMemory wm,
+                                                TupleMemory ltm,
+                                                ContextEntry[] contextEntry,
+                                                BetaConstraints constraints,
+                                                RightTuple rightTuple,
+                                                TupleSets<LeftTuple> trgLeftTuples) {
+        constraints.updateFromFactHandle( contextEntry,
+                                          wm,
+                                          rightTuple.getFactHandleForEvaluation() );
+
+        FastIterator leftIt = groupByNode.getLeftIterator( ltm );
+
+        for ( LeftTuple leftTuple = groupByNode.getFirstLeftTuple( rightTuple, ltm, leftIt ); leftTuple != null; leftTuple = (LeftTuple) leftIt.next( leftTuple ) ) {
+            if ( constraints.isAllowedCachedRight( contextEntry,
+                                                   leftTuple ) ) {
+                addMatch( groupByNode, groupBy, leftTuple, rightTuple, wm, am,
+                          (GroupByContext) leftTuple.getContextObject(), true, false );
+
+                // right inserts and updates are done first
+                // so any existing leftTuples we know are updates, but only add if not already added
+                if ( leftTuple.getStagedType() == LeftTuple.NONE ) {
+                    trgLeftTuples.addUpdate( leftTuple );
+                }
+            }
+        }
+    }
+
+    private static void removePreviousMatchesForRightTuple(GroupByNode groupByNode,
+                                                           GroupByAccumulate groupBy,
+                                                           RightTuple rightTuple,
+                                                           InternalWorkingMemory wm,
+                                                           AccumulateMemory am,
+                                                           TupleSets<LeftTuple> trgLeftTuples) {
+        for (LeftTuple match = rightTuple.getFirstChild(); match != null; ) {
+            LeftTuple next = match.getRightParentNext();
+
+            LeftTuple leftTuple = match.getLeftParent();
+            removeMatch( groupByNode, groupBy, rightTuple, match, wm, am, (GroupByContext) leftTuple.getContextObject() );
+
+            if (leftTuple.getStagedType() == LeftTuple.NONE) {
+                trgLeftTuples.addUpdate(leftTuple);
+            }
+
+            match = next;
+        }
+    }
+
+    private static void removePreviousMatchesForLeftTuple(LeftTuple leftTuple) {
+        for (LeftTuple match = leftTuple.getFirstChild(); match != null; ) {
+            LeftTuple next = match.getHandleNext();
+            match.unlinkFromRightParent();
+            match.unlinkFromLeftParent();
+            match = next;
+        }
+    }
+
+    private static void addMatch(final GroupByNode groupByNode,
+                                 final GroupByAccumulate groupBy,
+                                 final LeftTuple leftTuple,
+                                 final RightTuple rightTuple,
+                                 final InternalWorkingMemory wm,
+                                 final AccumulateMemory am,
+                                 final GroupByContext groupByContext,
+                                 final boolean useLeftMemory,
+                                 final boolean leftPropagation) {
+        LeftTuple tuple = leftTuple;
+        InternalFactHandle handle = rightTuple.getFactHandle();
+
+        if (groupByNode.isUnwrapRightObject()) {
+            // if there is a subnetwork, handle must be unwrapped
+            tuple = (LeftTuple) rightTuple;
+            handle = rightTuple.getFactHandleForEvaluation();
+        }
+
+        if (leftPropagation && handle.isExpired()) {
+            return;
+        }
+
+        Object key = groupBy.getKey( tuple, handle, wm );
+        GroupContext group = groupByContext.getGroup( key );
+        if (group == null) {
+            group = groupByContext.createGroup( key, groupBy.createContext() );
+            groupBy.init( am.workingMemoryContext, group.context, leftTuple, wm );
+        }
+        group.setPropagationContext( rightTuple.getPropagationContext() );
+
+        groupBy.accumulate( am.workingMemoryContext,
+                            group.context,
+                            tuple,
+                            handle,
+                            wm );
+        group.addMatch();
+        groupByContext.setDirty( group );
+
+        // in sequential mode, we don't need to keep record of matched tuples
+        if (useLeftMemory) {
+            // linking left and right by creating a new left tuple, that remembers the group it has been accumulated into
+            LeftTuple match = groupByNode.createLeftTuple( leftTuple,
+                                                           rightTuple,
+                                                           null,
+                                                           null,
+                                                           groupByNode,
+                                                           true );
+            match.setContextObject( group );
+        }
+    }
+
+    private static void removeMatch(final GroupByNode groupByNode,
+                                    final GroupByAccumulate groupBy,
+                                    final RightTuple rightTuple,
+                                    final LeftTuple match,
+                                    final InternalWorkingMemory wm,
+                                    final AccumulateMemory am,
+                                    final GroupByContext groupByContext) {
+        // save the matching tuple and its group
+        LeftTuple leftTuple = match.getLeftParent();
+        GroupContext group = (GroupContext) match.getContextObject();
+
+        // removing link between left and right
+        match.unlinkFromLeftParent();
+        match.unlinkFromRightParent();
+
+        group.removeMatch();
+        groupByContext.setDirty( group );
+
+        if (groupBy.supportsReverse()) {
+            // if there is a subnetwork, we need to unwrap the object from inside the tuple
+            InternalFactHandle handle = rightTuple.getFactHandle();
+            LeftTuple tuple = leftTuple;
+            if (groupByNode.isUnwrapRightObject()) {
+                tuple = (LeftTuple) rightTuple;
+                handle = rightTuple.getFactHandleForEvaluation();
+            }
+            // just reverse this single match
+            groupBy.reverse( am.workingMemoryContext,
+                             group.context,
+                             tuple,
+                             handle,
+                             wm );
+        } else {
+            // otherwise the group will be recalculated once, when it gets evaluated
+            group.setReaccumulate( true );
+        }
+    }
+
+    private static void reaccumulateGroup(final GroupByNode groupByNode,
+                                          final GroupByAccumulate groupBy,
+                                          final LeftTuple leftTuple,
+                                          final InternalWorkingMemory wm,
+                                          final AccumulateMemory am,
+                                          final GroupContext group) {
+        groupBy.init( am.workingMemoryContext,
+                      group.context,
+                      leftTuple,
+                      wm );
+        for (LeftTuple childMatch = leftTuple.getFirstChild(); childMatch != null; childMatch = childMatch.getHandleNext()) {
+            if (childMatch.getContextObject() != group) {
+                continue;
+            }
+            RightTuple rightTuple = childMatch.getRightParent();
+            InternalFactHandle childHandle = rightTuple.getFactHandle();
+            LeftTuple tuple = leftTuple;
+            if (groupByNode.isUnwrapRightObject()) {
+                // if there is a subnetwork, handle must be unwrapped
+                tuple = (LeftTuple) rightTuple;
+                childHandle = rightTuple.getFactHandleForEvaluation();
+            }
+            groupBy.accumulate( am.workingMemoryContext,
+                                group.context,
+                                tuple,
+                                childHandle,
+                                wm );
+        }
+        group.setReaccumulate( false );
+    }
+
+    private static void evaluateDirtyGroups(final GroupByNode groupByNode,
+                                            final LeftTupleSink sink,
+                                            final LeftTuple leftTuple,
+                                            final InternalWorkingMemory wm,
+                                            final AccumulateMemory am,
+                                            final TupleSets<LeftTuple> trgLeftTuples,
+                                            final TupleSets<LeftTuple> stagedLeftTuples) {
+        GroupByAccumulate groupBy = groupByNode.getGroupByAccumulate();
+        GroupByContext groupByContext = (GroupByContext) leftTuple.getContextObject();
+
+        for (GroupContext group : groupByContext.takeDirtyGroups()) {
+            if (group.isEmpty()) {
+                // the last match of the group has been removed
+                groupByContext.removeGroup( group );
+                if (group.propagated) {
+                    normalizeStagedTuples( stagedLeftTuples, group.resultLeftTuple );
+                    trgLeftTuples.addDelete( group.resultLeftTuple );
+                    group.propagated = false;
+                }
+                continue;
+            }
+
+            if (group.isReaccumulate()) {
+                reaccumulateGroup( groupByNode, groupBy, leftTuple, wm, am, group );
+            }
+
+            evaluateResultConstraints( groupByNode, sink, groupBy, leftTuple, wm, am, group, trgLeftTuples, stagedLeftTuples );
+        }
+    }
+
+    private static void evaluateResultConstraints(final GroupByNode groupByNode,
+                                                  final LeftTupleSink sink,
+                                                  final GroupByAccumulate groupBy,
+                                                  final LeftTuple leftTuple,
+                                                  final InternalWorkingMemory workingMemory,
+                                                  final AccumulateMemory memory,
+                                                  final GroupContext group,
+                                                  final TupleSets<LeftTuple> trgLeftTuples,
+                                                  final TupleSets<LeftTuple> stagedLeftTuples) {
+        // get the actual result of the group
+        Object result = groupBy.createGroupResult( group.getKey(),
+                                                   groupBy.getResult( memory.workingMemoryContext,
+                                                                      group.context,
+                                                                      leftTuple,
+                                                                      workingMemory ) );
+        if (result == null) {
+            if (group.propagated) {
+                // retract
+                normalizeStagedTuples( stagedLeftTuples, group.getResultLeftTuple() );
+                trgLeftTuples.addDelete( group.getResultLeftTuple() );
+                group.propagated = false;
+            }
+            return;
+        }
+
+        if (group.getResultFactHandle() == null) {
+            final InternalFactHandle handle = groupByNode.createResultFactHandle( leftTuple.getPropagationContext(),
+                                                                                 workingMemory,
+                                                                                 leftTuple,
+                                                                                 result );
+
+            group.setResultFactHandle( handle );
+
+            group.setResultLeftTuple( sink.createLeftTuple( handle, leftTuple, sink ) );
+        } else {
+            group.getResultFactHandle().setObject( result );
+        }
+
+        // First alpha node filters
+        AlphaNodeFieldConstraint[] resultConstraints = groupByNode.getResultConstraints();
+        BetaConstraints resultBinder = groupByNode.getResultBinder();
+        boolean isAllowed = true;
+        for ( AlphaNodeFieldConstraint resultConstraint : resultConstraints ) {
+            if ( !resultConstraint.isAllowed( group.resultFactHandle,
+                                              workingMemory ) ) {
+                isAllowed = false;
+                break;
+            }
+        }
+        if (isAllowed) {
+            resultBinder.updateFromTuple( memory.resultsContext,
+                                          workingMemory,
+                                          leftTuple );
+            if (!resultBinder.isAllowedCachedLeft( memory.resultsContext,
+                                                   group.getResultFactHandle() )) {
+                isAllowed = false;
+            }
+            resultBinder.resetTuple( memory.resultsContext );
+        }
+
+        LeftTuple childLeftTuple = group.getResultLeftTuple();
+        if (group.getPropagationContext() != null) {
+            childLeftTuple.setPropagationContext( group.getPropagationContext() );
+            group.setPropagationContext( null );
+        } else {
+            childLeftTuple.setPropagationContext( leftTuple.getPropagationContext() );
+        }
+
+        if (group.propagated) {
+            normalizeStagedTuples( stagedLeftTuples, childLeftTuple );
+
+            if (isAllowed) {
+                // modify
+                trgLeftTuples.addUpdate( childLeftTuple );
+            } else {
+                // retract
+                trgLeftTuples.addDelete( childLeftTuple );
+                group.propagated = false;
+            }
+        } else if (isAllowed) {
+            // assert
+            trgLeftTuples.addInsert( childLeftTuple );
+            group.propagated = true;
+        }
+    }
+}
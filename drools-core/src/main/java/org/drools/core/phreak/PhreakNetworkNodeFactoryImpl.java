@@ -53,6 +53,11 @@ public class PhreakNetworkNodeFactoryImpl implements PhreakNetworkNodeFactory {
         return new PhreakAccumulateNode();
     }
 
+    @Override
+    public PhreakGroupByNode createPhreakGroupByNode() {
+        return new PhreakGroupByNode();
+    }
+
     @Override
     public PhreakBranchNode createPhreakBranchNode() {
         return new PhreakBranchNode();
@@ -209,6 +209,43 @@ public interface PropagationEntry {
         }
     }
 
+    /**
+     * Propagation of a batch of facts inserted with a single call. The facts are still propagated one by one and in
+     * insertion order, so the network sees exactly the same sequence of inserts, but the batch is enqueued only once.
+     */
+    class InsertAll extends AbstractPropagationEntry {
+
+        private final InternalFactHandle[] handles;
+        private final PropagationContext[] contexts;
+        private final ObjectTypeConf[] objectTypeConfs;
+        private final int size;
+
+        public InsertAll( InternalFactHandle[] handles, PropagationContext[] contexts, ObjectTypeConf[] objectTypeConfs, int size, InternalWorkingMemory workingMemory ) {
+            this.handles = handles;
+            this.contexts = contexts;
+            this.objectTypeConfs = objectTypeConfs;
+            this.size = size;
+
+            long currentTime = workingMemory.getTimerService().getCurrentTime();
+            for ( int i = 0; i < size; i++ ) {
+                if ( objectTypeConfs[i].isEvent() ) {
+                    Insert.scheduleExpiration( workingMemory, handles[i], contexts[i], objectTypeConfs[i], currentTime );
+                }
+            }
+        }
+
+        public void execute( InternalWorkingMemory wm ) {
+            for ( int i = 0; i < size; i++ ) {
+                Insert.propagate( handles[i], contexts[i], wm, objectTypeConfs[i] );
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Insert of " + size + " facts";
+        }
+    }
+
     class Update extends AbstractPropagationEntry {
         private final InternalFactHandle handle;
         private final PropagationContext context;
@@ -38,6 +38,7 @@ import org.drools.core.reteoo.ConditionalBranchNode.ConditionalBranchMemory;
 import org.drools.core.reteoo.EvalConditionNode;
 import org.drools.core.reteoo.EvalConditionNode.EvalMemory;
 import org.drools.core.reteoo.ExistsNode;
+import org.drools.core.reteoo.GroupByNode;
 import org.drools.core.reteoo.FromNode;
 import org.drools.core.reteoo.FromNode.FromMemory;
 import org.drools.core.reteoo.JoinNode;
@@ -84,6 +85,7 @@ public class RuleNetworkEvaluator {
     private static final PhreakNotNode          pNotNode    = PhreakNetworkNodeFactory.Factory.get().createPhreakNotNode();
     private static final PhreakExistsNode       pExistsNode = PhreakNetworkNodeFactory.Factory.get().createPhreakExistsNode();
     private static final PhreakAccumulateNode   pAccNode    = PhreakNetworkNodeFactory.Factory.get().createPhreakAccumulateNode();
+    private static final PhreakGroupByNode      pGroupByNode = PhreakNetworkNodeFactory.Factory.get().createPhreakGroupByNode();
     private static final PhreakBranchNode       pBranchNode = PhreakNetworkNodeFactory.Factory.get().createPhreakBranchNode();
     private static final PhreakQueryNode        pQueryNode  = PhreakNetworkNodeFactory.Factory.get().createPhreakQueryNode();
     private static final PhreakTimerNode        pTimerNode  = PhreakNetworkNodeFactory.Factory.get().createPhreakTimerNode();
@@ -580,8 +582,13 @@ public class RuleNetworkEvaluator {
                 break;
             }
             case NodeTypeEnums.AccumulateNode: {
-                pAccNode.doNode((AccumulateNode) node, sink, am, wm,
-                                srcTuples, trgTuples, stagedLeftTuples);
+                if (node instanceof GroupByNode) {
+                    pGroupByNode.doNode((GroupByNode) node, sink, am, wm,
+                                        srcTuples, trgTuples, stagedLeftTuples);
+                } else {
+                    pAccNode.doNode((AccumulateNode) node, sink, am, wm,
+                                    srcTuples, trgTuples, stagedLeftTuples);
+                }
                 break;
             }
         }
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reactive;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.runtime.Channel;
+
+/**
+ * A channel publishing to a single subscriber the objects sent to it by the consequences of the rules.
+ * It has to be registered on a session with {@link org.kie.api.runtime.KieRuntime#registerChannel(String, Channel)}.
+ *
+ * The objects are delivered as the subscriber requests them. The ones not requested yet are kept in a buffer
+ * and, when the buffer is full, the thread sending to the channel waits until the subscriber requests more:
+ * a slow subscriber throttles the firing of the rules. The wait is bounded by the send timeout, after which
+ * the {@link OverflowPolicy} decides what happens to the object, so that a subscriber that stopped requesting
+ * cannot block a session forever, for instance one running {@link org.kie.api.runtime.KieSession#fireUntilHalt()}.
+ *
+ * All the signals to the subscriber, errors included, are delivered serially by a single thread at a time.
+ */
+public class ChannelPublisher<T> implements Flow.Publisher<T>, Channel {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    public static final long DEFAULT_SEND_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * What to do with an object sent to the channel when the buffer is still full once the send timeout elapsed
+     */
+    public enum OverflowPolicy {
+        /** The object being sent is discarded */
+        DROP_LATEST,
+        /** The oldest buffered object is discarded to make room for the one being sent */
+        DROP_OLDEST,
+        /** The subscriber is notified with an error and the publisher doesn't accept any further object */
+        ERROR
+    }
+
+    private static final Flow.Subscription NO_OP_SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request( long n ) { }
+
+        @Override
+        public void cancel() { }
+    };
+
+    private final int bufferSize;
+    private final long sendTimeoutNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final ArrayDeque<T> buffer;
+
+    // all the following fields are guarded by this
+    private Flow.Subscriber<? super T> subscriber;
+    private long demand;
+    private long droppedCount;
+    private Throwable error;
+    private boolean draining;
+    private boolean completed;
+    private boolean cancelled;
+    private boolean terminated;
+
+    public ChannelPublisher() {
+        this( DEFAULT_BUFFER_SIZE );
+    }
+
+    public ChannelPublisher( int bufferSize ) {
+        this( bufferSize, DEFAULT_SEND_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, OverflowPolicy.ERROR );
+    }
+
+    public ChannelPublisher( int bufferSize, long sendTimeout, TimeUnit unit, OverflowPolicy overflowPolicy ) {
+        if ( bufferSize <= 0 ) {
+            throw new IllegalArgumentException( "The buffer size must be positive: " + bufferSize );
+        }
+        if ( sendTimeout < 0 ) {
+            throw new IllegalArgumentException( "The send timeout cannot be negative: " + sendTimeout );
+        }
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = unit.toNanos( sendTimeout );
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new ArrayDeque<>( Math.min( bufferSize, 256 ) );
+    }
+
+    @Override
+    public void subscribe( Flow.Subscriber<? super T> subscriber ) {
+        synchronized ( this ) {
+            if ( this.subscriber != null ) {
+                subscriber.onSubscribe( NO_OP_SUBSCRIPTION );
+                subscriber.onError( new IllegalStateException( "This publisher already has a subscriber" ) );
+                return;
+            }
+            this.subscriber = subscriber;
+        }
+        subscriber.onSubscribe( new ChannelSubscription() );
+        drain();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void send( Object object ) {
+        synchronized ( this ) {
+            long remaining = sendTimeoutNanos;
+            while ( buffer.size() >= bufferSize && !isClosed() && remaining > 0 ) {
+                long start = System.nanoTime();
+                try {
+                    TimeUnit.NANOSECONDS.timedWait( this, remaining );
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException( "Interrupted while waiting for the subscriber of the channel", e );
+                }
+                remaining -= System.nanoTime() - start;
+            }
+            if ( isClosed() ) {
+                return;
+            }
+            if ( buffer.size() >= bufferSize ) {
+                switch ( overflowPolicy ) {
+                    case DROP_LATEST:
+                        droppedCount++;
+                        return;
+                    case DROP_OLDEST:
+                        buffer.poll();
+                        droppedCount++;
+                        break;
+                    case ERROR:
+                        setError( new IllegalStateException( "The subscriber of the channel didn't request any object for " +
+                                                             TimeUnit.NANOSECONDS.toMillis( sendTimeoutNanos ) + "ms with " + bufferSize + " objects buffered" ) );
+                        break;
+                }
+            }
+            if ( error == null ) {
+                buffer.add( ( T ) object );
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Completes the publisher: the subscriber is notified when all the objects already sent have been delivered
+     */
+    public void complete() {
+        synchronized ( this ) {
+            completed = true;
+            notifyAll();
+        }
+        drain();
+    }
+
+    public synchronized int getBufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the number of objects discarded by the {@link OverflowPolicy#DROP_LATEST} or {@link OverflowPolicy#DROP_OLDEST} policies
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private boolean isClosed() {
+        return cancelled || completed || error != null;
+    }
+
+    private void setError( Throwable throwable ) {
+        if ( error == null && !cancelled && !terminated ) {
+            error = throwable;
+            buffer.clear();
+            notifyAll();
+        }
+    }
+
+    private void drain() {
+        Flow.Subscriber<? super T> s;
+        synchronized ( this ) {
+            if ( draining || subscriber == null ) {
+                return;
+            }
+            draining = true;
+            s = subscriber;
+        }
+
+        while ( true ) {
+            T item = null;
+            Throwable failure = null;
+            boolean complete = false;
+            synchronized ( this ) {
+                if ( terminated || ( cancelled && error == null ) ) {
+                    draining = false;
+                    return;
+                }
+                if ( error != null ) {
+                    terminated = true;
+                    failure = error;
+                } else if ( !buffer.isEmpty() && demand > 0 ) {
+                    item = buffer.poll();
+                    demand--;
+                    notifyAll();
+                } else if ( buffer.isEmpty() && completed ) {
+                    terminated = true;
+                    complete = true;
+                }
+                if ( item == null ) {
+                    draining = false;
+                }
+            }
+
+            if ( item == null ) {
+                if ( failure != null ) {
+                    s.onError( failure );
+                } else if ( complete ) {
+                    s.onComplete();
+                }
+                return;
+            }
+            s.onNext( item );
+        }
+    }
+
+    private class ChannelSubscription implements Flow.Subscription {
+
+        @Override
+        public void request( long n ) {
+            synchronized ( ChannelPublisher.this ) {
+                if ( n <= 0 ) {
+                    setError( new IllegalArgumentException( "The number of requested items must be positive: " + n ) );
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized ( ChannelPublisher.this ) {
+                cancelled = true;
+                buffer.clear();
+                ChannelPublisher.this.notifyAll();
+            }
+        }
+    }
+}
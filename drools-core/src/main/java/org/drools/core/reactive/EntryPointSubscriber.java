@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reactive;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.rule.EntryPointId;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A subscriber inserting the items it receives into an entry point of a session, requesting new items
+ * only when the ones already inserted have been propagated by the engine.
+ *
+ * Items are requested in batches of batchSize. After a whole batch has been inserted, a marker is queued
+ * behind its insertions in the propagation list: the engine executes it only when those insertions have
+ * been propagated, and only then the batch is subtracted from the outstanding items and more are requested.
+ * In this way the items requested and not yet propagated never exceed the high-water mark, so a producer
+ * is throttled by the actual throughput of the engine instead of growing the propagation list.
+ *
+ * Propagations are drained by a thread running fireUntilHalt, or by any call flushing them like fireAllRules:
+ * if none of them is running, no more items are requested after the first high-water mark.
+ */
+public class EntryPointSubscriber<T> implements Flow.Subscriber<T> {
+
+    private static final Logger log = LoggerFactory.getLogger( EntryPointSubscriber.class );
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    public static final int DEFAULT_HIGH_WATER_MARK = 1024;
+
+    private final WorkingMemoryEntryPoint entryPoint;
+    private final int batchSize;
+    private final long highWaterMark;
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final AtomicLong insertedCount = new AtomicLong();
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    // guarded by this
+    private long requested;
+    private long drained;
+
+    // only accessed by onNext and onComplete, that are signalled serially
+    private int insertedInBatch;
+
+    public EntryPointSubscriber( KieSession session ) {
+        this( session.getEntryPoint( EntryPointId.DEFAULT.getEntryPointId() ), DEFAULT_BATCH_SIZE, DEFAULT_HIGH_WATER_MARK );
+    }
+
+    public EntryPointSubscriber( KieSession session, String entryPointName, int batchSize, int highWaterMark ) {
+        this( session.getEntryPoint( entryPointName ), batchSize, highWaterMark );
+    }
+
+    public EntryPointSubscriber( EntryPoint entryPoint, int batchSize, int highWaterMark ) {
+        if ( entryPoint == null ) {
+            throw new IllegalArgumentException( "Unknown entry point" );
+        }
+        if ( batchSize <= 0 ) {
+            throw new IllegalArgumentException( "The batch size must be positive: " + batchSize );
+        }
+        this.entryPoint = ( WorkingMemoryEntryPoint ) entryPoint;
+        this.batchSize = batchSize;
+        // only whole batches are requested, so that each of them is followed by its marker
+        this.highWaterMark = Math.max( batchSize, ( highWaterMark / batchSize ) * batchSize );
+    }
+
+    @Override
+    public void onSubscribe( Flow.Subscription subscription ) {
+        if ( this.subscription != null || cancelled ) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        synchronized ( this ) {
+            requested = highWaterMark;
+        }
+        subscription.request( highWaterMark );
+    }
+
+    @Override
+    public void onNext( T item ) {
+        if ( cancelled ) {
+            return;
+        }
+        try {
+            entryPoint.insert( item );
+        } catch (RuntimeException e) {
+            completion.completeExceptionally( e );
+            cancelSubscription();
+            return;
+        }
+        insertedCount.incrementAndGet();
+        if ( ++insertedInBatch == batchSize ) {
+            insertedInBatch = 0;
+            getWorkingMemory().addPropagation( new BatchDrained( batchSize, false ) );
+        }
+    }
+
+    @Override
+    public void onError( Throwable throwable ) {
+        log.error( "Publisher of entry point " + entryPoint.getEntryPointId() + " failed", throwable );
+        completion.completeExceptionally( throwable );
+    }
+
+    @Override
+    public void onComplete() {
+        // the completion is signalled when the last items have been propagated
+        getWorkingMemory().addPropagation( new BatchDrained( insertedInBatch, true ) );
+        insertedInBatch = 0;
+    }
+
+    /**
+     * Cancels the subscription: the items received after this call are not inserted
+     */
+    public void cancel() {
+        cancelSubscription();
+        completion.complete( null );
+    }
+
+    /**
+     * Returns a future completed when all the items of a completed publisher have been propagated,
+     * or when this subscriber is cancelled. It is completed exceptionally if the publisher fails
+     * or an insertion throws an exception.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    public long getInsertedCount() {
+        return insertedCount.get();
+    }
+
+    /**
+     * Returns the number of items requested to the publisher whose insertion has not been propagated yet
+     */
+    public synchronized long getOutstandingCount() {
+        return requested - drained;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    private void cancelSubscription() {
+        cancelled = true;
+        Flow.Subscription s = subscription;
+        if ( s != null ) {
+            s.cancel();
+        }
+    }
+
+    private InternalWorkingMemory getWorkingMemory() {
+        return entryPoint.getInternalWorkingMemory();
+    }
+
+    private void onDrained( int count ) {
+        long demand;
+        synchronized ( this ) {
+            drained += count;
+            demand = highWaterMark - ( requested - drained );
+            if ( demand < batchSize || cancelled ) {
+                return;
+            }
+            requested += demand;
+        }
+        subscription.request( demand );
+    }
+
+    private class BatchDrained extends PropagationEntry.AbstractPropagationEntry {
+
+        private final int count;
+        private final boolean last;
+
+        private BatchDrained( int count, boolean last ) {
+            this.count = count;
+            this.last = last;
+        }
+
+        @Override
+        public void execute( InternalWorkingMemory wm ) {
+            if ( last ) {
+                completion.complete( null );
+            } else {
+                onDrained( count );
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Drained " + count + " items from " + entryPoint.getEntryPointId();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reactive;
+
+/**
+ * The Reactive Streams interfaces, with the same names and contracts of the ones of java.util.concurrent.Flow.
+ * They are replicated here since that class is not available on Java 8: an adapter to the JDK or to the
+ * org.reactivestreams interfaces only needs to forward each call to the corresponding method.
+ */
+public final class Flow {
+
+    private Flow() { }
+
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        void subscribe( Subscriber<? super T> subscriber );
+    }
+
+    public interface Subscriber<T> {
+
+        void onSubscribe( Subscription subscription );
+
+        void onNext( T item );
+
+        void onError( Throwable throwable );
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+
+        void request( long n );
+
+        void cancel();
+    }
+}
@@ -73,6 +73,31 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
 
     private Map<NetworkNode, NetworkNode> sinksMap;
 
+    /** With adaptive indexing one in ADAPTIVE_SAMPLE_RATE asserted facts is used to sample the selectivity of the field indexes */
+    public static final int    ADAPTIVE_SAMPLE_RATE  = 64;
+
+    /** With adaptive indexing the indexes are re-evaluated every ADAPTIVE_WINDOW_SIZE asserted facts */
+    public static final int    ADAPTIVE_WINDOW_SIZE  = 4096;
+
+    /** The asserts per second above which the adapter is organized on its statistics instead of the static thresholds */
+    public static final double ADAPTIVE_HOT_RATE     = 1000;
+
+    /** The cost of a lookup in a range index, as a number of constraint evaluations */
+    public static final double RANGE_LOOKUP_COST     = 2;
+
+    private static final byte  ADAPTIVE_UNKNOWN  = 0;
+    private static final byte  ADAPTIVE_DISABLED = 1;
+    private static final byte  ADAPTIVE_ENABLED  = 2;
+
+    // the statistics are collected without synchronization by the sessions sharing this adapter: a lost update
+    // only makes them a bit less accurate, while the reorganization is always performed with all the sessions inactive
+    private transient byte             adaptiveIndexing;
+    private transient long             assertCounter;
+    private transient long             windowStart;
+    private transient volatile double  assertRate;
+    private transient volatile boolean reorganizationPending;
+    private transient volatile long    reorganizationCount;
+
     public CompositeObjectSinkAdapter() {
         this( 3, 3 );
     }
@@ -147,7 +172,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
 
                 //DROOLS-678 : prevent null values from being hashed as 0s
                 final FieldValue value = ((IndexableConstraint)alphaNode.getConstraint()).getField();
-                if ( fieldIndex.getCount() >= this.alphaNodeHashingThreshold && this.alphaNodeHashingThreshold != 0 && ! value.isNull() ) {
+                if ( ( fieldIndex.isHashed() || fieldIndex.getCount() >= this.alphaNodeHashingThreshold && this.alphaNodeHashingThreshold != 0 ) && ! value.isNull() ) {
                     if ( !fieldIndex.isHashed() ) {
                         hashSinks( fieldIndex );
                     }
@@ -174,7 +199,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 final int index = internalReadAccessor.getIndex();
                 final FieldIndex fieldIndex = registerFieldIndexForRange(index, internalReadAccessor);
                 final FieldValue value = indexableConstraint.getField();
-                if (fieldIndex.getCount() >= this.alphaNodeRangeIndexThreshold && this.alphaNodeRangeIndexThreshold != 0 && !value.isNull()) {
+                if ((fieldIndex.isRangeIndexed() || fieldIndex.getCount() >= this.alphaNodeRangeIndexThreshold && this.alphaNodeRangeIndexThreshold != 0) && !value.isNull()) {
                     if (!fieldIndex.isRangeIndexed()) {
                         rangeIndexSinks(fieldIndex);
                     }
@@ -559,6 +584,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                                       final PropagationContext context,
                                       final InternalWorkingMemory workingMemory) {
         final Object object = factHandle.getObject();
+        final boolean sampled = isSampled( workingMemory );
 
         // Iterates the FieldIndex collection, which tells you if particularly field is hashed or not
         // if the field is hashed then it builds the hashkey to return the correct sink for the current objects slot's
@@ -571,6 +597,9 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 }
                 // this field is hashed so set the existing hashKey and see if there is a sink for it
                 final AlphaNode sink = (AlphaNode) this.hashedSinkMap.get( new HashKey( fieldIndex, object ) );
+                if ( sampled ) {
+                    fieldIndex.sample( sink != null ? 1 : 0 );
+                }
                 if ( sink != null ) {
                     // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
                     sink.getObjectSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
@@ -587,6 +616,9 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 }
                 AlphaRangeIndex alphaRangeIndex = this.rangeIndexMap.get(fieldIndex);
                 Collection<AlphaNode> alphaNodes = alphaRangeIndex.getMatchingAlphaNodes(object);
+                if (sampled) {
+                    fieldIndex.sample(alphaNodes.size());
+                }
                 for (AlphaNode sink : alphaNodes) {
                     // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
                     sink.getObjectSinkPropagator().propagateAssertObject(factHandle, context, workingMemory);
@@ -594,6 +626,10 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
             }
         }
 
+        if ( sampled ) {
+            sampleUnindexedSinks( factHandle, workingMemory );
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -625,6 +661,188 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
         }
     }
 
+    /**
+     * Counts an asserted fact when adaptive indexing is enabled, closing the statistics window when it is full,
+     * and returns true if the selectivity of the field indexes has to be sampled on this fact
+     */
+    private boolean isSampled(InternalWorkingMemory workingMemory) {
+        if ( workingMemory == null ) {
+            return false;
+        }
+        if ( this.adaptiveIndexing == ADAPTIVE_UNKNOWN ) {
+            this.adaptiveIndexing = workingMemory.getKnowledgeBase().getConfiguration().isAlphaNodeAdaptiveIndexing() ? ADAPTIVE_ENABLED : ADAPTIVE_DISABLED;
+            this.windowStart = System.nanoTime();
+        }
+        if ( this.adaptiveIndexing == ADAPTIVE_DISABLED ) {
+            return false;
+        }
+        final long count = ++this.assertCounter;
+        if ( count % ADAPTIVE_WINDOW_SIZE == 0 ) {
+            closeWindow( workingMemory );
+        }
+        return count % ADAPTIVE_SAMPLE_RATE == 0;
+    }
+
+    private void sampleUnindexedSinks(InternalFactHandle factHandle, InternalWorkingMemory workingMemory) {
+        if ( this.hashedFieldIndexes != null ) {
+            for ( FieldIndex fieldIndex = this.hashedFieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+                if ( !fieldIndex.isHashed() ) {
+                    fieldIndex.sample( countAllowedSinks( this.hashableSinks, fieldIndex, factHandle, workingMemory ) );
+                }
+            }
+        }
+        if ( this.rangeIndexedFieldIndexes != null ) {
+            for ( FieldIndex fieldIndex = this.rangeIndexedFieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+                if ( !fieldIndex.isRangeIndexed() ) {
+                    fieldIndex.sample( countAllowedSinks( this.rangeIndexableSinks, fieldIndex, factHandle, workingMemory ) );
+                }
+            }
+        }
+    }
+
+    private static int countAllowedSinks(ObjectSinkNodeList sinks, FieldIndex fieldIndex, InternalFactHandle factHandle, InternalWorkingMemory workingMemory) {
+        int allowed = 0;
+        if ( sinks != null ) {
+            for ( ObjectSinkNode sink = sinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
+                final AlphaNodeFieldConstraint constraint = ((AlphaNode) sink).getConstraint();
+                if ( ((IndexableConstraint) constraint).getFieldExtractor().getIndex() == fieldIndex.getIndex() &&
+                     constraint.isAllowed( factHandle, workingMemory ) ) {
+                    allowed++;
+                }
+            }
+        }
+        return allowed;
+    }
+
+    private void closeWindow(InternalWorkingMemory workingMemory) {
+        final long now = System.nanoTime();
+        this.assertRate = ADAPTIVE_WINDOW_SIZE * 1_000_000_000.0 / Math.max( 1, now - this.windowStart );
+        this.windowStart = now;
+
+        if ( !this.reorganizationPending && needsReorganization() ) {
+            this.reorganizationPending = true;
+            // the sinks are shared by all the sessions, so they are reorganized as a kbase modification
+            workingMemory.getKnowledgeBase().enqueueModification( () -> {
+                try {
+                    reorganize();
+                } finally {
+                    this.reorganizationPending = false;
+                }
+            } );
+        }
+    }
+
+    private boolean isHot() {
+        return this.assertRate >= ADAPTIVE_HOT_RATE;
+    }
+
+    /**
+     * On a hot adapter the sinks of a field are hashed as soon as there are at least 2 of them, since a single
+     * lookup replaces all their evaluations. Otherwise the static threshold of the kbase is used.
+     * A threshold of 0 disables the hashing in both cases.
+     */
+    private boolean shouldBeHashed(FieldIndex fieldIndex) {
+        if ( this.alphaNodeHashingThreshold == 0 ) {
+            return false;
+        }
+        return fieldIndex.getCount() >= ( isHot() ? 2 : this.alphaNodeHashingThreshold );
+    }
+
+    /**
+     * On a hot adapter the sinks of a field are range indexed when the evaluations saved by the index are more than
+     * the cost of the lookup and of collecting the matching sinks: a range index of poorly selective constraints,
+     * which mostly all match, is not worth it. Otherwise the static threshold of the kbase is used.
+     * A threshold of 0 disables the range indexing in both cases.
+     */
+    private boolean shouldBeRangeIndexed(FieldIndex fieldIndex) {
+        if ( this.alphaNodeRangeIndexThreshold == 0 ) {
+            return false;
+        }
+        if ( isHot() && fieldIndex.getSampledAsserts() > 0 ) {
+            final int count = fieldIndex.getCount();
+            final double indexCost = RANGE_LOOKUP_COST + ( Math.log( count ) / Math.log( 2 ) ) + fieldIndex.getHitsPerAssert();
+            return count > indexCost;
+        }
+        return fieldIndex.getCount() >= this.alphaNodeRangeIndexThreshold;
+    }
+
+    private boolean needsReorganization() {
+        if ( this.hashedFieldIndexes != null ) {
+            for ( FieldIndex fieldIndex = this.hashedFieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+                if ( fieldIndex.isHashed() != shouldBeHashed( fieldIndex ) ) {
+                    return true;
+                }
+            }
+        }
+        if ( this.rangeIndexedFieldIndexes != null ) {
+            for ( FieldIndex fieldIndex = this.rangeIndexedFieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+                if ( fieldIndex.isRangeIndexed() != shouldBeRangeIndexed( fieldIndex ) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hashes, range indexes or leaves unindexed the sinks of each field according to the statistics collected so far.
+     * It must be invoked only while no session is propagating through this adapter.
+     */
+    public void reorganize() {
+        if ( this.hashedFieldIndexes != null ) {
+            for ( FieldIndex fieldIndex = this.hashedFieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+                final boolean hash = shouldBeHashed( fieldIndex );
+                if ( hash && !fieldIndex.isHashed() && this.hashableSinks != null ) {
+                    hashSinks( fieldIndex );
+                } else if ( !hash && fieldIndex.isHashed() ) {
+                    unHashSinks( fieldIndex );
+                }
+                fieldIndex.resetSamples();
+            }
+        }
+        if ( this.rangeIndexedFieldIndexes != null ) {
+            for ( FieldIndex fieldIndex = this.rangeIndexedFieldIndexes.getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext() ) {
+                final boolean rangeIndex = shouldBeRangeIndexed( fieldIndex );
+                if ( rangeIndex && !fieldIndex.isRangeIndexed() ) {
+                    rangeIndexSinks( fieldIndex );
+                } else if ( !rangeIndex && fieldIndex.isRangeIndexed() ) {
+                    unRangeIndexSinks( fieldIndex, this.rangeIndexMap.get( fieldIndex ) );
+                }
+                fieldIndex.resetSamples();
+            }
+        }
+        this.sinks = null;
+        this.reorganizationCount++;
+    }
+
+    /**
+     * Reorganizes the sinks as if the last statistics window had measured the given rate of asserted facts per second.
+     * It must be invoked only while no session is propagating through this adapter.
+     */
+    public void reorganize(final double assertRate) {
+        this.assertRate = assertRate;
+        reorganize();
+    }
+
+    public boolean isAdaptiveIndexing() {
+        return this.adaptiveIndexing == ADAPTIVE_ENABLED;
+    }
+
+    /**
+     * Returns the rate of the asserted facts, per second, measured on the last statistics window
+     */
+    public double getAssertRate() {
+        return this.assertRate;
+    }
+
+    public long getReorganizationCount() {
+        return this.reorganizationCount;
+    }
+
+    public LinkedList<FieldIndex> getRangeIndexedFieldIndexes() {
+        return this.rangeIndexedFieldIndexes;
+    }
+
     public void propagateModifyObject(final InternalFactHandle factHandle,
                                       final ModifyPreviousTuples modifyPreviousTuples,
                                       final PropagationContext context,
@@ -1217,6 +1435,10 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
         private FieldIndex           previous;
         private FieldIndex           next;
 
+        // statistics of the adaptive indexing, not serialized
+        private transient long       sampledAsserts;
+        private transient long       sampledHits;
+
         public FieldIndex() {
         }
 
@@ -1283,6 +1505,27 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
             this.count--;
         }
 
+        public void sample(final int hits) {
+            this.sampledAsserts++;
+            this.sampledHits += hits;
+        }
+
+        public void resetSamples() {
+            this.sampledAsserts = 0;
+            this.sampledHits = 0;
+        }
+
+        public long getSampledAsserts() {
+            return this.sampledAsserts;
+        }
+
+        /**
+         * Returns the average number of sinks of this field matched by a sampled fact
+         */
+        public double getHitsPerAssert() {
+            return this.sampledAsserts == 0 ? 0 : (double) this.sampledHits / this.sampledAsserts;
+        }
+
         public FieldIndex getNext() {
             return this.next;
         }
@@ -241,6 +241,27 @@ public class EntryPointNode extends ObjectSource
     }
 
 
+    public void assertObjects(final InternalFactHandle[] handles,
+                              final PropagationContext[] contexts,
+                              final ObjectTypeConf[] objectTypeConfs,
+                              final int size,
+                              final InternalWorkingMemory workingMemory) {
+        if ( size == 0 ) {
+            return;
+        }
+        if ( log.isTraceEnabled() ) {
+            log.trace("Insert of {} facts", size);
+        }
+
+        if ( partitionsEnabled ) {
+            for ( int i = 0; i < size; i++ ) {
+                PropagationEntry.Insert.execute( handles[i], contexts[i], workingMemory, objectTypeConfs[i] );
+            }
+        } else {
+            workingMemory.addPropagation( new PropagationEntry.InsertAll( handles, contexts, objectTypeConfs, size, workingMemory ) );
+        }
+    }
+
     public void modifyObject(final InternalFactHandle handle,
                              final PropagationContext pctx,
                              final ObjectTypeConf objectTypeConf,
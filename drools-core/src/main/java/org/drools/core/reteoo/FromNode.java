@@ -22,6 +22,7 @@ import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -35,11 +36,15 @@ import org.drools.core.common.Memory;
 import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.UpdateContext;
 import org.drools.core.reteoo.builder.BuildContext;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.From;
 import org.drools.core.rule.Pattern;
+import org.drools.core.rule.PatternSource;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.ClassWireable;
 import org.drools.core.spi.DataProvider;
+import org.drools.core.spi.GlobalExtractor;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.spi.Tuple;
@@ -72,6 +77,8 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
 
     protected boolean                    tupleMemoryEnabled;
 
+    protected boolean                    inputTracked;
+
     protected transient ObjectTypeConf   objectTypeConf;
 
     public FromNode() {
@@ -96,6 +103,8 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         resultClass = this.from.getResultClass();
 
         initMasks(context, tupleSource);
+        inputTracked = context.getKnowledgeBase().getConfiguration().isFromResultsCache() &&
+                       dataProvider.isInputTrackable() && isInputTrackable( dataProvider.getRequiredDeclarations() );
 
         hashcode = calculateHashCode();
     }
@@ -108,6 +117,7 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         betaConstraints = (BetaConstraints) in.readObject();
         tupleMemoryEnabled = in.readBoolean();
         from = (From) in.readObject();
+        inputTracked = in.readBoolean();
         resultClass = from.getResultClass();
     }
 
@@ -118,6 +128,7 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         out.writeObject( betaConstraints );
         out.writeBoolean( tupleMemoryEnabled );
         out.writeObject( from );
+        out.writeBoolean( inputTracked );
     }
 
     private int calculateHashCode() {
@@ -212,6 +223,52 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         return mask;
     }
 
+    private static boolean isInputTrackable( Declaration[] declarations ) {
+        if ( declarations == null || declarations.length == 0 ) {
+            // without declarations the results only depend on globals or constants, that cannot be tracked
+            return false;
+        }
+        for ( Declaration declaration : declarations ) {
+            if ( declaration.getPattern() == null || declaration.isFromXpathChunk() || declaration.getExtractor() instanceof GlobalExtractor ) {
+                // globals can change without a modify
+                return false;
+            }
+            PatternSource source = declaration.getPattern().getSource();
+            if ( source != null && !(source instanceof EntryPointId) ) {
+                // the handles created by a from, an accumulate or a collect can change their object without a modify
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if any of the facts read by the data provider has been modified since the last time
+     * it has been evaluated for the given tuple, or if this cannot be told. Every modify increases the
+     * recency of the modified fact handle, so it's enough to compare the highest recency of the inputs.
+     */
+    public boolean isInputModified( LeftTuple leftTuple ) {
+        return !inputTracked || !( leftTuple instanceof FromNodeLeftTuple ) ||
+               (( FromNodeLeftTuple ) leftTuple).getInputRecency() != getInputRecency( leftTuple );
+    }
+
+    public void trackInput( LeftTuple leftTuple ) {
+        if ( inputTracked && leftTuple instanceof FromNodeLeftTuple ) {
+            (( FromNodeLeftTuple ) leftTuple).setInputRecency( getInputRecency( leftTuple ) );
+        }
+    }
+
+    private long getInputRecency( LeftTuple leftTuple ) {
+        long recency = -1;
+        for ( Declaration declaration : dataProvider.getRequiredDeclarations() ) {
+            InternalFactHandle handle = leftTuple.get( declaration );
+            if ( handle != null ) {
+                recency = Math.max( recency, handle.getRecency() );
+            }
+        }
+        return recency;
+    }
+
     public Class< ? > getResultClass() {
         return resultClass;
     }
@@ -264,8 +321,13 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
                                           null,
                                           this.betaConstraints.createContext(),
                                           NodeTypeEnums.FromNode );
-        return (T) new FromMemory( beta,
-                                   this.dataProvider );
+        FromMemory memory = new FromMemory( beta,
+                                            this.dataProvider );
+        Declaration[] declarations = this.dataProvider.getRequiredDeclarations();
+        if ( config.isFromResultsCache() && dataProvider.isInputTrackable() && declarations != null && declarations.length == 1 ) {
+            memory.resultsCache = new IdentityHashMap<>();
+        }
+        return (T) memory;
     }
    
 
@@ -335,6 +397,7 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
 
         private final BetaMemory         betaMemory;
         public Object                    providerContext;
+        private Map<Object, List<Object>> resultsCache;
 
         public FromMemory(BetaMemory betaMemory,
                           DataProvider dataProvider) {
@@ -362,6 +425,21 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         public void reset() {
             this.betaMemory.reset();
             this.providerContext = dataProvider.createContext();
+            clearResultsCache();
+        }
+
+        /**
+         * Returns the results of the data provider evaluated during the current network evaluation, keyed by
+         * the identity of their single input, or null if the cache is disabled
+         */
+        public Map<Object, List<Object>> getResultsCache() {
+            return resultsCache;
+        }
+
+        public void clearResultsCache() {
+            if ( resultsCache != null ) {
+                resultsCache.clear();
+            }
         }
 
         @Override
@@ -32,6 +32,8 @@ import static java.util.stream.Collectors.joining;
 public class FromNodeLeftTuple extends BaseLeftTuple {
     private static final long  serialVersionUID = 540l;
 
+    private long inputRecency = -1;
+
     public FromNodeLeftTuple() {
         // constructor needed for serialisation
     }
@@ -90,6 +92,17 @@ public class FromNodeLeftTuple extends BaseLeftTuple {
                leftTupleMemoryEnabled );
     }
 
+    /**
+     * The highest recency of the facts read by the from node data provider when it last evaluated this tuple
+     */
+    public long getInputRecency() {
+        return inputRecency;
+    }
+
+    public void setInputRecency( long inputRecency ) {
+        this.inputRecency = inputRecency;
+    }
+
     @Override
     public Collection<Object> getAccumulatedObjects() {
         if (getContextObject() instanceof ContextOwner) {
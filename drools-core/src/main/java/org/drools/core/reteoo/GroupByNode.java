@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.builder.BuildContext;
+import org.drools.core.rule.GroupByAccumulate;
+import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.spi.PropagationContext;
+
+/**
+ * An accumulate node partitioning its matches in groups. Each left tuple holds a {@link GroupByContext}
+ * mapping every group key to the accumulation of the matches in that group, and each match holds the
+ * {@link GroupContext} it has been accumulated into. A group propagates its own result tuple, so a change
+ * to a match only re-evaluates and re-propagates the group it belongs to.
+ *
+ * It has the same node type of the AccumulateNode and uses the same memory, so segments and
+ * path memories treat it as any other accumulate.
+ */
+public class GroupByNode extends AccumulateNode {
+
+    private static final long serialVersionUID = 510l;
+
+    public GroupByNode() {
+    }
+
+    public GroupByNode(final int id,
+                       final LeftTupleSource leftInput,
+                       final ObjectSource rightInput,
+                       final AlphaNodeFieldConstraint[] resultConstraints,
+                       final BetaConstraints sourceBinder,
+                       final BetaConstraints resultBinder,
+                       final GroupByAccumulate groupBy,
+                       final boolean unwrapRightObject,
+                       final BuildContext context) {
+        super( id,
+               leftInput,
+               rightInput,
+               resultConstraints,
+               sourceBinder,
+               resultBinder,
+               groupBy,
+               unwrapRightObject,
+               context );
+    }
+
+    public GroupByAccumulate getGroupByAccumulate() {
+        return (GroupByAccumulate) this.accumulate;
+    }
+
+    @Override
+    public InternalFactHandle createResultFactHandle(final PropagationContext context,
+                                                     final InternalWorkingMemory workingMemory,
+                                                     final LeftTuple leftTuple,
+                                                     final Object result) {
+        if ( context.getReaderContext() != null &&
+             context.getReaderContext().createAccumulateHandle( context.getEntryPoint(), workingMemory, leftTuple, result, getId() ) != null ) {
+            // the results serialized with the accumulate memories are keyed by left tuple, so they cannot be told apart by group:
+            // the sessions serialized without node memories recreate the results, and the activations are matched by value
+            throw new UnsupportedOperationException( "Cannot restore the group results of the node " + getId() +
+                                                     " from a session serialized with its accumulate memory" );
+        }
+        return workingMemory.getFactHandleFactory().newFactHandle( result,
+                                                                   workingMemory.getObjectTypeConfigurationRegistry().getObjectTypeConf( context.getEntryPoint(),
+                                                                                                                                         result ),
+                                                                   workingMemory,
+                                                                   null );
+    }
+
+    /**
+     * The groups of a left tuple. It extends the AccumulateContext, so it can be found where the context of
+     * an accumulate is expected, but its result tuples are the ones of the single groups.
+     */
+    public static class GroupByContext extends AccumulateContext {
+
+        private final Map<Object, GroupContext> groups = new HashMap<>();
+        private List<GroupContext> dirtyGroups = new ArrayList<>();
+
+        public GroupContext getGroup(Object key) {
+            return groups.get( key );
+        }
+
+        public GroupContext createGroup(Object key, Object context) {
+            GroupContext group = new GroupContext( key );
+            group.context = context;
+            groups.put( key, group );
+            return group;
+        }
+
+        public void removeGroup(GroupContext group) {
+            groups.remove( group.getKey() );
+        }
+
+        public Collection<GroupContext> getGroups() {
+            return groups.values();
+        }
+
+        public boolean isEmpty() {
+            return groups.isEmpty();
+        }
+
+        public void setDirty(GroupContext group) {
+            if ( !group.dirty ) {
+                group.dirty = true;
+                dirtyGroups.add( group );
+            }
+        }
+
+        /**
+         * Returns the groups changed since the last call and resets them as clean
+         */
+        public List<GroupContext> takeDirtyGroups() {
+            List<GroupContext> dirty = dirtyGroups;
+            for ( GroupContext group : dirty ) {
+                group.dirty = false;
+            }
+            dirtyGroups = new ArrayList<>();
+            return dirty;
+        }
+    }
+
+    /**
+     * The accumulation of a single group. It intentionally doesn't extend the AccumulateContext,
+     * since it is set on the matches and not on the left tuples of the node.
+     */
+    public static class GroupContext {
+
+        private final Object       key;
+        public  Object             context;
+        public  InternalFactHandle resultFactHandle;
+        public  LeftTuple          resultLeftTuple;
+        public  boolean            propagated;
+        private PropagationContext propagationContext;
+        private int                matches;
+        private boolean            dirty;
+        private boolean            reaccumulate;
+
+        public GroupContext(Object key) {
+            this.key = key;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public InternalFactHandle getResultFactHandle() {
+            return resultFactHandle;
+        }
+
+        public void setResultFactHandle(InternalFactHandle resultFactHandle) {
+            this.resultFactHandle = resultFactHandle;
+        }
+
+        public LeftTuple getResultLeftTuple() {
+            return resultLeftTuple;
+        }
+
+        public void setResultLeftTuple(LeftTuple resultLeftTuple) {
+            this.resultLeftTuple = resultLeftTuple;
+        }
+
+        public PropagationContext getPropagationContext() {
+            return propagationContext;
+        }
+
+        public void setPropagationContext(PropagationContext propagationContext) {
+            this.propagationContext = propagationContext;
+        }
+
+        public void addMatch() {
+            matches++;
+        }
+
+        public void removeMatch() {
+            matches--;
+        }
+
+        public boolean isEmpty() {
+            return matches == 0;
+        }
+
+        public void reset() {
+            matches = 0;
+            reaccumulate = false;
+        }
+
+        public boolean isReaccumulate() {
+            return reaccumulate;
+        }
+
+        public void setReaccumulate(boolean reaccumulate) {
+            this.reaccumulate = reaccumulate;
+        }
+    }
+}
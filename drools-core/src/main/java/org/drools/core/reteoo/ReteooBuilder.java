@@ -22,7 +22,9 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -68,6 +70,9 @@ public class ReteooBuilder
 
     private Map<String, WindowNode>     namedWindows;
 
+    /** Rules whose network hasn't been built yet, grouped by agenda group */
+    private Map<String, List<RuleImpl>> lazyRules;
+
     private transient RuleBuilder       ruleBuilder;
 
     private IdGenerator                 idGenerator;
@@ -89,6 +94,7 @@ public class ReteooBuilder
         this.rules = new HashMap<>();
         this.queries = new HashMap<>();
         this.namedWindows = new HashMap<>();
+        this.lazyRules = new ConcurrentHashMap<>();
 
         //Set to 1 as Rete node is set to 0
         this.idGenerator = new IdGenerator();
@@ -117,6 +123,34 @@ public class ReteooBuilder
         }
     }
 
+    /**
+     * Registers a <code>Rule</code> whose network will be built only when
+     * its agenda group gets the focus for the first time.
+     */
+    public synchronized void addLazyRule(final RuleImpl rule) {
+        this.lazyRules.computeIfAbsent( rule.getAgendaGroup(), k -> new ArrayList<>() ).add( rule );
+    }
+
+    public boolean hasLazyRules(final String agendaGroup) {
+        return !this.lazyRules.isEmpty() && this.lazyRules.containsKey( agendaGroup );
+    }
+
+    public synchronized Collection<RuleImpl> removeLazyRules(final String agendaGroup) {
+        List<RuleImpl> rulesInGroup = this.lazyRules.remove( agendaGroup );
+        return rulesInGroup != null ? rulesInGroup : Collections.emptyList();
+    }
+
+    private boolean removeLazyRule(final RuleImpl rule) {
+        List<RuleImpl> rulesInGroup = this.lazyRules.get( rule.getAgendaGroup() );
+        if ( rulesInGroup == null || !rulesInGroup.remove( rule ) ) {
+            return false;
+        }
+        if ( rulesInGroup.isEmpty() ) {
+            this.lazyRules.remove( rule.getAgendaGroup() );
+        }
+        return true;
+    }
+
     public void addEntryPoint( String id ) {
         this.ruleBuilder.addEntryPoint( id,
                                         this.kBase );
@@ -164,6 +198,11 @@ public class ReteooBuilder
                 throw new RuntimeException("Cannot remove parent rule " + rule + " without having removed all its chikdren");
             }
 
+            if ( removeLazyRule( rule ) ) {
+                // the network of this rule has never been built, so there is nothing to remove
+                continue;
+            }
+
             final RuleRemovalContext context = new RuleRemovalContext( rule );
             context.setKnowledgeBase( kBase );
 
@@ -460,6 +499,7 @@ public class ReteooBuilder
             droolsStream.writeObject( queries );
             droolsStream.writeObject( namedWindows );
             droolsStream.writeObject( idGenerator );
+            droolsStream.writeObject( lazyRules );
         } finally {
             if ( bytes != null ) {
                 droolsStream.flush();
@@ -488,6 +528,7 @@ public class ReteooBuilder
             this.queries = (Map<String, BaseNode[]>) droolsStream.readObject();
             this.namedWindows = (Map<String, WindowNode>) droolsStream.readObject();
             this.idGenerator = (IdGenerator) droolsStream.readObject();
+            this.lazyRules = (Map<String, List<RuleImpl>>) droolsStream.readObject();
         } finally {
             if ( bytes != null ) {
                 droolsStream.close();
@@ -37,6 +37,7 @@ import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.EvalConditionNode;
 import org.drools.core.reteoo.ExistsNode;
 import org.drools.core.reteoo.FromNode;
+import org.drools.core.reteoo.GroupByNode;
 import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.LeftTupleSource;
@@ -60,6 +61,7 @@ import org.drools.core.rule.Declaration;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.EvalCondition;
 import org.drools.core.rule.From;
+import org.drools.core.rule.GroupByAccumulate;
 import org.drools.core.rule.GroupElement;
 import org.drools.core.rule.QueryElement;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
@@ -122,6 +124,9 @@ public class PhreakNodeFactory implements NodeFactory, Serializable {
     public AccumulateNode buildAccumulateNode(int id, LeftTupleSource leftInput, ObjectSource rightInput,
                                               AlphaNodeFieldConstraint[] resultConstraints, BetaConstraints sourceBinder,
                                               BetaConstraints resultBinder, Accumulate accumulate, boolean unwrapRightObject, BuildContext context ) {
+        if ( accumulate instanceof GroupByAccumulate ) {
+            return new GroupByNode( id, leftInput, rightInput, resultConstraints, sourceBinder, resultBinder, (GroupByAccumulate) accumulate, unwrapRightObject, context );
+        }
         return new AccumulateNode( id, leftInput, rightInput, resultConstraints, sourceBinder,resultBinder, accumulate, unwrapRightObject, context );
     }
 
@@ -196,6 +196,11 @@ public class From extends ConditionalElement
             return delegate.hashCode();
         }
 
+        @Override
+        public boolean isInputTrackable() {
+            return delegate.isInputTrackable();
+        }
+
         @Override
         public boolean isReactive() {
             return delegate.isReactive();
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.rule;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.spi.Accumulator;
+import org.drools.core.spi.Tuple;
+
+/**
+ * An accumulate that, instead of producing a single result, partitions its matches by a grouping key
+ * and accumulates each group separately with the wrapped accumulate. It is evaluated by a GroupByNode
+ * that keeps one accumulation context per group.
+ *
+ * The result of each group is an Object[] containing the results of the accumulate functions
+ * followed by the group key.
+ */
+public abstract class GroupByAccumulate extends Accumulate {
+
+    private Accumulate innerAccumulate;
+
+    public GroupByAccumulate() { }
+
+    public GroupByAccumulate( Accumulate innerAccumulate ) {
+        super( innerAccumulate.getSource(), innerAccumulate.getRequiredDeclarations() );
+        this.innerAccumulate = innerAccumulate;
+    }
+
+    /**
+     * Returns the key of the group the given match belongs to
+     */
+    public abstract Object getKey( Tuple tuple,
+                                   InternalFactHandle handle,
+                                   WorkingMemory workingMemory );
+
+    /**
+     * Returns the result to be propagated for a group, given its key and the result of the wrapped accumulate
+     */
+    public Object createGroupResult( Object key, Object result ) {
+        if ( !innerAccumulate.isMultiFunction() ) {
+            return result == null ? null : new Object[] { result, key };
+        }
+        Object[] results = ( Object[] ) result;
+        Object[] groupResult = Arrays.copyOf( results, results.length + 1 );
+        groupResult[results.length] = key;
+        return groupResult;
+    }
+
+    public Accumulate getInnerAccumulate() {
+        return innerAccumulate;
+    }
+
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        super.readExternal( in );
+        innerAccumulate = ( Accumulate ) in.readObject();
+    }
+
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        super.writeExternal( out );
+        out.writeObject( innerAccumulate );
+    }
+
+    @Override
+    public Accumulator[] getAccumulators() {
+        return innerAccumulate.getAccumulators();
+    }
+
+    @Override
+    public Object createContext() {
+        return innerAccumulate.createContext();
+    }
+
+    @Override
+    public void init( Object workingMemoryContext, Object context, Tuple leftTuple, WorkingMemory workingMemory ) {
+        innerAccumulate.init( workingMemoryContext, context, leftTuple, workingMemory );
+    }
+
+    @Override
+    public void accumulate( Object workingMemoryContext, Object context, Tuple leftTuple, InternalFactHandle handle, WorkingMemory workingMemory ) {
+        innerAccumulate.accumulate( workingMemoryContext, context, leftTuple, handle, workingMemory );
+    }
+
+    @Override
+    public void reverse( Object workingMemoryContext, Object context, Tuple leftTuple, InternalFactHandle handle, WorkingMemory workingMemory ) {
+        innerAccumulate.reverse( workingMemoryContext, context, leftTuple, handle, workingMemory );
+    }
+
+    @Override
+    public Object getResult( Object workingMemoryContext, Object context, Tuple leftTuple, WorkingMemory workingMemory ) {
+        return innerAccumulate.getResult( workingMemoryContext, context, leftTuple, workingMemory );
+    }
+
+    @Override
+    public boolean supportsReverse() {
+        return innerAccumulate.supportsReverse();
+    }
+
+    @Override
+    public Object createWorkingMemoryContext() {
+        return innerAccumulate.createWorkingMemoryContext();
+    }
+
+    @Override
+    public boolean isMultiFunction() {
+        return innerAccumulate.isMultiFunction();
+    }
+
+    @Override
+    protected void replaceAccumulatorDeclaration( Declaration declaration, Declaration resolved ) {
+        innerAccumulate.replaceDeclaration( declaration, resolved );
+    }
+
+    @Override
+    public abstract GroupByAccumulate clone();
+
+    @Override
+    public int hashCode() {
+        return 31 * innerAccumulate.hashCode() + getClass().hashCode();
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if ( this == obj ) return true;
+        if ( obj == null || getClass() != obj.getClass() ) return false;
+        return innerAccumulate.equals( (( GroupByAccumulate ) obj).innerAccumulate );
+    }
+}
@@ -42,4 +42,13 @@ public interface DataProvider
                             Declaration resolved);
 
     boolean isReactive();
+
+    /**
+     * Returns true if the results only depend on the objects bound to the required declarations, so that they don't
+     * have to be computed again until one of them is modified. It is false when the results can change on their own,
+     * like when the provider reads a global or invokes a method or a function.
+     */
+    default boolean isInputTrackable() {
+        return false;
+    }
 }
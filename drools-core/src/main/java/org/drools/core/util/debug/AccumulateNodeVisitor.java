@@ -21,6 +21,7 @@ import org.drools.core.reteoo.AccumulateNode;
 import org.drools.core.reteoo.AccumulateNode.AccumulateContext;
 import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
 import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.GroupByNode.GroupByContext;
 import org.drools.core.spi.Tuple;
 import org.drools.core.util.FastIterator;
 
@@ -53,7 +54,9 @@ public class AccumulateNodeVisitor extends AbstractNetworkNodeVisitor {
             int i = 0;
             for ( Tuple leftTuple = BetaNode.getFirstTuple( memory.getBetaMemory().getLeftTupleMemory(), it ); leftTuple != null; leftTuple = ( Tuple) it.next( leftTuple  )) {
                 AccumulateContext ctx = (AccumulateContext) leftTuple.getContextObject();
-                if ( ctx != null && ctx.result != null ) {
+                if ( ctx instanceof GroupByContext ) {
+                    i += ( (GroupByContext) ctx ).getGroups().size();
+                } else if ( ctx != null && ctx.result != null ) {
                     i++;
                 }
             }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.thoughtworks.xstream.XStream;
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
+import org.drools.core.audit.event.RuleBaseLogEvent;
+import org.drools.core.audit.event.RuleFlowGroupLogEvent;
+import org.drools.core.audit.event.RuleFlowLogEvent;
+import org.drools.core.audit.event.RuleFlowNodeLogEvent;
+import org.drools.core.audit.event.RuleFlowVariableLogEvent;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.test.model.Cheese;
+import org.drools.core.util.IoUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.kie.soup.xstream.XStreamUtils.createTrustingXStream;
+
+public class BinaryAuditLogTest {
+
+    private File dir;
+    private String fileName;
+
+    @Before
+    public void createDir() throws Exception {
+        dir = Files.createTempDirectory( "audit" ).toFile();
+        fileName = new File( dir, "event" ).getPath();
+    }
+
+    @After
+    public void deleteDir() {
+        for ( File file : dir.listFiles() ) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final List<LogEvent> events = createEvents();
+        try (BinaryAuditLogWriter writer = new BinaryAuditLogWriter( fileName )) {
+            for ( LogEvent event : events ) {
+                writer.write( event );
+            }
+            // the events are readable before the writer is closed
+            assertEventsEquals( events, BinaryAuditLogReader.readEvents( fileName ) );
+        }
+        assertEventsEquals( events, BinaryAuditLogReader.readEvents( fileName ) );
+    }
+
+    @Test
+    public void testRollingFiles() throws Exception {
+        final List<LogEvent> events = new ArrayList<>();
+        try (BinaryAuditLogWriter writer = new BinaryAuditLogWriter( fileName, 1024 )) {
+            for ( int i = 0; i < 1000; i++ ) {
+                final LogEvent event = new ActivationLogEvent( LogEvent.ACTIVATION_CREATED, "" + i, "rule" + ( i % 10 ), "$c=cheese" + i, null, "[" + i + "]" );
+                events.add( event );
+                writer.write( event );
+            }
+            assertTrue( writer.getSegments() > 1 );
+            assertEquals( 1000, writer.getWrittenEvents() );
+        }
+        for ( int i = 0; i < 2; i++ ) {
+            final File file = new File( BinaryAuditLogWriter.getSegmentFileName( fileName, i ) );
+            assertTrue( file.exists() );
+            assertTrue( file.length() <= 1024 );
+        }
+        assertEventsEquals( events, BinaryAuditLogReader.readEvents( fileName ) );
+
+        // a new log with the same name replaces all the files of the old one
+        try (BinaryAuditLogWriter writer = new BinaryAuditLogWriter( fileName, 1024 )) {
+            writer.write( events.get( 0 ) );
+        }
+        assertEquals( 1, BinaryAuditLogReader.readEvents( fileName ).size() );
+    }
+
+    @Test
+    public void testConvertToXml() throws Exception {
+        final List<LogEvent> events = createEvents();
+        try (BinaryAuditLogWriter writer = new BinaryAuditLogWriter( fileName )) {
+            for ( LogEvent event : events ) {
+                writer.write( event );
+            }
+        }
+
+        final String xmlFileName = new File( dir, "converted" ).getPath();
+        BinaryAuditLogReader.convertToXml( fileName, xmlFileName );
+
+        final XStream xstream = createTrustingXStream();
+        final List<LogEvent> converted = new ArrayList<>();
+        try (ObjectInputStream in = xstream.createObjectInputStream( new InputStreamReader( new FileInputStream( xmlFileName + ".log" ), IoUtils.UTF8_CHARSET ) )) {
+            converted.addAll( ( (WorkingMemoryLog) in.readObject() ).getEvents() );
+        }
+        assertEventsEquals( events, converted );
+    }
+
+    @Test
+    public void testSessionLogger() throws Exception {
+        final KieSession ksession = KnowledgeBaseFactory.newKnowledgeBase().newKieSession();
+        final BinaryWorkingMemoryFileLogger logger = new BinaryWorkingMemoryFileLogger( ksession );
+        logger.setFileName( fileName );
+
+        ksession.insert( new Cheese( "stilton", 10 ) );
+        ksession.insert( new Cheese( "brie", 5 ) );
+        ksession.fireAllRules();
+        logger.close();
+        ksession.dispose();
+
+        final List<LogEvent> events = BinaryAuditLogReader.readEvents( fileName );
+        assertEquals( 2, events.size() );
+        assertEquals( LogEvent.INSERTED, events.get( 0 ).getType() );
+        assertTrue( ( (ObjectLogEvent) events.get( 1 ) ).getObjectToString().contains( "brie" ) );
+    }
+
+    private List<LogEvent> createEvents() {
+        return Arrays.asList( new ObjectLogEvent( LogEvent.INSERTED, 1, "Cheese( stilton )" ),
+                              new ObjectLogEvent( LogEvent.RETRACTED, -1, null ),
+                              new ActivationLogEvent( LogEvent.ACTIVATION_CREATED, "3", "my rule", "$c=Cheese( stilton )", "group", "[1]" ),
+                              new ActivationLogEvent( LogEvent.AFTER_ACTIVATION_FIRE, "3", "my rule", "$c=Cheese( stilton )", null, "[1]" ),
+                              new RuleBaseLogEvent( LogEvent.AFTER_RULE_ADDED, "org.drools", "my rule" ),
+                              new RuleFlowGroupLogEvent( LogEvent.AFTER_RULEFLOW_GROUP_ACTIVATED, "group", 2 ),
+                              new RuleFlowLogEvent( LogEvent.BEFORE_RULEFLOW_CREATED, "process", "My Process", 7L ),
+                              new RuleFlowNodeLogEvent( LogEvent.AFTER_RULEFLOW_NODE_TRIGGERED, "1", "Start", "12", "process", "My Process", "id-7" ),
+                              new RuleFlowVariableLogEvent( LogEvent.AFTER_VARIABLE_INSTANCE_CHANGED, "x", "x:12", "process", "My Process", null, "€ 42" ),
+                              new LogEvent( LogEvent.BEFORE_PACKAGE_ADDED ) );
+    }
+
+    private void assertEventsEquals( List<LogEvent> expected, List<LogEvent> actual ) {
+        assertEquals( expected.size(), actual.size() );
+        final XStream xstream = createTrustingXStream();
+        for ( int i = 0; i < expected.size(); i++ ) {
+            assertEquals( expected.get( i ).getClass(), actual.get( i ).getClass() );
+            // the XML representation compares all the fields of the events
+            assertEquals( xstream.toXML( expected.get( i ) ), xstream.toXML( actual.get( i ) ) );
+        }
+    }
+}
@@ -12,6 +12,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -156,6 +158,34 @@ public class ClassAwareObjectStoreTest {
         assertThat(collect(underTest.iterateFactHandles(SuperClass.class)).size(), is(equalTo(2)));
     }
 
+    @Test
+    public void removedHandlesAreNotFoundAnyMore() throws Exception {
+        List<InternalFactHandle> handles = new ArrayList<InternalFactHandle>();
+        for (int i = 0; i < 1000; i++) {
+            SimpleClass object = new SimpleClass();
+            InternalFactHandle handle = handleFor(object);
+            underTest.addHandle(handle, object);
+            handles.add(handle);
+        }
+
+        for (int i = 0; i < handles.size(); i += 2) {
+            underTest.removeHandle(handles.get(i));
+        }
+
+        assertThat(underTest.size(), is(equalTo(500)));
+        assertThat(collect(underTest.iterateFactHandles(SimpleClass.class)).size(), is(equalTo(500)));
+        for (int i = 0; i < handles.size(); i++) {
+            InternalFactHandle handle = handles.get(i);
+            if (i % 2 == 0) {
+                assertNull(underTest.getHandleForObjectIdentity(handle.getObject()));
+                assertNull(underTest.getHandleForObject(handle.getObject()));
+            } else {
+                assertSame(handle, underTest.getHandleForObjectIdentity(handle.getObject()));
+                assertSame(handle, underTest.getHandleForObject(handle.getObject()));
+                assertSame(handle, underTest.reconnect(new DefaultFactHandle(handle.getId(), handle.getObject())));
+            }
+        }
+    }
 
     private void insertObjectWithFactHandle(Object objectToInsert) {
         underTest.addHandle(handleFor(objectToInsert), objectToInsert);
@@ -179,16 +209,26 @@ public class ClassAwareObjectStoreTest {
 
     @Parameterized.Parameters
     public static Collection<Object[]> ruleBaseConfigurations() {
-        List<Object[]> configurations = new ArrayList<Object[]>(2);
+        List<Object[]> configurations = new ArrayList<Object[]>(4);
         configurations.add(new Object[]{new RuleBaseConfiguration() {{
             setAssertBehaviour(AssertBehaviour.EQUALITY);
         }}});
         configurations.add(new Object[]{new RuleBaseConfiguration() {{
             setAssertBehaviour(AssertBehaviour.IDENTITY);
         }}});
+        configurations.add(new Object[]{new RuleBaseConfiguration() {{
+            setAssertBehaviour(AssertBehaviour.EQUALITY);
+            setCompactFactClasses(COMPACT_CLASSES);
+        }}});
+        configurations.add(new Object[]{new RuleBaseConfiguration() {{
+            setAssertBehaviour(AssertBehaviour.IDENTITY);
+            setCompactFactClasses(COMPACT_CLASSES);
+        }}});
         return configurations;
     }
 
+    private static final String COMPACT_CLASSES = SimpleClass.class.getName() + "," + SubClass.class.getName();
+
     private static final AtomicInteger factCounter = new AtomicInteger(0);
 
     private InternalFactHandle handleFor(Object object) {
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
+import org.drools.core.util.DroolsStreamUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class CompactClassStoreSerializationTest {
+
+    private final AssertBehaviour assertBehaviour;
+
+    public CompactClassStoreSerializationTest(AssertBehaviour assertBehaviour) {
+        this.assertBehaviour = assertBehaviour;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> assertBehaviours() {
+        return Arrays.asList(new Object[][] { { AssertBehaviour.IDENTITY }, { AssertBehaviour.EQUALITY } });
+    }
+
+    @Test
+    public void handlesAreFoundAfterJavaSerialization() throws Exception {
+        RuleBaseConfiguration conf = new RuleBaseConfiguration();
+        conf.setAssertBehaviour(assertBehaviour);
+        conf.setCompactFactClasses(Fact.class.getName());
+        ClassAwareObjectStore store = new ClassAwareObjectStore(conf, new ReentrantLock());
+
+        List<InternalFactHandle> handles = new ArrayList<InternalFactHandle>();
+        for (int i = 0; i < 100; i++) {
+            Fact fact = new Fact(i);
+            InternalFactHandle handle = new DefaultFactHandle(i, fact);
+            store.addHandle(handle, fact);
+            handles.add(handle);
+        }
+        // leave some holes in the table before serializing it
+        for (int i = 0; i < 100; i += 3) {
+            store.removeHandle(handles.get(i));
+        }
+        store.addHandle(new DefaultFactHandle(100, "not compact"), "not compact");
+
+        ClassAwareObjectStore restored = (ClassAwareObjectStore) DroolsStreamUtils.streamIn(DroolsStreamUtils.streamOut(store));
+
+        assertThat(restored.size(), is(equalTo(67)));
+        Collection<Object> facts = collect(restored.iterateObjects(Fact.class));
+        assertThat(facts.size(), is(equalTo(66)));
+        assertThat(collect(restored.iterateFactHandles(Fact.class)).size(), is(equalTo(66)));
+
+        for (Object fact : facts) {
+            // the restored facts are new objects, so they are indexed by their new identity hash codes
+            InternalFactHandle handle = restored.getHandleForObjectIdentity(fact);
+            assertSame(fact, handle.getObject());
+            assertSame(handle, restored.getHandleForObject(fact));
+            assertSame(handle, restored.reconnect(new DefaultFactHandle(handle.getId(), fact)));
+            assertSame(fact, restored.getObjectForHandle(new DefaultFactHandle(handle.getId(), fact)));
+        }
+
+        Fact equalFact = new Fact(1);
+        assertNull(restored.getHandleForObjectIdentity(equalFact));
+        if (assertBehaviour == AssertBehaviour.EQUALITY) {
+            assertEquals(equalFact, restored.getHandleForObject(equalFact).getObject());
+        } else {
+            assertNull(restored.getHandleForObject(equalFact));
+        }
+        assertNull(restored.getHandleForObject(new Fact(0)));
+
+        // the restored store keeps working
+        InternalFactHandle removed = restored.getHandleForObjectIdentity(facts.iterator().next());
+        restored.removeHandle(removed);
+        assertNull(restored.getHandleForObjectIdentity(removed.getObject()));
+        Fact added = new Fact(0);
+        InternalFactHandle addedHandle = new DefaultFactHandle(101, added);
+        restored.addHandle(addedHandle, added);
+        assertSame(addedHandle, restored.getHandleForObjectIdentity(added));
+        assertThat(restored.size(), is(equalTo(67)));
+    }
+
+    private static <T> Collection<T> collect(Iterator<T> objects) {
+        List<T> result = new ArrayList<T>();
+        while (objects.hasNext()) {
+            result.add(objects.next());
+        }
+        return result;
+    }
+
+    public static class Fact implements Serializable {
+
+        private final int value;
+
+        public Fact(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fact && ((Fact) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiConsumer;
+
+import org.drools.core.SessionConfiguration;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.test.model.Cheese;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.DefaultRuleRuntimeEventListener;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.RuleFlowGroupActivatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncEventDispatcherTest {
+
+    private volatile Thread mainThread;
+
+    @Test
+    public void testSessionEventsDeliveredInOrderOnDispatcherThread() {
+        final KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        final SessionConfiguration conf = SessionConfiguration.newInstance();
+        conf.setProperty( "drools.asyncEventDispatch", "true" );
+        conf.setProperty( "drools.asyncEventBufferSize", "16" );
+        final KieSession ksession = kbase.newKieSession( conf, null );
+
+        final List<Object> inserted = Collections.synchronizedList( new ArrayList<>() );
+        final List<Thread> threads = Collections.synchronizedList( new ArrayList<>() );
+        ksession.addEventListener( new DefaultRuleRuntimeEventListener() {
+            @Override
+            public void objectInserted( ObjectInsertedEvent event ) {
+                inserted.add( event.getObject() );
+                threads.add( Thread.currentThread() );
+            }
+        } );
+
+        final List<Cheese> cheeses = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ ) {
+            final Cheese cheese = new Cheese( "cheese" + i, i );
+            cheeses.add( cheese );
+            ksession.insert( cheese );
+        }
+
+        final AsyncEventDispatcher dispatcher = ( (StatefulKnowledgeSessionImpl) ksession ).getAsyncEventDispatcher();
+        assertEquals( 16, dispatcher.getBufferSize() );
+        dispatcher.flush();
+
+        assertEquals( cheeses, inserted );
+        assertEquals( 0, dispatcher.getLag() );
+        assertEquals( 100, dispatcher.getDeliveredEvents() );
+        for ( Thread thread : threads ) {
+            assertNotSame( Thread.currentThread(), thread );
+        }
+
+        ksession.dispose();
+        assertTrue( dispatcher.isClosed() );
+    }
+
+    @Test
+    public void testDropOverflowPolicy() throws Exception {
+        final AsyncEventDispatcher dispatcher = new AsyncEventDispatcher( "test-dispatcher", 2, AsyncEventDispatcher.OverflowPolicy.DROP );
+        final CountDownLatch latch = new CountDownLatch( 1 );
+        final List<Integer> received = Collections.synchronizedList( new ArrayList<>() );
+        final RuleRuntimeEventSupport support = createBlockingSupport( dispatcher );
+
+        final BiConsumer<RuleRuntimeEventListener, Integer> consumer = ( l, e ) -> {
+            await( latch );
+            received.add( e );
+        };
+        for ( int i = 0; i < 4; i++ ) {
+            support.notifyAllListeners( i, consumer );
+        }
+
+        // the dispatcher is blocked on the first event, so the buffer can only hold 2 of them
+        assertEquals( 2, dispatcher.getDroppedEvents() );
+        latch.countDown();
+        dispatcher.close();
+
+        assertEquals( 2, received.size() );
+        assertEquals( 0, (int) received.get( 0 ) );
+        assertEquals( 1, (int) received.get( 1 ) );
+        assertTrue( dispatcher.getMaxDeliveryLagNanos() > 0 );
+    }
+
+    @Test
+    public void testSynchronousOverflowPolicy() throws Exception {
+        mainThread = Thread.currentThread();
+        final AsyncEventDispatcher dispatcher = new AsyncEventDispatcher( "test-dispatcher", 2, AsyncEventDispatcher.OverflowPolicy.SYNCHRONOUS );
+        final CountDownLatch latch = new CountDownLatch( 1 );
+        final List<Thread> threads = Collections.synchronizedList( new ArrayList<>() );
+        final RuleRuntimeEventSupport support = createBlockingSupport( dispatcher );
+
+        final BiConsumer<RuleRuntimeEventListener, Integer> consumer = ( l, e ) -> {
+            if ( Thread.currentThread() != mainThread ) {
+                await( latch );
+            }
+            threads.add( Thread.currentThread() );
+        };
+        for ( int i = 0; i < 4; i++ ) {
+            support.notifyAllListeners( i, consumer );
+        }
+
+        assertEquals( 2, dispatcher.getSynchronousEvents() );
+        assertEquals( 2, threads.size() );
+        assertSame( mainThread, threads.get( 0 ) );
+        latch.countDown();
+        dispatcher.close();
+
+        assertEquals( 4, threads.size() );
+        assertEquals( 0, dispatcher.getDroppedEvents() );
+    }
+
+    @Test(timeout = 10000)
+    public void testBlockOverflowPolicyWaitsForDelivery() throws Exception {
+        final AsyncEventDispatcher dispatcher = new AsyncEventDispatcher( "test-dispatcher", 2, AsyncEventDispatcher.OverflowPolicy.BLOCK );
+        final CountDownLatch latch = new CountDownLatch( 1 );
+        final List<Integer> received = Collections.synchronizedList( new ArrayList<>() );
+        final RuleRuntimeEventSupport support = createBlockingSupport( dispatcher );
+
+        final BiConsumer<RuleRuntimeEventListener, Integer> consumer = ( l, e ) -> {
+            await( latch );
+            received.add( e );
+        };
+        final Thread publisher = new Thread( () -> {
+            for ( int i = 0; i < 4; i++ ) {
+                support.notifyAllListeners( i, consumer );
+            }
+        } );
+        publisher.start();
+
+        // the publisher waits for room in the buffer until the listener is released
+        publisher.join( 200 );
+        assertTrue( publisher.isAlive() );
+        assertTrue( received.isEmpty() );
+
+        latch.countDown();
+        publisher.join();
+        dispatcher.flush();
+
+        assertEquals( 4, received.size() );
+        for ( int i = 0; i < 4; i++ ) {
+            assertEquals( i, (int) received.get( i ) );
+        }
+        assertEquals( 0, dispatcher.getLag() );
+        assertEquals( 0, dispatcher.getDroppedEvents() );
+        assertEquals( 0, dispatcher.getSynchronousEvents() );
+        dispatcher.close();
+    }
+
+    @Test
+    public void testRuleFlowGroupEventsDeliveredSynchronously() {
+        final KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        final SessionConfiguration conf = SessionConfiguration.newInstance();
+        conf.setProperty( "drools.asyncEventDispatch", "true" );
+        final KieSession ksession = kbase.newKieSession( conf, null );
+
+        final List<Thread> threads = Collections.synchronizedList( new ArrayList<>() );
+        ksession.addEventListener( new DefaultAgendaEventListener() {
+            @Override
+            public void beforeRuleFlowGroupActivated( RuleFlowGroupActivatedEvent event ) {
+                threads.add( Thread.currentThread() );
+            }
+
+            @Override
+            public void afterRuleFlowGroupActivated( RuleFlowGroupActivatedEvent event ) {
+                threads.add( Thread.currentThread() );
+            }
+        } );
+
+        ( (StatefulKnowledgeSessionImpl) ksession ).getAgenda().activateRuleFlowGroup( "group", -1, null );
+
+        // the listeners have been notified before the activation returned, on the same thread
+        assertEquals( 2, threads.size() );
+        assertSame( Thread.currentThread(), threads.get( 0 ) );
+        assertSame( Thread.currentThread(), threads.get( 1 ) );
+        assertFalse( ( (StatefulKnowledgeSessionImpl) ksession ).getAsyncEventDispatcher().isClosed() );
+
+        ksession.dispose();
+    }
+
+    private RuleRuntimeEventSupport createBlockingSupport( AsyncEventDispatcher dispatcher ) {
+        final RuleRuntimeEventSupport support = new RuleRuntimeEventSupport();
+        support.addEventListener( new DefaultRuleRuntimeEventListener() );
+        support.setAsyncEventDispatcher( dispatcher );
+        return support;
+    }
+
+    private static void await( CountDownLatch latch ) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException( e );
+        }
+    }
+}
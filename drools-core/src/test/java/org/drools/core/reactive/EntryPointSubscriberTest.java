@@ -0,0 +1,299 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EqualityBehaviorOption;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EntryPointSubscriberTest {
+
+    @Test
+    public void testRequestsOnlyDrainedItems() {
+        KieSession ksession = KnowledgeBaseFactory.newKnowledgeBase().newKieSession();
+        EntryPointSubscriber<String> subscriber = new EntryPointSubscriber<>( ksession, "DEFAULT", 2, 5 );
+        assertEquals( 4, subscriber.getHighWaterMark() );
+
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe( subscription );
+        assertEquals( 4L, (long) subscription.requests.get( 0 ) );
+
+        for (int i = 0; i < 4; i++) {
+            subscriber.onNext( "item" + i );
+        }
+        // nothing has been propagated yet, so no more items can be requested
+        assertEquals( 1, subscription.requests.size() );
+        assertEquals( 4, subscriber.getOutstandingCount() );
+
+        // each drained batch is requested again
+        ksession.fireAllRules();
+        assertEquals( 3, subscription.requests.size() );
+        assertEquals( 2L, (long) subscription.requests.get( 1 ) );
+        assertEquals( 2L, (long) subscription.requests.get( 2 ) );
+        assertEquals( 4, subscriber.getOutstandingCount() );
+
+        subscriber.onNext( "item4" );
+        subscriber.onComplete();
+        assertFalse( subscriber.getCompletion().isDone() );
+
+        ksession.fireAllRules();
+        assertTrue( subscriber.getCompletion().isDone() );
+        assertEquals( 5, subscriber.getInsertedCount() );
+        assertEquals( 5, ksession.getFactCount() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testCancelStopsInsertions() {
+        KieSession ksession = KnowledgeBaseFactory.newKnowledgeBase().newKieSession();
+        EntryPointSubscriber<String> subscriber = new EntryPointSubscriber<>( ksession );
+
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe( subscription );
+        subscriber.onNext( "item0" );
+        subscriber.cancel();
+        subscriber.onNext( "item1" );
+
+        assertTrue( subscription.cancelled );
+        assertTrue( subscriber.getCompletion().isDone() );
+        assertEquals( 1, ksession.getFactCount() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testFailedInsertionCompletesExceptionally() throws Exception {
+        // in equality mode the insertion looks up the hashCode of the fact, that here throws
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( EqualityBehaviorOption.EQUALITY );
+        KieSession ksession = KnowledgeBaseFactory.newKnowledgeBase( kconf ).newKieSession();
+        EntryPointSubscriber<Object> subscriber = new EntryPointSubscriber<>( ksession );
+
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe( subscription );
+        subscriber.onNext( "item0" );
+        subscriber.onNext( new FailingHashCode() );
+        subscriber.onNext( "item2" );
+
+        assertTrue( subscription.cancelled );
+        assertTrue( subscriber.getCompletion().isCompletedExceptionally() );
+        try {
+            subscriber.getCompletion().get();
+            fail( "The failed insertion should complete the subscriber exceptionally" );
+        } catch (ExecutionException e) {
+            assertSame( FailingHashCode.FAILURE, e.getCause() );
+        }
+        assertEquals( 1, subscriber.getInsertedCount() );
+        assertEquals( 1, ksession.getFactCount() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testChannelPublisherDeliversOnDemand() {
+        ChannelPublisher<String> publisher = new ChannelPublisher<>( 4 );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        publisher.send( "a" );
+        publisher.send( "b" );
+        publisher.subscribe( subscriber );
+        assertTrue( subscriber.items.isEmpty() );
+        assertEquals( 2, publisher.getBufferedCount() );
+
+        subscriber.subscription.request( 1 );
+        assertEquals( 1, subscriber.items.size() );
+
+        subscriber.subscription.request( 2 );
+        publisher.send( "c" );
+        publisher.send( "d" );
+        assertEquals( 3, subscriber.items.size() );
+        assertEquals( 1, publisher.getBufferedCount() );
+
+        publisher.complete();
+        assertFalse( subscriber.completed );
+
+        subscriber.subscription.request( 1 );
+        assertEquals( 4, subscriber.items.size() );
+        assertEquals( "d", subscriber.items.get( 3 ) );
+        assertTrue( subscriber.completed );
+    }
+
+    @Test
+    public void testChannelPublisherRejectsSecondSubscriber() {
+        ChannelPublisher<String> publisher = new ChannelPublisher<>();
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+
+        publisher.subscribe( first );
+        publisher.subscribe( second );
+        assertTrue( second.error instanceof IllegalStateException );
+
+        first.subscription.request( 1 );
+        publisher.send( "a" );
+        assertEquals( 1, first.items.size() );
+    }
+
+    @Test
+    public void testChannelPublisherSignalsInvalidRequestSerially() {
+        ChannelPublisher<String> publisher = new ChannelPublisher<>();
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext( String item ) {
+                super.onNext( item );
+                subscription.request( 0 );
+                // the error cannot be delivered while this onNext is still running
+                assertNull( error );
+            }
+        };
+
+        publisher.subscribe( subscriber );
+        publisher.send( "a" );
+        publisher.send( "b" );
+        subscriber.subscription.request( 2 );
+
+        assertEquals( 1, subscriber.items.size() );
+        assertTrue( subscriber.error instanceof IllegalArgumentException );
+        assertEquals( 1, subscriber.errorCount );
+
+        publisher.send( "c" );
+        subscriber.subscription.request( 1 );
+        assertEquals( 1, subscriber.items.size() );
+        assertEquals( 0, publisher.getBufferedCount() );
+    }
+
+    @Test(timeout = 10000)
+    public void testChannelPublisherDropLatestOnOverflow() {
+        ChannelPublisher<String> publisher = new ChannelPublisher<>( 2, 10, TimeUnit.MILLISECONDS, ChannelPublisher.OverflowPolicy.DROP_LATEST );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe( subscriber );
+
+        for (String item : new String[] { "a", "b", "c", "d" }) {
+            publisher.send( item );
+        }
+        assertEquals( 2, publisher.getBufferedCount() );
+        assertEquals( 2, publisher.getDroppedCount() );
+
+        subscriber.subscription.request( 4 );
+        assertEquals( 2, subscriber.items.size() );
+        assertEquals( "a", subscriber.items.get( 0 ) );
+        assertEquals( "b", subscriber.items.get( 1 ) );
+        assertNull( subscriber.error );
+    }
+
+    @Test(timeout = 10000)
+    public void testChannelPublisherDropOldestOnOverflow() {
+        ChannelPublisher<String> publisher = new ChannelPublisher<>( 2, 10, TimeUnit.MILLISECONDS, ChannelPublisher.OverflowPolicy.DROP_OLDEST );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe( subscriber );
+
+        for (String item : new String[] { "a", "b", "c", "d" }) {
+            publisher.send( item );
+        }
+        assertEquals( 2, publisher.getDroppedCount() );
+
+        subscriber.subscription.request( 4 );
+        assertEquals( 2, subscriber.items.size() );
+        assertEquals( "c", subscriber.items.get( 0 ) );
+        assertEquals( "d", subscriber.items.get( 1 ) );
+    }
+
+    @Test(timeout = 10000)
+    public void testChannelPublisherErrorOnOverflow() {
+        ChannelPublisher<String> publisher = new ChannelPublisher<>( 1, 10, TimeUnit.MILLISECONDS, ChannelPublisher.OverflowPolicy.ERROR );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe( subscriber );
+
+        publisher.send( "a" );
+        publisher.send( "b" );
+        assertTrue( subscriber.error instanceof IllegalStateException );
+        assertEquals( 0, publisher.getBufferedCount() );
+
+        // once failed the publisher doesn't accept anything else
+        publisher.send( "c" );
+        subscriber.subscription.request( 1 );
+        assertTrue( subscriber.items.isEmpty() );
+        assertEquals( 1, subscriber.errorCount );
+    }
+
+    private static class FailingHashCode {
+
+        private static final RuntimeException FAILURE = new IllegalStateException( "hashCode failure" );
+
+        @Override
+        public int hashCode() {
+            throw FAILURE;
+        }
+    }
+
+    private static class RecordingSubscription implements Flow.Subscription {
+
+        private final List<Long> requests = new ArrayList<>();
+        private boolean cancelled;
+
+        @Override
+        public void request( long n ) {
+            requests.add( n );
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<String> {
+
+        final List<String> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        int errorCount;
+        boolean completed;
+
+        @Override
+        public void onSubscribe( Flow.Subscription subscription ) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext( String item ) {
+            items.add( item );
+        }
+
+        @Override
+        public void onError( Throwable throwable ) {
+            error = throwable;
+            errorCount++;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -16,12 +16,15 @@
 
 package org.drools.core.reteoo;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.core.base.MapGlobalResolver;
 import org.drools.core.common.EqualityKey;
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.NamedEntryPoint;
 import org.drools.core.common.RuleBasePartitionId;
@@ -47,6 +50,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ReteooWorkingMemoryTest {
@@ -159,6 +163,26 @@ public class ReteooWorkingMemoryTest {
         }
     }
 
+    @Test
+    public void testInsertAll() {
+        InternalKnowledgeBase kBase = (InternalKnowledgeBase) KnowledgeBaseFactory.newKnowledgeBase();
+        StatefulKnowledgeSessionImpl ksession = (StatefulKnowledgeSessionImpl)kBase.newKieSession();
+
+        Person bob = new Person( "bob", 35 );
+        Cheese stilton = new Cheese( "stilton", 35 );
+        FactHandle bobHandle = ksession.insert( bob );
+
+        List<FactHandle> handles = ksession.insertAll( Arrays.asList( stilton, bob, null, new Person( "steve", 55 ), stilton ) );
+
+        assertEquals( 5, handles.size() );
+        assertSame( bobHandle, handles.get( 1 ) );
+        assertNull( handles.get( 2 ) );
+        assertSame( handles.get( 0 ), handles.get( 4 ) );
+        assertSame( stilton, ksession.getObject( handles.get( 0 ) ) );
+        assertEquals( 3, ksession.getFactCount() );
+        assertTrue( ( (InternalFactHandle) handles.get( 0 ) ).getId() < ( (InternalFactHandle) handles.get( 3 ) ).getId() );
+    }
+
     @Test @Ignore
     public void testExecuteQueueActions() {
         InternalKnowledgeBase kBase = (InternalKnowledgeBase) KnowledgeBaseFactory.newKnowledgeBase();
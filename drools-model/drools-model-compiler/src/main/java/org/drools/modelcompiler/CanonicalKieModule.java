@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -122,6 +123,7 @@ public class CanonicalKieModule implements InternalKieModule {
     private final Map<String, Model> models = new HashMap<>();
     private Collection<String> ruleClassesNames;
     private boolean incrementalUpdate = false;
+    private final AtomicInteger kiePackagesBuildCount = new AtomicInteger();
 
     private ProjectClassLoader moduleClassLoader;
 
@@ -142,6 +144,13 @@ public class CanonicalKieModule implements InternalKieModule {
         this.ruleClassesNames = ruleClassesNames;
     }
 
+    /**
+     * The number of times the packages of a KieBase have been built out of the models of this module
+     */
+    int getKiePackagesBuildCount() {
+        return kiePackagesBuildCount.get();
+    }
+
     private static boolean areModelVersionsCompatible(String runtimeVersion, String compileVersion) {
         return true;
     }
@@ -175,7 +184,7 @@ public class CanonicalKieModule implements InternalKieModule {
         return conf;
     }
 
-    private static KieBaseConfiguration getKnowledgeBaseConfiguration(KieBaseModelImpl kBaseModel, ClassLoader cl) {
+    static KieBaseConfiguration getKnowledgeBaseConfiguration(KieBaseModelImpl kBaseModel, ClassLoader cl) {
         KieBaseConfiguration kbConf = KieServices.get().newKieBaseConfiguration(null, cl);
         if (kBaseModel != null) {
             kbConf.setOption(kBaseModel.getEqualsBehavior());
@@ -208,6 +217,18 @@ public class CanonicalKieModule implements InternalKieModule {
     @Override
     public InternalKnowledgeBase createKieBase(KieBaseModelImpl kBaseModel, KieProject kieProject, ResultsImpl messages, KieBaseConfiguration conf) {
         this.moduleClassLoader = ((ProjectClassLoader) kieProject.getClassLoader());
+
+        if (conf == null) {
+            // a snapshot is only valid for the configuration it has been built with
+            InternalKnowledgeBase snapshotKieBase = KieBaseSnapshot.readSnapshot(this, kBaseModel, moduleClassLoader);
+            if (snapshotKieBase != null) {
+                CanonicalKiePackages kpkgs = pkgsInKbase.computeIfAbsent(kBaseModel.getName(), k -> new CanonicalKiePackages(new HashMap<>(snapshotKieBase.getPackagesMap())));
+                checkStreamMode(kBaseModel, conf, kpkgs.getKiePackages());
+                buildNonNativeResources( kBaseModel, kieProject, messages, snapshotKieBase );
+                return snapshotKieBase;
+            }
+        }
+
         KieBaseConfiguration kBaseConf = getKieBaseConfiguration(kBaseModel, moduleClassLoader, conf);
 
         CanonicalKiePackages kpkgs = pkgsInKbase.computeIfAbsent(kBaseModel.getName(), k -> createKiePackages(kieProject, kBaseModel, messages, kBaseConf));
@@ -271,6 +292,7 @@ public class CanonicalKieModule implements InternalKieModule {
     }
 
     private CanonicalKiePackages createKiePackages(KieProject kieProject, KieBaseModelImpl kBaseModel, ResultsImpl messages, KieBaseConfiguration conf) {
+        kiePackagesBuildCount.incrementAndGet();
         Set<String> includes = kieProject == null ? Collections.emptySet() : kieProject.getTransitiveIncludes(kBaseModel);
         List<Process> processes = findProcesses(internalKieModule, kBaseModel);
         Collection<Model> modelsForKBase;
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.ResultsImpl;
+import org.drools.compiler.kproject.models.KieBaseModelImpl;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.util.DroolsStreamUtils;
+import org.drools.core.util.StringUtils;
+import org.drools.model.Model;
+import org.drools.modelcompiler.builder.KieBaseBuilder;
+import org.drools.reflective.classloader.ProjectClassLoader;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.io.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.drools.modelcompiler.CanonicalKieModule.MODEL_FILE_DIRECTORY;
+
+/**
+ * Serialized form of a fully built KieBase (Rete network, node memories layout, alpha hashing and indexes) stored
+ * inside an executable model kjar, so that the network doesn't need to be rebuilt from the Models at startup.
+ * The snapshot is written at build time only when the {@link #PROPERTY_NAME} kmodule property is set to true.
+ *
+ * The serialized KieBase is preceded by a header with the release id of the kjar, the names of the model classes
+ * and a hash of the classes of their packages: a snapshot whose header doesn't match the kjar containing it is
+ * stale and is not used.
+ */
+public class KieBaseSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger( KieBaseSnapshot.class );
+
+    public static final String PROPERTY_NAME = "drools.kieBaseSnapshot";
+    public static final String SNAPSHOT_FILE_EXTENSION = ".kbase";
+
+    private static final String SNAPSHOT_FORMAT = "drools-kbase-snapshot-1";
+
+    private KieBaseSnapshot() { }
+
+    public static boolean isEnabled( KnowledgeBuilderConfigurationImpl builderConfiguration ) {
+        return builderConfiguration != null &&
+                Boolean.parseBoolean( builderConfiguration.getChainedProperties().getProperty( PROPERTY_NAME, "false" ) );
+    }
+
+    public static String getSnapshotFile( ReleaseId releaseId, String kBaseName ) {
+        return MODEL_FILE_DIRECTORY + releaseId.getGroupId() + "/" + releaseId.getArtifactId() + "/" + kBaseName + SNAPSHOT_FILE_EXTENSION;
+    }
+
+    /**
+     * Builds the KieBase out of the just compiled models and writes its serialized form in the target file system.
+     * Failing to create the snapshot is not an error: the kjar remains usable and the network will be built at runtime.
+     */
+    public static void writeSnapshot( MemoryFileSystem trgMfs, ReleaseId releaseId, KieBaseModelImpl kBaseModel,
+                                      Collection<String> modelClassNames, ClassLoader parentClassLoader, ResultsImpl messages ) {
+        ProjectClassLoader snapshotClassLoader = ProjectClassLoader.createProjectClassLoader( parentClassLoader );
+        snapshotClassLoader.storeClasses( getClassesMap( trgMfs ) );
+
+        try {
+            List<Model> models = new ArrayList<>();
+            for (String modelClassName : modelClassNames) {
+                models.add( (Model) snapshotClassLoader.loadClass( modelClassName ).getConstructor().newInstance() );
+            }
+
+            KieBaseConfiguration kBaseConf = CanonicalKieModule.getKnowledgeBaseConfiguration( kBaseModel, snapshotClassLoader );
+            KiePackagesBuilder builder = new KiePackagesBuilder( kBaseConf );
+            models.forEach( builder::addModel );
+            InternalKnowledgeBase kBase = new KieBaseBuilder( kBaseModel, kBaseConf ).createKieBase( builder.build() );
+
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream( snapshot );
+            header.writeUTF( SNAPSHOT_FORMAT );
+            header.writeUTF( releaseId.toExternalForm() );
+            header.writeInt( modelClassNames.size() );
+            for (String modelClassName : modelClassNames) {
+                header.writeUTF( modelClassName );
+            }
+            header.writeUTF( hashModelClasses( modelClassNames, trgMfs.getFileNames(), trgMfs::getBytes ) );
+            header.flush();
+            DroolsStreamUtils.streamOut( snapshot, kBase, true );
+
+            trgMfs.write( getSnapshotFile( releaseId, kBaseModel.getName() ), snapshot.toByteArray() );
+        } catch (Exception e) {
+            messages.addMessage( Message.Level.WARNING, kBaseModel.getName(),
+                                 "Unable to create the snapshot of KieBase " + kBaseModel.getName() + ", it will be built at runtime: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Restores the KieBase from the snapshot contained in the kjar or returns null if there is no snapshot,
+     * or if it is stale or cannot be read, in which case the caller is expected to build the network from the models.
+     */
+    static InternalKnowledgeBase readSnapshot( CanonicalKieModule kieModule, KieBaseModelImpl kBaseModel, ClassLoader classLoader ) {
+        Resource snapshot = kieModule.getResource( getSnapshotFile( kieModule.getReleaseId(), kBaseModel.getName() ) );
+        if (snapshot == null) {
+            return null;
+        }
+        try (InputStream in = snapshot.getInputStream()) {
+            String staleReason = checkHeader( new DataInputStream( in ), kieModule );
+            if (staleReason != null) {
+                logger.warn( "The snapshot of KieBase " + kBaseModel.getName() + " is stale (" + staleReason + "), it will be built from the model" );
+                return null;
+            }
+            return (InternalKnowledgeBase) DroolsStreamUtils.streamIn( in, classLoader, true );
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            logger.warn( "Unable to restore KieBase " + kBaseModel.getName() + " from its snapshot, it will be built from the model", e );
+            return null;
+        }
+    }
+
+    /**
+     * Returns why the snapshot read from the given stream doesn't belong to the given kjar, or null if it does
+     */
+    private static String checkHeader( DataInputStream header, CanonicalKieModule kieModule ) throws IOException {
+        if (!SNAPSHOT_FORMAT.equals( header.readUTF() )) {
+            return "unknown format";
+        }
+        String releaseId = header.readUTF();
+        if (!releaseId.equals( kieModule.getReleaseId().toExternalForm() )) {
+            return "built for " + releaseId;
+        }
+        int modelClassesNr = header.readInt();
+        List<String> modelClassNames = new ArrayList<>( modelClassesNr );
+        for (int i = 0; i < modelClassesNr; i++) {
+            modelClassNames.add( header.readUTF() );
+        }
+        if (!header.readUTF().equals( hashModelClasses( modelClassNames, kieModule.getFileNames(), kieModule::getBytes ) )) {
+            return "the model classes have changed";
+        }
+        return null;
+    }
+
+    /**
+     * Hashes the classes contained in the packages of the given model classes, in file name order
+     */
+    private static String hashModelClasses( Collection<String> modelClassNames, Collection<String> fileNames, Function<String, byte[]> bytesReader ) {
+        Collection<String> modelPackageDirs = new TreeSet<>();
+        for (String modelClassName : modelClassNames) {
+            int lastDot = modelClassName.lastIndexOf( '.' );
+            modelPackageDirs.add( lastDot < 0 ? "" : modelClassName.substring( 0, lastDot ).replace( '.', '/' ) + "/" );
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+            for (String fileName : new TreeSet<>( fileNames )) {
+                if (fileName.endsWith( ".class" ) && isInPackages( fileName, modelPackageDirs )) {
+                    digest.update( fileName.getBytes() );
+                    digest.update( bytesReader.apply( fileName ) );
+                }
+            }
+            return StringUtils.bytesToHex( digest.digest() );
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static boolean isInPackages( String fileName, Collection<String> packageDirs ) {
+        int lastSlash = fileName.lastIndexOf( '/' );
+        return packageDirs.contains( lastSlash < 0 ? "" : fileName.substring( 0, lastSlash + 1 ) );
+    }
+
+    private static Map<String, byte[]> getClassesMap( MemoryFileSystem mfs ) {
+        Map<String, byte[]> classes = new HashMap<>();
+        for (String fileName : mfs.getFileNames()) {
+            if (fileName.endsWith( ".class" )) {
+                classes.put( fileName, mfs.getBytes( fileName ) );
+            }
+        }
+        return classes;
+    }
+}
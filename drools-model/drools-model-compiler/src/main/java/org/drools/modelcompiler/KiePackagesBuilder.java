@@ -54,6 +54,7 @@ import org.drools.core.rule.Declaration;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.EvalCondition;
 import org.drools.core.rule.Forall;
+import org.drools.core.rule.GroupByAccumulate;
 import org.drools.core.rule.GroupElement;
 import org.drools.core.rule.MultiAccumulate;
 import org.drools.core.rule.NamedConsequence;
@@ -122,7 +123,6 @@ import org.drools.model.patterns.PatternImpl;
 import org.drools.model.patterns.QueryCallPattern;
 import org.drools.modelcompiler.attributes.LambdaEnabled;
 import org.drools.modelcompiler.attributes.LambdaSalience;
-import org.drools.modelcompiler.builder.GroupByBuilder;
 import org.drools.modelcompiler.consequence.LambdaConsequence;
 import org.drools.modelcompiler.constraints.AbstractConstraint;
 import org.drools.modelcompiler.constraints.BindingEvaluator;
@@ -133,6 +133,7 @@ import org.drools.modelcompiler.constraints.LambdaAccumulator;
 import org.drools.modelcompiler.constraints.LambdaConstraint;
 import org.drools.modelcompiler.constraints.LambdaDataProvider;
 import org.drools.modelcompiler.constraints.LambdaEvalExpression;
+import org.drools.modelcompiler.constraints.LambdaGroupByAccumulate;
 import org.drools.modelcompiler.constraints.LambdaReadAccessor;
 import org.drools.modelcompiler.constraints.TemporalConstraintEvaluator;
 import org.drools.modelcompiler.constraints.UnificationConstraint;
@@ -488,9 +489,7 @@ public class KiePackagesBuilder {
                 return buildAccumulate( ctx, group, (AccumulatePattern) condition );
 
             case GROUP_BY:
-                GroupByPattern groupByPattern = ( GroupByPattern ) condition;
-                group.addChild( buildPattern( ctx, group, new GroupByBuilder( ctx, groupByPattern ).build() ) );
-                return buildAccumulate( ctx, group, groupByPattern );
+                return buildGroupBy( ctx, group, ( GroupByPattern ) condition );
 
             case QUERY:
                 return buildQueryPattern( ctx, ( (QueryCallPattern) condition ) );
@@ -577,6 +576,59 @@ public class KiePackagesBuilder {
         return existingPattern ? null : pattern;
     }
 
+    private RuleConditionElement buildGroupBy( RuleContext ctx, GroupElement group, GroupByPattern groupByPattern ) {
+        // the results of a group by are always an Object[] with the accumulated values followed by the group key
+        Pattern pattern = new Pattern( 0, JAVA_CLASS_OBJECT_TYPE );
+
+        PatternImpl<?> sourcePattern = (PatternImpl<?>) groupByPattern.getPattern();
+        Set<String> usedVariableName = new LinkedHashSet<>();
+
+        if (sourcePattern != null) {
+            for (Variable v : sourcePattern.getInputVariables()) {
+                usedVariableName.add( v.getName() );
+            }
+        }
+
+        RuleConditionElement source;
+        if (groupByPattern.isCompositePatterns()) {
+            CompositePatterns compositePatterns = (CompositePatterns) groupByPattern.getCondition();
+            GroupElement allSubConditions = new GroupElement(conditionToGroupElementType( compositePatterns.getType() ));
+            for(Condition c : compositePatterns.getSubConditions()) {
+                recursivelyAddConditions( ctx, group, allSubConditions, c);
+            }
+            source = allSubConditions;
+        } else {
+            source = buildPattern( ctx, group, groupByPattern );
+        }
+
+        Accumulate accumulate = buildAccumulate( ctx, groupByPattern, source, pattern, new ArrayList<>(usedVariableName), sourcePattern != null ? sourcePattern.getBindings() : Collections.emptyList() );
+        Declaration[] groupingDeclarations = Stream.of( groupByPattern.getVars() ).map( ctx::getDeclaration ).toArray( Declaration[]::new );
+        GroupByAccumulate groupBy = new LambdaGroupByAccumulate( accumulate, groupingDeclarations, groupByPattern.getGroupingFunction() );
+
+        Variable keyVar = groupByPattern.getVarKey();
+        Declaration keyDeclaration = new Declaration( keyVar.getName(),
+                                                      new ArrayElementReader( new SelfReferenceClassFieldReader( Object[].class ),
+                                                                              groupByPattern.getAccumulateFunctions().length,
+                                                                              keyVar.getType() ),
+                                                      pattern,
+                                                      true );
+        pattern.addDeclaration( keyDeclaration );
+        ctx.addInnerDeclaration( keyVar, keyDeclaration );
+
+        for (Variable boundVar : groupByPattern.getBoundVariables()) {
+            ctx.addAccumulateSource( boundVar, groupBy );
+        }
+        pattern.setSource( groupBy );
+
+        if (source instanceof Pattern) {
+            for (Variable v : groupByPattern.getBoundVariables()) {
+                ctx.registerPattern(v, (Pattern) source);
+            }
+        }
+
+        return pattern;
+    }
+
     private Constraint getForallSelfJoin(Condition condition) {
         if (condition instanceof CompositePatterns && condition.getSubConditions().size() == 2 &&
                 condition.getSubConditions().get(0) instanceof PatternImpl && condition.getSubConditions().get(1) instanceof PatternImpl) {
@@ -755,8 +807,11 @@ public class KiePackagesBuilder {
 
             final Accumulator accumulator = createAccumulator(usedVariableName, bindingEvaluator, accFunction);
             final Variable boundVar = accPattern.getBoundVariables()[0];
+            final InternalReadAccessor reader = accPattern instanceof GroupByPattern ?
+                    new ArrayElementReader( new SelfReferenceClassFieldReader( Object[].class ), 0, boundVar.getType() ) :
+                    getReadAcessor( JAVA_CLASS_OBJECT_TYPE );
             final Declaration declaration = new Declaration(boundVar.getName(),
-                                                            getReadAcessor( JAVA_CLASS_OBJECT_TYPE ),
+                                                            reader,
                                                             pattern,
                                                             true);
             pattern.addDeclaration(declaration);
@@ -916,7 +971,15 @@ public class KiePackagesBuilder {
                 }
             } else {
                 Accumulate accSource = ctx.getAccumulateSource( patternVariable );
-                if (accSource != null) {
+                if (accSource instanceof GroupByAccumulate) {
+                    // the pattern iterates the result of its group out of the Object[] propagated by the group by
+                    Declaration resultDeclaration = ctx.getDeclaration( patternVariable );
+                    resultDeclaration.getPattern().getDeclarations().remove( resultDeclaration.getIdentifier() );
+                    org.drools.core.rule.From fromSource = new org.drools.core.rule.From(
+                            new LambdaDataProvider( args -> Collections.singletonList( args[0] ), false, resultDeclaration ) );
+                    fromSource.setResultPattern(pattern);
+                    pattern.setSource(fromSource);
+                } else if (accSource != null) {
                     for (RuleConditionElement element : group.getChildren()) {
                         if (element instanceof Pattern && (( Pattern ) element).getSource() == accSource) {
                             if (accSource instanceof MultiAccumulate ) {
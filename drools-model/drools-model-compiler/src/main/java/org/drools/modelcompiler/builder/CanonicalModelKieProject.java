@@ -16,7 +16,9 @@
 
 package org.drools.modelcompiler.builder;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -34,6 +36,7 @@ import org.drools.compiler.kie.builder.impl.KieModuleKieProject;
 import org.drools.compiler.kie.builder.impl.ResultsImpl;
 import org.drools.compiler.kproject.models.KieBaseModelImpl;
 import org.drools.modelcompiler.CanonicalKieModule;
+import org.drools.modelcompiler.KieBaseSnapshot;
 import org.kie.api.builder.Message;
 import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.jci.CompilationProblem;
@@ -96,7 +99,10 @@ public class CanonicalModelKieProject extends KieModuleKieProject {
 
         String[] sources = sourceFiles.toArray(new String[sourceFiles.size()]);
         if (sources.length != 0) {
-            CompilationResult res = getCompiler().compile(sources, srcMfs, trgMfs, getClassLoader());
+            ModelBuildCache buildCache = getModelBuildCache();
+            CompilationResult res = buildCache == null ?
+                    getCompiler().compile(sources, srcMfs, trgMfs, getClassLoader()) :
+                    compileWithCache(buildCache, modelWriter.getBasePath(), srcMfs, trgMfs, projectSourcePath);
 
             Stream.of(res.getErrors()).collect(groupingBy( CompilationProblem::getFileName))
                     .forEach( (name, errors) -> {
@@ -114,6 +120,55 @@ public class CanonicalModelKieProject extends KieModuleKieProject {
         }
 
         modelWriter.writeModelFile(modelFiles, trgMfs, getInternalKieModule().getReleaseId());
+
+        if (!messages.hasMessages(Message.Level.ERROR)) {
+            writeKieBaseSnapshots(trgMfs, modelsByKBase, messages);
+        }
+    }
+
+    private ModelBuildCache getModelBuildCache() {
+        if (modelBuilders.isEmpty()) {
+            return null;
+        }
+        ModelBuilderImpl modelBuilder = modelBuilders.values().iterator().next();
+        return ModelBuildCache.get(modelBuilder.getBuilderConfiguration(), getInternalKieModule(), getClassLoader());
+    }
+
+    private CompilationResult compileWithCache(ModelBuildCache buildCache, String basePath, MemoryFileSystem srcMfs, MemoryFileSystem trgMfs, String projectSourcePath) {
+        Collection<String> sharedSources = new HashSet<>();
+        List<Collection<String>> packagesSources = new ArrayList<>();
+        Collection<String> assignedSources = new HashSet<>();
+        for (ModelBuilderImpl<?> modelBuilder : modelBuilders.values()) {
+            for (PackageSources pkgSources : modelBuilder.getPackageSources()) {
+                for (GeneratedFile pojoSource : pkgSources.getPojoSources()) {
+                    String path = basePath + "/" + pojoSource.getPath();
+                    if (assignedSources.add(path)) {
+                        sharedSources.add(path);
+                    }
+                }
+                List<GeneratedFile> generatedFiles = new ArrayList<>();
+                pkgSources.collectGeneratedFiles(generatedFiles);
+                Collection<String> pkgSourceFiles = new ArrayList<>();
+                for (GeneratedFile generatedFile : generatedFiles) {
+                    String path = basePath + "/" + generatedFile.getPath();
+                    if (assignedSources.add(path)) {
+                        pkgSourceFiles.add(path);
+                    }
+                }
+                packagesSources.add(pkgSourceFiles);
+            }
+        }
+        return buildCache.compile(getCompiler(), srcMfs, trgMfs, getClassLoader(), basePath, sharedSources, packagesSources, Collections.singletonList(projectSourcePath));
+    }
+
+    private void writeKieBaseSnapshots(MemoryFileSystem trgMfs, Map<String, List<String>> modelsByKBase, ResultsImpl messages) {
+        for (Map.Entry<String, List<String>> kBaseModels : modelsByKBase.entrySet()) {
+            ModelBuilderImpl modelBuilder = modelBuilders.get(kBaseModels.getKey());
+            if (KieBaseSnapshot.isEnabled(modelBuilder.getBuilderConfiguration())) {
+                KieBaseModelImpl kBaseModel = (KieBaseModelImpl) getKieBaseModel(kBaseModels.getKey());
+                KieBaseSnapshot.writeSnapshot(trgMfs, getInternalKieModule().getReleaseId(), kBaseModel, kBaseModels.getValue(), getClassLoader(), messages);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
+import org.drools.compiler.commons.jci.compilers.CompilationResult;
+import org.drools.compiler.commons.jci.compilers.JavaCompiler;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.core.util.Drools;
+import org.drools.reflective.ComponentsFactory;
+import org.drools.reflective.classloader.ProjectClassLoader;
+import org.kie.api.builder.ReleaseId;
+import org.kie.internal.jci.CompilationProblem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of the classes compiled out of the sources generated for the executable model, shared by the
+ * subsequent builds of the kjars. It is enabled by setting the {@link #PROPERTY_NAME} kmodule (or system) property
+ * to the directory holding the cache.
+ * <p>
+ * The generated sources are split in units: one for the declared types, on which all the packages may depend, and one
+ * for each package. The key of a unit is the hash of its sources, of the sources of the units it refers to and of the
+ * context of the build (Drools and java versions, the kjar and its dependencies and the classes compiled in the kjar).
+ * Only the units with no entry in the cache are compiled, against the cached classes of the other ones, so a rebuild
+ * after changing a single drl file only recompiles its package and the packages depending on it.
+ */
+public class ModelBuildCache {
+
+    private static final Logger logger = LoggerFactory.getLogger( ModelBuildCache.class );
+
+    public static final String PROPERTY_NAME = "drools.modelBuildCache";
+
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAVA_EXTENSION = ".java";
+
+    private static final Pattern QUALIFIED_NAME = Pattern.compile( "[\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*(\\.[\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*)+" );
+
+    private final Path directory;
+    private final String contextHash;
+
+    ModelBuildCache( Path directory, String contextHash ) {
+        this.directory = directory;
+        this.contextHash = contextHash;
+    }
+
+    /**
+     * Returns the cache configured for the given builder configuration, or null if the cache is not enabled.
+     */
+    public static ModelBuildCache get( KnowledgeBuilderConfigurationImpl builderConfiguration, InternalKieModule kieModule, ClassLoader classLoader ) {
+        String cacheDirectory = builderConfiguration == null ? null :
+                builderConfiguration.getChainedProperties().getProperty( PROPERTY_NAME, System.getProperty( PROPERTY_NAME ) );
+        if (cacheDirectory == null || cacheDirectory.trim().isEmpty()) {
+            return null;
+        }
+        return new ModelBuildCache( new File( cacheDirectory.trim() ).toPath(), contextHash( kieModule, classLoader ) );
+    }
+
+    private static String contextHash( InternalKieModule kieModule, ClassLoader classLoader ) {
+        return hash( digest -> {
+            update( digest, Drools.getFullVersion() );
+            update( digest, System.getProperty( "java.specification.version" ) );
+            update( digest, JavaParserCompiler.getCompiler().getClass().getName() );
+            update( digest, kieModule.getReleaseId().toExternalForm() );
+
+            Map<String, InternalKieModule> dependencies = new TreeMap<>();
+            kieModule.getKieDependencies().forEach( ( releaseId, dependency ) -> dependencies.put( releaseId.toExternalForm(), dependency ) );
+            dependencies.forEach( ( releaseId, dependency ) -> {
+                update( digest, releaseId );
+                if (isSnapshot( dependency.getReleaseId() )) {
+                    // the content of a snapshot can change without changing its release id
+                    new TreeSet<>( dependency.getFileNames() ).forEach( fileName -> update( digest, fileName, dependency.getBytes( fileName ) ) );
+                }
+            } );
+
+            if (classLoader instanceof ProjectClassLoader && ( (ProjectClassLoader) classLoader ).getStore() != null) {
+                new TreeMap<>( ( (ProjectClassLoader) classLoader ).getStore() ).forEach( ( name, bytes ) -> update( digest, name, bytes ) );
+            }
+        } );
+    }
+
+    private static boolean isSnapshot( ReleaseId releaseId ) {
+        return releaseId.getVersion() != null && releaseId.getVersion().endsWith( "-SNAPSHOT" );
+    }
+
+    /**
+     * Compiles the given sources written in the source file system, reusing the cached classes of the units whose
+     * key is found in the cache and storing the classes of the other units once they are successfully compiled.
+     *
+     * @param basePath       the path of the source folder in the source file system
+     * @param sharedSources  the sources that any package can depend on, like the declared types
+     * @param packageSources the sources generated for each package
+     * @param otherSources   the sources that are always compiled and never cached, like the project model class
+     */
+    public CompilationResult compile( JavaCompiler compiler, MemoryFileSystem srcMfs, MemoryFileSystem trgMfs, ClassLoader classLoader, String basePath,
+                                      Collection<String> sharedSources, Collection<? extends Collection<String>> packageSources,
+                                      Collection<String> otherSources ) {
+        List<Unit> units = createUnits( srcMfs, basePath, sharedSources, packageSources );
+
+        List<String> compiledSources = new ArrayList<>( otherSources );
+        Map<String, byte[]> cachedClasses = new HashMap<>();
+        List<Unit> missingUnits = new ArrayList<>();
+        for (Unit unit : units) {
+            Map<String, byte[]> classes = readEntry( unit.key );
+            if (classes != null) {
+                cachedClasses.putAll( classes );
+            } else {
+                missingUnits.add( unit );
+                compiledSources.addAll( unit.sources );
+            }
+        }
+        logger.debug( "Model build cache: reusing {} units and compiling {} units", units.size() - missingUnits.size(), missingUnits.size() );
+
+        cachedClasses.forEach( trgMfs::write );
+        if (compiledSources.isEmpty()) {
+            return new CompilationResult( new CompilationProblem[0] );
+        }
+
+        CompilationResult result = compiler.compile( compiledSources.toArray( new String[compiledSources.size()] ), srcMfs, trgMfs,
+                                                     withCachedClasses( classLoader, cachedClasses ) );
+        if (result.getErrors().length == 0) {
+            for (Unit unit : missingUnits) {
+                writeEntry( unit.key, unit.getClasses( trgMfs ) );
+            }
+        }
+        return result;
+    }
+
+    private List<Unit> createUnits( MemoryFileSystem srcMfs, String basePath, Collection<String> sharedSources, Collection<? extends Collection<String>> packageSources ) {
+        List<Unit> units = new ArrayList<>();
+        Unit sharedUnit = new Unit( srcMfs, basePath, sharedSources );
+        String sharedHash = hash( digest -> {
+            update( digest, contextHash );
+            update( digest, sharedUnit.contentHash );
+        } );
+        if (!sharedUnit.sources.isEmpty()) {
+            sharedUnit.key = sharedHash;
+            units.add( sharedUnit );
+        }
+
+        List<Unit> packageUnits = new ArrayList<>();
+        Set<String> javaPackages = new HashSet<>();
+        for (Collection<String> sources : packageSources) {
+            Unit unit = new Unit( srcMfs, basePath, sources );
+            packageUnits.add( unit );
+            javaPackages.addAll( unit.javaPackages );
+        }
+        for (Unit unit : packageUnits) {
+            unit.findReferencedPackages( javaPackages );
+        }
+        for (Unit unit : packageUnits) {
+            Collection<Unit> dependencies = findDependencies( unit, packageUnits );
+            unit.key = hash( digest -> {
+                update( digest, sharedHash );
+                update( digest, unit.contentHash );
+                dependencies.stream().map( dependency -> dependency.contentHash ).sorted().forEach( hash -> update( digest, hash ) );
+            } );
+            units.add( unit );
+        }
+        return units;
+    }
+
+    /**
+     * Finds the units that the given one transitively refers to. The generated sources refer to the classes of the other
+     * packages by their fully qualified names or imports, so a unit is considered dependent on another if its sources
+     * contain a qualified name in one of the java packages of the other unit.
+     */
+    private static Collection<Unit> findDependencies( Unit unit, List<Unit> units ) {
+        Set<Unit> dependencies = new HashSet<>();
+        Deque<Unit> toBeVisited = new ArrayDeque<>();
+        toBeVisited.add( unit );
+        while (!toBeVisited.isEmpty()) {
+            Unit current = toBeVisited.poll();
+            for (Unit other : units) {
+                if (other != unit && !dependencies.contains( other ) && current.refersTo( other )) {
+                    dependencies.add( other );
+                    toBeVisited.add( other );
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private static ClassLoader withCachedClasses( ClassLoader classLoader, Map<String, byte[]> cachedClasses ) {
+        if (cachedClasses.isEmpty()) {
+            return classLoader;
+        }
+        // the native compiler only lists the classes in the store of the class loader used for the compilation,
+        // so the classes already stored in the project class loader have to be stored in the new one as well
+        Map<String, byte[]> store = new HashMap<>();
+        if (classLoader instanceof ProjectClassLoader && ( (ProjectClassLoader) classLoader ).getStore() != null) {
+            store.putAll( ( (ProjectClassLoader) classLoader ).getStore() );
+        }
+        store.putAll( cachedClasses );
+        ProjectClassLoader compilationClassLoader = ComponentsFactory.createProjectClassLoader( classLoader, null );
+        compilationClassLoader.storeClasses( store );
+        return compilationClassLoader;
+    }
+
+    private Map<String, byte[]> readEntry( String key ) {
+        Path entry = directory.resolve( key );
+        if (!Files.isDirectory( entry )) {
+            return null;
+        }
+        Map<String, byte[]> classes = new HashMap<>();
+        try (Stream<Path> files = Files.walk( entry )) {
+            for (Path file : (Iterable<Path>) files.filter( Files::isRegularFile )::iterator) {
+                classes.put( entry.relativize( file ).toString().replace( File.separatorChar, '/' ), Files.readAllBytes( file ) );
+            }
+            return classes;
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn( "Unable to read the entry " + key + " of the model build cache, it will be compiled again", e );
+            return null;
+        }
+    }
+
+    /**
+     * Writes the entry in a temporary directory that is then renamed, so that a partially written entry is never read,
+     * even when the cache is shared by concurrent builds.
+     */
+    private void writeEntry( String key, Map<String, byte[]> classes ) {
+        Path entry = directory.resolve( key );
+        if (Files.isDirectory( entry )) {
+            return;
+        }
+        Path tempEntry = null;
+        try {
+            Files.createDirectories( directory );
+            tempEntry = Files.createTempDirectory( directory, key + "-" );
+            for (Map.Entry<String, byte[]> clazz : classes.entrySet()) {
+                Path file = tempEntry.resolve( clazz.getKey() );
+                Files.createDirectories( file.getParent() );
+                Files.write( file, clazz.getValue() );
+            }
+            Files.move( tempEntry, entry, StandardCopyOption.ATOMIC_MOVE );
+            tempEntry = null;
+        } catch (IOException e) {
+            if (!Files.isDirectory( entry )) {
+                logger.warn( "Unable to write the entry " + key + " of the model build cache", e );
+            }
+        } finally {
+            if (tempEntry != null) {
+                delete( tempEntry );
+            }
+        }
+    }
+
+    private static void delete( Path path ) {
+        try (Stream<Path> files = Files.walk( path )) {
+            files.sorted( Comparator.reverseOrder() ).forEach( file -> file.toFile().delete() );
+        } catch (IOException e) {
+            // ignore, it's only a leftover of a failed write
+        }
+    }
+
+    private static String hash( Consumer<MessageDigest> content ) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance( "SHA-256" );
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException( e );
+        }
+        content.accept( digest );
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append( String.format( "%02x", b ) );
+        }
+        return sb.toString();
+    }
+
+    private static void update( MessageDigest digest, String value ) {
+        digest.update( String.valueOf( value ).getBytes( StandardCharsets.UTF_8 ) );
+        digest.update( (byte) 0 );
+    }
+
+    private static void update( MessageDigest digest, String name, byte[] bytes ) {
+        update( digest, name );
+        if (bytes != null) {
+            digest.update( bytes );
+        }
+        digest.update( (byte) 0 );
+    }
+
+    private static class Unit {
+
+        private final List<String> sources;
+        private final Set<String> classPaths = new HashSet<>();
+        private final Set<String> javaPackages = new HashSet<>();
+        private final Set<String> referencedPackages = new HashSet<>();
+        private final String contentHash;
+        private List<String> contents = new ArrayList<>();
+        private String key;
+
+        private Unit( MemoryFileSystem srcMfs, String basePath, Collection<String> sources ) {
+            this.sources = new ArrayList<>( new TreeSet<>( sources ) );
+            for (String source : this.sources) {
+                String classPath = classPathOf( basePath, source );
+                classPaths.add( classPath );
+                int lastSlash = classPath.lastIndexOf( '/' );
+                if (lastSlash > 0) {
+                    javaPackages.add( classPath.substring( 0, lastSlash ).replace( '/', '.' ) );
+                }
+                contents.add( new String( srcMfs.getBytes( source ), StandardCharsets.UTF_8 ) );
+            }
+            this.contentHash = hash( digest -> {
+                for (int i = 0; i < this.sources.size(); i++) {
+                    update( digest, this.sources.get( i ) );
+                    update( digest, contents.get( i ) );
+                }
+            } );
+        }
+
+        /**
+         * Collects, in a single pass over the sources, the given java packages that prefix a qualified name in them.
+         */
+        private void findReferencedPackages( Set<String> javaPackages ) {
+            for (String content : contents) {
+                Matcher matcher = QUALIFIED_NAME.matcher( content );
+                while (matcher.find()) {
+                    String name = matcher.group();
+                    for (int dot = name.indexOf( '.' ); dot > 0; dot = name.indexOf( '.', dot + 1 )) {
+                        String prefix = name.substring( 0, dot );
+                        if (javaPackages.contains( prefix )) {
+                            referencedPackages.add( prefix );
+                        }
+                    }
+                }
+            }
+            contents = null;
+        }
+
+        private boolean refersTo( Unit other ) {
+            for (String javaPackage : other.javaPackages) {
+                if (referencedPackages.contains( javaPackage )) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the classes compiled out of the sources of this unit, including their inner classes.
+         */
+        private Map<String, byte[]> getClasses( MemoryFileSystem trgMfs ) {
+            Map<String, byte[]> classes = new HashMap<>();
+            for (String fileName : trgMfs.getFileNames()) {
+                if (fileName.endsWith( CLASS_EXTENSION )) {
+                    String classPath = fileName.substring( 0, fileName.length() - CLASS_EXTENSION.length() );
+                    int innerClass = classPath.indexOf( '$' );
+                    if (classPaths.contains( innerClass < 0 ? classPath : classPath.substring( 0, innerClass ) )) {
+                        classes.put( fileName, trgMfs.getBytes( fileName ) );
+                    }
+                }
+            }
+            return classes;
+        }
+
+        /**
+         * Converts the path of a source, like src/main/java/org/example/Rules.java, in the path of its class, like org/example/Rules.
+         */
+        private static String classPathOf( String basePath, String source ) {
+            String path = source.endsWith( JAVA_EXTENSION ) ? source.substring( 0, source.length() - JAVA_EXTENSION.length() ) : source;
+            return path.startsWith( basePath + "/" ) ? path.substring( basePath.length() + 1 ) : path;
+        }
+    }
+}
@@ -73,6 +73,10 @@ public class PackageSources {
         return rules;
     }
 
+    public List<GeneratedFile> getPojoSources() {
+        return pojoSources;
+    }
+
     public Collection<String> getModelNames() {
         return modelNames;
     }
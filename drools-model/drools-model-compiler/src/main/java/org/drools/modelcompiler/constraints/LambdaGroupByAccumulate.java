@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler.constraints;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.SubnetworkTuple;
+import org.drools.core.rule.Accumulate;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.GroupByAccumulate;
+import org.drools.core.spi.Tuple;
+import org.drools.model.functions.FunctionN;
+
+public class LambdaGroupByAccumulate extends GroupByAccumulate {
+
+    private Declaration[] groupingDeclarations;
+    private FunctionN groupingFunction;
+
+    public LambdaGroupByAccumulate() { }
+
+    public LambdaGroupByAccumulate( Accumulate innerAccumulate, Declaration[] groupingDeclarations, FunctionN groupingFunction ) {
+        super( innerAccumulate );
+        this.groupingDeclarations = groupingDeclarations;
+        this.groupingFunction = groupingFunction;
+    }
+
+    @Override
+    public Object getKey( Tuple tuple, InternalFactHandle handle, WorkingMemory wm ) {
+        Object[] args = new Object[groupingDeclarations.length];
+        for (int i = 0; i < groupingDeclarations.length; i++) {
+            Declaration declaration = groupingDeclarations[i];
+            Object object;
+            if (handle.getObject() instanceof SubnetworkTuple) {
+                object = (( SubnetworkTuple ) handle.getObject()).getObject( declaration );
+            } else {
+                object = tuple != null && declaration.getOffset() < tuple.size() ? tuple.getObject( declaration.getOffset() ) : handle.getObject();
+            }
+            args[i] = declaration.getValue( ( InternalWorkingMemory ) wm, object );
+        }
+        return groupingFunction.apply( args );
+    }
+
+    @Override
+    public LambdaGroupByAccumulate clone() {
+        LambdaGroupByAccumulate clone = new LambdaGroupByAccumulate( getInnerAccumulate().clone(), groupingDeclarations.clone(), groupingFunction );
+        registerClone( clone );
+        return clone;
+    }
+
+    @Override
+    protected void replaceAccumulatorDeclaration( Declaration declaration, Declaration resolved ) {
+        super.replaceAccumulatorDeclaration( declaration, resolved );
+        for (int i = 0; i < groupingDeclarations.length; i++) {
+            if (groupingDeclarations[i].equals( declaration )) {
+                groupingDeclarations[i] = resolved;
+            }
+        }
+    }
+
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        super.readExternal( in );
+        groupingDeclarations = ( Declaration[] ) in.readObject();
+        groupingFunction = ( FunctionN ) in.readObject();
+    }
+
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        super.writeExternal( out );
+        out.writeObject( groupingDeclarations );
+        out.writeObject( groupingFunction );
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if ( !super.equals( obj ) ) return false;
+        LambdaGroupByAccumulate other = ( LambdaGroupByAccumulate ) obj;
+        return Arrays.equals( groupingDeclarations, other.groupingDeclarations ) && groupingFunction.equals( other.groupingFunction );
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * ( 31 * super.hashCode() + Arrays.hashCode( groupingDeclarations ) ) + groupingFunction.hashCode();
+    }
+}
@@ -29,6 +29,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.assertj.core.api.Assertions;
 import org.drools.core.base.accumulators.CountAccumulateFunction;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.LeftTupleIterator;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.reteoo.LeftTuple;
+import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.SubnetworkTuple;
 import org.drools.model.DSL;
 import org.drools.model.Global;
@@ -755,4 +761,106 @@ public class GroupByTest {
 
         assertThat(results).containsExactly(80, 75, 71);
     }
+
+    @Test
+    public void testOnlyChangedGroupIsRepropagated() throws Exception {
+        Global<List> var_results = D.globalOf(List.class, "defaultpkg", "results");
+
+        Variable<String> var_$key = D.declarationOf(String.class);
+        Variable<Person> var_$p = D.declarationOf(Person.class);
+        Variable<Integer> var_$age = D.declarationOf(Integer.class);
+        Variable<Integer> var_$sumOfAges = D.declarationOf(Integer.class);
+
+        Rule rule1 = D.rule("R1").build(
+                D.groupBy(
+                        D.pattern(var_$p).bind(var_$age, person -> person.getAge(), D.reactOn("age")),
+                        var_$p, var_$key, person -> person.getName().substring(0, 1),
+                        D.accFunction(org.drools.core.base.accumulators.IntegerSumAccumulateFunction::new, var_$age).as(var_$sumOfAges)),
+                D.on(var_$key, var_results, var_$sumOfAges)
+                        .execute(($key, results, $sumOfAges) -> results.add($key + ":" + $sumOfAges))
+        );
+
+        Model model = new ModelImpl().addRule( rule1 ).addGlobal( var_results );
+        KieSession ksession = KieBaseBuilder.createKieBaseFromModel( model ).newKieSession();
+
+        List<String> results = new ArrayList<>();
+        ksession.setGlobal( "results", results );
+
+        ksession.insert(new Person("Mark", 42));
+        FactHandle edsonFH = ksession.insert(new Person("Edson", 38));
+        ksession.insert(new Person("Mario", 45));
+        ksession.insert(new Person("Geoffrey", 35));
+        ksession.fireAllRules();
+
+        assertThat(results).containsExactlyInAnyOrder("M:87", "E:38", "G:35");
+        results.clear();
+
+        // only the group of the modified person is re-evaluated and fires again
+        ksession.update(edsonFH, new Person("Edson", 40));
+        ksession.fireAllRules();
+
+        assertThat(results).containsExactly("E:40");
+        results.clear();
+
+        // moving the only person of a group to another one removes the old group and re-fires the new one
+        ksession.update(edsonFH, new Person("Matteo", 40));
+        ksession.fireAllRules();
+
+        assertThat(results).containsExactly("M:127");
+        results.clear();
+
+        ksession.delete(edsonFH);
+        ksession.fireAllRules();
+
+        assertThat(results).containsExactly("M:87");
+    }
+
+    @Test
+    public void testLeftTupleIteratorVisitsGroupResults() throws Exception {
+        Variable<String> var_$key = D.declarationOf(String.class);
+        Variable<Person> var_$p = D.declarationOf(Person.class);
+        Variable<Integer> var_$age = D.declarationOf(Integer.class);
+        Variable<Integer> var_$sumOfAges = D.declarationOf(Integer.class);
+
+        Rule rule1 = D.rule("R1").build(
+                D.groupBy(
+                        D.pattern(var_$p).bind(var_$age, person -> person.getAge()),
+                        var_$p, var_$key, person -> person.getName().substring(0, 1),
+                        D.accFunction(org.drools.core.base.accumulators.IntegerSumAccumulateFunction::new, var_$age).as(var_$sumOfAges)),
+                D.on(var_$key, var_$sumOfAges)
+                        .execute(($key, $sumOfAges) -> { })
+        );
+
+        Model model = new ModelImpl().addRule( rule1 );
+        KieBase kbase = KieBaseBuilder.createKieBaseFromModel( model );
+        KieSession ksession = kbase.newKieSession();
+
+        ksession.insert(new Person("Mark", 42));
+        ksession.insert(new Person("Edson", 38));
+        ksession.insert(new Person("Mario", 45));
+        FactHandle geoffreyFH = ksession.insert(new Person("Geoffrey", 35));
+        ksession.fireAllRules();
+
+        LeftTupleSink terminalNode = (LeftTupleSink) ((InternalKnowledgeBase) kbase).getReteooBuilder()
+                .getTerminalNodes((RuleImpl) kbase.getRule("defaultpkg", "R1"))[0];
+
+        // each group has its own result tuple
+        assertThat(collectGroupKeys((InternalWorkingMemory) ksession, terminalNode)).containsExactlyInAnyOrder("M", "E", "G");
+
+        ksession.delete(geoffreyFH);
+        ksession.fireAllRules();
+
+        assertThat(collectGroupKeys((InternalWorkingMemory) ksession, terminalNode)).containsExactlyInAnyOrder("M", "E");
+    }
+
+    private static List<Object> collectGroupKeys(InternalWorkingMemory wm, LeftTupleSink terminalNode) {
+        List<Object> keys = new ArrayList<>();
+        org.drools.core.util.Iterator<LeftTuple> it = LeftTupleIterator.iterator(wm, terminalNode);
+        for (LeftTuple leftTuple = it.next(); leftTuple != null; leftTuple = it.next()) {
+            // the result of a group is an array of the accumulated values followed by the group key
+            Object[] groupResult = (Object[]) leftTuple.getFactHandle().getObject();
+            keys.add(groupResult[groupResult.length - 1]);
+        }
+        return keys;
+    }
 }
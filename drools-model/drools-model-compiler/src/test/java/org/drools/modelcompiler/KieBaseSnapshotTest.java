@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
+import org.drools.compiler.kie.builder.impl.MemoryKieModule;
+import org.drools.modelcompiler.domain.Person;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.KieRepository;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KieBaseSnapshotTest {
+
+    private static final String RULE =
+            "package myrules;\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule beta when\n" +
+            "  $p1 : Person(name == \"Mark\")\n" +
+            "  $p2 : Person(name != \"Mark\", age > $p1.age)\n" +
+            "then\n" +
+            "  list.add($p2.getName());\n" +
+            "end";
+
+    @Test
+    public void testSnapshotWrittenAndUsed() {
+        KieServices ks = KieServices.get();
+        ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-snapshot-test", "1.0" );
+
+        InternalKieModule kmodule = createKieModule( ks, releaseId, true );
+        assertTrue( kmodule.hasResource( KieBaseSnapshot.getSnapshotFile( releaseId, "kbase" ) ) );
+
+        assertEquals( "Mario", executeSession( ks, releaseId, kmodule ) );
+        // the KieBase has been restored from the snapshot, without building its packages from the models
+        assertEquals( 0, ( (CanonicalKieModule) kmodule ).getKiePackagesBuildCount() );
+    }
+
+    @Test
+    public void testStaleSnapshotNotUsed() {
+        KieServices ks = KieServices.get();
+        ReleaseId releaseId1 = ks.newReleaseId( "org.kie", "kbase-snapshot-test", "1.0" );
+        ReleaseId releaseId2 = ks.newReleaseId( "org.kie", "kbase-snapshot-test", "2.0" );
+
+        InternalKieModule kmodule1 = createKieModule( ks, releaseId1, true );
+        InternalKieModule kmodule2 = createKieModule( ks, releaseId2, true );
+
+        // replace the snapshot of the second kjar with the one of the first
+        String snapshotFile = KieBaseSnapshot.getSnapshotFile( releaseId2, "kbase" );
+        byte[] snapshot1 = kmodule1.getBytes( KieBaseSnapshot.getSnapshotFile( releaseId1, "kbase" ) );
+        ( (MemoryKieModule) ( (CanonicalKieModule) kmodule2 ).getInternalKieModule() ).getMemoryFileSystem().write( snapshotFile, snapshot1 );
+
+        assertEquals( "Mario", executeSession( ks, releaseId2, kmodule2 ) );
+        assertEquals( 1, ( (CanonicalKieModule) kmodule2 ).getKiePackagesBuildCount() );
+    }
+
+    @Test
+    public void testNoSnapshotByDefault() {
+        KieServices ks = KieServices.get();
+        ReleaseId releaseId = ks.newReleaseId( "org.kie", "kbase-no-snapshot-test", "1.0" );
+
+        InternalKieModule kmodule = createKieModule( ks, releaseId, false );
+        assertFalse( kmodule.hasResource( KieBaseSnapshot.getSnapshotFile( releaseId, "kbase" ) ) );
+
+        assertEquals( "Mario", executeSession( ks, releaseId, kmodule ) );
+        assertEquals( 1, ( (CanonicalKieModule) kmodule ).getKiePackagesBuildCount() );
+    }
+
+    private String executeSession( KieServices ks, ReleaseId releaseId, InternalKieModule kmodule ) {
+        KieRepository repo = ks.getRepository();
+        repo.removeKieModule( releaseId );
+        repo.addKieModule( kmodule );
+
+        KieContainer kieContainer = ks.newKieContainer( releaseId );
+        KieSession kieSession = kieContainer.newKieSession();
+
+        List<String> list = new ArrayList<>();
+        kieSession.setGlobal( "list", list );
+
+        kieSession.insert( new Person( "Mark", 37 ) );
+        kieSession.insert( new Person( "Edson", 35 ) );
+        kieSession.insert( new Person( "Mario", 40 ) );
+        assertEquals( 1, kieSession.fireAllRules() );
+        kieSession.dispose();
+
+        return list.get( 0 );
+    }
+
+    private InternalKieModule createKieModule( KieServices ks, ReleaseId releaseId, boolean snapshot ) {
+        KieModuleModel kproj = ks.newKieModuleModel();
+        if (snapshot) {
+            kproj.setConfigurationProperty( KieBaseSnapshot.PROPERTY_NAME, "true" );
+        }
+        KieBaseModel kieBaseModel = kproj.newKieBaseModel( "kbase" ).setDefault( true );
+        kieBaseModel.newKieSessionModel( "ksession" ).setDefault( true );
+
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.writeKModuleXML( kproj.toXML() );
+        kfs.writePomXML( KJARUtils.getPom( releaseId ) );
+        kfs.write( "src/main/resources/rule.drl", RULE );
+
+        KieBuilder kieBuilder = ks.newKieBuilder( kfs );
+        List<Message> messages = ( (KieBuilderImpl) kieBuilder ).buildAll( ExecutableModelProject.class )
+                                                                .getResults().getMessages();
+        if (!messages.isEmpty()) {
+            fail( messages.toString() );
+        }
+
+        return (InternalKieModule) kieBuilder.getKieModule();
+    }
+}
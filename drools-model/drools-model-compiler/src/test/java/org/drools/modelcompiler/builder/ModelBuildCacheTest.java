@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler.builder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
+import org.drools.modelcompiler.ExecutableModelProject;
+import org.drools.modelcompiler.KJARUtils;
+import org.drools.modelcompiler.domain.Person;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.KieRepository;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ModelBuildCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static String rule( String pkg, String name, int age ) {
+        return "package " + pkg + ";\n" +
+               "import " + Person.class.getCanonicalName() + ";\n" +
+               "global java.util.List list;\n" +
+               "rule " + name + " when\n" +
+               "  $p : Person(age > " + age + ")\n" +
+               "then\n" +
+               "  list.add(\"" + name + ":\" + $p.getName());\n" +
+               "end";
+    }
+
+    @Test
+    public void testOnlyChangedPackageIsRecompiled() throws Exception {
+        KieServices ks = KieServices.get();
+        ReleaseId releaseId = ks.newReleaseId( "org.kie", "model-build-cache-test", "1.0" );
+        File cacheDir = temporaryFolder.newFolder( "cache" );
+
+        InternalKieModule kmodule = createKieModule( ks, releaseId, cacheDir, 30 );
+        Set<String> entries = entriesOf( cacheDir );
+        assertEquals( 2, entries.size() );
+        assertEquals( Arrays.asList( "A:Mario", "B:Mario" ), execute( ks, releaseId, kmodule ) );
+
+        // an identical rebuild reuses all the cached units
+        kmodule = createKieModule( ks, releaseId, cacheDir, 30 );
+        assertEquals( entries, entriesOf( cacheDir ) );
+        assertEquals( Arrays.asList( "A:Mario", "B:Mario" ), execute( ks, releaseId, kmodule ) );
+
+        // changing the rule of package mypkga only recompiles that package
+        kmodule = createKieModule( ks, releaseId, cacheDir, 39 );
+        Set<String> newEntries = entriesOf( cacheDir );
+        assertEquals( 3, newEntries.size() );
+        assertTrue( newEntries.containsAll( entries ) );
+        assertEquals( Arrays.asList( "A:Mario", "B:Mario" ), execute( ks, releaseId, kmodule ) );
+
+        kmodule = createKieModule( ks, releaseId, cacheDir, 40 );
+        assertEquals( Arrays.asList( "B:Mario" ), execute( ks, releaseId, kmodule ) );
+    }
+
+    private Set<String> entriesOf( File cacheDir ) {
+        return new HashSet<>( Arrays.asList( cacheDir.list() ) );
+    }
+
+    private List<String> execute( KieServices ks, ReleaseId releaseId, InternalKieModule kmodule ) {
+        KieRepository repo = ks.getRepository();
+        repo.removeKieModule( releaseId );
+        repo.addKieModule( kmodule );
+
+        KieContainer kieContainer = ks.newKieContainer( releaseId );
+        KieSession kieSession = kieContainer.newKieSession();
+
+        List<String> list = new ArrayList<>();
+        kieSession.setGlobal( "list", list );
+        kieSession.insert( new Person( "Mark", 37 ) );
+        kieSession.insert( new Person( "Mario", 40 ) );
+        kieSession.fireAllRules();
+        kieSession.dispose();
+
+        list.sort( String::compareTo );
+        return list;
+    }
+
+    private InternalKieModule createKieModule( KieServices ks, ReleaseId releaseId, File cacheDir, int ageInPackageA ) {
+        KieModuleModel kproj = ks.newKieModuleModel();
+        kproj.setConfigurationProperty( ModelBuildCache.PROPERTY_NAME, cacheDir.getAbsolutePath() );
+        kproj.newKieBaseModel( "kbase" ).setDefault( true ).newKieSessionModel( "ksession" ).setDefault( true );
+
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.writeKModuleXML( kproj.toXML() );
+        kfs.writePomXML( KJARUtils.getPom( releaseId ) );
+        kfs.write( "src/main/resources/mypkga/ruleA.drl", rule( "mypkga", "A", ageInPackageA ) );
+        kfs.write( "src/main/resources/mypkgb/ruleB.drl", rule( "mypkgb", "B", 38 ) );
+
+        KieBuilder kieBuilder = ks.newKieBuilder( kfs );
+        List<Message> messages = ( (KieBuilderImpl) kieBuilder ).buildAll( ExecutableModelProject.class )
+                                                                .getResults().getMessages();
+        if (!messages.isEmpty()) {
+            fail( messages.toString() );
+        }
+
+        return (InternalKieModule) kieBuilder.getKieModule();
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -57,6 +58,7 @@ import org.drools.mvel.ConditionAnalyzer.MethodInvocation;
 import org.drools.mvel.ConditionAnalyzer.SingleCondition;
 import org.drools.mvel.ConditionAnalyzer.VariableExpression;
 import org.drools.core.rule.constraint.ConditionEvaluator;
+import org.drools.core.rule.constraint.ConditionEvaluatorDispatcher;
 import org.drools.core.rule.constraint.EvaluatorHelper;
 import org.drools.core.spi.Tuple;
 import org.mvel2.asm.Label;
@@ -76,6 +78,7 @@ import static org.mvel2.asm.Opcodes.ACC_PUBLIC;
 import static org.mvel2.asm.Opcodes.ACONST_NULL;
 import static org.mvel2.asm.Opcodes.ALOAD;
 import static org.mvel2.asm.Opcodes.ASTORE;
+import static org.mvel2.asm.Opcodes.ATHROW;
 import static org.mvel2.asm.Opcodes.DADD;
 import static org.mvel2.asm.Opcodes.DCMPL;
 import static org.mvel2.asm.Opcodes.DDIV;
@@ -96,6 +99,7 @@ import static org.mvel2.asm.Opcodes.IFLE;
 import static org.mvel2.asm.Opcodes.IFLT;
 import static org.mvel2.asm.Opcodes.IFNE;
 import static org.mvel2.asm.Opcodes.IFNULL;
+import static org.mvel2.asm.Opcodes.ILOAD;
 import static org.mvel2.asm.Opcodes.IF_ICMPEQ;
 import static org.mvel2.asm.Opcodes.IF_ICMPGE;
 import static org.mvel2.asm.Opcodes.IF_ICMPGT;
@@ -117,6 +121,20 @@ public class ASMConditionEvaluatorJitter {
                                                    EvaluatorWrapper[] operators,
                                                    ClassLoader classLoader,
                                                    Tuple tuple) {
+        return jitEvaluator(expression, condition, declarations, operators, classLoader, tuple, null);
+    }
+
+    /**
+     * Jits the evaluator of the given condition, passing the name and the bytecode of the generated class
+     * to the bytecodeConsumer, if any, so that it can be loaded again with {@link #loadEvaluator}
+     */
+    public static ConditionEvaluator jitEvaluator( String expression,
+                                                   Condition condition,
+                                                   Declaration[] declarations,
+                                                   EvaluatorWrapper[] operators,
+                                                   ClassLoader classLoader,
+                                                   Tuple tuple,
+                                                   BiConsumer<String, byte[]> bytecodeConsumer) {
         ClassGenerator generator = new ClassGenerator(getUniqueClassName(), classLoader)
                 .setInterfaces(ConditionEvaluator.class)
                 .addStaticField(ACC_PRIVATE | ACC_FINAL, "EXPRESSION", String.class, expression)
@@ -135,7 +153,11 @@ public class ASMConditionEvaluatorJitter {
                 }
             }, Declaration[].class);
 
-            return generator.newInstance(Declaration[].class, declarations);
+            ConditionEvaluator evaluator = generator.newInstance(Declaration[].class, declarations);
+            if (bytecodeConsumer != null) {
+                bytecodeConsumer.accept(generator.getClassName(), generator.generateBytecode());
+            }
+            return evaluator;
         }
 
         generator.addField(ACC_PRIVATE | ACC_FINAL, "operators", EvaluatorWrapper[].class);
@@ -148,7 +170,182 @@ public class ASMConditionEvaluatorJitter {
             }
         }, Declaration[].class, EvaluatorWrapper[].class);
 
-        return generator.newInstance(Declaration[].class, declarations, EvaluatorWrapper[].class, operators);
+        ConditionEvaluator evaluator = generator.newInstance(Declaration[].class, declarations, EvaluatorWrapper[].class, operators);
+        if (bytecodeConsumer != null) {
+            bytecodeConsumer.accept(generator.getClassName(), generator.generateBytecode());
+        }
+        return evaluator;
+    }
+
+    /**
+     * Instances an evaluator from the bytecode of a class previously generated by {@link #jitEvaluator}.
+     * The class is defined only once in each class loader, so kbases sharing it also share the class.
+     */
+    public static ConditionEvaluator loadEvaluator( String className,
+                                                    byte[] bytecode,
+                                                    Declaration[] declarations,
+                                                    EvaluatorWrapper[] operators,
+                                                    ClassLoader classLoader ) {
+        Class<?> evaluatorClass = loadOrDefineClass(className, bytecode, classLoader);
+        try {
+            if (operators.length == 0) {
+                return (ConditionEvaluator) evaluatorClass.getConstructor(Declaration[].class).newInstance((Object) declarations);
+            }
+            return (ConditionEvaluator) evaluatorClass.getConstructor(Declaration[].class, EvaluatorWrapper[].class).newInstance(declarations, operators);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Jits the evaluators of many conditions as methods of a single dispatcher class, instead of generating
+     * a class for each of them. The returned evaluators are in the same order of the given conditions.
+     */
+    public static ConditionEvaluator[] jitDispatchedEvaluators( List<JitCondition> conditions,
+                                                                ClassLoader classLoader ) {
+        final int size = conditions.size();
+        ClassGenerator generator = new ClassGenerator(getUniqueName("ConditionEvaluatorDispatcher"), classLoader)
+                .setInterfaces(ConditionEvaluatorDispatcher.class);
+
+        Declaration[][] declarations = new Declaration[size][];
+        EvaluatorWrapper[][] operators = new EvaluatorWrapper[size][];
+        for (int i = 0; i < size; i++) {
+            JitCondition jitCondition = conditions.get(i);
+            declarations[i] = jitCondition.declarations;
+            operators[i] = jitCondition.operators;
+            generator.addStaticField(ACC_PRIVATE | ACC_FINAL, "EXPRESSION" + i, String.class, jitCondition.expression)
+                     .addField(ACC_PRIVATE | ACC_FINAL, "declarations" + i, Declaration[].class)
+                     .addField(ACC_PRIVATE | ACC_FINAL, "operators" + i, EvaluatorWrapper[].class)
+                     .addMethod(ACC_PUBLIC | ACC_FINAL,
+                                "evaluate" + i,
+                                generator.methodDescr(boolean.class, InternalFactHandle.class, InternalWorkingMemory.class, Tuple.class),
+                                new EvaluateMethodGenerator(jitCondition.condition, jitCondition.declarations, jitCondition.operators, jitCondition.tuple,
+                                                            "declarations" + i, "operators" + i));
+        }
+
+        generator.addMethod(ACC_PUBLIC,
+                            "evaluate",
+                            generator.methodDescr(boolean.class, int.class, InternalFactHandle.class, InternalWorkingMemory.class, Tuple.class),
+                            new DispatchMethodGenerator(size));
+
+        generator.addDefaultConstructor(new ClassGenerator.MethodBody() {
+            public void body(MethodVisitor mv) {
+                for (int i = 0; i < size; i++) {
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitVarInsn(ALOAD, 1);
+                    push(i);
+                    mv.visitInsn(AALOAD); // declarations[i]
+                    putFieldInThis("declarations" + i, Declaration[].class);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitVarInsn(ALOAD, 2);
+                    push(i);
+                    mv.visitInsn(AALOAD); // operators[i]
+                    putFieldInThis("operators" + i, EvaluatorWrapper[].class);
+                }
+                mv.visitInsn(RETURN);
+            }
+        }, Declaration[][].class, EvaluatorWrapper[][].class);
+
+        ConditionEvaluatorDispatcher dispatcher = generator.newInstance(Declaration[][].class, declarations, EvaluatorWrapper[][].class, operators);
+        ConditionEvaluator[] evaluators = new ConditionEvaluator[size];
+        for (int i = 0; i < size; i++) {
+            evaluators[i] = new DispatchedConditionEvaluator(dispatcher, i);
+        }
+        return evaluators;
+    }
+
+    /**
+     * A condition to be jitted in a dispatcher class by {@link #jitDispatchedEvaluators}
+     */
+    public static class JitCondition {
+
+        private final String expression;
+        private final Condition condition;
+        private final Declaration[] declarations;
+        private final EvaluatorWrapper[] operators;
+        private final Tuple tuple;
+
+        public JitCondition( String expression,
+                             Condition condition,
+                             Declaration[] declarations,
+                             EvaluatorWrapper[] operators,
+                             Tuple tuple ) {
+            this.expression = expression;
+            this.condition = condition;
+            this.declarations = declarations;
+            this.operators = operators;
+            this.tuple = tuple;
+        }
+    }
+
+    public static class DispatchedConditionEvaluator implements ConditionEvaluator {
+
+        private final ConditionEvaluatorDispatcher dispatcher;
+        private final int conditionId;
+
+        private DispatchedConditionEvaluator( ConditionEvaluatorDispatcher dispatcher, int conditionId ) {
+            this.dispatcher = dispatcher;
+            this.conditionId = conditionId;
+        }
+
+        public boolean evaluate( InternalFactHandle handle, InternalWorkingMemory workingMemory, Tuple tuple ) {
+            return dispatcher.evaluate( conditionId, handle, workingMemory, tuple );
+        }
+
+        public ConditionEvaluatorDispatcher getDispatcher() {
+            return dispatcher;
+        }
+    }
+
+    private static class DispatchMethodGenerator extends ClassGenerator.MethodBody {
+
+        private final int size;
+
+        private DispatchMethodGenerator(int size) {
+            this.size = size;
+        }
+
+        public void body(MethodVisitor mv) {
+            Label[] cases = new Label[size];
+            for (int i = 0; i < size; i++) {
+                cases[i] = new Label();
+            }
+            Label defaultCase = new Label();
+
+            mv.visitVarInsn(ILOAD, 1); // conditionId
+            mv.visitTableSwitchInsn(0, size - 1, defaultCase, cases);
+            for (int i = 0; i < size; i++) {
+                mv.visitLabel(cases[i]);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 2); // InternalFactHandle
+                mv.visitVarInsn(ALOAD, 3); // InternalWorkingMemory
+                mv.visitVarInsn(ALOAD, 4); // Tuple
+                invokeThis("evaluate" + i, boolean.class, InternalFactHandle.class, InternalWorkingMemory.class, Tuple.class);
+                mv.visitInsn(IRETURN);
+            }
+
+            mv.visitLabel(defaultCase);
+            invokeConstructor(IllegalArgumentException.class);
+            mv.visitInsn(ATHROW);
+        }
+    }
+
+    private static Class<?> loadOrDefineClass(String className, byte[] bytecode, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            // not defined yet
+        }
+        try {
+            return ClassGenerator.defineClass(className, bytecode, classLoader);
+        } catch (RuntimeException e) {
+            // it could have been concurrently defined by another kbase sharing the same class loader
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException cnfe) {
+                throw e;
+            }
+        }
     }
 
     private static String getUniqueClassName() {
@@ -169,14 +366,23 @@ public class ASMConditionEvaluatorJitter {
         private final Declaration[] declarations;
         private final Tuple tuple;
         private final EvaluatorWrapper[] operators;
+        private final String declarationsField;
+        private final String operatorsField;
 
         private int[] declPositions;
 
         public EvaluateMethodGenerator(Condition condition, Declaration[] declarations, EvaluatorWrapper[] operators, Tuple leftTuple) {
+            this(condition, declarations, operators, leftTuple, "declarations", "operators");
+        }
+
+        public EvaluateMethodGenerator(Condition condition, Declaration[] declarations, EvaluatorWrapper[] operators, Tuple leftTuple,
+                                       String declarationsField, String operatorsField) {
             this.condition = condition;
             this.declarations = declarations;
             this.operators = operators;
             this.tuple = leftTuple;
+            this.declarationsField = declarationsField;
+            this.operatorsField = operatorsField;
         }
 
         public void body(MethodVisitor mv) {
@@ -202,7 +408,7 @@ public class ASMConditionEvaluatorJitter {
             for (GeneratorHelper.DeclarationMatcher declarationMatcher : declarationMatchers) {
                 int i = declarationMatcher.getOriginalIndex();
                 if (currentTuple == null || declarationMatcher.getRootDistance() > currentTuple.getIndex()) {
-                    getFieldFromThis("declarations", Declaration[].class);
+                    getFieldFromThis(declarationsField, Declaration[].class);
                     push(i);
                     mv.visitInsn(AALOAD); // declarations[i]
                     mv.visitVarInsn(ALOAD, 2); // InternalWorkingMemory
@@ -215,7 +421,7 @@ public class ASMConditionEvaluatorJitter {
 
                 currentTuple = traverseTuplesUntilDeclaration(currentTuple, declarationMatcher.getRootDistance(), 4);
 
-                getFieldFromThis("declarations", Declaration[].class);
+                getFieldFromThis(declarationsField, Declaration[].class);
                 push(i);
                 mv.visitInsn(AALOAD); // declarations[i]
                 mv.visitVarInsn(ALOAD, 2); // InternalWorkingMemory
@@ -235,7 +441,7 @@ public class ASMConditionEvaluatorJitter {
 
             mv.visitVarInsn(ALOAD, 1); // InternalFactHandle
             mv.visitVarInsn(ALOAD, 3); // Tuple
-            getFieldFromThis("operators", EvaluatorWrapper[].class);
+            getFieldFromThis(operatorsField, EvaluatorWrapper[].class);
             invokeStatic( EvaluatorHelper.class, "initOperators", void.class, InternalFactHandle.class, Tuple.class, EvaluatorWrapper[].class);
         }
 
@@ -787,7 +993,7 @@ public class ASMConditionEvaluatorJitter {
             }
             for (int i = 0; i < operators.length; i++) {
                 if (operators[i].getBindingName().equals(variableName)) {
-                    getFieldFromThis("operators", EvaluatorWrapper[].class);
+                    getFieldFromThis(operatorsField, EvaluatorWrapper[].class);
                     push(i);
                     mv.visitInsn(AALOAD); // operators[i]
                     return;
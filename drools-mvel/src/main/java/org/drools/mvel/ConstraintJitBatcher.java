@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020. Red Hat, Inc. and/or its affiliates.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.rule.constraint.ConditionEvaluator;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the constraints of a kbase reaching the jitting threshold and jits them together, as methods of
+ * dispatcher classes of up to drools.jitDispatcherSize constraints each.
+ *
+ * The batches are jitted by the executor also used to jit the constraints one by one: all the constraints
+ * reaching the threshold while a batch waits for the executor, or while it is being jitted, end up in the
+ * next batch. In this way a large kbase warming up creates a few dispatcher classes instead of a class for
+ * each of its constraints.
+ */
+class ConstraintJitBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger( ConstraintJitBatcher.class );
+
+    private static final Map<InternalKnowledgeBase, ConstraintJitBatcher> batchersPerKieBase = Collections.synchronizedMap( new WeakHashMap<>() );
+
+    private final int dispatcherSize;
+
+    private final List<MVELConstraint.ConditionJitter> pending = new ArrayList<>();
+
+    private boolean scheduled;
+
+    private ConstraintJitBatcher( int dispatcherSize ) {
+        this.dispatcherSize = dispatcherSize;
+    }
+
+    static ConstraintJitBatcher get( InternalKnowledgeBase kBase ) {
+        return batchersPerKieBase.computeIfAbsent( kBase, kb -> new ConstraintJitBatcher( kb.getConfiguration().getJitDispatcherSize() ) );
+    }
+
+    void submit( MVELConstraint.ConditionJitter jitter ) {
+        synchronized (this) {
+            pending.add( jitter );
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        ExecutorHolder.executor.execute( this::jitNextBatch );
+    }
+
+    private void jitNextBatch() {
+        List<MVELConstraint.ConditionJitter> batch;
+        boolean hasMore;
+        synchronized (this) {
+            List<MVELConstraint.ConditionJitter> next = pending.subList( 0, Math.min( dispatcherSize, pending.size() ) );
+            batch = new ArrayList<>( next );
+            next.clear();
+            hasMore = !pending.isEmpty();
+            scheduled = hasMore;
+        }
+        if (hasMore) {
+            ExecutorHolder.executor.execute( this::jitNextBatch );
+        }
+        jit( batch );
+    }
+
+    private static void jit( List<MVELConstraint.ConditionJitter> batch ) {
+        InternalKnowledgeBase kBase = batch.get( 0 ).getKnowledgeBase();
+        if ( !MVELConstraint.isJittingAllowed( kBase ) ) {
+            return;
+        }
+
+        List<MVELConstraint.ConditionJitter> jitters = new ArrayList<>();
+        List<ASMConditionEvaluatorJitter.JitCondition> conditions = new ArrayList<>();
+        for (MVELConstraint.ConditionJitter jitter : batch) {
+            ASMConditionEvaluatorJitter.JitCondition condition = jitter.getJitCondition();
+            if (condition != null) {
+                jitters.add( jitter );
+                conditions.add( condition );
+            }
+        }
+        if (jitters.isEmpty()) {
+            return;
+        }
+
+        ConditionEvaluator[] evaluators;
+        try {
+            evaluators = ASMConditionEvaluatorJitter.jitDispatchedEvaluators( conditions, MVELConstraint.getJitClassLoader( kBase ) );
+        } catch (Throwable t) {
+            // a single constraint that can't be jitted makes the whole dispatcher fail, so jit them one by one
+            logger.debug( "Unable to jit a dispatcher of " + jitters.size() + " constraints, jitting them separately", t );
+            jitters.forEach( MVELConstraint.ConditionJitter::run );
+            return;
+        }
+        for (int i = 0; i < evaluators.length; i++) {
+            jitters.get( i ).setEvaluator( evaluators[i] );
+        }
+    }
+
+    private static class ExecutorHolder {
+        private static final Executor executor = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2020. Red Hat, Inc. and/or its affiliates.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.kie.api.KieBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The bytecode of the constraint evaluators jitted by a kbase, keyed by the constraint they evaluate.
+ *
+ * With drools.jitProfileRecording enabled, the evaluators jitted while the kbase runs are recorded here. After
+ * a training run the profile can be stored in the kjar with {@link #writeToKJar(Path, String)}: the kbases
+ * later created from that kjar find it among its resources and use the pre-jitted evaluators from the first
+ * evaluation of each constraint, instead of interpreting it with MVEL until the jitting threshold.
+ */
+public class JitProfile {
+
+    private static final Logger logger = LoggerFactory.getLogger( JitProfile.class );
+
+    public static final String RESOURCE_FOLDER = "META-INF/jit/";
+    public static final String RESOURCE_EXTENSION = ".jitprofile";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Map<InternalKnowledgeBase, JitProfile> profilesPerKieBase = Collections.synchronizedMap( new WeakHashMap<>() );
+
+    private final Map<String, JittedEvaluator> evaluators = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the profile of the given kbase, initialized with the one stored in its kjar, if any
+     */
+    public static JitProfile get( KieBase kieBase ) {
+        return profilesPerKieBase.computeIfAbsent( (InternalKnowledgeBase) kieBase, JitProfile::load );
+    }
+
+    public static String getResourceName( String kieBaseName ) {
+        return RESOURCE_FOLDER + kieBaseName + RESOURCE_EXTENSION;
+    }
+
+    private static JitProfile load( InternalKnowledgeBase kBase ) {
+        ClassLoader classLoader = kBase.getRootClassLoader();
+        if ( classLoader != null && kBase.getId() != null ) {
+            try (InputStream is = classLoader.getResourceAsStream( getResourceName( kBase.getId() ) )) {
+                if ( is != null ) {
+                    return readFrom( is );
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn( "Unable to read the jit profile of kbase " + kBase.getId() + ", its constraints will be jitted at runtime", e );
+            }
+        }
+        return new JitProfile();
+    }
+
+    public void record( String constraintKey, String className, byte[] bytecode ) {
+        evaluators.put( constraintKey, new JittedEvaluator( className, bytecode ) );
+    }
+
+    public JittedEvaluator getEvaluator( String constraintKey ) {
+        return evaluators.get( constraintKey );
+    }
+
+    public Set<String> getConstraintKeys() {
+        return Collections.unmodifiableSet( evaluators.keySet() );
+    }
+
+    public int size() {
+        return evaluators.size();
+    }
+
+    public boolean isEmpty() {
+        return evaluators.isEmpty();
+    }
+
+    public void writeTo( OutputStream os ) throws IOException {
+        DataOutputStream out = new DataOutputStream( os );
+        out.writeInt( FORMAT_VERSION );
+        Map<String, JittedEvaluator> snapshot = new HashMap<>( evaluators );
+        out.writeInt( snapshot.size() );
+        for ( Map.Entry<String, JittedEvaluator> entry : snapshot.entrySet() ) {
+            out.writeUTF( entry.getKey() );
+            out.writeUTF( entry.getValue().getClassName() );
+            out.writeInt( entry.getValue().getBytecode().length );
+            out.write( entry.getValue().getBytecode() );
+        }
+        out.flush();
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            writeTo( baos );
+        } catch (IOException e) {
+            throw new UncheckedIOException( e );
+        }
+        return baos.toByteArray();
+    }
+
+    public static JitProfile readFrom( InputStream is ) throws IOException {
+        DataInputStream in = new DataInputStream( is );
+        int version = in.readInt();
+        if ( version != FORMAT_VERSION ) {
+            throw new IOException( "Unsupported jit profile format version: " + version );
+        }
+        JitProfile profile = new JitProfile();
+        int size = in.readInt();
+        for ( int i = 0; i < size; i++ ) {
+            String key = in.readUTF();
+            String className = in.readUTF();
+            byte[] bytecode = new byte[in.readInt()];
+            in.readFully( bytecode );
+            profile.record( key, className, bytecode );
+        }
+        return profile;
+    }
+
+    /**
+     * Stores this profile in the given kjar as the one of the kbase with the given name, replacing the existing one
+     */
+    public void writeToKJar( Path kjar, String kieBaseName ) throws IOException {
+        URI uri = URI.create( "jar:" + kjar.toUri() );
+        try (FileSystem zipFileSystem = FileSystems.newFileSystem( uri, Collections.<String, Object>emptyMap() )) {
+            Path entry = zipFileSystem.getPath( getResourceName( kieBaseName ) );
+            Files.createDirectories( entry.getParent() );
+            try (OutputStream os = Files.newOutputStream( entry )) {
+                writeTo( os );
+            }
+        }
+    }
+
+    public static class JittedEvaluator {
+
+        private final String className;
+        private final byte[] bytecode;
+
+        private JittedEvaluator( String className, byte[] bytecode ) {
+            this.className = className;
+            this.bytecode = bytecode;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public byte[] getBytecode() {
+            return bytecode;
+        }
+    }
+}
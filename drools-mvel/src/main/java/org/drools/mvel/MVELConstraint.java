@@ -26,6 +26,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -257,7 +258,11 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
         if (!jitted) {
             int jittingThreshold = TEST_JITTING ? 0 : workingMemory.getKnowledgeBase().getConfiguration().getJittingThreshold();
             if (conditionEvaluator == null) {
-                if (jittingThreshold == 0 && !isDynamic) { // Only for test purposes or when jitting is enforced at first evaluation
+                ConditionEvaluator preJitted = isDynamic ? null : loadPreJittedEvaluator( workingMemory.getKnowledgeBase() );
+                if (preJitted != null) {
+                    conditionEvaluator = preJitted;
+                    jitted = true;
+                } else if (jittingThreshold == 0 && !isDynamic) { // Only for test purposes or when jitting is enforced at first evaluation
                     synchronized (this) {
                         if (conditionEvaluator == null) {
                             conditionEvaluator = forceJitEvaluator( handle, workingMemory, tuple );
@@ -268,7 +273,7 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
                 }
             }
 
-            if (jittingThreshold != 0 && !isDynamic && invocationCounter.getAndIncrement() == jittingThreshold) {
+            if (!jitted && jittingThreshold != 0 && !isDynamic && invocationCounter.getAndIncrement() == jittingThreshold) {
                 jitEvaluator(handle, workingMemory, tuple);
             }
         }
@@ -302,10 +307,16 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
 
     protected void jitEvaluator(InternalFactHandle handle, InternalWorkingMemory workingMemory, Tuple tuple) {
         jitted = true;
-        ExecutorHolder.executor.execute(new ConditionJitter(this, handle, workingMemory, tuple));
+        InternalKnowledgeBase kBase = workingMemory.getKnowledgeBase();
+        if (kBase.getConfiguration().getJitDispatcherSize() > 1 && !kBase.getConfiguration().isJitProfileRecording()) {
+            // the jit profile records a class per constraint, so it can't be used with dispatchers
+            ConstraintJitBatcher.get(kBase).submit(new ConditionJitter(this, handle, workingMemory, tuple));
+        } else {
+            ExecutorHolder.executor.execute(new ConditionJitter(this, handle, workingMemory, tuple));
+        }
     }
 
-    private static class ConditionJitter implements Runnable {
+    static class ConditionJitter implements Runnable {
         private MVELConstraint mvelConstraint;
         private InternalFactHandle rightHandle;
         private InternalWorkingMemory workingMemory;
@@ -319,7 +330,25 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
         }
 
         public void run() {
-            mvelConstraint.conditionEvaluator = mvelConstraint.executeJitting(rightHandle, workingMemory, tuple, mvelConstraint.conditionEvaluator);
+            setEvaluator(mvelConstraint.executeJitting(rightHandle, workingMemory, tuple, mvelConstraint.conditionEvaluator));
+        }
+
+        InternalKnowledgeBase getKnowledgeBase() {
+            return workingMemory.getKnowledgeBase();
+        }
+
+        /**
+         * Returns the condition to be jitted together with the ones of other constraints, or null if it can't be analyzed
+         */
+        ASMConditionEvaluatorJitter.JitCondition getJitCondition() {
+            return mvelConstraint.analyzeForJitting(rightHandle, workingMemory, tuple, mvelConstraint.conditionEvaluator) ?
+                    new ASMConditionEvaluatorJitter.JitCondition(mvelConstraint.expression, mvelConstraint.analyzedCondition,
+                                                                 mvelConstraint.declarations, mvelConstraint.operators, tuple) :
+                    null;
+        }
+
+        void setEvaluator(ConditionEvaluator conditionEvaluator) {
+            mvelConstraint.conditionEvaluator = conditionEvaluator;
             mvelConstraint = null;
             rightHandle = null;
             workingMemory = null;
@@ -333,7 +362,7 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
 
     private ConditionEvaluator executeJitting(InternalFactHandle handle, InternalWorkingMemory workingMemory, Tuple tuple, ConditionEvaluator mvelEvaluator) {
         InternalKnowledgeBase kBase = workingMemory.getKnowledgeBase();
-        if ( !isJmxAvailable() && MemoryUtil.permGenStats.isUsageThresholdExceeded(kBase.getConfiguration().getPermGenThreshold()) ) {
+        if ( !isJittingAllowed(kBase) ) {
             return mvelEvaluator;
         }
 
@@ -341,10 +370,9 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
             if (analyzedCondition == null) {
                 analyzedCondition = (( MVELConditionEvaluator ) mvelEvaluator).getAnalyzedCondition(handle, workingMemory, tuple);
             }
-            ClassLoader jitClassLoader = kBase.getRootClassLoader() instanceof ProjectClassLoader ?
-                    (( ProjectClassLoader ) kBase.getRootClassLoader()).getTypesClassLoader() :
-                    kBase.getRootClassLoader();
-            return ASMConditionEvaluatorJitter.jitEvaluator(expression, analyzedCondition, declarations, operators, jitClassLoader, tuple);
+            JitProfile jitProfile = kBase.getConfiguration().isJitProfileRecording() ? JitProfile.get( kBase ) : null;
+            return ASMConditionEvaluatorJitter.jitEvaluator(expression, analyzedCondition, declarations, operators, getJitClassLoader(kBase), tuple,
+                                                            jitProfile == null ? null : (className, bytecode) -> jitProfile.record(getJitProfileKey(), className, bytecode));
         } catch (Throwable t) {
             if (TEST_JITTING) {
                 if (analyzedCondition == null) {
@@ -360,6 +388,57 @@ public class MVELConstraint extends MutableTypeConstraint implements IndexableCo
         return mvelEvaluator;
     }
 
+    static boolean isJittingAllowed(InternalKnowledgeBase kBase) {
+        return isJmxAvailable() || !MemoryUtil.permGenStats.isUsageThresholdExceeded(kBase.getConfiguration().getPermGenThreshold());
+    }
+
+    private boolean analyzeForJitting(InternalFactHandle handle, InternalWorkingMemory workingMemory, Tuple tuple, ConditionEvaluator mvelEvaluator) {
+        if (analyzedCondition == null) {
+            try {
+                analyzedCondition = (( MVELConditionEvaluator ) mvelEvaluator).getAnalyzedCondition(handle, workingMemory, tuple);
+            } catch (Throwable t) {
+                logger.warn( "Exception analyzing: " + expression +
+                             " This is NOT an error and NOT prevent the correct execution since the constraint will be evaluated in intrepreted mode" );
+            }
+        }
+        return analyzedCondition != null;
+    }
+
+    static ClassLoader getJitClassLoader(InternalKnowledgeBase kBase) {
+        return kBase.getRootClassLoader() instanceof ProjectClassLoader ?
+                (( ProjectClassLoader ) kBase.getRootClassLoader()).getTypesClassLoader() :
+                kBase.getRootClassLoader();
+    }
+
+    /**
+     * Returns the evaluator of this constraint jitted by a previous run of the same kbase, if it is in its jit profile
+     */
+    private ConditionEvaluator loadPreJittedEvaluator(InternalKnowledgeBase kBase) {
+        JitProfile.JittedEvaluator jittedEvaluator = JitProfile.get( kBase ).getEvaluator( getJitProfileKey() );
+        if (jittedEvaluator == null) {
+            return null;
+        }
+        try {
+            return ASMConditionEvaluatorJitter.loadEvaluator(jittedEvaluator.getClassName(), jittedEvaluator.getBytecode(), declarations, operators, getJitClassLoader(kBase));
+        } catch (Throwable t) {
+            logger.warn( "Unable to load the pre-jitted evaluator of: " + expression + ", it will be jitted at runtime", t );
+            return null;
+        }
+    }
+
+    /**
+     * The key identifying this constraint in the jit profile: it has to be the same for the same constraint
+     * in the kbases created from the same kjar, even by different JVMs
+     */
+    String getJitProfileKey() {
+        StringBuilder sb = new StringBuilder();
+        sb.append( String.join( ",", new TreeSet<>( packageNames ) ) ).append( '|' ).append( getAccessedClass() ).append( '|' ).append( expression );
+        for (Declaration declaration : declarations) {
+            sb.append( '|' ).append( declaration.getIdentifier() ).append( ':' ).append( declaration.getPattern() != null ? declaration.getPattern().getOffset() : -1 );
+        }
+        return sb.toString();
+    }
+
     public ContextEntry createContextEntry() {
         if (declarations.length == 0) return null;
         ContextEntry contextEntry = new MvelContextEntry(declarations);
@@ -167,22 +167,27 @@ public class ClassGenerator {
 
     private Class<?> generateClass() {
         if (clazz == null) {
-            byte[] bytecode = generateBytecode();
-            if (ClassUtils.isAndroid()) {
-                ByteArrayClassLoader cl = (ByteArrayClassLoader)
-                        ClassUtils.instantiateObject("org.drools.android.MultiDexClassLoader", null, classLoader);
-                clazz = cl.defineClass(className, bytecode, null);
-            } else {
-                try {
-                    clazz = (Class<?>) DefineMethodInitializer.defineClassMethod.invoke(classLoader, className, bytecode, 0, bytecode.length);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException( e );
-                }
-            }
+            clazz = defineClass(className, generateBytecode(), classLoader);
         }
         return clazz;
     }
 
+    /**
+     * Defines in the given class loader a class whose bytecode has been generated before, possibly by another JVM
+     */
+    public static Class<?> defineClass(String className, byte[] bytecode, ClassLoader classLoader) {
+        if (ClassUtils.isAndroid()) {
+            ByteArrayClassLoader cl = (ByteArrayClassLoader)
+                    ClassUtils.instantiateObject("org.drools.android.MultiDexClassLoader", null, classLoader);
+            return cl.defineClass(className, bytecode, null);
+        }
+        try {
+            return (Class<?>) DefineMethodInitializer.defineClassMethod.invoke(classLoader, className, bytecode, 0, bytecode.length);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException( e );
+        }
+    }
+
     public void dumpGeneratedClass() {
         if (!ClassBuilderFactory.DUMP_GENERATED_CLASSES) {
             dumpGeneratedClass(generateBytecode());
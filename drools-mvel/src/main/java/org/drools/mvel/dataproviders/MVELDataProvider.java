@@ -159,4 +159,30 @@ public class MVELDataProvider implements DataProvider, MVELCompileable, External
     public boolean isReactive() {
         return false;
     }
+
+    @Override
+    public boolean isInputTrackable() {
+        // the results also depend on the globals read and on the methods or functions invoked by the expression
+        String[] globals = unit.getGlobalIdentifiers();
+        return ( globals == null || globals.length == 0 ) && !hasInvocations( unit.getExpression() );
+    }
+
+    private static boolean hasInvocations( String expression ) {
+        char quote = 0;
+        for ( int i = 0; i < expression.length(); i++ ) {
+            char c = expression.charAt( i );
+            if ( quote != 0 ) {
+                if ( c == '\\' ) {
+                    i++;
+                } else if ( c == quote ) {
+                    quote = 0;
+                }
+            } else if ( c == '"' || c == '\'' ) {
+                quote = c;
+            } else if ( c == '(' ) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -33,7 +33,6 @@ import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.rule.Declaration;
 import org.drools.core.spi.MvelAccumulator;
 import org.drools.core.spi.Tuple;
-import org.drools.mvel.MVELSafeHelper;
 import org.drools.mvel.MVELDialectRuntimeData;
 import org.drools.mvel.expr.MVELCompilationUnit.DroolsVarFactory;
 import org.mvel2.integration.VariableResolverFactory;
@@ -51,10 +50,10 @@ public class MVELAccumulator
     MVELCompilationUnit       reverseUnit;
     MVELCompilationUnit       resultUnit;
     
-    private Serializable      init;
-    private Serializable      action;
-    private Serializable      reverse;
-    private Serializable      result;
+    private MVELJittableStatement init;
+    private MVELJittableStatement action;
+    private MVELJittableStatement reverse;
+    private MVELJittableStatement result;
 
     public MVELAccumulator() {
     }
@@ -90,15 +89,19 @@ public class MVELAccumulator
     }
 
     public void compile( MVELDialectRuntimeData runtimeData, RuleImpl rule) {
-        init = initUnit.getCompiledExpression( runtimeData );
-        action = actionUnit.getCompiledExpression( runtimeData );
-        result = resultUnit.getCompiledExpression( runtimeData );
+        init = new MVELJittableStatement( initUnit, runtimeData.getParserConfiguration(), null );
+        action = new MVELJittableStatement( actionUnit, runtimeData.getParserConfiguration(), null );
+        result = new MVELJittableStatement( resultUnit, runtimeData.getParserConfiguration(), null );
                 
         if ( reverseUnit != null ) {
-            reverse = reverseUnit.getCompiledExpression( runtimeData, rule != null ? rule.toRuleNameAndPathString() : null );
+            reverse = new MVELJittableStatement( reverseUnit, runtimeData.getParserConfiguration(), rule != null ? rule.toRuleNameAndPathString() : null );
         }
     }
 
+    MVELJittableStatement getActionStatement() {
+        return action;
+    }
+
     /* (non-Javadoc)
      * @see org.kie.spi.Accumulator#createContext()
      */
@@ -130,9 +133,9 @@ public class MVELAccumulator
             factory.setNextFactory( data.getFunctionFactory() );
         }
 
-        MVELSafeHelper.getEvaluator().executeExpression( this.init,
-                                null,
-                                factory );
+        this.init.execute( null,
+                           factory,
+                           workingMemory.getKnowledgeBase() );
         
         
         DroolsVarFactory df = ( DroolsVarFactory ) factory.getNextFactory();
@@ -172,9 +175,9 @@ public class MVELAccumulator
             // SNAPSHOT variable values
             ((MVELAccumulatorContext) context).getShadow().put( handle.getId(), shadow);
         }
-        MVELSafeHelper.getEvaluator().executeExpression( this.action,
-                                null,
-                                factory );
+        this.action.execute( null,
+                             factory,
+                             workingMemory.getKnowledgeBase() );
         
         
         if ( localVars.length > 0 ) {
@@ -215,9 +218,9 @@ public class MVELAccumulator
         
 
 
-        MVELSafeHelper.getEvaluator().executeExpression( this.reverse,
-                                null,
-                                factory );
+        this.reverse.execute( null,
+                              factory,
+                              workingMemory.getKnowledgeBase() );
         
         if ( localVars.length > 0 ) {
             for ( int i = 0; i < df.getOtherVarsLength(); i++ ) {
@@ -242,7 +245,7 @@ public class MVELAccumulator
         VariableResolverFactory factory = factoryContext.getResultFactory();
         resultUnit.updateFactory( null, tuple, localVars, (InternalWorkingMemory) workingMemory, workingMemory.getGlobalResolver(), factory );
 
-        return MVELSafeHelper.getEvaluator().executeExpression( this.result, null, factory );
+        return this.result.execute( null, factory, workingMemory.getKnowledgeBase() );
     }
 
     public boolean supportsReverse() {
@@ -28,6 +28,8 @@ import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.spi.Consequence;
 import org.drools.core.spi.KnowledgeHelper;
 import org.drools.mvel.MVELDialectRuntimeData;
+import org.drools.mvel.UnsafeMVELEvaluator;
+import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.mvel2.MVEL;
 import org.mvel2.compiler.CompiledExpression;
 import org.mvel2.debug.DebugTools;
@@ -43,10 +45,13 @@ public class MVELConsequence
     private static final long   serialVersionUID = 510l;
     protected static transient Logger logger = LoggerFactory.getLogger(MVELConsequence.class);
 
+    // consequences are executed without the security policy of MVELSafeHelper
+    private static final MVELEvaluator CONSEQUENCE_EVALUATOR = new UnsafeMVELEvaluator();
+
     private MVELCompilationUnit unit;
     private String              id;
 
-    private Serializable        expr;
+    private MVELJittableStatement expr;
 
     private String              consequenceName;
 
@@ -75,11 +80,11 @@ public class MVELConsequence
     }
 
     public void compile( MVELDialectRuntimeData runtimeData) {
-        expr = unit.getCompiledExpression( runtimeData );
+        expr = new MVELJittableStatement( unit, runtimeData.getParserConfiguration(), null, CONSEQUENCE_EVALUATOR );
     }
 
     public void compile( MVELDialectRuntimeData runtimeData, RuleImpl rule) {
-        expr = unit.getCompiledExpression( runtimeData, rule.toRuleNameAndPathString() );
+        expr = new MVELJittableStatement( unit, runtimeData.getParserConfiguration(), rule.toRuleNameAndPathString(), CONSEQUENCE_EVALUATOR );
     }
 
     public void evaluate(final KnowledgeHelper knowledgeHelper,
@@ -95,9 +100,8 @@ public class MVELConsequence
             factory.setNextFactory( data.getFunctionFactory() );
         }
 
-        CompiledExpression compexpr = (CompiledExpression) this.expr;
-
         if ( MVELDebugHandler.isDebugMode() ) {
+            CompiledExpression compexpr = (CompiledExpression) this.expr.getStatement();
             if ( MVELDebugHandler.verbose ) {
                 logger.info(DebugTools.decompile(compexpr));
             }
@@ -105,13 +109,17 @@ public class MVELConsequence
                                   knowledgeHelper,
                                   factory );
         } else {
-            MVEL.executeExpression( compexpr,
-                                    knowledgeHelper,
-                                    factory );
+            this.expr.execute( knowledgeHelper,
+                               factory,
+                               workingMemory.getKnowledgeBase() );
         }
     }
 
     public Serializable getCompExpr() {
+        return expr.getStatement();
+    }
+
+    MVELJittableStatement getJittableStatement() {
         return expr;
     }
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020. Red Hat, Inc. and/or its affiliates.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.expr;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.util.MemoryUtil;
+import org.drools.mvel.MVELSafeHelper;
+import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
+import org.mvel2.ParserConfiguration;
+import org.mvel2.integration.VariableResolverFactory;
+import org.mvel2.optimizers.OptimizerFactory;
+import org.mvel2.optimizers.impl.asm.ASMAccessorOptimizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.drools.core.util.Drools.isJmxAvailable;
+
+/**
+ * A compiled MVEL statement, like a consequence or an accumulate block, that is jitted once it gets hot.
+ *
+ * The jitting is enabled by the drools.mvelStatementJitting option of the kbase, otherwise the statement is
+ * always interpreted with the reflective optimizer. When enabled, the statement is interpreted until it has been
+ * executed as many times as the jitting threshold of the kbase. Then it is compiled again and executed once with the ASM accessor optimizer,
+ * and the new statement replaces the interpreted one.
+ *
+ * MVEL creates the accessors of a statement lazily, on their first execution, and the ASM optimizer is only set
+ * for that single run. So only the accessors on the path taken by that run are generated as bytecode: the ones of
+ * the branches of an if, a loop or a modify block that it doesn't execute are created later, when they are first
+ * reached, by the global optimizer and then go through reflection as in the interpreted statement.
+ * Statements not compiled in strict mode are dynamically typed and are always interpreted.
+ */
+public class MVELJittableStatement {
+
+    private static final Logger logger = LoggerFactory.getLogger( MVELJittableStatement.class );
+
+    private final MVELCompilationUnit unit;
+    private final ParserConfiguration parserConfiguration;
+    private final Object evaluationContext;
+    private final MVELEvaluator evaluator;
+
+    private final AtomicInteger invocationCounter = new AtomicInteger( 1 );
+    private volatile boolean jitted;
+
+    private volatile Serializable statement;
+
+    public MVELJittableStatement( MVELCompilationUnit unit, ParserConfiguration parserConfiguration, Object evaluationContext ) {
+        this( unit, parserConfiguration, evaluationContext, MVELSafeHelper.getEvaluator() );
+    }
+
+    public MVELJittableStatement( MVELCompilationUnit unit, ParserConfiguration parserConfiguration, Object evaluationContext, MVELEvaluator evaluator ) {
+        this.unit = unit;
+        this.parserConfiguration = parserConfiguration;
+        this.evaluationContext = evaluationContext;
+        this.evaluator = evaluator;
+        this.statement = unit.getCompiledExpression( parserConfiguration, evaluationContext );
+    }
+
+    public Serializable getStatement() {
+        return statement;
+    }
+
+    public boolean isJitted() {
+        return jitted;
+    }
+
+    public Object execute( Object ctx, VariableResolverFactory factory, InternalKnowledgeBase kBase ) {
+        if ( !jitted && isHot( kBase ) ) {
+            return jitAndExecute( ctx, factory, kBase );
+        }
+        return evaluator.executeExpression( statement, ctx, factory );
+    }
+
+    private boolean isHot( InternalKnowledgeBase kBase ) {
+        if ( !unit.isStrictMode() || MVELDebugHandler.isDebugMode() || !kBase.getConfiguration().isMvelStatementJitting() ) {
+            return false;
+        }
+        int jittingThreshold = kBase.getConfiguration().getJittingThreshold();
+        return jittingThreshold >= 0 && invocationCounter.getAndIncrement() == Math.max( jittingThreshold, 1 );
+    }
+
+    /**
+     * Compiles again the statement, so that the accessors created while executing it with the ASM optimizer
+     * are not shared with the interpreted one
+     */
+    Serializable compileForJitting() {
+        return unit.getCompiledExpression( parserConfiguration, evaluationContext );
+    }
+
+    private Object jitAndExecute( Object ctx, VariableResolverFactory factory, InternalKnowledgeBase kBase ) {
+        jitted = true;
+        if ( !isJmxAvailable() && MemoryUtil.permGenStats.isUsageThresholdExceeded( kBase.getConfiguration().getPermGenThreshold() ) ) {
+            return evaluator.executeExpression( statement, ctx, factory );
+        }
+
+        Serializable jittedStatement;
+        try {
+            jittedStatement = compileForJitting();
+        } catch (Throwable t) {
+            logger.warn( "Exception jitting: " + unit.getExpression() +
+                         " This is NOT an error and NOT prevent the correct execution since the statement will be evaluated in intrepreted mode" );
+            return evaluator.executeExpression( statement, ctx, factory );
+        }
+
+        // the accessors that can't be generated as bytecode fall back to the reflective optimizer
+        OptimizerFactory.setThreadAccessorOptimizer( ASMAccessorOptimizer.class );
+        try {
+            Object result = evaluator.executeExpression( jittedStatement, ctx, factory );
+            statement = jittedStatement;
+            return result;
+        } finally {
+            OptimizerFactory.clearThreadAccessorOptimizer();
+        }
+    }
+}
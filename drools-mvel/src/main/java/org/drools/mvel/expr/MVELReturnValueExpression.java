@@ -18,7 +18,6 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
-import java.io.Serializable;
 
 import org.drools.core.WorkingMemory;
 import org.drools.core.common.InternalFactHandle;
@@ -29,7 +28,6 @@ import org.drools.core.rule.Declaration;
 import org.drools.core.spi.FieldValue;
 import org.drools.core.spi.ReturnValueExpression;
 import org.drools.core.spi.Tuple;
-import org.drools.mvel.MVELSafeHelper;
 import org.drools.mvel.MVELDialectRuntimeData;
 import org.mvel2.integration.VariableResolverFactory;
 
@@ -43,7 +41,7 @@ public class MVELReturnValueExpression
     private MVELCompilationUnit unit;
     private String              id;
 
-    private Serializable        expr;
+    private MVELJittableStatement expr;
 
     public MVELReturnValueExpression() {
     }
@@ -66,17 +64,21 @@ public class MVELReturnValueExpression
     }
 
     public void compile( MVELDialectRuntimeData runtimeData) {
-        expr = unit.getCompiledExpression( runtimeData );
+        expr = new MVELJittableStatement( unit, runtimeData.getParserConfiguration(), null );
     }
 
     public void compile( MVELDialectRuntimeData runtimeData, RuleImpl rule ) {
-        expr = unit.getCompiledExpression( runtimeData, rule.toRuleNameAndPathString() );
+        expr = new MVELJittableStatement( unit, runtimeData.getParserConfiguration(), rule.toRuleNameAndPathString() );
     }
 
     public Object createContext() {
         return this.unit.createFactory();
     }    
 
+    MVELJittableStatement getJittableStatement() {
+        return expr;
+    }
+
     public FieldValue evaluate(final InternalFactHandle handle,
                                final Tuple tuple,
                                final Declaration[] previousDeclarations,
@@ -101,9 +103,10 @@ public class MVELReturnValueExpression
         }
 
 
-        return workingMemory.getKnowledgeBase().getConfiguration().getComponentFactory().getFieldFactory().getFieldValue( MVELSafeHelper.getEvaluator().executeExpression( this.expr,
-                                                                                               handle,
-                                                                                               factory ) );
+        Object value = this.expr.execute( handle,
+                                          factory,
+                                          workingMemory.getKnowledgeBase() );
+        return workingMemory.getKnowledgeBase().getConfiguration().getComponentFactory().getFieldFactory().getFieldValue( value );
     }
 
 
@@ -20,8 +20,12 @@ import java.io.ObjectOutput;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.base.ClassObjectType;
 import org.drools.core.base.ClassFieldAccessorCache;
 import org.drools.core.base.ClassFieldAccessorStore;
 import org.drools.core.base.ValueType;
@@ -44,6 +48,7 @@ import org.drools.core.reteoo.LeftTupleSource;
 import org.drools.core.reteoo.ModifyPreviousTuples;
 import org.drools.core.reteoo.ObjectSink;
 import org.drools.core.reteoo.ObjectSource;
+import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.ReteooBuilder;
 import org.drools.core.reteoo.ReteooFactHandleFactory;
 import org.drools.core.reteoo.RightTuple;
@@ -57,11 +62,19 @@ import org.drools.mvel.model.Cheese;
 import org.drools.mvel.model.MockObjectSource;
 import org.junit.Before;
 import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.utils.KieHelper;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class CompositeObjectSinkAdapterTest {
@@ -290,6 +303,185 @@ public class CompositeObjectSinkAdapterTest {
 
     }
 
+    @Test
+    public void testReorganizeColdAdapter() {
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        final String[] types = { "stilton", "cheddar", "stinky" };
+        for ( String type : types ) {
+            final MVELConstraint lit = new MVELConstraintTestUtil( "type == \"" + type + "\"",
+                                                                   new ObjectFieldImpl( type ),
+                                                                   new MockExtractor() );
+            ad.addObjectSink( new AlphaNode( buildContext.getNextId(),
+                                             lit,
+                                             new MockObjectSource( buildContext.getNextId() ),
+                                             buildContext ) );
+        }
+        assertNotNull( ad.getHashedSinkMap() );
+
+        final CompositeObjectSinkAdapter.FieldIndex fieldIndex = ad.getHashedFieldIndexes().getFirst();
+        fieldIndex.sample( 1 );
+        fieldIndex.sample( 1 );
+        fieldIndex.sample( 0 );
+        fieldIndex.sample( 0 );
+        assertEquals( 0.5, fieldIndex.getHitsPerAssert(), 0.0 );
+
+        // without a measured assert rate the static thresholds apply, so the layout doesn't change
+        ad.reorganize();
+        assertEquals( 1, ad.getReorganizationCount() );
+        assertTrue( fieldIndex.isHashed() );
+        assertNotNull( ad.getHashedSinkMap() );
+        assertNull( ad.getHashableSinks() );
+        assertEquals( 3, ad.getSinks().length );
+        assertEquals( 0, fieldIndex.getSampledAsserts() );
+    }
+
+    @Test
+    public void testHotAdapterIsHashedAndRangeIndexed() {
+        final KieBase kbase = buildAdaptiveKieBase( true );
+        final CompositeObjectSinkAdapter ad = getCheeseAdapter( kbase );
+        final CompositeObjectSinkAdapter.FieldIndex typeIndex = ad.getHashedFieldIndexes().getFirst();
+        final CompositeObjectSinkAdapter.FieldIndex priceIndex = ad.getRangeIndexedFieldIndexes().getFirst();
+
+        // both fields are below the static thresholds
+        assertFalse( typeIndex.isHashed() );
+        assertFalse( priceIndex.isRangeIndexed() );
+
+        final KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal( "results", new ArrayList<String>() );
+        warmUp( ksession );
+
+        assertTrue( ad.isAdaptiveIndexing() );
+        assertTrue( ad.getAssertRate() >= CompositeObjectSinkAdapter.ADAPTIVE_HOT_RATE );
+        assertTrue( ad.getReorganizationCount() > 0 );
+        assertTrue( typeIndex.isHashed() );
+        assertNotNull( ad.getHashedSinkMap() );
+        assertTrue( priceIndex.isRangeIndexed() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testColdAdapterIsUnindexed() {
+        final KieBase kbase = buildAdaptiveKieBase( true );
+        final CompositeObjectSinkAdapter ad = getCheeseAdapter( kbase );
+        final CompositeObjectSinkAdapter.FieldIndex typeIndex = ad.getHashedFieldIndexes().getFirst();
+        final CompositeObjectSinkAdapter.FieldIndex priceIndex = ad.getRangeIndexedFieldIndexes().getFirst();
+
+        final KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal( "results", new ArrayList<String>() );
+        warmUp( ksession );
+        assertTrue( typeIndex.isHashed() );
+        assertTrue( priceIndex.isRangeIndexed() );
+
+        // a window measured below the hot rate brings the static thresholds back
+        ad.reorganize( CompositeObjectSinkAdapter.ADAPTIVE_HOT_RATE / 10 );
+
+        assertFalse( typeIndex.isHashed() );
+        assertNull( ad.getHashedSinkMap() );
+        assertEquals( 2, ad.getHashableSinks().size() );
+        assertFalse( priceIndex.isRangeIndexed() );
+        assertEquals( 8, ad.getRangeIndexableSinks().size() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testPropagationIsIdenticalAcrossReorganization() {
+        final List<String> expected = runCheeseScenario( buildAdaptiveKieBase( false ), false );
+        final List<String> actual = runCheeseScenario( buildAdaptiveKieBase( true ), true );
+
+        assertFalse( expected.isEmpty() );
+        assertEquals( expected, actual );
+    }
+
+    /**
+     * Inserts half of the facts, reorganizes the adapter if requested, inserts the other half and modifies the
+     * first one, so that both the insertions and the modifications go through the old and the new layout
+     */
+    private List<String> runCheeseScenario(final KieBase kbase, final boolean reorganize) {
+        final CompositeObjectSinkAdapter ad = getCheeseAdapter( kbase );
+        final KieSession ksession = kbase.newKieSession();
+        final List<String> results = new ArrayList<String>();
+        ksession.setGlobal( "results", results );
+
+        final String[] types = { "stilton", "cheddar", "brie" };
+        final List<Cheese> cheeses = new ArrayList<Cheese>();
+        final List<FactHandle> handles = new ArrayList<FactHandle>();
+        for ( int i = 0; i < 100; i++ ) {
+            cheeses.add( new Cheese( types[i % types.length], i ) );
+        }
+
+        for ( int i = 0; i < 50; i++ ) {
+            handles.add( ksession.insert( cheeses.get( i ) ) );
+        }
+        ksession.fireAllRules();
+
+        if ( reorganize ) {
+            warmUp( ksession );
+            assertTrue( ad.getReorganizationCount() > 0 );
+            assertNotNull( ad.getHashedSinkMap() );
+        } else {
+            assertEquals( 0, ad.getReorganizationCount() );
+        }
+
+        for ( int i = 50; i < 100; i++ ) {
+            ksession.insert( cheeses.get( i ) );
+        }
+        for ( int i = 0; i < 50; i++ ) {
+            final Cheese cheese = cheeses.get( i );
+            cheese.setPrice( cheese.getPrice() + 5 );
+            ksession.update( handles.get( i ), cheese );
+        }
+        ksession.fireAllRules();
+        ksession.dispose();
+
+        Collections.sort( results );
+        return results;
+    }
+
+    /**
+     * Inserts facts matching no rule quickly enough to make the adapter hot, and fires to apply the reorganization
+     */
+    private static void warmUp(final KieSession ksession) {
+        for ( int i = 0; i < 2 * CompositeObjectSinkAdapter.ADAPTIVE_WINDOW_SIZE; i++ ) {
+            ksession.insert( new Cheese( "gouda", 5 ) );
+        }
+        ksession.fireAllRules();
+    }
+
+    private static KieBase buildAdaptiveKieBase(final boolean adaptive) {
+        final StringBuilder drl = new StringBuilder();
+        drl.append( "import " ).append( Cheese.class.getCanonicalName() ).append( ";\n" );
+        drl.append( "global java.util.List results;\n" );
+        for ( String type : new String[] { "stilton", "cheddar" } ) {
+            drl.append( "rule \"Type " ).append( type ).append( "\" when\n" )
+               .append( "    $c : Cheese( type == \"" ).append( type ).append( "\" )\n" )
+               .append( "then\n" )
+               .append( "    results.add( \"" ).append( type ).append( ":\" + $c.getPrice() );\n" )
+               .append( "end\n" );
+        }
+        for ( int price = 10; price <= 80; price += 10 ) {
+            drl.append( "rule \"Price " ).append( price ).append( "\" when\n" )
+               .append( "    $c : Cheese( price > " ).append( price ).append( " )\n" )
+               .append( "then\n" )
+               .append( "    results.add( \"" ).append( price ).append( ":\" + $c.getType() + \":\" + $c.getPrice() );\n" )
+               .append( "end\n" );
+        }
+
+        final KieBaseConfiguration conf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        conf.setProperty( "drools.alphaNodeAdaptiveIndexing", Boolean.toString( adaptive ) );
+        // keeps the 8 price constraints below the static range index threshold
+        conf.setProperty( "drools.alphaNodeRangeIndexThreshold", "20" );
+        return new KieHelper().addContent( drl.toString(), ResourceType.DRL ).build( conf );
+    }
+
+    private static CompositeObjectSinkAdapter getCheeseAdapter(final KieBase kbase) {
+        for ( ObjectTypeNode otn : ((InternalKnowledgeBase) kbase).getRete().getObjectTypeNodes() ) {
+            if ( otn.getObjectType() instanceof ClassObjectType && ((ClassObjectType) otn.getObjectType()).getClassType() == Cheese.class ) {
+                return (CompositeObjectSinkAdapter) otn.getObjectSinkPropagator();
+            }
+        }
+        throw new IllegalStateException( "No object type node for Cheese" );
+    }
+
     @Test
     public void testTripleAlphaCharacterConstraint() {
         final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
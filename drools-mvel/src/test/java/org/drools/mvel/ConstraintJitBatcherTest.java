@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.rule.constraint.ConditionEvaluatorDispatcher;
+import org.drools.mvel.compiler.Person;
+import org.drools.mvel.integrationtests.LinkingTest;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.conf.ConstraintJittingThresholdOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConstraintJitBatcherTest extends CommonTestMethodBase {
+
+    private static final int RULES = 40;
+    private static final int DISPATCHER_SIZE = 16;
+
+    @Test(timeout = 20000)
+    public void testJitConstraintsInDispatchers() throws Exception {
+        KieBase kbase = createKieBase();
+
+        // the second evaluation of each constraint reaches the jitting threshold
+        assertEquals( 10, fire( kbase, 5 ) );
+        assertEquals( 10, fire( kbase, 5 ) );
+
+        List<MVELConstraint> constraints = getAlphaConstraints( kbase );
+        assertEquals( RULES, constraints.size() );
+        while (!isJitted( constraints )) {
+            Thread.sleep( 10 );
+        }
+
+        Map<ConditionEvaluatorDispatcher, Integer> constraintsPerDispatcher = new HashMap<>();
+        for (MVELConstraint constraint : constraints) {
+            ConditionEvaluatorDispatcher dispatcher = (( ASMConditionEvaluatorJitter.DispatchedConditionEvaluator ) constraint.conditionEvaluator).getDispatcher();
+            constraintsPerDispatcher.merge( dispatcher, 1, Integer::sum );
+        }
+        assertTrue( constraintsPerDispatcher.size() >= RULES / DISPATCHER_SIZE );
+        for (int size : constraintsPerDispatcher.values()) {
+            assertTrue( size <= DISPATCHER_SIZE );
+        }
+
+        assertEquals( 10, fire( kbase, 5 ) );
+        assertEquals( 0, fire( kbase, 0 ) );
+        assertEquals( RULES, fire( kbase, 20 ) );
+    }
+
+    @Test(timeout = 20000)
+    public void testFallbackToSingleJittingWhenDispatcherFails() throws Exception {
+        KieBase kbase = createKieBase();
+        assertEquals( 10, fire( kbase, 5 ) );
+
+        List<MVELConstraint> constraints = getAlphaConstraints( kbase );
+        assertEquals( RULES, constraints.size() );
+        MVELConstraint unjittable = constraints.get( 0 );
+        setAnalyzedCondition( unjittable, new ConditionAnalyzer.Condition( false ) { } );
+
+        // holding the batcher keeps its batches from being jitted until all the constraints have been queued
+        ConstraintJitBatcher batcher = ConstraintJitBatcher.get( (InternalKnowledgeBase) kbase );
+        synchronized (batcher) {
+            assertEquals( 10, fire( kbase, 5 ) );
+        }
+
+        List<MVELConstraint> jittable = constraints.subList( 1, constraints.size() );
+        while (!isJittedAtAll( jittable )) {
+            Thread.sleep( 10 );
+        }
+
+        // the constraints in the same batch of the unjittable one are jitted one by one, the others in dispatchers
+        int jittedSeparately = 0;
+        for (MVELConstraint constraint : jittable) {
+            if (!(constraint.conditionEvaluator instanceof ASMConditionEvaluatorJitter.DispatchedConditionEvaluator)) {
+                jittedSeparately++;
+            }
+        }
+        assertTrue( jittedSeparately > 0 );
+        assertTrue( jittedSeparately < DISPATCHER_SIZE );
+        assertTrue( unjittable.conditionEvaluator instanceof MVELConditionEvaluator );
+
+        assertEquals( 10, fire( kbase, 5 ) );
+        assertEquals( 0, fire( kbase, 0 ) );
+        assertEquals( RULES, fire( kbase, 20 ) );
+    }
+
+    private KieBase createKieBase() {
+        StringBuilder drl = new StringBuilder();
+        drl.append( "import " + Person.class.getCanonicalName() + ";\n" );
+        drl.append( "global java.util.List list;\n" );
+        for (int i = 0; i < RULES; i++) {
+            drl.append( "rule R" + i + " when\n" +
+                        "  Person( age * 2 > " + i + " )\n" +
+                        "then\n" +
+                        "  list.add( \"R" + i + "\" );\n" +
+                        "end\n" );
+        }
+
+        KieBaseConfiguration kbaseConf = KieServices.get().newKieBaseConfiguration();
+        kbaseConf.setOption( ConstraintJittingThresholdOption.get( 1 ) );
+        kbaseConf.setProperty( "drools.jitDispatcherSize", String.valueOf( DISPATCHER_SIZE ) );
+        return loadKnowledgeBaseFromString( kbaseConf, drl.toString() );
+    }
+
+    private void setAnalyzedCondition( MVELConstraint constraint, ConditionAnalyzer.Condition condition ) throws Exception {
+        Field field = MVELConstraint.class.getDeclaredField( "analyzedCondition" );
+        field.setAccessible( true );
+        field.set( constraint, condition );
+    }
+
+    private int fire( KieBase kbase, int age ) {
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal( "list", list );
+            ksession.insert( new Person( "Mario", age ) );
+            ksession.fireAllRules();
+            return list.size();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private List<MVELConstraint> getAlphaConstraints( KieBase kbase ) {
+        ObjectTypeNode otn = LinkingTest.getObjectTypeNode( kbase, Person.class );
+        List<MVELConstraint> constraints = new ArrayList<>();
+        for (ObjectSink sink : otn.getObjectSinkPropagator().getSinks()) {
+            constraints.add( (MVELConstraint) (( AlphaNode ) sink).getConstraint() );
+        }
+        return constraints;
+    }
+
+    private boolean isJittedAtAll( List<MVELConstraint> constraints ) {
+        for (MVELConstraint constraint : constraints) {
+            if (constraint.conditionEvaluator instanceof MVELConditionEvaluator) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isJitted( List<MVELConstraint> constraints ) {
+        for (MVELConstraint constraint : constraints) {
+            if (!(constraint.conditionEvaluator instanceof ASMConditionEvaluatorJitter.DispatchedConditionEvaluator)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
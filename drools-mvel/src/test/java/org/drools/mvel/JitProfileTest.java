@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2020. Red Hat, Inc. and/or its affiliates.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSource;
+import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.mvel.compiler.Person;
+import org.drools.mvel.integrationtests.LinkingTest;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import static org.drools.mvel.CommonTestMethodBase.createJar;
+import static org.drools.mvel.CommonTestMethodBase.deployJar;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JitProfileTest {
+
+    // jitting is forced at the first evaluation, so the profile is complete as soon as the rules have been fired
+    private static final String KMODULE =
+            "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">\n" +
+            "  <configuration>\n" +
+            "    <property key=\"drools.jitProfileRecording\" value=\"true\"/>\n" +
+            "    <property key=\"drools.jittingThreshold\" value=\"0\"/>\n" +
+            "  </configuration>\n" +
+            "  <kbase name=\"kbase1\" packages=\"org.drools.mvel.jit\"/>\n" +
+            "</kmodule>";
+
+    private static final String DRL =
+            "package org.drools.mvel.jit\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Older when\n" +
+            "    $p : Person( name == \"Mark\" )\n" +
+            "    $o : Person( age > $p.age )\n" +
+            "then\n" +
+            "    list.add( \"Older:\" + $o.getName() );\n" +
+            "end\n" +
+            "rule Adult when\n" +
+            "    $a : Person( age > 30 )\n" +
+            "then\n" +
+            "    list.add( \"Adult:\" + $a.getName() );\n" +
+            "end\n";
+
+    private static final String SHIFTED_DRL =
+            "package org.drools.mvel.jit\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Older when\n" +
+            "    String()\n" +
+            "    $p : Person( name == \"Mark\" )\n" +
+            "    $o : Person( age > $p.age )\n" +
+            "then\n" +
+            "    list.add( \"Older:\" + $o.getName() );\n" +
+            "end\n" +
+            "rule Adult when\n" +
+            "    $a : Person( age > 30 )\n" +
+            "then\n" +
+            "    list.add( \"Adult:\" + $a.getName() );\n" +
+            "end\n";
+
+    private static final List<String> EXPECTED_RESULTS = Arrays.asList( "Adult:Edson", "Adult:Mark", "Older:Edson" );
+
+    @Test
+    public void testReadWrite() throws IOException {
+        JitProfile profile = new JitProfile();
+        profile.record( "org.test|Person|age > 30", "ConditionEvaluator1", new byte[] { 1, 2, 3 } );
+        profile.record( "org.test|Person|name == \"Mark\"", "ConditionEvaluator2", new byte[] { 4, 5 } );
+
+        JitProfile read = JitProfile.readFrom( new ByteArrayInputStream( profile.toByteArray() ) );
+        assertEquals( 2, read.size() );
+        assertEquals( "ConditionEvaluator1", read.getEvaluator( "org.test|Person|age > 30" ).getClassName() );
+        assertArrayEquals( new byte[] { 4, 5 }, read.getEvaluator( "org.test|Person|name == \"Mark\"" ).getBytecode() );
+        assertNull( read.getEvaluator( "org.test|Person|age < 30" ) );
+    }
+
+    @Test
+    public void testWriteToKJar() throws IOException {
+        Path kjar = Files.createTempFile( "kjar", ".jar" );
+        try {
+            try (OutputStream os = Files.newOutputStream( kjar ); JarOutputStream jar = new JarOutputStream( os )) {
+                jar.putNextEntry( new JarEntry( "META-INF/kmodule.xml" ) );
+                jar.write( "<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\"/>".getBytes() );
+                jar.closeEntry();
+            }
+
+            JitProfile profile = new JitProfile();
+            profile.record( "org.test|Person|age > 30", "ConditionEvaluator1", new byte[] { 1, 2, 3 } );
+            profile.writeToKJar( kjar, "kbase1" );
+
+            try (JarFile jarFile = new JarFile( kjar.toFile() )) {
+                assertNotNull( jarFile.getEntry( "META-INF/kmodule.xml" ) );
+                JarEntry entry = jarFile.getJarEntry( JitProfile.getResourceName( "kbase1" ) );
+                assertNotNull( entry );
+                JitProfile read = JitProfile.readFrom( jarFile.getInputStream( entry ) );
+                assertEquals( 1, read.size() );
+            }
+        } finally {
+            Files.deleteIfExists( kjar );
+        }
+    }
+
+    @Test
+    public void testPreJittedEvaluatorsAreLoadedFromKJar() throws IOException {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId( "org.drools.mvel", "jit-profile-test", "1.0.0" );
+
+        JitProfile recorded = recordProfile( ks, releaseId, DRL );
+        Map<String, String> recordedClassNames = getClassNames( recorded );
+        assertEquals( 3, recordedClassNames.size() );
+
+        deployJar( ks, writeProfile( ks, releaseId, recorded ) );
+        KieContainer kieContainer = ks.newKieContainer( releaseId );
+        try {
+            KieBase kbase = kieContainer.getKieBase( "kbase1" );
+            JitProfile loaded = JitProfile.get( kbase );
+            assertEquals( recordedClassNames, getClassNames( loaded ) );
+
+            assertEquals( EXPECTED_RESULTS, fire( kbase.newKieSession() ) );
+
+            // the kbase is still recording: jitting any constraint at runtime would have changed its profile
+            assertEquals( recordedClassNames, getClassNames( loaded ) );
+            for (MVELConstraint constraint : collectConstraints( kbase )) {
+                assertTrue( constraint.jitted );
+                assertEquals( recordedClassNames.get( constraint.getJitProfileKey() ), constraint.conditionEvaluator.getClass().getName() );
+            }
+        } finally {
+            kieContainer.dispose();
+        }
+    }
+
+    @Test
+    public void testJitProfileKeyIsStableAcrossBuilds() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId1 = ks.newReleaseId( "org.drools.mvel", "jit-profile-key-test", "1.0.0" );
+        ReleaseId releaseId2 = ks.newReleaseId( "org.drools.mvel", "jit-profile-key-test", "2.0.0" );
+
+        Set<String> keys1 = getJitProfileKeys( ks, releaseId1 );
+        Set<String> keys2 = getJitProfileKeys( ks, releaseId2 );
+        assertEquals( 3, keys1.size() );
+        assertEquals( keys1, keys2 );
+    }
+
+    @Test
+    public void testConstraintIsJittedWhenItsTupleShapeChanged() throws IOException {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId1 = ks.newReleaseId( "org.drools.mvel", "jit-profile-shape-test", "1.0.0" );
+        ReleaseId releaseId2 = ks.newReleaseId( "org.drools.mvel", "jit-profile-shape-test", "2.0.0" );
+
+        JitProfile recorded = recordProfile( ks, releaseId1, DRL );
+        Map<String, String> recordedClassNames = getClassNames( recorded );
+
+        // the pattern added in front of $p moves it to another offset of the tuple, so the join can't reuse its jitted class
+        createJar( ks, KMODULE, o -> true, releaseId2, ks.getResources().newByteArrayResource( SHIFTED_DRL.getBytes() ).setSourcePath( "org/drools/mvel/jit/r1.drl" ) );
+        deployJar( ks, writeProfile( ks, releaseId2, recorded ) );
+        KieContainer kieContainer = ks.newKieContainer( releaseId2 );
+        try {
+            KieBase kbase = kieContainer.getKieBase( "kbase1" );
+            KieSession ksession = kbase.newKieSession();
+            ksession.insert( "shift" );
+            assertEquals( EXPECTED_RESULTS, fire( ksession ) );
+
+            int preJitted = 0;
+            for (MVELConstraint constraint : collectConstraints( kbase )) {
+                String recordedClassName = recordedClassNames.get( constraint.getJitProfileKey() );
+                if (recordedClassName != null) {
+                    assertEquals( recordedClassName, constraint.conditionEvaluator.getClass().getName() );
+                    preJitted++;
+                } else {
+                    assertTrue( constraint.getJitProfileKey().endsWith( "|$p:1" ) );
+                    assertFalse( recordedClassNames.containsValue( constraint.conditionEvaluator.getClass().getName() ) );
+                }
+            }
+            assertEquals( 2, preJitted );
+            assertEquals( 4, JitProfile.get( kbase ).size() );
+        } finally {
+            kieContainer.dispose();
+        }
+    }
+
+    private static JitProfile recordProfile( KieServices ks, ReleaseId releaseId, String drl ) {
+        createJar( ks, KMODULE, o -> true, releaseId, ks.getResources().newByteArrayResource( drl.getBytes() ).setSourcePath( "org/drools/mvel/jit/r1.drl" ) );
+        KieContainer kieContainer = ks.newKieContainer( releaseId );
+        try {
+            KieBase kbase = kieContainer.getKieBase( "kbase1" );
+            assertEquals( EXPECTED_RESULTS, fire( kbase.newKieSession() ) );
+            return JitProfile.get( kbase );
+        } finally {
+            kieContainer.dispose();
+        }
+    }
+
+    private static byte[] writeProfile( KieServices ks, ReleaseId releaseId, JitProfile profile ) throws IOException {
+        byte[] jar = (( InternalKieModule ) ks.getRepository().getKieModule( releaseId )).getBytes();
+        Path kjar = Files.createTempFile( "kjar", ".jar" );
+        try {
+            Files.write( kjar, jar );
+            profile.writeToKJar( kjar, "kbase1" );
+            return Files.readAllBytes( kjar );
+        } finally {
+            Files.deleteIfExists( kjar );
+        }
+    }
+
+    private static List<String> fire( KieSession ksession ) {
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal( "list", list );
+            ksession.insert( new Person( "Mark", 37 ) );
+            ksession.insert( new Person( "Edson", 40 ) );
+            ksession.insert( new Person( "Mario", 20 ) );
+            ksession.fireAllRules();
+            Collections.sort( list );
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static Set<String> getJitProfileKeys( KieServices ks, ReleaseId releaseId ) {
+        createJar( ks, KMODULE, o -> true, releaseId, ks.getResources().newByteArrayResource( DRL.getBytes() ).setSourcePath( "org/drools/mvel/jit/r1.drl" ) );
+        KieContainer kieContainer = ks.newKieContainer( releaseId );
+        try {
+            Set<String> keys = new TreeSet<>();
+            for (MVELConstraint constraint : collectConstraints( kieContainer.getKieBase( "kbase1" ) )) {
+                keys.add( constraint.getJitProfileKey() );
+            }
+            return keys;
+        } finally {
+            kieContainer.dispose();
+        }
+    }
+
+    private static Map<String, String> getClassNames( JitProfile profile ) {
+        Map<String, String> classNames = new HashMap<>();
+        for (String key : profile.getConstraintKeys()) {
+            classNames.put( key, profile.getEvaluator( key ).getClassName() );
+        }
+        return classNames;
+    }
+
+    private static List<MVELConstraint> collectConstraints( KieBase kbase ) {
+        List<MVELConstraint> constraints = new ArrayList<>();
+        collectConstraints( LinkingTest.getObjectTypeNode( kbase, Person.class ), constraints );
+        return constraints;
+    }
+
+    private static void collectConstraints( ObjectSource source, List<MVELConstraint> constraints ) {
+        for (ObjectSink sink : source.getObjectSinkPropagator().getSinks()) {
+            if (sink instanceof AlphaNode) {
+                addConstraint( (( AlphaNode ) sink).getConstraint(), constraints );
+                collectConstraints( ( AlphaNode ) sink, constraints );
+            } else if (sink instanceof BetaNode) {
+                for (BetaNodeFieldConstraint constraint : (( BetaNode ) sink).getConstraints()) {
+                    addConstraint( constraint, constraints );
+                }
+            }
+        }
+    }
+
+    private static void addConstraint( Object constraint, List<MVELConstraint> constraints ) {
+        if (constraint instanceof MVELConstraint && !constraints.contains( constraint )) {
+            constraints.add( ( MVELConstraint ) constraint );
+        }
+    }
+}
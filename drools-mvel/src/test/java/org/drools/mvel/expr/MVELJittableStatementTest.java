@@ -0,0 +1,304 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.expr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.compiler.builder.impl.KnowledgeBuilderImpl;
+import org.drools.compiler.compiler.AnalysisResult;
+import org.drools.compiler.compiler.BoundIdentifiers;
+import org.drools.compiler.compiler.DialectCompiletimeRegistry;
+import org.drools.compiler.lang.descr.BaseDescr;
+import org.drools.compiler.lang.descr.RuleDescr;
+import org.drools.compiler.rule.builder.RuleBuildContext;
+import org.drools.core.base.ClassFieldAccessorCache;
+import org.drools.core.base.ClassFieldAccessorStore;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.definitions.InternalKnowledgePackage;
+import org.drools.core.definitions.impl.KnowledgePackageImpl;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.LeftTupleImpl;
+import org.drools.core.rule.Accumulate;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.Pattern;
+import org.drools.core.rule.RuleConditionElement;
+import org.drools.core.spi.DeclarationScopeResolver;
+import org.drools.core.spi.KnowledgeHelper;
+import org.drools.mvel.CommonTestMethodBase;
+import org.drools.mvel.MVELDialectRuntimeData;
+import org.drools.mvel.builder.MVELAnalysisResult;
+import org.drools.mvel.builder.MVELDialect;
+import org.drools.mvel.compiler.Cheese;
+import org.drools.mvel.compiler.Person;
+import org.drools.mvel.compiler.reteoo.MockLeftTupleSink;
+import org.drools.mvel.compiler.rule.builder.dialect.mvel.InstrumentedDeclarationScopeResolver;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.conf.ConstraintJittingThresholdOption;
+import org.mvel2.integration.VariableResolverFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MVELJittableStatementTest extends CommonTestMethodBase {
+
+    private static final String CONSEQUENCE_DRL =
+            "package org.drools.test;\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R dialect \"mvel\" when\n" +
+            "    $p : Person( age > 0 )\n" +
+            "then\n" +
+            "    int doubled = $p.age * 2;\n" +
+            "    list.add( $p.name.toUpperCase() + \":\" + doubled );\n" +
+            "end\n";
+
+    // the first firing, which jits the consequence, takes the if branch, all the following ones the else branch
+    private static final String BRANCHING_CONSEQUENCE_DRL =
+            "package org.drools.test;\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R dialect \"mvel\" when\n" +
+            "    $p : Person( age > 0 )\n" +
+            "then\n" +
+            "    if ( $p.age == 1 ) {\n" +
+            "        list.add( \"first:\" + $p.name.toUpperCase() );\n" +
+            "    } else {\n" +
+            "        list.add( $p.name.length() + \":\" + ( $p.age * 2 ) );\n" +
+            "    }\n" +
+            "end\n";
+
+    private static final String ACCUMULATE_DRL =
+            "package org.drools.test;\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R dialect \"mvel\" when\n" +
+            "    $total : Integer() from accumulate( Person( $a : age ),\n" +
+            "                                        init( int total = 0; ),\n" +
+            "                                        action( total += $a; ),\n" +
+            "                                        reverse( total -= $a; ),\n" +
+            "                                        result( total ) )\n" +
+            "then\n" +
+            "    list.add( $total );\n" +
+            "end\n";
+
+    private final ClassFieldAccessorStore store = new ClassFieldAccessorStore();
+
+    private MVELDialectRuntimeData runtimeData;
+
+    @Before
+    public void setUp() {
+        store.setClassFieldAccessorCache( new ClassFieldAccessorCache( Thread.currentThread().getContextClassLoader() ) );
+        store.setEagerWire( true );
+    }
+
+    @Test
+    public void testJittedConsequenceGivesSameResultsAsInterpreted() {
+        KieBase interpretedKBase = createKieBase( CONSEQUENCE_DRL, false );
+        KieBase jittedKBase = createKieBase( CONSEQUENCE_DRL, true );
+
+        List<Object> interpreted = fireConsequence( interpretedKBase );
+        List<Object> jitted = fireConsequence( jittedKBase );
+
+        assertEquals( 10, interpreted.size() );
+        assertEquals( interpreted, jitted );
+        assertFalse( getConsequence( interpretedKBase ).getJittableStatement().isJitted() );
+        assertTrue( getConsequence( jittedKBase ).getJittableStatement().isJitted() );
+    }
+
+    @Test
+    public void testBranchNotTakenWhileJittingGivesSameResultsAsInterpreted() {
+        KieBase interpretedKBase = createKieBase( BRANCHING_CONSEQUENCE_DRL, false );
+        KieBase jittedKBase = createKieBase( BRANCHING_CONSEQUENCE_DRL, true );
+
+        List<Object> interpreted = fireConsequence( interpretedKBase );
+        List<Object> jitted = fireConsequence( jittedKBase );
+
+        // the accessors of the else branch are only created after the jitting run, by the reflective optimizer
+        assertEquals( 10, interpreted.size() );
+        assertEquals( "first:PERSON0", interpreted.get( 0 ) );
+        assertEquals( "7:20", interpreted.get( 9 ) );
+        assertEquals( interpreted, jitted );
+        assertTrue( getConsequence( jittedKBase ).getJittableStatement().isJitted() );
+    }
+
+    @Test
+    public void testJittedAccumulateGivesSameResultsAsInterpreted() {
+        KieBase interpretedKBase = createKieBase( ACCUMULATE_DRL, false );
+        KieBase jittedKBase = createKieBase( ACCUMULATE_DRL, true );
+
+        List<Object> interpreted = fireAccumulate( interpretedKBase );
+        List<Object> jitted = fireAccumulate( jittedKBase );
+
+        assertEquals( 3, interpreted.size() );
+        assertEquals( interpreted, jitted );
+        assertFalse( getAccumulator( interpretedKBase ).getActionStatement().isJitted() );
+        assertTrue( getAccumulator( jittedKBase ).getActionStatement().isJitted() );
+    }
+
+    @Test
+    public void testJittedReturnValueGivesSameResultsAsInterpreted() throws Exception {
+        MVELReturnValueExpression interpretedExpr = new MVELReturnValueExpression( buildUnit( "a * 2 + 1" ), "mvel" );
+        interpretedExpr.compile( runtimeData );
+        MVELReturnValueExpression jittedExpr = new MVELReturnValueExpression( buildUnit( "a * 2 + 1" ), "mvel" );
+        jittedExpr.compile( runtimeData );
+
+        StatefulKnowledgeSessionImpl interpretedSession = createSession( false );
+        StatefulKnowledgeSessionImpl jittedSession = createSession( true );
+        for ( int price = 0; price < 10; price++ ) {
+            assertEquals( evaluate( interpretedExpr, interpretedSession, price ), evaluate( jittedExpr, jittedSession, price ) );
+        }
+
+        assertFalse( interpretedExpr.getJittableStatement().isJitted() );
+        assertTrue( jittedExpr.getJittableStatement().isJitted() );
+        interpretedSession.dispose();
+        jittedSession.dispose();
+    }
+
+    @Test
+    public void testFallbackToInterpretedWhenJittingFails() {
+        MVELCompilationUnit unit = buildUnit( "a * 2 + 1" );
+        MVELJittableStatement statement = new MVELJittableStatement( unit, runtimeData.getParserConfiguration(), null ) {
+            @Override
+            Serializable compileForJitting() {
+                throw new RuntimeException( "jitting failure" );
+            }
+        };
+        Serializable interpretedStatement = statement.getStatement();
+
+        StatefulKnowledgeSessionImpl ksession = createSession( true );
+        for ( int price = 0; price < 3; price++ ) {
+            Cheese cheese = new Cheese( "stilton", price );
+            InternalFactHandle handle = (InternalFactHandle) ksession.insert( cheese );
+            LeftTupleImpl tuple = new LeftTupleImpl( handle, new MockLeftTupleSink(), true );
+            handle.removeLeftTuple( tuple );
+
+            VariableResolverFactory factory = unit.createFactory();
+            unit.updateFactory( handle, tuple, null, ksession, ksession.getGlobalResolver(), factory );
+            assertEquals( price * 2 + 1, ( (Number) statement.execute( handle, factory, ksession.getKnowledgeBase() ) ).intValue() );
+        }
+
+        // the jitting has been attempted only once, and the interpreted statement kept
+        assertTrue( statement.isJitted() );
+        assertSame( interpretedStatement, statement.getStatement() );
+        ksession.dispose();
+    }
+
+    private KieBase createKieBase( String drl, boolean jitting ) {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( ConstraintJittingThresholdOption.get( 1 ) );
+        kconf.setProperty( "drools.mvelStatementJitting", String.valueOf( jitting ) );
+        return loadKnowledgeBaseFromString( kconf, drl );
+    }
+
+    private StatefulKnowledgeSessionImpl createSession( boolean jitting ) {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( ConstraintJittingThresholdOption.get( 1 ) );
+        kconf.setProperty( "drools.mvelStatementJitting", String.valueOf( jitting ) );
+        return (StatefulKnowledgeSessionImpl) KnowledgeBaseFactory.newKnowledgeBase( kconf ).newKieSession();
+    }
+
+    private List<Object> fireConsequence( KieBase kbase ) {
+        List<Object> list = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ ) {
+            KieSession ksession = kbase.newKieSession();
+            ksession.setGlobal( "list", list );
+            ksession.insert( new Person( "person" + i, i + 1 ) );
+            ksession.fireAllRules();
+            ksession.dispose();
+        }
+        return list;
+    }
+
+    private List<Object> fireAccumulate( KieBase kbase ) {
+        List<Object> list = new ArrayList<>();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal( "list", list );
+        List<FactHandle> handles = new ArrayList<>();
+        for ( int i = 0; i < 5; i++ ) {
+            handles.add( ksession.insert( new Person( "person" + i, i + 1 ) ) );
+        }
+        ksession.fireAllRules();
+
+        ksession.update( handles.get( 0 ), new Person( "person0", 10 ) );
+        ksession.fireAllRules();
+
+        // exercises the reverse block
+        ksession.delete( handles.get( 1 ) );
+        ksession.fireAllRules();
+        ksession.dispose();
+        return list;
+    }
+
+    private static MVELConsequence getConsequence( KieBase kbase ) {
+        return (MVELConsequence) ( (RuleImpl) kbase.getRule( "org.drools.test", "R" ) ).getConsequence();
+    }
+
+    private static MVELAccumulator getAccumulator( KieBase kbase ) {
+        for ( RuleConditionElement element : ( (RuleImpl) kbase.getRule( "org.drools.test", "R" ) ).getLhs().getChildren() ) {
+            if ( element instanceof Pattern && ( (Pattern) element ).getSource() instanceof Accumulate ) {
+                return (MVELAccumulator) ( (Accumulate) ( (Pattern) element ).getSource() ).getAccumulators()[0];
+            }
+        }
+        throw new IllegalStateException( "No accumulate found" );
+    }
+
+    private Object evaluate( MVELReturnValueExpression expr, StatefulKnowledgeSessionImpl ksession, int price ) throws Exception {
+        InternalFactHandle handle = (InternalFactHandle) ksession.insert( new Cheese( "stilton", price ) );
+        LeftTupleImpl tuple = new LeftTupleImpl( handle, new MockLeftTupleSink(), true );
+        handle.removeLeftTuple( tuple );
+        return expr.evaluate( handle, tuple, null, null, ksession, expr.createContext() ).getValue();
+    }
+
+    private MVELCompilationUnit buildUnit( String expression ) {
+        InternalKnowledgePackage pkg = new KnowledgePackageImpl( "pkg1" );
+        KnowledgeBuilderImpl pkgBuilder = new KnowledgeBuilderImpl( pkg );
+        DialectCompiletimeRegistry dialectRegistry = pkgBuilder.getPackageRegistry( pkg.getName() ).getDialectCompiletimeRegistry();
+        MVELDialect mvelDialect = (MVELDialect) dialectRegistry.getDialect( "mvel" );
+        RuleBuildContext context = new RuleBuildContext( pkgBuilder, new RuleDescr( "rule 1" ), dialectRegistry, pkg, mvelDialect );
+
+        Pattern pattern = new Pattern( 0, new ClassObjectType( Cheese.class ) );
+        Declaration declaration = new Declaration( "a", store.getReader( Cheese.class, "price" ), pattern );
+        Map<String, Declaration> declarations = new HashMap<>();
+        declarations.put( "a", declaration );
+        InstrumentedDeclarationScopeResolver declarationResolver = new InstrumentedDeclarationScopeResolver();
+        declarationResolver.setDeclarations( declarations );
+        context.setDeclarationResolver( declarationResolver );
+
+        AnalysisResult analysis = mvelDialect.analyzeExpression( context, new BaseDescr(), expression,
+                                                                 new BoundIdentifiers( DeclarationScopeResolver.getDeclarationClasses( declarations ), context ) );
+        context.setTypesafe( ( (MVELAnalysisResult) analysis ).isTypesafe() );
+        MVELCompilationUnit unit = mvelDialect.getMVELCompilationUnit( expression, analysis, new Declaration[] { declaration }, null, null, context,
+                                                                       "drools", KnowledgeHelper.class, false, MVELCompilationUnit.Scope.EXPRESSION );
+        runtimeData = (MVELDialectRuntimeData) pkgBuilder.getPackageRegistry( pkg.getName() ).getDialectRuntimeRegistry().getDialectData( "mvel" );
+        return unit;
+    }
+}
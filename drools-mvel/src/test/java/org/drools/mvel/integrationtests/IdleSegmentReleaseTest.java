@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.phreak.NodeMemoryAccounting;
+import org.drools.core.phreak.NodeMemoryAccounting.MemoryUsage;
+import org.drools.mvel.CommonTestMethodBase;
+import org.drools.mvel.compiler.Cheese;
+import org.drools.mvel.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IdleSegmentReleaseTest extends CommonTestMethodBase {
+
+    private static final int CHEESES = 1000;
+
+    @Test
+    public void testReleaseIdleSegment() {
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "import " + Cheese.class.getCanonicalName() + ";\n" +
+                "rule R when\n" +
+                "  Person( $l : likes )\n" +
+                "  Cheese( type == $l )\n" +
+                "then\n" +
+                "end\n";
+
+        KieBase kbase = loadKnowledgeBaseFromString( drl );
+        KieSession ksession = kbase.newKieSession();
+        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) ksession;
+
+        FactHandle personHandle = ksession.insert( new Person( "Mark", "none" ) );
+        List<FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < CHEESES; i++) {
+            handles.add( ksession.insert( new Cheese( "type" + i, i ) ) );
+        }
+        ksession.fireAllRules();
+
+        Map<String, MemoryUsage> ruleUsages = NodeMemoryAccounting.getRuleMemoryUsages( wm );
+        assertEquals( CHEESES, ruleUsages.get( "R" ).getRightTuples() );
+        assertEquals( CHEESES, getTotalRightTuples( wm ) );
+
+        // the segment is linked and holds the cheeses, so it can't be released
+        assertEquals( 0, wm.getIdleSegmentReleaser().releaseIdleSegments( wm, System.currentTimeMillis(), 0 ) );
+
+        for (FactHandle handle : handles) {
+            ksession.delete( handle );
+        }
+        ksession.delete( personHandle );
+        ksession.fireAllRules();
+
+        assertEquals( 0, getTotalRightTuples( wm ) );
+        long grownBytes = NodeMemoryAccounting.getRuleMemoryUsages( wm ).get( "R" ).getEstimatedBytes();
+
+        // the segment is empty now, but it hasn't been idle for long enough
+        long now = System.currentTimeMillis();
+        assertEquals( 0, wm.getIdleSegmentReleaser().releaseIdleSegments( wm, now, 1000 ) );
+        assertEquals( 1, wm.getIdleSegmentReleaser().releaseIdleSegments( wm, now + 1000, 1000 ) );
+        assertEquals( 1, wm.getIdleSegmentReleaser().getReleasedSegments() );
+        assertTrue( NodeMemoryAccounting.getRuleMemoryUsages( wm ).get( "R" ).getEstimatedBytes() < grownBytes );
+
+        // the released memories grow again when the segment receives new tuples
+        ksession.insert( new Person( "Mark", "type1" ) );
+        ksession.insert( new Cheese( "type1", 1 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+
+        ksession.dispose();
+    }
+
+    private long getTotalRightTuples( StatefulKnowledgeSessionImpl wm ) {
+        long result = 0;
+        for (MemoryUsage usage : NodeMemoryAccounting.getNodeMemoryUsages( wm ).values()) {
+            result += usage.getRightTuples();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.rule.EntryPointId;
+import org.drools.mvel.CommonTestMethodBase;
+import org.drools.mvel.compiler.Cheese;
+import org.drools.mvel.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EqualityBehaviorOption;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InsertAllTest extends CommonTestMethodBase {
+
+    // the 3 literal constraints on Cheese.type are hashed by the CompositeObjectSinkAdapter of the Cheese ObjectTypeNode
+    private static final String DRL =
+            "package org.drools.test;\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Stilton when\n" +
+            "    $c : Cheese( type == \"stilton\" )\n" +
+            "then\n" +
+            "    list.add( \"Stilton:\" + $c.getPrice() );\n" +
+            "end\n" +
+            "rule Brie when\n" +
+            "    $c : Cheese( type == \"brie\" )\n" +
+            "then\n" +
+            "    list.add( \"Brie:\" + $c.getPrice() );\n" +
+            "end\n" +
+            "rule Cheddar when\n" +
+            "    $c : Cheese( type == \"cheddar\" )\n" +
+            "then\n" +
+            "    list.add( \"Cheddar:\" + $c.getPrice() );\n" +
+            "end\n" +
+            "rule Adult when\n" +
+            "    $p : Person( age >= 18 )\n" +
+            "then\n" +
+            "    list.add( \"Adult:\" + $p.getName() );\n" +
+            "end\n" +
+            "rule Likes when\n" +
+            "    $p : Person( $likes : likes )\n" +
+            "    $c : Cheese( type == $likes )\n" +
+            "then\n" +
+            "    list.add( \"Likes:\" + $p.getName() + \":\" + $c.getType() + \":\" + $c.getPrice() );\n" +
+            "end\n" +
+            "rule NoCheeseFor when\n" +
+            "    $p : Person( $likes : likes )\n" +
+            "    not Cheese( type == $likes )\n" +
+            "then\n" +
+            "    list.add( \"NoCheeseFor:\" + $p.getName() );\n" +
+            "end\n";
+
+    @Test
+    public void testInsertAllAsInsertInIdentityMode() {
+        KieBase kbase = loadKnowledgeBaseFromString( DRL );
+        assertCheeseTypesAreHashed( kbase );
+
+        Cheese stilton = new Cheese( "stilton", 10 );
+        List<FactHandle> handles = assertInsertAllAsInsert( kbase, createFacts( stilton ) );
+
+        // an equal but not identical fact is a different fact
+        assertSame( handles.get( 0 ), handles.get( 4 ) );
+        assertNotSame( handles.get( 0 ), handles.get( 5 ) );
+    }
+
+    @Test
+    public void testInsertAllAsInsertInEqualityMode() {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( EqualityBehaviorOption.EQUALITY );
+        KieBase kbase = loadKnowledgeBaseFromString( kconf, DRL );
+        assertCheeseTypesAreHashed( kbase );
+
+        Cheese stilton = new Cheese( "stilton", 10 );
+        List<FactHandle> handles = assertInsertAllAsInsert( kbase, createFacts( stilton ) );
+
+        // an equal fact is the same fact
+        assertSame( handles.get( 0 ), handles.get( 4 ) );
+        assertSame( handles.get( 0 ), handles.get( 5 ) );
+    }
+
+    @Test
+    public void testInsertAllAfterInsert() {
+        KieBase kbase = loadKnowledgeBaseFromString( DRL );
+
+        Person mark = new Person( "mark", "brie", 40 );
+        Cheese brie = new Cheese( "brie", 20 );
+
+        KieSession single = kbase.newKieSession();
+        List<String> singleList = new ArrayList<>();
+        single.setGlobal( "list", singleList );
+        single.insert( mark );
+        single.fireAllRules();
+        single.insert( brie );
+        single.insert( mark );
+        single.fireAllRules();
+
+        KieSession batch = kbase.newKieSession();
+        List<String> batchList = new ArrayList<>();
+        batch.setGlobal( "list", batchList );
+        FactHandle markHandle = batch.insert( mark );
+        batch.fireAllRules();
+        List<FactHandle> handles = ( (StatefulKnowledgeSessionImpl) batch ).insertAll( Arrays.asList( brie, mark ) );
+        batch.fireAllRules();
+
+        // the fact already in the session is not inserted again, and the matches it already fired don't fire again
+        assertSame( markHandle, handles.get( 1 ) );
+        assertEquals( 2, batch.getFactCount() );
+        assertEquals( single.getFactCount(), batch.getFactCount() );
+        assertEquals( singleList, batchList );
+        assertEquals( 4, batchList.size() );
+        // the order of the first two depends on the agenda, the ones of the insertAll only fire after them
+        assertTrue( batchList.subList( 0, 2 ).containsAll( Arrays.asList( "Adult:mark", "NoCheeseFor:mark" ) ) );
+        assertTrue( batchList.subList( 2, 4 ).containsAll( Arrays.asList( "Brie:20", "Likes:mark:brie:20" ) ) );
+
+        single.dispose();
+        batch.dispose();
+    }
+
+    private static List<Object> createFacts( Cheese stilton ) {
+        return Arrays.asList( stilton,
+                              new Person( "mark", "stilton", 40 ),
+                              null,
+                              new Cheese( "brie", 20 ),
+                              stilton,
+                              new Cheese( "stilton", 10 ),
+                              new Person( "bob", "cheddar", 12 ),
+                              null,
+                              new Cheese( "gorgonzola", 30 ),
+                              new Person( "john", "brie", 25 ),
+                              new Cheese( "cheddar", 15 ) );
+    }
+
+    private static List<FactHandle> assertInsertAllAsInsert( KieBase kbase, List<Object> facts ) {
+        KieSession single = kbase.newKieSession();
+        List<String> singleList = new ArrayList<>();
+        single.setGlobal( "list", singleList );
+        List<FactHandle> singleHandles = new ArrayList<>();
+        for ( Object fact : facts ) {
+            singleHandles.add( single.insert( fact ) );
+        }
+        int singleFired = single.fireAllRules();
+
+        KieSession batch = kbase.newKieSession();
+        List<String> batchList = new ArrayList<>();
+        batch.setGlobal( "list", batchList );
+        List<FactHandle> batchHandles = ( (StatefulKnowledgeSessionImpl) batch ).insertAll( facts );
+        int batchFired = batch.fireAllRules();
+
+        assertEquals( facts.size(), batchHandles.size() );
+        for ( int i = 0; i < facts.size(); i++ ) {
+            if ( facts.get( i ) == null ) {
+                assertNull( batchHandles.get( i ) );
+                continue;
+            }
+            assertNotNull( batchHandles.get( i ) );
+            // in equality mode an equal fact gets the handle of the first one
+            assertEquals( facts.get( i ), batch.getObject( batchHandles.get( i ) ) );
+            // same handle ids, so the same facts are the same handles in both sessions
+            assertEquals( ( (InternalFactHandle) singleHandles.get( i ) ).getId(), ( (InternalFactHandle) batchHandles.get( i ) ).getId() );
+        }
+        assertEquals( single.getFactCount(), batch.getFactCount() );
+
+        // same matches fired in the same order
+        assertEquals( singleFired, batchFired );
+        assertEquals( singleList, batchList );
+        assertTrue( batchList.contains( "Stilton:10" ) );
+        assertTrue( batchList.contains( "Likes:john:brie:20" ) );
+        // the cheese inserted later in the same batch cancels the match of the negation before it fires
+        assertTrue( batchList.contains( "Likes:bob:cheddar:15" ) );
+        assertFalse( batchList.contains( "NoCheeseFor:bob" ) );
+
+        single.dispose();
+        batch.dispose();
+        return batchHandles;
+    }
+
+    private static void assertCheeseTypesAreHashed( KieBase kbase ) {
+        ObjectTypeNode otn = ( (InternalKnowledgeBase) kbase ).getRete()
+                                                             .getEntryPointNode( EntryPointId.DEFAULT )
+                                                             .getObjectTypeNodes()
+                                                             .get( new ClassObjectType( Cheese.class ) );
+        assertNotNull( ( (CompositeObjectSinkAdapter) otn.getObjectSinkPropagator() ).getHashedSinkMap() );
+    }
+}
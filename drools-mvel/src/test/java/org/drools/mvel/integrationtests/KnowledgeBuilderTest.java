@@ -18,6 +18,7 @@ package org.drools.mvel.integrationtests;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.drools.core.definitions.impl.KnowledgePackageImpl;
@@ -38,8 +39,11 @@ import org.kie.api.internal.utils.ServiceRegistry;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.CompositeKnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderConfiguration;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.ParallelRulesBuildThresholdOption;
 import org.kie.internal.io.ResourceFactory;
 
 import static org.junit.Assert.assertEquals;
@@ -522,4 +526,46 @@ public class KnowledgeBuilderTest {
 
         }
     }
+
+    @Test
+    public void testBatchParsesDrlsConcurrentlyInResourcesOrder() throws Exception {
+        List<Resource> resources = new ArrayList<Resource>();
+        for ( int i = 0; i < 20; i++ ) {
+            String drl = "package org.drools.mvel.compiler.test" + ( i % 3 ) + "\n" +
+                         "import org.drools.mvel.compiler.Cheese;\n" +
+                         "rule R" + i + " when Cheese( price > " + i + " ) then end\n";
+            resources.add( ResourceFactory.newByteArrayResource( drl.getBytes() ) );
+        }
+        resources.add( 7, ResourceFactory.newByteArrayResource( "package org.drools.mvel.compiler.test0\nrule Broken when Cheese( then end\n".getBytes() ) );
+
+        KnowledgeBuilder parallel = buildBatch( resources, KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration() );
+        KnowledgeBuilderConfiguration conf = KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration();
+        conf.setOption( ParallelRulesBuildThresholdOption.get( -1 ) );
+        KnowledgeBuilder sequential = buildBatch( resources, conf );
+
+        assertTrue( parallel.hasErrors() );
+        assertEquals( sequential.getErrors().toString(), parallel.getErrors().toString() );
+        assertEquals( getRuleNames( sequential ), getRuleNames( parallel ) );
+    }
+
+    private KnowledgeBuilder buildBatch( List<Resource> resources, KnowledgeBuilderConfiguration conf ) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder( conf );
+        CompositeKnowledgeBuilder batch = kbuilder.batch().type( ResourceType.DRL );
+        for ( Resource resource : resources ) {
+            batch.add( resource );
+        }
+        batch.build();
+        return kbuilder;
+    }
+
+    private List<String> getRuleNames( KnowledgeBuilder kbuilder ) {
+        List<String> ruleNames = new ArrayList<String>();
+        for ( KiePackage kp : kbuilder.getKnowledgePackages() ) {
+            for ( Rule rule : kp.getRules() ) {
+                ruleNames.add( kp.getName() + "." + rule.getName() );
+            }
+        }
+        Collections.sort( ruleNames );
+        return ruleNames;
+    }
 }
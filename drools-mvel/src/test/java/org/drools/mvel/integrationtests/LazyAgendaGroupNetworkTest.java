@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.mvel.CommonTestMethodBase;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LazyAgendaGroupNetworkTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $s : String()\n" +
+            "then\n" +
+            "    list.add(\"main:\" + $s);\n" +
+            "end\n" +
+            "rule R2 agenda-group \"tenant1\" when\n" +
+            "    $s : String( length > 2 )\n" +
+            "then\n" +
+            "    list.add(\"tenant1:\" + $s);\n" +
+            "end\n" +
+            "rule R3 agenda-group \"tenant2\" when\n" +
+            "    $s : String()\n" +
+            "    $i : Integer()\n" +
+            "then\n" +
+            "    list.add(\"tenant2:\" + $s + $i);\n" +
+            "end\n" +
+            "rule R4 when\n" +
+            "    Integer( intValue == 1 )\n" +
+            "then\n" +
+            "    drools.setFocus(\"tenant2\");\n" +
+            "end\n";
+
+    private KieBase createLazyKieBase() {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.lazyAgendaGroupNetwork", "true" );
+        return loadKnowledgeBaseFromString( kconf, DRL );
+    }
+
+    @Test
+    public void testNetworkBuiltOnFocus() {
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) createLazyKieBase();
+
+        assertNotNull( kbase.getReteooBuilder().getTerminalNodes( "defaultpkg.R1" ) );
+        assertNull( kbase.getReteooBuilder().getTerminalNodes( "defaultpkg.R2" ) );
+        assertNull( kbase.getReteooBuilder().getTerminalNodes( "defaultpkg.R3" ) );
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( "abc" );
+        ksession.getAgenda().getAgendaGroup( "tenant1" ).setFocus();
+        ksession.fireAllRules();
+
+        assertNotNull( kbase.getReteooBuilder().getTerminalNodes( "defaultpkg.R2" ) );
+        assertNull( kbase.getReteooBuilder().getTerminalNodes( "defaultpkg.R3" ) );
+        assertEquals( 2, list.size() );
+        assertEquals( "tenant1:abc", list.get( 0 ) );
+        assertEquals( "main:abc", list.get( 1 ) );
+        assertEquals( 1, kbase.getLazyBuiltRulesCount() );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testNetworkBuiltOnFocusFromConsequence() {
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) createLazyKieBase();
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( "a" );
+        ksession.insert( 1 );
+        ksession.fireAllRules();
+
+        assertNotNull( kbase.getReteooBuilder().getTerminalNodes( "defaultpkg.R3" ) );
+        assertEquals( 2, list.size() );
+        assertTrue( list.contains( "main:a" ) );
+        assertTrue( list.contains( "tenant2:a1" ) );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testRemoveLazyRule() {
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) createLazyKieBase();
+
+        kbase.removeRule( "defaultpkg", "R2" );
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( "abc" );
+        ksession.getAgenda().getAgendaGroup( "tenant1" ).setFocus();
+        ksession.fireAllRules();
+
+        assertEquals( 1, list.size() );
+        assertEquals( "main:abc", list.get( 0 ) );
+        assertEquals( 0, kbase.getLazyBuiltRulesCount() );
+
+        ksession.dispose();
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.EntryPointNode;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.mvel.CommonTestMethodBase;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VersionedKieBaseTest extends CommonTestMethodBase {
+
+    private static final String DRL1 =
+            "package org.drools.test;\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $s : String()\n" +
+            "then\n" +
+            "    list.add(\"R1:\" + $s);\n" +
+            "end\n";
+
+    private static final String DRL2 =
+            "package org.drools.test;\n" +
+            "global java.util.List list;\n" +
+            "rule R2 when\n" +
+            "    $s : String()\n" +
+            "then\n" +
+            "    list.add(\"R2:\" + $s);\n" +
+            "end\n";
+
+    private KnowledgeBaseImpl createVersionedKieBase() {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.versionedKieBase", "true" );
+        return (KnowledgeBaseImpl) loadKnowledgeBaseFromString( kconf, DRL1 );
+    }
+
+    @Test
+    public void testExistingSessionsMoveToTheLatestVersionAtNextFire() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+
+        KieSession oldSession = kbase.newKieSession();
+        List<String> oldList = new ArrayList<>();
+        oldSession.setGlobal( "list", oldList );
+        InternalKnowledgeBase oldVersion = (InternalKnowledgeBase) oldSession.getKieBase();
+        assertNotSame( kbase, oldVersion );
+        assertTrue( kbase.getWorkingMemories().isEmpty() );
+
+        oldSession.insert( "x" );
+        oldSession.fireAllRules();
+        assertEquals( 1, oldList.size() );
+        assertEquals( "R1:x", oldList.get( 0 ) );
+        oldList.clear();
+
+        kbase.addPackages( loadKnowledgePackagesFromString( DRL2 ) );
+        assertEquals( 2, kbase.getPublishedVersionsCount() );
+        // the session keeps its version until its next fire
+        assertSame( oldVersion, oldSession.getKieBase() );
+
+        KieSession newSession = kbase.newKieSession();
+        List<String> newList = new ArrayList<>();
+        newSession.setGlobal( "list", newList );
+        assertNotSame( oldVersion, newSession.getKieBase() );
+
+        oldSession.insert( "a" );
+        oldSession.fireAllRules();
+        assertSame( kbase.getLatestVersion(), oldSession.getKieBase() );
+        assertEquals( 3, oldList.size() );
+        assertTrue( oldList.contains( "R1:a" ) );
+        assertTrue( oldList.contains( "R2:a" ) );
+        assertTrue( oldList.contains( "R2:x" ) );
+
+        newSession.insert( "b" );
+        newSession.fireAllRules();
+        assertEquals( 2, newList.size() );
+        assertTrue( newList.contains( "R1:b" ) );
+        assertTrue( newList.contains( "R2:b" ) );
+
+        oldSession.dispose();
+        newSession.dispose();
+    }
+
+    @Test
+    public void testFiredMatchesDoNotFireAgainAfterMove() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "a" );
+        ksession.insert( "b" );
+        assertEquals( 2, ksession.fireAllRules() );
+
+        kbase.addPackages( loadKnowledgePackagesFromString( DRL2 ) );
+        list.clear();
+
+        assertEquals( 2, ksession.fireAllRules() );
+        assertSame( kbase.getLatestVersion(), ksession.getKieBase() );
+        assertFalse( list.contains( "R1:a" ) );
+        assertFalse( list.contains( "R1:b" ) );
+        assertTrue( list.contains( "R2:a" ) );
+        assertTrue( list.contains( "R2:b" ) );
+
+        list.clear();
+        assertEquals( 0, ksession.fireAllRules() );
+        assertTrue( list.isEmpty() );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testSessionSwitchesVersionOnReset() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+
+        KieSession ksession = kbase.newKieSession();
+        InternalKnowledgeBase oldVersion = (InternalKnowledgeBase) ksession.getKieBase();
+
+        kbase.removeRule( "org.drools.test", "R1" );
+        kbase.addPackages( loadKnowledgePackagesFromString( DRL2 ) );
+        assertSame( oldVersion, ksession.getKieBase() );
+
+        ( (StatefulKnowledgeSessionImpl) ksession ).reset();
+        assertSame( kbase.getLatestVersion(), ksession.getKieBase() );
+        assertTrue( oldVersion.getWorkingMemories().isEmpty() );
+        assertTrue( kbase.getLatestVersion().getWorkingMemories().contains( ksession ) );
+
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "c" );
+        ksession.fireAllRules();
+        assertEquals( 1, list.size() );
+        assertEquals( "R2:c", list.get( 0 ) );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testLongLivedSessionMovesWithItsFactsAtNextFire() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "a" );
+        ksession.fireAllRules();
+        assertEquals( 1, list.size() );
+        assertEquals( "R1:a", list.get( 0 ) );
+
+        kbase.addPackages( loadKnowledgePackagesFromString( DRL2 ) );
+        list.clear();
+
+        // the already fired match of the unchanged rule doesn't fire again, the one of the new rule does
+        assertEquals( 1, ksession.fireAllRules() );
+        assertSame( kbase.getLatestVersion(), ksession.getKieBase() );
+        assertEquals( 1, ksession.getFactCount() );
+        assertEquals( 1, list.size() );
+        assertEquals( "R2:a", list.get( 0 ) );
+
+        list.clear();
+        ksession.insert( "b" );
+        ksession.fireAllRules();
+        assertEquals( 2, list.size() );
+        assertTrue( list.contains( "R1:b" ) );
+        assertTrue( list.contains( "R2:b" ) );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testModifiedRuleFiresAgainAfterMove() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "a" );
+        ksession.fireAllRules();
+
+        kbase.addPackages( loadKnowledgePackagesFromString( DRL1.replace( "\"R1:\"", "\"R1-v2:\"" ) ) );
+        list.clear();
+
+        ksession.fireAllRules();
+        assertEquals( 1, list.size() );
+        assertEquals( "R1-v2:a", list.get( 0 ) );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testModificationThroughVersionIsPublished() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        InternalKnowledgeBase version = (InternalKnowledgeBase) ksession.getKieBase();
+
+        version.addPackages( loadKnowledgePackagesFromString( DRL2 ) );
+        assertEquals( 2, kbase.getPublishedVersionsCount() );
+        assertTrue( kbase.getRule( "org.drools.test", "R2" ) != null );
+        // the version itself is immutable, the modification went through the master
+        assertTrue( version.getRule( "org.drools.test", "R2" ) == null );
+
+        ksession.insert( "a" );
+        ksession.fireAllRules();
+        assertEquals( 2, list.size() );
+        assertTrue( list.contains( "R1:a" ) );
+        assertTrue( list.contains( "R2:a" ) );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testMasterHasNoNetwork() {
+        KnowledgeBaseImpl kbase = createVersionedKieBase();
+        kbase.addPackages( loadKnowledgePackagesFromString( DRL2 ) );
+
+        assertFalse( hasObjectTypeNodeFor( kbase, String.class ) );
+        assertTrue( hasObjectTypeNodeFor( kbase.getLatestVersion(), String.class ) );
+
+        // the versions don't share the packages of the master
+        assertNotSame( kbase.getPackage( "org.drools.test" ), kbase.getLatestVersion().getPackage( "org.drools.test" ) );
+    }
+
+    private static boolean hasObjectTypeNodeFor( InternalKnowledgeBase kbase, Class<?> clazz ) {
+        for ( EntryPointNode epn : kbase.getRete().getEntryPointNodes().values() ) {
+            for ( ObjectTypeNode otn : epn.getObjectTypeNodes().values() ) {
+                if ( otn.getObjectType().isAssignableFrom( clazz ) && !otn.getObjectType().getClassName().equals( Object.class.getName() ) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
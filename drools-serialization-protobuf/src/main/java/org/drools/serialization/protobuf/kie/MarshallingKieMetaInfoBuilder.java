@@ -51,6 +51,7 @@ public class MarshallingKieMetaInfoBuilder extends KieMetaInfoBuilder {
         Map<String, Set<String>> rulesPerPackage = new HashMap<>();
 
         KieModuleModel kieModuleModel = kModule.getKieModuleModel();
+        boolean precompileTraitProxies = isTraitProxiesPrecompilationEnabled( trgMfs );
         for ( String kieBaseName : kieModuleModel.getKieBaseModels().keySet() ) {
             KnowledgeBuilder kBuilder = kModule.getKnowledgeBuilderForKieBase( kieBaseName );
             KieModuleCache.KModuleCache.Builder _kmoduleCacheBuilder = createCacheBuilder();
@@ -79,6 +80,10 @@ public class MarshallingKieMetaInfoBuilder extends KieMetaInfoBuilder {
                     types.add( internalName );
                 }
 
+                if ( precompileTraitProxies ) {
+                    writeTraitProxies( (InternalKnowledgeBuilder) kBuilder, pkgRegistry.getPackage(), trgMfs );
+                }
+
                 Set<String> rules = rulesPerPackage.get( kPkg.getName() );
                 if( rules == null ) {
                     rules = new HashSet<>();
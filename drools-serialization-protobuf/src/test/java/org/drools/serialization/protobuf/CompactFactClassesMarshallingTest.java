@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.serialization.protobuf;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.drools.core.common.ClassAwareObjectStore;
+import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.mvel.CommonTestMethodBase;
+import org.drools.mvel.compiler.Cheese;
+import org.drools.mvel.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EqualityBehaviorOption;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.drools.serialization.protobuf.SerializationHelper.getSerialisedStatefulKnowledgeSession;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CompactFactClassesMarshallingTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "package org.drools.test;\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Likes when\n" +
+            "    $p : Person( $likes : likes )\n" +
+            "    $c : Cheese( type == $likes )\n" +
+            "then\n" +
+            "    list.add( $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n";
+
+    @Test
+    public void testMarshallCompactFactClassesInIdentityMode() throws Exception {
+        KieSession ksession = marshallCompactFactClasses( EqualityBehaviorOption.IDENTITY );
+
+        // an equal but not identical cheese is not in the session
+        assertNull( ksession.getFactHandle( new Cheese( "type5", 5 ) ) );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testMarshallCompactFactClassesInEqualityMode() throws Exception {
+        KieSession ksession = marshallCompactFactClasses( EqualityBehaviorOption.EQUALITY );
+
+        // an equal cheese is found through the shared equality map
+        FactHandle handle = ksession.getFactHandle( new Cheese( "type5", 5 ) );
+        assertNotNull( handle );
+        assertEquals( new Cheese( "type5", 5 ), ksession.getObject( handle ) );
+        ksession.dispose();
+    }
+
+    private KieSession marshallCompactFactClasses( EqualityBehaviorOption equalityBehavior ) throws Exception {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( equalityBehavior );
+        kconf.setProperty( "drools.compactFactClasses", Cheese.class.getName() );
+        KieBase kbase = loadKnowledgeBaseFromString( kconf, DRL );
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        for ( int i = 0; i < 10; i++ ) {
+            ksession.insert( new Cheese( "type" + i, i ) );
+        }
+        ksession.insert( new Person( "mark", "type3", 40 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+
+        ksession = getSerialisedStatefulKnowledgeSession( ksession, true );
+        list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        assertEquals( 11, ksession.getFactCount() );
+
+        // the unmarshalled cheeses are new objects, found by identity through the rebuilt store
+        ClassAwareObjectStore store = (ClassAwareObjectStore) ( (StatefulKnowledgeSessionImpl) ksession ).getObjectStore();
+        int cheeses = 0;
+        for ( Iterator<Object> it = store.iterateObjects( Cheese.class ); it.hasNext(); ) {
+            Cheese cheese = (Cheese) it.next();
+            FactHandle handle = ksession.getFactHandle( cheese );
+            assertNotNull( handle );
+            assertSame( cheese, ksession.getObject( handle ) );
+            assertSame( handle, store.getHandleForObjectIdentity( cheese ) );
+            cheeses++;
+        }
+        assertEquals( 10, cheeses );
+
+        // the matches already fired don't fire again, while the restored cheeses match the new facts
+        assertEquals( 0, ksession.fireAllRules() );
+        ksession.insert( new Person( "bob", "type5", 30 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( "bob:type5", list.get( 0 ) );
+
+        // and they can be updated and deleted
+        Cheese type7 = findCheese( store, "type7" );
+        FactHandle type7Handle = ksession.getFactHandle( type7 );
+        type7.setType( "type5" );
+        ksession.update( type7Handle, type7 );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( "bob:type5", list.get( 1 ) );
+
+        ksession.delete( type7Handle );
+        assertNull( ksession.getFactHandle( type7 ) );
+        assertEquals( 11, ksession.getFactCount() );
+        return ksession;
+    }
+
+    private static Cheese findCheese( ClassAwareObjectStore store, String type ) {
+        for ( Iterator<Object> it = store.iterateObjects( Cheese.class ); it.hasNext(); ) {
+            Cheese cheese = (Cheese) it.next();
+            if ( cheese.getType().equals( type ) ) {
+                return cheese;
+            }
+        }
+        return null;
+    }
+}
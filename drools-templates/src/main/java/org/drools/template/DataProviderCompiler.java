@@ -19,6 +19,7 @@ import org.drools.template.parser.DataListener;
 import org.drools.template.parser.DefaultTemplateContainer;
 import org.drools.template.parser.TemplateContainer;
 import org.drools.template.parser.TemplateDataListener;
+import org.drools.template.parser.TemplateExpander;
 
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -31,6 +32,20 @@ import java.util.List;
  */
 public class DataProviderCompiler {
 
+    private final boolean parallel;
+
+    public DataProviderCompiler() {
+        this(false);
+    }
+
+    /**
+     * @param parallel whether the rows are expanded concurrently, when the templates
+     *                 can be expanded without a rule base
+     */
+    public DataProviderCompiler(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
     /**
      * Generates DRL from a data provider for the spreadsheet data and templates.
      *
@@ -96,10 +111,45 @@ public class DataProviderCompiler {
                           boolean replaceOptionals) {
         DefaultTemplateContainer tc = new DefaultTemplateContainer(templateStream, replaceOptionals);
         closeStream(templateStream);
+        return compile(dataProvider,
+                       tc);
+    }
+
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates.
+     * The templates are expanded directly for each row when their columns have no
+     * conditions, otherwise a rule base selecting the templates for each row is built.
+     *
+     * @param dataProvider the data provider for the spreadsheet data
+     * @param tc           the template container
+     * @return the generated DRL text as a String
+     */
+    protected String compile(final DataProvider dataProvider,
+                             final TemplateContainer tc) {
+        if (TemplateExpander.isSupported(tc)) {
+            return compile(dataProvider,
+                           new TemplateExpander(tc, parallel));
+        }
         return compile(dataProvider,
                        new TemplateDataListener(tc));
     }
 
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates.
+     *
+     * @param dataProvider the data provider for the spreadsheet data
+     * @param expander     a template expander
+     * @return the generated DRL text as a String
+     */
+    public String compile(final DataProvider dataProvider,
+                          final TemplateExpander expander) {
+        List<DataListener> listeners = new ArrayList<DataListener>();
+        listeners.add(expander);
+        processData(dataProvider,
+                    listeners);
+        return expander.renderDRL();
+    }
+
     /**
      * Generates DRL from a data provider for the spreadsheet data and templates.
      *
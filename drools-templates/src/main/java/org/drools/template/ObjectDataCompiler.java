@@ -18,7 +18,6 @@ package org.drools.template;
 import org.drools.template.objects.ObjectDataProvider;
 import org.drools.template.parser.DefaultTemplateContainer;
 import org.drools.template.parser.TemplateContainer;
-import org.drools.template.parser.TemplateDataListener;
 
 import java.io.InputStream;
 import java.util.Collection;
@@ -29,6 +28,18 @@ import java.util.Collection;
  */
 public class ObjectDataCompiler extends DataProviderCompiler {
 
+    public ObjectDataCompiler() {
+        super();
+    }
+
+    /**
+     * @param parallel whether the objects are expanded concurrently, when the templates
+     *                 can be expanded without a rule base
+     */
+    public ObjectDataCompiler(final boolean parallel) {
+        super(parallel);
+    }
+
     /**
      * Compile templates, substituting from a collection of maps or objects
      * into the given template.
@@ -55,6 +66,6 @@ public class ObjectDataCompiler extends DataProviderCompiler {
         TemplateContainer tc = new DefaultTemplateContainer(templateStream);
         closeStream(templateStream);
         return compile(new ObjectDataProvider(tc, objs),
-                       new TemplateDataListener(tc));
+                       tc);
     }
 }
@@ -19,6 +19,7 @@ import org.drools.template.parser.DataListener;
 import org.drools.template.parser.DefaultTemplateContainer;
 import org.drools.template.parser.TemplateContainer;
 import org.drools.template.parser.TemplateDataListener;
+import org.drools.template.parser.TemplateExpander;
 
 import java.io.InputStream;
 import java.sql.ResultSet;
@@ -35,6 +36,20 @@ import java.util.List;
  */
 public class ResultSetGenerator {
 
+    private final boolean parallel;
+
+    public ResultSetGenerator() {
+        this(false);
+    }
+
+    /**
+     * @param parallel whether the rows are expanded concurrently, when the templates
+     *                 can be expanded without a rule base
+     */
+    public ResultSetGenerator(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
     /**
      * Generates DRL from a data provider for the spreadsheet data and templates.
      *
@@ -60,10 +75,30 @@ public class ResultSetGenerator {
                           final InputStream templateStream) {
         TemplateContainer tc = new DefaultTemplateContainer(templateStream);
         closeStream(templateStream);
+        if (TemplateExpander.isSupported(tc)) {
+            return compile(rs,
+                           new TemplateExpander(tc, parallel));
+        }
         return compile(rs,
                        new TemplateDataListener(tc));
     }
 
+    /**
+     * Generates DRL from a data provider for the spreadsheet data and templates.
+     *
+     * @param rs       the resultset for the table data
+     * @param expander a template expander
+     * @return the generated DRL text as a String
+     */
+    public String compile(final ResultSet rs,
+                          final TemplateExpander expander) {
+        List<DataListener> listeners = new ArrayList<DataListener>();
+        listeners.add(expander);
+        processData(rs,
+                    listeners);
+        return expander.renderDRL();
+    }
+
     /**
      * Generates DRL from a data provider for the spreadsheet data and templates.
      *
@@ -55,6 +55,17 @@ public class DefaultGenerator
      */
     public void generate( String templateName,
                           Row row ) {
+        rules.add( expand( templateName,
+                           row ) );
+    }
+
+    /**
+     * Expands the named template for the given row, returning the resulting rule
+     * instead of collecting it. Once all the templates have been compiled with
+     * {@link #compileTemplates()} this method can be invoked concurrently.
+     */
+    public String expand( String templateName,
+                          Row row ) {
         try {
             CompiledTemplate template = getTemplate( templateName );
             VariableResolverFactory factory = new MapVariableResolverFactory();
@@ -70,12 +81,10 @@ public class DefaultGenerator
                 cell.addValue( vars );
             }
 
-            String drl = String.valueOf( TemplateRuntime.execute( template,
-                                                                  vars,
-                                                                  factory,
-                                                                  registry ) );
-
-            rules.add( drl );
+            return String.valueOf( TemplateRuntime.execute( template,
+                                                            vars,
+                                                            factory,
+                                                            registry ) );
         } catch ( Exception e ) {
             throw new RuntimeException( e );
         }
@@ -95,6 +104,19 @@ public class DefaultGenerator
         }
     }
 
+    /**
+     * Compiles all the templates up front, so that the registry is no longer modified while expanding them.
+     */
+    public void compileTemplates() {
+        try {
+            for ( String templateName : ruleTemplates.keySet() ) {
+                getTemplate( templateName );
+            }
+        } catch ( IOException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
     private CompiledTemplate getTemplate( String templateName ) throws IOException {
         CompiledTemplate contents;
         if ( !registry.contains( templateName ) ) {
@@ -101,4 +101,8 @@ class DefaultTemplateColumn implements TemplateColumn {
     public String getCondition() {
         return condition;
     }
+
+    public int getIndex() {
+        return index;
+    }
 }
@@ -29,4 +29,6 @@ interface TemplateColumn {
     boolean isNotCondition();
 
     String getCondition();
+
+    int getIndex();
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.template.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.drools.core.util.StringUtils;
+import org.drools.template.model.DRLOutput;
+
+/**
+ * DataListener expanding the templates of a container directly for each row, without
+ * the rule base used by the {@link TemplateDataListener} to select the templates to be
+ * generated for a row.
+ * <p/>
+ * It can only be used for the templates whose columns have neither a condition nor
+ * an index (see {@link #isSupported(TemplateContainer)}): in this case a template is
+ * generated for a row when all its columns are filled in and all its "!" columns are
+ * empty. The generated DRL is the same as the one of the TemplateDataListener: the rules
+ * are grouped by template, in the order of the templates in the container, and sorted
+ * by row within each template.
+ * <p/>
+ * The rows are expanded in batches, which are handed to the common fork join pool when
+ * the expansion is parallel.
+ */
+public class TemplateExpander
+        implements
+        DataListener {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final int startRow;
+
+    private final int startCol;
+
+    private final Column[] columns;
+
+    private final TemplateContainer templateContainer;
+
+    private final List<ExpandableTemplate> templates = new ArrayList<ExpandableTemplate>();
+
+    private final DefaultGenerator generator;
+
+    private final boolean checkEmptyRows;
+
+    private final boolean parallel;
+
+    private boolean tableFinished = false;
+
+    private Row currentRow;
+
+    private List<Row> batch = new ArrayList<Row>();
+
+    private final List<CompletableFuture<List<List<String>>>> expandedBatches = new ArrayList<CompletableFuture<List<List<String>>>>();
+
+    public TemplateExpander( final TemplateContainer tc ) {
+        this( tc,
+              false );
+    }
+
+    public TemplateExpander( final TemplateContainer tc,
+                             final boolean parallel ) {
+        this( 1,
+              1,
+              tc,
+              true,
+              parallel );
+    }
+
+    public TemplateExpander( final int startRow,
+                             final int startCol,
+                             final TemplateContainer tc,
+                             final boolean checkEmptyRows,
+                             final boolean parallel ) {
+        if ( !isSupported( tc ) ) {
+            throw new IllegalArgumentException( "The templates have column conditions and cannot be expanded without a rule base" );
+        }
+        this.startRow = startRow - 1;
+        this.startCol = startCol - 1;
+        this.columns = tc.getColumns();
+        this.templateContainer = tc;
+        this.checkEmptyRows = checkEmptyRows;
+        this.parallel = parallel;
+        for ( RuleTemplate template : tc.getTemplates().values() ) {
+            templates.add( new ExpandableTemplate( template ) );
+        }
+        this.generator = new DefaultGenerator( tc.getTemplates() );
+        this.generator.compileTemplates();
+    }
+
+    /**
+     * Returns true if the columns of all the templates only require a cell to be filled in,
+     * or to be empty, so that the templates can be selected without a rule base.
+     */
+    public static boolean isSupported( final TemplateContainer tc ) {
+        for ( RuleTemplate template : tc.getTemplates().values() ) {
+            for ( TemplateColumn column : template.getColumns() ) {
+                if ( !StringUtils.isEmpty( column.getCondition() ) || column.getIndex() != -1 || tc.getColumn( column.getName() ) == null ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public void startSheet( String name ) {
+
+    }
+
+    public void finishSheet() {
+        if ( currentRow != null ) {
+            addRow( currentRow );
+        }
+        expandBatch();
+    }
+
+    public void newRow( int rowNumber,
+                        int columnCount ) {
+        if ( !tableFinished && rowNumber >= startRow ) {
+            if ( currentRow != null && ( checkEmptyRows && currentRow.isEmpty() ) ) {
+                currentRow = null;
+                tableFinished = true;
+            } else {
+                if ( currentRow != null ) {
+                    addRow( currentRow );
+                }
+                currentRow = new Row( rowNumber,
+                                      columns );
+            }
+        }
+    }
+
+    public void newCell( int row,
+                         int column,
+                         String value,
+                         int mergedColStart ) {
+        if ( currentRow != null && column >= startCol && value != null && value.trim().length() > 0 ) {
+
+            int columnIndex = column - startCol;
+            if ( columnIndex < columns.length ) {
+                currentRow.getCell( columnIndex ).setValue( value );
+            }
+        }
+    }
+
+    public String renderDRL() {
+        StringBuilder rules = new StringBuilder();
+        for ( int i = 0; i < templates.size(); i++ ) {
+            for ( CompletableFuture<List<List<String>>> expandedBatch : expandedBatches ) {
+                for ( String rule : join( expandedBatch ).get( i ) ) {
+                    rules.append( rule ).append( "\n" );
+                }
+            }
+        }
+
+        DRLOutput out = new DRLOutput();
+        out.writeLine( templateContainer.getHeader() );
+
+        out.writeLine( rules.toString() );
+        return out.getDRL();
+    }
+
+    private void addRow( Row row ) {
+        batch.add( row );
+        if ( batch.size() == BATCH_SIZE ) {
+            expandBatch();
+        }
+    }
+
+    private void expandBatch() {
+        if ( batch.isEmpty() ) {
+            return;
+        }
+        final List<Row> rows = batch;
+        batch = new ArrayList<Row>();
+        expandedBatches.add( parallel ?
+                             CompletableFuture.supplyAsync( () -> expand( rows ) ) :
+                             CompletableFuture.completedFuture( expand( rows ) ) );
+    }
+
+    private List<List<String>> expand( List<Row> rows ) {
+        List<List<String>> rules = new ArrayList<List<String>>( templates.size() );
+        for ( int i = 0; i < templates.size(); i++ ) {
+            rules.add( new ArrayList<String>() );
+        }
+        for ( Row row : rows ) {
+            for ( int i = 0; i < templates.size(); i++ ) {
+                ExpandableTemplate template = templates.get( i );
+                if ( template.matches( row ) ) {
+                    rules.get( i ).add( generator.expand( template.name,
+                                                          row ) );
+                }
+            }
+        }
+        return rules;
+    }
+
+    private static List<List<String>> join( CompletableFuture<List<List<String>>> expandedBatch ) {
+        try {
+            return expandedBatch.join();
+        } catch ( CompletionException e ) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * A template with the positions of the columns it requires to be filled in, or to be empty.
+     */
+    private class ExpandableTemplate {
+
+        private final String name;
+
+        private final int[] columnIndexes;
+
+        private final boolean[] notConditions;
+
+        private ExpandableTemplate( RuleTemplate template ) {
+            this.name = template.getName();
+            List<TemplateColumn> templateColumns = template.getColumns();
+            this.columnIndexes = new int[templateColumns.size()];
+            this.notConditions = new boolean[templateColumns.size()];
+            for ( int i = 0; i < columnIndexes.length; i++ ) {
+                TemplateColumn templateColumn = templateColumns.get( i );
+                columnIndexes[i] = indexOf( templateContainer.getColumn( templateColumn.getName() ) );
+                notConditions[i] = templateColumn.isNotCondition();
+            }
+        }
+
+        private int indexOf( Column column ) {
+            for ( int i = 0; i < columns.length; i++ ) {
+                if ( columns[i] == column ) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException( "Unknown column " + column.getName() );
+        }
+
+        private boolean matches( Row row ) {
+            for ( int i = 0; i < columnIndexes.length; i++ ) {
+                if ( row.getCell( columnIndexes[i] ).isEmpty() != notConditions[i] ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
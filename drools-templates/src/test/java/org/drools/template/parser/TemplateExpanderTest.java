@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.template.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TemplateExpanderTest {
+
+    private static final String TEMPLATES =
+            "template header\n" +
+            "first_name\n" +
+            "last_name\n" +
+            "age: Long\n" +
+            "\n" +
+            "package This_is_a_ruleset;\n" +
+            "\n" +
+            "template \"template1\"\n" +
+            "first_name\n" +
+            "rule \"How cool is @{first_name} @{row.rowNumber}\"\n" +
+            "    when\n" +
+            "        user.getName().equals(\"@{first_name}\")\n" +
+            "    then\n" +
+            "end\n" +
+            "end template\n" +
+            "\n" +
+            "template \"template2\"\n" +
+            "first_name\n" +
+            "!last_name\n" +
+            "rule \"How uncool is @{first_name} @{row.rowNumber}\"\n" +
+            "    when\n" +
+            "        user.getFirstName().equals(\"@{first_name}\")\n" +
+            "        user.getAge() > @{age}\n" +
+            "    then\n" +
+            "end\n" +
+            "end template\n";
+
+    @Test
+    public void testSameDrlAsTemplateRuleBase() {
+        List<String[]> rows = new ArrayList<String[]>();
+        rows.add( new String[]{"Mark", "Proctor", "38"} );
+        rows.add( new String[]{"Edson", null, "40"} );
+        rows.add( new String[]{null, "Tirelli", ""} );
+        rows.add( new String[]{"Michael", " ", "35"} );
+
+        assertEquals( expandWithRuleBase( rows ),
+                      expand( rows, false ) );
+    }
+
+    @Test
+    public void testParallelSameDrlAsSequential() {
+        List<String[]> rows = new ArrayList<String[]>();
+        for ( int i = 0; i < 1000; i++ ) {
+            rows.add( new String[]{"name" + i, i % 3 == 0 ? null : "surname" + i, String.valueOf( i )} );
+        }
+
+        String drl = expand( rows, false );
+        assertEquals( drl,
+                      expand( rows, true ) );
+        assertEquals( expandWithRuleBase( rows ),
+                      drl );
+    }
+
+    @Test
+    public void testStopAtEmptyRow() {
+        List<String[]> rows = new ArrayList<String[]>();
+        rows.add( new String[]{"Mark", "Proctor", "38"} );
+        rows.add( new String[]{null, null, null} );
+        rows.add( new String[]{"Edson", null, "40"} );
+
+        String drl = expand( rows, false );
+        assertTrue( drl.contains( "How cool is Mark 0" ) );
+        assertFalse( drl.contains( "Edson" ) );
+        assertEquals( expandWithRuleBase( rows ),
+                      drl );
+    }
+
+    @Test
+    public void testNotSupportedWithColumnConditions() {
+        assertFalse( TemplateExpander.isSupported( new DefaultTemplateContainer( "/templates/test_template_conditions.drl" ) ) );
+        assertTrue( TemplateExpander.isSupported( new DefaultTemplateContainer( "/templates/test_template_complex.drl" ) ) );
+    }
+
+    private String expand( List<String[]> rows,
+                           boolean parallel ) {
+        TemplateExpander expander = new TemplateExpander( newTemplateContainer(),
+                                                          parallel );
+        feed( expander, rows );
+        return expander.renderDRL();
+    }
+
+    private String expandWithRuleBase( List<String[]> rows ) {
+        TemplateDataListener listener = new TemplateDataListener( newTemplateContainer() );
+        feed( listener, rows );
+        return listener.renderDRL();
+    }
+
+    private void feed( DataListener listener,
+                       List<String[]> rows ) {
+        for ( int i = 0; i < rows.size(); i++ ) {
+            String[] row = rows.get( i );
+            listener.newRow( i, row.length );
+            for ( int cellNum = 0; cellNum < row.length; cellNum++ ) {
+                listener.newCell( i, cellNum, row[cellNum], DataListener.NON_MERGED );
+            }
+        }
+        listener.finishSheet();
+    }
+
+    private TemplateContainer newTemplateContainer() {
+        return new DefaultTemplateContainer( new ByteArrayInputStream( TEMPLATES.getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+}
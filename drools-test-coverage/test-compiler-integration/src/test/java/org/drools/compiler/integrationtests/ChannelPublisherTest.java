@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.drools.core.reactive.ChannelPublisher;
+import org.drools.core.reactive.Flow;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ChannelPublisherTest {
+
+    private static final String DRL =
+            "package org.drools.compiler.integrationtests\n" +
+            "rule R when\n" +
+            "    $i : Integer()\n" +
+            "then\n" +
+            "    channels[\"out\"].send( $i );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public ChannelPublisherTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    @Test(timeout = 60000)
+    public void testSlowSubscriberThrottlesFireUntilHalt() throws Exception {
+        final ChannelPublisher<Integer> publisher = new ChannelPublisher<>(2, 30, TimeUnit.SECONDS, ChannelPublisher.OverflowPolicy.ERROR);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(10);
+
+        runFireUntilHalt(publisher, subscriber, ksession -> {
+            for (int i = 0; i < 10; i++) {
+                ksession.insert(i);
+            }
+            // the consequences wait for the subscriber once the buffer is full
+            waitUntil(() -> publisher.getBufferedCount() == 2);
+            assertTrue(subscriber.getItems().isEmpty());
+
+            for (int i = 0; i < 10; i++) {
+                subscriber.request(1);
+            }
+            assertTrue(subscriber.received.await(30, TimeUnit.SECONDS));
+        });
+
+        final Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, new HashSet<>(subscriber.getItems()));
+        assertEquals(0, publisher.getDroppedCount());
+        assertNull(subscriber.error);
+    }
+
+    @Test(timeout = 60000)
+    public void testStalledSubscriberDoesNotBlockFireUntilHalt() throws Exception {
+        final ChannelPublisher<Integer> publisher = new ChannelPublisher<>(2, 50, TimeUnit.MILLISECONDS, ChannelPublisher.OverflowPolicy.DROP_LATEST);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(2);
+
+        runFireUntilHalt(publisher, subscriber, ksession -> {
+            for (int i = 0; i < 5; i++) {
+                ksession.insert(i);
+            }
+            waitUntil(() -> publisher.getDroppedCount() == 3);
+        });
+
+        assertEquals(2, publisher.getBufferedCount());
+        subscriber.request(5);
+        assertEquals(2, subscriber.getItems().size());
+    }
+
+    @Test(timeout = 60000)
+    public void testStalledSubscriberIsNotifiedWithAnError() throws Exception {
+        final ChannelPublisher<Integer> publisher = new ChannelPublisher<>(1, 50, TimeUnit.MILLISECONDS, ChannelPublisher.OverflowPolicy.ERROR);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+
+        runFireUntilHalt(publisher, subscriber, ksession -> {
+            for (int i = 0; i < 3; i++) {
+                ksession.insert(i);
+            }
+            waitUntil(() -> subscriber.error != null);
+        });
+
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertTrue(subscriber.getItems().isEmpty());
+    }
+
+    private void runFireUntilHalt(final ChannelPublisher<Integer> publisher, final RecordingSubscriber subscriber, final SessionAction action) throws Exception {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("channel-publisher-test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = kbase.newKieSession();
+        ksession.registerChannel("out", publisher);
+        publisher.subscribe(subscriber);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> firing = executor.submit((Runnable) ksession::fireUntilHalt);
+            action.execute(ksession);
+            ksession.halt();
+            // fails with a TimeoutException if the session is still stuck on the channel
+            firing.get(30, TimeUnit.SECONDS);
+        } finally {
+            ksession.dispose();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private interface SessionAction {
+
+        void execute(KieSession ksession) throws Exception;
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+
+        private final List<Integer> items = new ArrayList<>();
+        private final CountDownLatch received;
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(final int expectedItems) {
+            this.received = new CountDownLatch(expectedItems);
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final Integer item) {
+            synchronized (items) {
+                items.add(item);
+            }
+            received.countDown();
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() { }
+
+        private void request(final long n) {
+            subscription.request(n);
+        }
+
+        private List<Integer> getItems() {
+            synchronized (items) {
+                return new ArrayList<>(items);
+            }
+        }
+    }
+}
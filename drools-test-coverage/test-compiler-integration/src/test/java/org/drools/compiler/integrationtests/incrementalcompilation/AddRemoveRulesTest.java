@@ -28,6 +28,7 @@ import org.assertj.core.api.Assertions;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.impl.KnowledgeBaseFactory;
+import org.drools.core.management.KnowledgeBaseMonitoring;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.reteoo.SubnetworkTuple;
@@ -39,6 +40,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
 import org.kie.api.KieServices;
 import org.kie.api.builder.ReleaseId;
 import org.kie.api.definition.KiePackage;
@@ -2626,4 +2628,73 @@ public class AddRemoveRulesTest {
 
         Assertions.assertThat(globalList).isEmpty();
     }
+
+    @Test
+    public void testAddRemoveRuleUpdatingSessionsInParallel() throws Exception {
+        final String rule1 = "package com.rules;global java.util.List list\n" +
+                "rule R1 \n" +
+                " when \n" +
+                "  $i : Integer() \n" +
+                "  String( length == $i ) \n" +
+                " then\n" +
+                " list.add('R1'); \n" +
+                "end\n";
+
+        final String rule2 = "package com.rules;global java.util.List list\n" +
+                "rule R2 \n" +
+                " when \n" +
+                "  $i : Integer() \n" +
+                "  String( length == $i ) \n" +
+                "  Long() \n" +
+                " then\n" +
+                " list.add('R2'); \n" +
+                "end";
+
+        final KieBaseConfiguration kconf = KieServices.get().newKieBaseConfiguration();
+        kconf.setProperty("drools.sessionUpdateParallelism", "4");
+        final InternalKnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase(kconf);
+        kbase.addPackages(TestUtil.createKnowledgeBuilder(null, rule1).getKnowledgePackages());
+
+        final List<KieSession> sessions = new ArrayList<>();
+        final List<List<String>> lists = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final KieSession kieSession = kbase.newKieSession();
+            final List<String> list = new ArrayList<>();
+            kieSession.setGlobal("list", list);
+            kieSession.insert(i);
+            kieSession.insert(1L);
+            kieSession.insert("a");
+            kieSession.fireAllRules();
+            sessions.add(kieSession);
+            lists.add(list);
+        }
+
+        kbase.addPackages(TestUtil.createKnowledgeBuilder(null, rule2).getKnowledgePackages());
+        Assertions.assertThat(kbase.getMaxSessionUpdateTime()).isPositive().isGreaterThanOrEqualTo(kbase.getLastSessionUpdateTime());
+        final KnowledgeBaseMonitoring monitoring = new KnowledgeBaseMonitoring(kbase);
+        Assertions.assertThat(monitoring.getAttribute("MaxSessionUpdateTime")).isEqualTo(kbase.getMaxSessionUpdateTime());
+        Assertions.assertThat(monitoring.getAttribute("LastSessionUpdateTime")).isEqualTo(kbase.getLastSessionUpdateTime());
+        for (int i = 0; i < sessions.size(); i++) {
+            sessions.get(i).fireAllRules();
+            if (i == 1) {
+                Assertions.assertThat(lists.get(i)).containsExactly("R1", "R2");
+            } else {
+                Assertions.assertThat(lists.get(i)).isEmpty();
+            }
+            lists.get(i).clear();
+        }
+
+        kbase.removeRule("com.rules", "R1");
+        for (int i = 0; i < sessions.size(); i++) {
+            final KieSession kieSession = sessions.get(i);
+            kieSession.insert("b");
+            kieSession.fireAllRules();
+            if (i == 1) {
+                Assertions.assertThat(lists.get(i)).containsExactly("R2");
+            } else {
+                Assertions.assertThat(lists.get(i)).isEmpty();
+            }
+            kieSession.dispose();
+        }
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.integrationtests.incrementalcompilation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.compiler.kie.builder.impl.KieContainerImpl;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.Message.Level;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.Results;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class PrebuiltContainerUpdateTest {
+
+    private static final String DRL1 =
+            "package org.drools.test;\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $s : String()\n" +
+            "then\n" +
+            "    list.add(\"R1:\" + $s);\n" +
+            "end\n";
+
+    private static final String DRL2 =
+            "package org.drools.test;\n" +
+            "global java.util.List list;\n" +
+            "rule R2 when\n" +
+            "    $s : String( length > 1 )\n" +
+            "then\n" +
+            "    list.add(\"R2:\" + $s);\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public PrebuiltContainerUpdateTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    @Test
+    public void testUpdateSwapsPrebuiltKieBases() {
+        final KieServices ks = KieServices.Factory.get();
+
+        final ReleaseId releaseId1 = ks.newReleaseId("org.kie", "test-prebuilt-upgrade", "1.0.0");
+        KieUtil.getKieModuleFromDrls(releaseId1, kieBaseTestConfiguration, DRL1);
+
+        final KieContainerImpl kc = (KieContainerImpl) ks.newKieContainer(releaseId1);
+        kc.setPrebuildUpdates(true);
+
+        final KieBase oldKieBase = kc.getKieBase();
+        final KieSession oldSession = kc.newKieSession();
+        final List<String> oldList = new ArrayList<>();
+        oldSession.setGlobal("list", oldList);
+
+        final ReleaseId releaseId2 = ks.newReleaseId("org.kie", "test-prebuilt-upgrade", "1.1.0");
+        KieUtil.getKieModuleFromDrls(releaseId2, kieBaseTestConfiguration, DRL2);
+
+        final Results results = kc.updateToVersion(releaseId2);
+        assertFalse(results.hasMessages(Level.ERROR));
+        assertEquals(releaseId2, kc.getReleaseId());
+
+        // the kbase is replaced while the existing session keeps working on the old one
+        final KieBase newKieBase = kc.getKieBase();
+        assertNotSame(oldKieBase, newKieBase);
+        assertSame(oldKieBase, oldSession.getKieBase());
+        assertTrue(kc.getLastUpdateApplyTime() >= 0);
+
+        oldSession.insert("ab");
+        oldSession.fireAllRules();
+        assertEquals(1, oldList.size());
+        assertEquals("R1:ab", oldList.get(0));
+
+        final KieSession newSession = kc.newKieSession();
+        assertSame(newKieBase, newSession.getKieBase());
+        final List<String> newList = new ArrayList<>();
+        newSession.setGlobal("list", newList);
+        newSession.insert("a");
+        newSession.insert("ab");
+        newSession.fireAllRules();
+        assertEquals(1, newList.size());
+        assertEquals("R2:ab", newList.get(0));
+
+        oldSession.dispose();
+        newSession.dispose();
+        kc.dispose();
+    }
+
+    @Test
+    public void testFailedUpdateKeepsCurrentKieBases() {
+        final KieServices ks = KieServices.Factory.get();
+
+        final ReleaseId releaseId1 = ks.newReleaseId("org.kie", "test-prebuilt-upgrade-fail", "1.0.0");
+        KieUtil.getKieModuleFromDrls(releaseId1, kieBaseTestConfiguration, DRL1);
+
+        final KieContainerImpl kc = (KieContainerImpl) ks.newKieContainer(releaseId1);
+        kc.setPrebuildUpdates(true);
+        final KieBase kieBase = kc.getKieBase();
+
+        final ReleaseId missingReleaseId = ks.newReleaseId("org.kie", "test-prebuilt-upgrade-fail", "9.9.9");
+        final Results results = kc.updateToVersion(missingReleaseId);
+        assertTrue(results.hasMessages(Level.ERROR));
+        assertEquals(releaseId1, kc.getReleaseId());
+        assertSame(kieBase, kc.getKieBase());
+
+        kc.dispose();
+    }
+
+    @Test
+    public void testUpdateInBackground() throws Exception {
+        final KieServices ks = KieServices.Factory.get();
+
+        final ReleaseId releaseId1 = ks.newReleaseId("org.kie", "test-background-upgrade", "1.0.0");
+        KieUtil.getKieModuleFromDrls(releaseId1, kieBaseTestConfiguration, DRL1);
+
+        final KieContainerImpl kc = (KieContainerImpl) ks.newKieContainer(releaseId1);
+        final KieBase oldKieBase = kc.getKieBase();
+
+        final ReleaseId releaseId2 = ks.newReleaseId("org.kie", "test-background-upgrade", "1.1.0");
+        KieUtil.getKieModuleFromDrls(releaseId2, kieBaseTestConfiguration, DRL2);
+
+        final Results results = kc.updateToVersionInBackground(releaseId2).get();
+        assertFalse(results.hasMessages(Level.ERROR));
+        assertEquals(releaseId2, kc.getReleaseId());
+        assertNotSame(oldKieBase, kc.getKieBase());
+        assertTrue(kc.getKieBase().getRule("org.drools.test", "R2") != null);
+        assertTrue(kc.getKieBase().getRule("org.drools.test", "R1") == null);
+
+        kc.dispose();
+    }
+}
@@ -92,6 +92,120 @@ public class FromTest {
         }
     }
 
+    public static class CountingContainer {
+        private int invocations;
+        public List<String> getItems() {
+            invocations++;
+            return Arrays.asList( "a", "bb" );
+        }
+        public int getInvocations() {
+            return invocations;
+        }
+    }
+
+    @Test
+    public void testFromNotReevaluatedWhenInputIsNotModified() {
+        final String drl =
+                "import " + CountingContainer.class.getCanonicalName() + "\n" +
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $p : Person( age > 0 )\n" +
+                "    $c : CountingContainer( invocations >= 0 )\n" +
+                "    $s : String() from $c.items\n" +
+                "then\n" +
+                "    list.add( $p.getName() + $s );\n" +
+                "end\n";
+
+        final KieBase kbase = getKieBaseWithFromResultsCache( drl );
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal( "list", list );
+
+            final Person mario = new Person( "Mario", 45 );
+            final FactHandle marioFH = ksession.insert( mario );
+            final CountingContainer container = new CountingContainer();
+            final FactHandle containerFH = ksession.insert( container );
+            ksession.fireAllRules();
+
+            Assertions.assertThat( list ).containsExactlyInAnyOrder( "Marioa", "Mariobb" );
+            assertEquals( 1, container.getInvocations() );
+            list.clear();
+
+            // the modified person isn't read by the from, so its results are reused, unless the from is
+            // a lambda of the executable model, that cannot be told not to invoke any method
+            final int evaluationsOnUpdate = kieBaseTestConfiguration.getExecutableModelProjectClass().isPresent() ? 1 : 0;
+            mario.setAge( 46 );
+            ksession.update( marioFH, mario );
+            ksession.fireAllRules();
+
+            Assertions.assertThat( list ).containsExactlyInAnyOrder( "Marioa", "Mariobb" );
+            assertEquals( 1 + evaluationsOnUpdate, container.getInvocations() );
+            list.clear();
+
+            ksession.update( containerFH, container );
+            ksession.fireAllRules();
+
+            Assertions.assertThat( list ).containsExactlyInAnyOrder( "Marioa", "Mariobb" );
+            assertEquals( 2 + evaluationsOnUpdate, container.getInvocations() );
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testFromReadingGlobalReevaluatedWhenInputIsNotModified() {
+        final String drl =
+                "import " + Cheese.class.getCanonicalName() + "\n" +
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "global java.util.Map lookup;\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $c : Cheese()\n" +
+                "    $p : Person()\n" +
+                "    $s : String() from lookup.get( $p.name )\n" +
+                "then\n" +
+                "    list.add( $s );\n" +
+                "end\n";
+
+        final KieBase kbase = getKieBaseWithFromResultsCache( drl );
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal( "list", list );
+            final Map<String, String> lookup = new HashMap<>();
+            ksession.setGlobal( "lookup", lookup );
+
+            lookup.put( "Mario", "v1" );
+            final Cheese cheese = new Cheese( "stilton", 10 );
+            final FactHandle cheeseFH = ksession.insert( cheese );
+            ksession.insert( new Person( "Mario", 45 ) );
+            ksession.fireAllRules();
+            Assertions.assertThat( list ).containsExactly( "v1" );
+            list.clear();
+
+            // the cheese isn't read by the from, but its result depends on the global, so it cannot be reused
+            lookup.put( "Mario", "v2" );
+            ksession.update( cheeseFH, cheese );
+            ksession.fireAllRules();
+            Assertions.assertThat( list ).containsExactly( "v2" );
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private KieBase getKieBaseWithFromResultsCache( final String drl ) {
+        final Map<String, String> kieModuleConfigurationProperties = new HashMap<>();
+        kieModuleConfigurationProperties.put( "drools.fromResultsCache", "true" );
+        final KieModule kieModule = KieUtil.getKieModuleFromDrls( KieUtil.generateReleaseId( "from-test" ),
+                                                                  kieBaseTestConfiguration,
+                                                                  KieSessionTestConfiguration.STATEFUL_REALTIME,
+                                                                  kieModuleConfigurationProperties,
+                                                                  drl );
+        return KieServices.get().newKieContainer( kieModule.getReleaseId() ).getKieBase();
+    }
+
     @Test
     public void testFromSharing() {
         // Keeping original test as non-property reactive by default, just allowed.
@@ -72,6 +72,7 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
         traitFactory.mode = newMode;
         switch (newMode) {
             case MAP:
+            case SLOTS:
                 if (!(cbf.getPropertyWrapperBuilder() instanceof TraitMapProxyClassBuilderImpl)) {
                     cbf.setPropertyWrapperBuilder(new TraitMapPropertyWrapperClassBuilderImpl());
                 }
@@ -136,6 +137,12 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
                 case MAP:
                     proxy = konst.newInstance(core, core._getDynamicProperties(), hier.getCode(trait.getName()), hier.getBottom(), logical);
                     break;
+                case SLOTS:
+                    if (core._getDynamicProperties() == null) {
+                        core._setDynamicProperties(new SoftFieldSlotMap(getTraitRegistry().getSoftFieldLayout(core.getClass().getName())));
+                    }
+                    proxy = konst.newInstance(core, core._getDynamicProperties(), hier.getCode(trait.getName()), hier.getBottom(), logical);
+                    break;
                 case TRIPLES:
                     proxy = konst.newInstance(core, getTripleStore(), getTripleFactory(), hier.getCode(trait.getName()), hier.getBottom(), logical);
                     break;
@@ -160,6 +167,7 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
 
             switch (mode) {
                 case MAP:
+                case SLOTS:
                     konst = proxyClass.getConstructor(core.getClass(), Map.class, BitSet.class, BitSet.class, boolean.class);
                     break;
                 case TRIPLES:
@@ -231,12 +239,17 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
         String wrapperName = getPropertyWrapperName(tdef, cdef);
 
         KieComponentFactory rcf = getComponentFactory();
+        BitSet mask = getTraitRegistry().getFieldMask(trait.getName(), cdef.getDefinedClass().getName());
+        ClassDefinition coreDef = cdef;
+        // SLOTS only changes the map used to store the soft fields, the generated classes are the MAP ones
+        VirtualPropertyMode classMode = mode == VirtualPropertyMode.SLOTS ? VirtualPropertyMode.MAP : mode;
 
         TraitPropertyWrapperClassBuilder propWrapperBuilder = (TraitPropertyWrapperClassBuilder) rcf.getClassBuilderFactory().getPropertyWrapperBuilder();
 
         propWrapperBuilder.init(tdef, getTraitRegistry());
         try {
-            byte[] propWrapper = propWrapperBuilder.buildClass(cdef, getRootClassLoader());
+            byte[] propWrapper = TraitProxyClassCache.getBytecode(wrapperName, classMode, null, tdef, cdef, mask, getRootClassLoader(),
+                                                                  () -> propWrapperBuilder.buildClass(coreDef, getRootClassLoader()));
             registerAndLoadTypeDefinition(wrapperName, propWrapper);
         } catch (Exception e) {
             e.printStackTrace();
@@ -246,14 +259,14 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
 
         proxyBuilder.init(tdef, rcf.getBaseTraitProxyClass(), getTraitRegistry());
         try {
-            byte[] proxy = proxyBuilder.buildClass(cdef, getRootClassLoader());
+            byte[] proxy = TraitProxyClassCache.getBytecode(proxyName, classMode, rcf.getBaseTraitProxyClass(), tdef, cdef, mask, getRootClassLoader(),
+                                                            () -> proxyBuilder.buildClass(coreDef, getRootClassLoader()));
             registerAndLoadTypeDefinition(proxyName, proxy);
         } catch (Exception e) {
             e.printStackTrace();
         }
 
         try {
-            getTraitRegistry().getFieldMask(trait.getName(), cdef.getDefinedClass().getName());
             getRootClassLoader().loadClass(wrapperName);
             return (Class<T>) getRootClassLoader().loadClass(proxyName);
         } catch (ClassNotFoundException e) {
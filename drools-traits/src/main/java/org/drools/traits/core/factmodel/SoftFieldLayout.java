@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.traits.core.factmodel;
+
+import java.util.Collection;
+
+/**
+ * Immutable assignment of the soft fields that the known traits can add to a traitable class
+ * to the slots of a {@link SoftFieldSlotMap}. The lookup is an open addressing table on the field names:
+ * since the generated proxies use constant (and then interned) names, the comparison is usually by identity.
+ */
+public class SoftFieldLayout {
+
+    public static final SoftFieldLayout EMPTY = new SoftFieldLayout( new String[0] );
+
+    private final String[] names;
+    private final String[] table;
+    private final int[] indexes;
+    private final int mask;
+
+    public SoftFieldLayout( Collection<String> names ) {
+        this( names.toArray( new String[names.size()] ) );
+    }
+
+    private SoftFieldLayout( String[] names ) {
+        this.names = names;
+        int capacity = Integer.highestOneBit( Math.max( names.length, 1 ) * 2 - 1 ) << 1;
+        this.table = new String[capacity];
+        this.indexes = new int[capacity];
+        this.mask = capacity - 1;
+        for ( int i = 0; i < names.length; i++ ) {
+            int pos = names[i].hashCode() & mask;
+            while ( table[pos] != null ) {
+                pos = ( pos + 1 ) & mask;
+            }
+            table[pos] = names[i];
+            indexes[pos] = i;
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName( int index ) {
+        return names[index];
+    }
+
+    /**
+     * Returns the slot assigned to the given field name or -1 if the name is not part of this layout.
+     */
+    public int indexOf( Object name ) {
+        if ( !( name instanceof String ) ) {
+            return -1;
+        }
+        int pos = name.hashCode() & mask;
+        String candidate;
+        while ( ( candidate = table[pos] ) != null ) {
+            if ( candidate == name || candidate.equals( name ) ) {
+                return indexes[pos];
+            }
+            pos = ( pos + 1 ) & mask;
+        }
+        return -1;
+    }
+}
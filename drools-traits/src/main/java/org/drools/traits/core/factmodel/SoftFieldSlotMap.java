@@ -0,0 +1,281 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.traits.core.factmodel;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Dynamic properties map used by the {@link VirtualPropertyMode#SLOTS} mode. The soft fields known when the
+ * object is first donned are kept in a plain array whose layout is shared by all the instances of the same
+ * traitable class, so that reading or writing them doesn't allocate any entry. Properties outside of the
+ * layout, e.g. the ones of traits added to the kbase later, are kept in an overflow map.
+ */
+public class SoftFieldSlotMap extends AbstractMap<String, Object> implements Externalizable {
+
+    private static final Object ABSENT = new Object();
+
+    private SoftFieldLayout layout;
+    private Object[] slots;
+    private int slotCount;
+    private Map<String, Object> overflow;
+
+    public SoftFieldSlotMap() {
+        this( SoftFieldLayout.EMPTY );
+    }
+
+    public SoftFieldSlotMap( SoftFieldLayout layout ) {
+        this.layout = layout;
+        this.slots = new Object[layout.size()];
+        Arrays.fill( slots, ABSENT );
+    }
+
+    @Override
+    public int size() {
+        return slotCount + ( overflow != null ? overflow.size() : 0 );
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey( Object key ) {
+        int index = layout.indexOf( key );
+        if ( index >= 0 ) {
+            return slots[index] != ABSENT;
+        }
+        return overflow != null && overflow.containsKey( key );
+    }
+
+    @Override
+    public Object get( Object key ) {
+        int index = layout.indexOf( key );
+        if ( index >= 0 ) {
+            Object value = slots[index];
+            return value != ABSENT ? value : null;
+        }
+        return overflow != null ? overflow.get( key ) : null;
+    }
+
+    @Override
+    public Object put( String key, Object value ) {
+        int index = layout.indexOf( key );
+        if ( index >= 0 ) {
+            Object old = slots[index];
+            slots[index] = value;
+            if ( old == ABSENT ) {
+                slotCount++;
+                return null;
+            }
+            return old;
+        }
+        if ( overflow == null ) {
+            overflow = new LinkedHashMap<>();
+        }
+        return overflow.put( key, value );
+    }
+
+    @Override
+    public Object remove( Object key ) {
+        int index = layout.indexOf( key );
+        if ( index >= 0 ) {
+            return removeSlot( index );
+        }
+        return overflow != null ? overflow.remove( key ) : null;
+    }
+
+    private Object removeSlot( int index ) {
+        Object old = slots[index];
+        if ( old == ABSENT ) {
+            return null;
+        }
+        slots[index] = ABSENT;
+        slotCount--;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill( slots, ABSENT );
+        slotCount = 0;
+        overflow = null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return SoftFieldSlotMap.this.size();
+            }
+        };
+    }
+
+    SoftFieldLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        out.writeInt( size() );
+        for ( Entry<String, Object> entry : entrySet() ) {
+            out.writeObject( entry.getKey() );
+            out.writeObject( entry.getValue() );
+        }
+    }
+
+    @Override
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        List<String> names = new ArrayList<>( size );
+        Object[] values = new Object[size];
+        for ( int i = 0; i < size; i++ ) {
+            names.add( (String) in.readObject() );
+            values[i] = in.readObject();
+        }
+        this.layout = new SoftFieldLayout( names );
+        this.slots = values;
+        this.slotCount = size;
+        this.overflow = null;
+    }
+
+    private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int nextSlot = -1;
+        private int currentSlot = -1;
+        private boolean removable;
+        private Iterator<Entry<String, Object>> overflowIterator;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                nextSlot++;
+            } while ( nextSlot < slots.length && slots[nextSlot] == ABSENT );
+        }
+
+        @Override
+        public boolean hasNext() {
+            if ( nextSlot < slots.length ) {
+                return true;
+            }
+            if ( overflowIterator == null && overflow != null ) {
+                overflowIterator = overflow.entrySet().iterator();
+            }
+            return overflowIterator != null && overflowIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            removable = true;
+            if ( nextSlot < slots.length ) {
+                currentSlot = nextSlot;
+                advance();
+                return new SlotEntry( currentSlot );
+            }
+            currentSlot = -1;
+            return overflowIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if ( !removable ) {
+                throw new IllegalStateException();
+            }
+            removable = false;
+            if ( currentSlot >= 0 ) {
+                removeSlot( currentSlot );
+            } else {
+                overflowIterator.remove();
+            }
+        }
+    }
+
+    private class SlotEntry implements Entry<String, Object> {
+
+        private final int index;
+
+        SlotEntry( int index ) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return layout.getName( index );
+        }
+
+        @Override
+        public Object getValue() {
+            Object value = slots[index];
+            return value != ABSENT ? value : null;
+        }
+
+        @Override
+        public Object setValue( Object value ) {
+            Object old = getValue();
+            if ( slots[index] == ABSENT ) {
+                slotCount++;
+            }
+            slots[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( !( o instanceof Entry ) ) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return getKey().equals( other.getKey() ) && Objects.equals( getValue(), other.getValue() );
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode( getValue() );
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.traits.core.factmodel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.drools.core.factmodel.ClassDefinition;
+import org.drools.core.factmodel.FieldDefinition;
+import org.drools.core.factmodel.traits.TraitRegistry;
+import org.drools.core.util.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.drools.core.util.IoUtils.readBytesFromInputStream;
+
+/**
+ * JVM wide cache of the bytecode of the generated trait proxies and property wrappers. The bytecode only depends
+ * on the structure of the trait and of the core class, so it can be reused by all the kbases (and class loaders)
+ * donning the same trait on the same core class, avoiding to regenerate it with ASM every time a kbase is recreated.
+ * When the kjar has been built with the {@link TraitRegistry#PRECOMPILE_PROXIES_PROPERTY} kmodule property, the classes are also read
+ * from the proxies emitted at build time under {@link #PRECOMPILED_PROXIES_FOLDER}.
+ * The cache keeps at most {@link #CACHE_SIZE_PROPERTY} classes, evicting the least recently used ones, so that
+ * it doesn't grow indefinitely in a long running server redeploying different kjars.
+ */
+public class TraitProxyClassCache {
+
+    private static final Logger logger = LoggerFactory.getLogger( TraitProxyClassCache.class );
+
+    public static final String PRECOMPILED_PROXIES_FOLDER = "META-INF/traits/";
+
+    public static final String CACHE_SIZE_PROPERTY = "drools.traitProxyCache.size";
+    private static final int CACHE_SIZE = Integer.parseInt( System.getProperty( CACHE_SIZE_PROPERTY, "512" ) );
+
+    private static final Map<String, byte[]> bytecodeCache = Collections.synchronizedMap( new LinkedHashMap<String, byte[]>( 16, 0.75f, true ) {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, byte[]> eldest ) {
+            return size() > CACHE_SIZE;
+        }
+    } );
+
+    @FunctionalInterface
+    public interface ClassGenerator {
+        byte[] generate() throws Exception;
+    }
+
+    private TraitProxyClassCache() { }
+
+    /**
+     * Returns the bytecode of the proxy or wrapper class with the given name, looking it up in this cache first,
+     * then among the precompiled classes visible from the given class loader and finally generating it.
+     */
+    public static byte[] getBytecode( String className, VirtualPropertyMode mode, Class<?> proxyBaseClass,
+                                      ClassDefinition trait, ClassDefinition core, BitSet mask,
+                                      ClassLoader classLoader, ClassGenerator generator ) throws Exception {
+        String key = getKey( className, mode, proxyBaseClass, trait, core, mask );
+        byte[] bytecode = bytecodeCache.get( key );
+        if ( bytecode == null ) {
+            if ( proxyBaseClass == null || proxyBaseClass == TraitProxyImpl.class ) {
+                bytecode = readPrecompiledClass( className, mode, classLoader );
+            }
+            if ( bytecode == null ) {
+                bytecode = generator.generate();
+            }
+            bytecodeCache.putIfAbsent( key, bytecode );
+        }
+        return bytecode;
+    }
+
+    /**
+     * Generates, in {@link VirtualPropertyMode#MAP} mode, the proxies and property wrappers of all the traits
+     * known by the given registry that can be applied to its traitable types. Pairs whose fields are incompatible
+     * are skipped: the corresponding don would fail at runtime anyway.
+     */
+    static Map<String, byte[]> precompile( TraitRegistryImpl registry, ClassLoader classLoader ) {
+        Map<String, byte[]> classes = new HashMap<>();
+        if ( registry.getTraits() == null || registry.getTraitables() == null ) {
+            return classes;
+        }
+
+        TraitMapPropertyWrapperClassBuilderImpl wrapperBuilder = new TraitMapPropertyWrapperClassBuilderImpl();
+        TraitMapProxyClassBuilderImpl proxyBuilder = new TraitMapProxyClassBuilderImpl();
+
+        for ( Map.Entry<String, ClassDefinition> traitEntry : registry.getTraits().entrySet() ) {
+            ClassDefinition trait = traitEntry.getValue();
+            for ( ClassDefinition core : registry.getTraitables().values() ) {
+                if ( trait.getDefinedClass() == null || core.getDefinedClass() == null ) {
+                    continue;
+                }
+                String wrapperName = TraitFactoryImpl.getPropertyWrapperName( trait, core );
+                String proxyName = TraitFactoryImpl.getProxyName( trait, core );
+                try {
+                    BitSet mask = registry.getFieldMask( traitEntry.getKey(), core.getDefinedClass().getName() );
+
+                    wrapperBuilder.init( trait, registry );
+                    classes.put( getPrecompiledClassPath( wrapperName, VirtualPropertyMode.MAP ),
+                                 getBytecode( wrapperName, VirtualPropertyMode.MAP, null, trait, core, mask, classLoader,
+                                              () -> wrapperBuilder.buildClass( core, classLoader ) ) );
+
+                    proxyBuilder.init( trait, TraitProxyImpl.class, registry );
+                    classes.put( getPrecompiledClassPath( proxyName, VirtualPropertyMode.MAP ),
+                                 getBytecode( proxyName, VirtualPropertyMode.MAP, TraitProxyImpl.class, trait, core, mask, classLoader,
+                                              () -> proxyBuilder.buildClass( core, classLoader ) ) );
+                } catch (Exception e) {
+                    logger.debug( "Skipping precompilation of proxy " + proxyName + ": " + e.getMessage() );
+                }
+            }
+        }
+        return classes;
+    }
+
+    public static String getPrecompiledClassPath( String className, VirtualPropertyMode mode ) {
+        return PRECOMPILED_PROXIES_FOLDER + mode.name().toLowerCase() + "/" + ClassUtils.convertClassToResourcePath( className );
+    }
+
+    static int size() {
+        return bytecodeCache.size();
+    }
+
+    static void clear() {
+        bytecodeCache.clear();
+    }
+
+    private static byte[] readPrecompiledClass( String className, VirtualPropertyMode mode, ClassLoader classLoader ) {
+        try (InputStream is = classLoader.getResourceAsStream( getPrecompiledClassPath( className, mode ) )) {
+            return is != null ? readBytesFromInputStream( is ) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String getKey( String className, VirtualPropertyMode mode, Class<?> proxyBaseClass,
+                                  ClassDefinition trait, ClassDefinition core, BitSet mask ) {
+        StringBuilder sb = new StringBuilder( className ).append( '|' ).append( mode );
+        if ( proxyBaseClass != null ) {
+            sb.append( '|' ).append( proxyBaseClass.getName() );
+        }
+        sb.append( '|' ).append( mask );
+        appendStructure( sb, trait );
+        appendStructure( sb, core );
+        return sb.toString();
+    }
+
+    private static void appendStructure( StringBuilder sb, ClassDefinition def ) {
+        sb.append( '|' ).append( def.getClassName() )
+          .append( ':' ).append( def.getSuperClass() )
+          .append( ':' ).append( Arrays.toString( def.getInterfaces() ) )
+          .append( ':' ).append( def.isFullTraiting() );
+        for ( FieldDefinition field : def.getFieldsDefinitions() ) {
+            sb.append( ';' ).append( field.getName() )
+              .append( ':' ).append( field.getTypeName() )
+              .append( ':' ).append( field.resolveAlias() );
+        }
+        Class<?> definedClass = def.getDefinedClass();
+        if ( definedClass != null ) {
+            String[] methods = Arrays.stream( definedClass.getMethods() ).map( Method::toString ).sorted().toArray( String[]::new );
+            sb.append( '|' ).append( Arrays.toString( methods ) );
+            for ( Annotation annotation : definedClass.getAnnotations() ) {
+                sb.append( ';' ).append( annotation );
+            }
+        }
+    }
+}
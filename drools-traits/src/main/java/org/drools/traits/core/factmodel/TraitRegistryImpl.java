@@ -26,9 +26,11 @@ import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.drools.core.factmodel.ClassDefinition;
 import org.drools.core.factmodel.FieldDefinition;
@@ -56,6 +58,8 @@ public class TraitRegistryImpl implements Externalizable,
 
     private Map<String, BitSet> masks;
 
+    private transient Map<String, SoftFieldLayout> softFieldLayouts = new ConcurrentHashMap<>();
+
     private HierarchyEncoder<String> hierarchy;
 
 
@@ -122,6 +126,8 @@ public class TraitRegistryImpl implements Externalizable,
             this.masks.putAll( other.masks );
         }
 
+        softFieldLayouts.clear();
+
         if ( hierarchy == null || hierarchy.size() <= 1 ) {
             hierarchy = other.hierarchy;
         } else if ( other.traits != null ) {
@@ -178,6 +184,7 @@ public class TraitRegistryImpl implements Externalizable,
         }
         this.traits.put( className, trait );
         getHierarchy().encode( className, getTraitInterfaces( trait ) );
+        softFieldLayouts.clear();
     }
 
     private Collection<String> getTraitInterfaces( ClassDefinition trait ) {
@@ -195,6 +202,7 @@ public class TraitRegistryImpl implements Externalizable,
             traitables = new HashMap<String, ClassDefinition>();
         }
         this.traitables.put( traitable.getClassName(), traitable );
+        softFieldLayouts.remove( traitable.getClassName() );
         Set<String> staticTraits = detectStaticallyImplementedTraits( traitable );
         if ( ! staticTraits.isEmpty() ) {
             if ( staticTraitTypes == null ) {
@@ -217,6 +225,41 @@ public class TraitRegistryImpl implements Externalizable,
         return masks.computeIfAbsent( key, k -> bind( trait, traitable ) );
     }
 
+    /**
+     * Returns the slot layout of the soft fields that the known traits can add to the given traitable class,
+     * used in {@link VirtualPropertyMode#SLOTS} mode. Traits that can't be applied to the class are ignored.
+     */
+    public SoftFieldLayout getSoftFieldLayout( String traitable ) {
+        SoftFieldLayout layout = softFieldLayouts.get( traitable );
+        if ( layout == null ) {
+            layout = softFieldLayouts.computeIfAbsent( traitable, this::buildSoftFieldLayout );
+        }
+        return layout;
+    }
+
+    private SoftFieldLayout buildSoftFieldLayout( String traitable ) {
+        if ( traits == null || getTraitable( traitable ) == null ) {
+            return SoftFieldLayout.EMPTY;
+        }
+        Set<String> softFields = new LinkedHashSet<>();
+        for ( String trait : traits.keySet() ) {
+            BitSet mask;
+            try {
+                mask = getFieldMask( trait, traitable );
+            } catch (UnsupportedOperationException e) {
+                continue;
+            }
+            List<FactField> fields = traits.get( trait ).getFields();
+            for ( int j = 0; j < fields.size(); j++ ) {
+                FieldDefinition field = (FieldDefinition) fields.get( j );
+                if ( isSoftField( field, j, mask ) ) {
+                    softFields.add( field.resolveAlias().intern() );
+                }
+            }
+        }
+        return softFields.isEmpty() ? SoftFieldLayout.EMPTY : new SoftFieldLayout( softFields );
+    }
+
     private BitSet bind( String trait, String traitable ) throws UnsupportedOperationException {
         ClassDefinition traitDef = getTrait( trait );
         if ( traitDef == null ) {
@@ -251,6 +294,11 @@ public class TraitRegistryImpl implements Externalizable,
     }
 
 
+    @Override
+    public Map<String, byte[]> generateProxyClasses( ClassLoader classLoader ) {
+        return TraitProxyClassCache.precompile( this, classLoader );
+    }
+
     public void writeExternal(ObjectOutput objectOutput) throws IOException {
         objectOutput.writeObject( traits );
         objectOutput.writeObject( traitables );
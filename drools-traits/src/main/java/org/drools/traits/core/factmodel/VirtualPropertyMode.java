@@ -20,6 +20,10 @@ package org.drools.traits.core.factmodel;
 public enum VirtualPropertyMode {
 
     MAP,
-    TRIPLES;
+    TRIPLES,
+    /**
+     * Same proxies as MAP, but the soft fields are stored in a slot array laid out by the trait registry
+     */
+    SLOTS;
 
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.traits.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.factmodel.traits.Thing;
+import org.drools.traits.core.factmodel.TraitFactoryImpl;
+import org.drools.traits.core.factmodel.VirtualPropertyMode;
+import org.kie.api.KieBase;
+import org.kie.api.definition.type.FactType;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.ClassObjectFilter;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TraitSoftFieldBenchmark {
+
+    private static final String DRL =
+            "package org.drools.traits.benchmark;\n" +
+            "declare trait Student\n" +
+            "    name : String\n" +
+            "    school : String\n" +
+            "    credits : int\n" +
+            "    year : int\n" +
+            "end\n" +
+            "declare Person\n" +
+            "    @Traitable\n" +
+            "    name : String\n" +
+            "end\n" +
+            "rule Don when\n" +
+            "    $p : Person()\n" +
+            "then\n" +
+            "    Student s = don( $p, Student.class );\n" +
+            "    s.setSchool( \"MIT\" );\n" +
+            "    s.setCredits( 10 );\n" +
+            "end\n" +
+            "rule Shed when\n" +
+            "    String( this == \"shed\" )\n" +
+            "    $s : Student( credits > 0 )\n" +
+            "then\n" +
+            "    shed( $s, Student.class );\n" +
+            "end\n";
+
+    @Param({"MAP", "TRIPLES", "SLOTS"})
+    private VirtualPropertyMode mode;
+
+    @Param({"1000"})
+    private int numberOfFacts;
+
+    private KieBase kieBase;
+    private FactType personType;
+
+    private KieSession accessSession;
+    private List<Thing> students;
+
+    @Setup(Level.Trial)
+    public void setUpKieBase() {
+        kieBase = new KieHelper().addContent( DRL, ResourceType.DRL ).build();
+        TraitFactoryImpl.setMode( mode, kieBase );
+        personType = kieBase.getFactType( "org.drools.traits.benchmark", "Person" );
+
+        accessSession = kieBase.newKieSession();
+        insertPersons( accessSession );
+        accessSession.fireAllRules();
+        students = new ArrayList<>();
+        for ( Object student : accessSession.getObjects( new ClassObjectFilter( Thing.class ) ) ) {
+            students.add( (Thing) student );
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        accessSession.dispose();
+    }
+
+    @Benchmark
+    public void don( Blackhole eater ) {
+        KieSession ksession = kieBase.newKieSession();
+        insertPersons( ksession );
+        eater.consume( ksession.fireAllRules() );
+        ksession.dispose();
+    }
+
+    @Benchmark
+    public void donAndShed( Blackhole eater ) {
+        KieSession ksession = kieBase.newKieSession();
+        insertPersons( ksession );
+        ksession.insert( "shed" );
+        eater.consume( ksession.fireAllRules() );
+        ksession.dispose();
+    }
+
+    @Benchmark
+    public void softFieldAccess( Blackhole eater ) {
+        for ( Thing student : students ) {
+            Map<String, Object> fields = student.getFields();
+            fields.put( "year", 3 );
+            eater.consume( fields.get( "school" ) );
+            eater.consume( fields.get( "credits" ) );
+            eater.consume( fields.get( "year" ) );
+        }
+    }
+
+    private void insertPersons( KieSession ksession ) {
+        try {
+            for ( int i = 0; i < numberOfFacts; i++ ) {
+                Object person = personType.newInstance();
+                personType.set( person, "name", "person" + i );
+                ksession.insert( person );
+            }
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException( e );
+        }
+    }
+}
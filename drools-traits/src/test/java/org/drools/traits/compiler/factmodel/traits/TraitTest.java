@@ -60,6 +60,7 @@ import org.drools.traits.compiler.ReviseTraitTestWithPRAlwaysCategory;
 import org.drools.traits.core.factmodel.Entity;
 import org.drools.traits.core.factmodel.LogicalTypeInconsistencyException;
 import org.drools.traits.core.factmodel.MapWrapper;
+import org.drools.traits.core.factmodel.SoftFieldSlotMap;
 import org.drools.traits.core.factmodel.TraitFactoryImpl;
 import org.drools.traits.core.factmodel.TraitProxyImpl;
 import org.drools.traits.core.factmodel.TraitRegistryImpl;
@@ -126,7 +127,8 @@ public class TraitTest extends CommonTraitTest {
         return Arrays.asList( new VirtualPropertyMode[][]
                                       {
                                               { VirtualPropertyMode.MAP },
-                                              { VirtualPropertyMode.TRIPLES }
+                                              { VirtualPropertyMode.TRIPLES },
+                                              { VirtualPropertyMode.SLOTS }
                                       } );
     }
 
@@ -834,6 +836,10 @@ public class TraitTest extends CommonTraitTest {
                 assertTrue( proxyFields instanceof MapWrapper );
                 assertTrue( coreTraits instanceof TraitTypeMapImpl);
                 assertTrue( coreProperties instanceof HashMap );
+            } else if ( mode == VirtualPropertyMode.SLOTS ) {
+                assertTrue( proxyFields instanceof MapWrapper );
+                assertTrue( coreTraits instanceof TraitTypeMapImpl);
+                assertTrue( coreProperties instanceof SoftFieldSlotMap );
             } else {
                 assertEquals( "org.drools.compiler.trait.test.Student.org.drools.compiler.trait.test.Imp_ProxyWrapper", proxyFields.getClass().getName() );
 
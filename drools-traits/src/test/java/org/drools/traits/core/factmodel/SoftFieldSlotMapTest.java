@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.traits.core.factmodel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SoftFieldSlotMapTest {
+
+    private final SoftFieldLayout layout = new SoftFieldLayout( Arrays.asList( "school", "credits", "year" ) );
+
+    @Test
+    public void testSlotsAndOverflow() {
+        SoftFieldSlotMap map = new SoftFieldSlotMap( layout );
+        assertTrue( map.isEmpty() );
+
+        assertNull( map.put( "school", "MIT" ) );
+        assertNull( map.put( "credits", null ) );
+        assertNull( map.put( "nickname", "jo" ) );
+
+        assertEquals( 3, map.size() );
+        assertEquals( "MIT", map.get( "school" ) );
+        assertTrue( map.containsKey( "credits" ) );
+        assertNull( map.get( "credits" ) );
+        assertFalse( map.containsKey( "year" ) );
+        assertEquals( "jo", map.get( "nickname" ) );
+
+        assertEquals( "MIT", map.put( "school", "UCL" ) );
+        assertEquals( "UCL", map.remove( "school" ) );
+        assertNull( map.remove( "school" ) );
+        assertEquals( 2, map.size() );
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put( "credits", null );
+        expected.put( "nickname", "jo" );
+        assertEquals( expected, map );
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        SoftFieldSlotMap map = new SoftFieldSlotMap( layout );
+        map.put( "school", "MIT" );
+        map.put( "year", 3 );
+        map.put( "nickname", "jo" );
+
+        Iterator<Map.Entry<String, Object>> iterator = map.entrySet().iterator();
+        while ( iterator.hasNext() ) {
+            if ( !"year".equals( iterator.next().getKey() ) ) {
+                iterator.remove();
+            }
+        }
+        assertEquals( 1, map.size() );
+        assertEquals( 3, map.get( "year" ) );
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        SoftFieldSlotMap map = new SoftFieldSlotMap( layout );
+        map.put( "school", "MIT" );
+        map.put( "nickname", "jo" );
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream( baos )) {
+            out.writeObject( map );
+        }
+        try (ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( baos.toByteArray() ) )) {
+            SoftFieldSlotMap copy = (SoftFieldSlotMap) in.readObject();
+            assertEquals( map, copy );
+            copy.put( "year", 3 );
+            assertEquals( 3, copy.get( "year" ) );
+            assertEquals( 3, copy.size() );
+        }
+    }
+}
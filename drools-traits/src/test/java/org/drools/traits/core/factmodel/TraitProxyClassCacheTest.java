@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.traits.core.factmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.core.factmodel.traits.TraitRegistry;
+import org.drools.traits.compiler.CommonTraitTest;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TraitProxyClassCacheTest extends CommonTraitTest {
+
+    private static final String DRL =
+            "package org.drools.traits.test;\n" +
+            "global java.util.List list;\n" +
+            "declare trait Student\n" +
+            "    name : String\n" +
+            "    school : String\n" +
+            "end\n" +
+            "declare Person\n" +
+            "    @Traitable\n" +
+            "    name : String\n" +
+            "end\n" +
+            "rule Init when\n" +
+            "then\n" +
+            "    Person p = new Person( \"john\" );\n" +
+            "    insert( p );\n" +
+            "    don( p, Student.class );\n" +
+            "end\n" +
+            "rule Check when\n" +
+            "    $s : Student( name == \"john\" )\n" +
+            "then\n" +
+            "    list.add( $s.getName() );\n" +
+            "end\n";
+
+    @Test
+    public void testBytecodeReusedAcrossKieBases() {
+        TraitProxyClassCache.clear();
+
+        assertEquals( "john", fireRules( loadKnowledgeBaseFromString( DRL ) ) );
+        int cachedClasses = TraitProxyClassCache.size();
+        assertTrue( cachedClasses > 0 );
+
+        assertEquals( "john", fireRules( loadKnowledgeBaseFromString( DRL ) ) );
+        assertEquals( cachedClasses, TraitProxyClassCache.size() );
+    }
+
+    @Test
+    public void testProxiesPrecompiledInKJar() {
+        KieServices ks = KieServices.Factory.get();
+        KieModuleModel kmodule = ks.newKieModuleModel();
+        kmodule.setConfigurationProperty( TraitRegistry.PRECOMPILE_PROXIES_PROPERTY, "true" );
+
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.writeKModuleXML( kmodule.toXML() );
+        kfs.write( "src/main/resources/org/drools/traits/test/rules.drl", DRL );
+
+        KieBuilder kieBuilder = ks.newKieBuilder( kfs ).buildAll();
+        assertTrue( kieBuilder.getResults().getMessages( Message.Level.ERROR ).isEmpty() );
+
+        InternalKieModule kieModule = (InternalKieModule) kieBuilder.getKieModule();
+        String proxyName = "org.drools.traits.test.Student.org.drools.traits.test.Person_Proxy";
+        String wrapperName = "org.drools.traits.test.Student.org.drools.traits.test.Person_ProxyWrapper";
+        assertTrue( kieModule.hasResource( TraitProxyClassCache.getPrecompiledClassPath( proxyName, VirtualPropertyMode.MAP ) ) );
+        assertTrue( kieModule.hasResource( TraitProxyClassCache.getPrecompiledClassPath( wrapperName, VirtualPropertyMode.MAP ) ) );
+
+        KieBase kbase = ks.newKieContainer( kieModule.getReleaseId() ).getKieBase();
+        assertEquals( "john", fireRules( kbase ) );
+    }
+
+    private String fireRules( KieBase kbase ) {
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.fireAllRules();
+        ksession.dispose();
+
+        assertEquals( 1, list.size() );
+        return list.get( 0 );
+    }
+}
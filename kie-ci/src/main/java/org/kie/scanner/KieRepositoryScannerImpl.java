@@ -29,6 +29,7 @@ import org.appformer.maven.integration.DependencyDescriptor;
 import org.appformer.maven.support.DependencyFilter;
 import org.appformer.maven.support.PomModel;
 import org.drools.compiler.kie.builder.impl.AbstractKieScanner;
+import org.drools.compiler.kie.builder.impl.KieContainerImpl;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.kie.builder.impl.InternalKieScanner;
 import org.drools.compiler.kie.builder.impl.MemoryKieModule;
@@ -65,6 +66,10 @@ public class KieRepositoryScannerImpl extends AbstractKieScanner<Map<DependencyD
 
     private KieScannerMBean mbean;
 
+    private volatile long lastBuildTime;
+    private volatile long lastPrebuildTime;
+    private volatile long lastApplyTime;
+
     public synchronized void setKieContainer(KieContainer kieContainer) {
         if (this.kieContainer != null) {
             throw new RuntimeException("Cannot change KieContainer on an already initialized KieScanner");
@@ -170,8 +175,33 @@ public class KieRepositoryScannerImpl extends AbstractKieScanner<Map<DependencyD
         return updatedArtifacts.isEmpty() ? null : updatedArtifacts;
     }
 
+    /**
+     * @return the time in milliseconds spent by the last update compiling the updated kjars
+     */
+    public long getLastBuildTime() {
+        return lastBuildTime;
+    }
+
+    /**
+     * @return the time in milliseconds spent by the last update building the new kbases before swapping them
+     * in the KieContainer, 0 if the KieContainer is updated incrementally
+     */
+    public long getLastPrebuildTime() {
+        return lastPrebuildTime;
+    }
+
+    /**
+     * @return the time in milliseconds spent by the last update applying the changes to the KieContainer
+     */
+    public long getLastApplyTime() {
+        return lastApplyTime;
+    }
+
     @Override
     protected void internalUpdate( Map<DependencyDescriptor, Artifact> updatedArtifacts ) {
+        lastBuildTime = 0;
+        lastPrebuildTime = 0;
+        lastApplyTime = 0;
         boolean allUpdatesSucceeded = true;
         // build the dependencies first
         Map.Entry<DependencyDescriptor, Artifact> containerEntry = null;
@@ -198,9 +228,15 @@ public class KieRepositoryScannerImpl extends AbstractKieScanner<Map<DependencyD
         InternalKieModule kieModule = createKieModule(adapt( newReleaseId ), artifact.getFile());
         if (kieModule != null) {
             addDependencies(kieModule, artifactResolver, artifactResolver.getArtifactDependecies(newReleaseId.toString()));
+            long buildStart = System.nanoTime();
             ResultsImpl messages = kieModule.build();
+            lastBuildTime += elapsedMillis( buildStart );
             if ( messages.filterMessages(Message.Level.ERROR).isEmpty()) {
                 Results updateMessages = kieContainer.updateDependencyToVersion(adapt( oldDependency.getArtifactReleaseId() ), adapt( newReleaseId ));
+                if (kieContainer instanceof KieContainerImpl) {
+                    lastPrebuildTime += (( KieContainerImpl ) kieContainer).getLastUpdatePrebuildTime();
+                    lastApplyTime += (( KieContainerImpl ) kieContainer).getLastUpdateApplyTime();
+                }
                 oldDependency.setArtifactVersion(artifact.getVersion());
                 messages.getMessages().addAll( updateMessages.getMessages() ); // append all update Results into build Results to notify listeners
             }
@@ -23,6 +23,16 @@ public interface KieScannerMBean {
 
     public abstract String getStatus();
 
+    public abstract long getLastScanTime();
+
+    public abstract long getLastBuildTime();
+
+    public abstract long getLastPrebuildTime();
+
+    public abstract long getLastApplyTime();
+
+    public abstract long getLastUpdateTime();
+
     public abstract void scanNow();
 
     public abstract void start(long pollingInterval);
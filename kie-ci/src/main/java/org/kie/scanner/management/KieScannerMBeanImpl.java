@@ -64,6 +64,31 @@ public class KieScannerMBeanImpl implements KieScannerMBean {
         return this.scanner.getStatus().toString();
     }
     
+    @Override
+    public long getLastScanTime() {
+        return this.scanner.getLastScanTime();
+    }
+
+    @Override
+    public long getLastBuildTime() {
+        return this.scanner.getLastBuildTime();
+    }
+
+    @Override
+    public long getLastPrebuildTime() {
+        return this.scanner.getLastPrebuildTime();
+    }
+
+    @Override
+    public long getLastApplyTime() {
+        return this.scanner.getLastApplyTime();
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return this.scanner.getLastUpdateTime();
+    }
+
     /* (non-Javadoc)
      * @see org.kie.scanner.management.KieScannerMBean#scanNow()
      */
@@ -0,0 +1,765 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.backend.marshalling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.kie.dmn.model.api.Artifact;
+import org.kie.dmn.model.api.Association;
+import org.kie.dmn.model.api.AssociationDirection;
+import org.kie.dmn.model.api.AuthorityRequirement;
+import org.kie.dmn.model.api.Binding;
+import org.kie.dmn.model.api.BuiltinAggregator;
+import org.kie.dmn.model.api.BusinessContextElement;
+import org.kie.dmn.model.api.BusinessKnowledgeModel;
+import org.kie.dmn.model.api.Context;
+import org.kie.dmn.model.api.ContextEntry;
+import org.kie.dmn.model.api.DMNElement;
+import org.kie.dmn.model.api.DMNElementReference;
+import org.kie.dmn.model.api.DMNModelInstrumentedBase;
+import org.kie.dmn.model.api.DRGElement;
+import org.kie.dmn.model.api.Decision;
+import org.kie.dmn.model.api.DecisionRule;
+import org.kie.dmn.model.api.DecisionService;
+import org.kie.dmn.model.api.DecisionTable;
+import org.kie.dmn.model.api.DecisionTableOrientation;
+import org.kie.dmn.model.api.Definitions;
+import org.kie.dmn.model.api.ElementCollection;
+import org.kie.dmn.model.api.Expression;
+import org.kie.dmn.model.api.FunctionDefinition;
+import org.kie.dmn.model.api.FunctionItem;
+import org.kie.dmn.model.api.FunctionKind;
+import org.kie.dmn.model.api.Group;
+import org.kie.dmn.model.api.HitPolicy;
+import org.kie.dmn.model.api.Import;
+import org.kie.dmn.model.api.ImportedValues;
+import org.kie.dmn.model.api.InformationItem;
+import org.kie.dmn.model.api.InformationRequirement;
+import org.kie.dmn.model.api.InputClause;
+import org.kie.dmn.model.api.InputData;
+import org.kie.dmn.model.api.Invocable;
+import org.kie.dmn.model.api.Invocation;
+import org.kie.dmn.model.api.ItemDefinition;
+import org.kie.dmn.model.api.KnowledgeRequirement;
+import org.kie.dmn.model.api.KnowledgeSource;
+import org.kie.dmn.model.api.LiteralExpression;
+import org.kie.dmn.model.api.NamedElement;
+import org.kie.dmn.model.api.OrganizationUnit;
+import org.kie.dmn.model.api.OutputClause;
+import org.kie.dmn.model.api.PerformanceIndicator;
+import org.kie.dmn.model.api.Relation;
+import org.kie.dmn.model.api.RuleAnnotation;
+import org.kie.dmn.model.api.RuleAnnotationClause;
+import org.kie.dmn.model.api.TextAnnotation;
+import org.kie.dmn.model.api.UnaryTests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unmarshals a DMN model reading the events of a StAX reader and building the kie-dmn-model objects directly,
+ * without going through XStream and its reflective converters.
+ *
+ * It builds the same objects as the XStream converters of the same DMN version: the subclasses create the model objects
+ * for the element names of their version, while the attributes and the child elements are assigned here through
+ * the version independent API. The DMNDI diagram information is not read, as it is never used to compile and evaluate a model,
+ * and the extension elements are kept as an empty container, as their content is unmarshalled by the extension converters
+ * registered on XStream.
+ *
+ * An instance holds no state, so it can be shared by concurrent unmarshallings.
+ */
+public abstract class AbstractStaxUnmarshaller {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractStaxUnmarshaller.class);
+
+    private static final Pattern QNAME_PAT = Pattern.compile("(\\{([^\\}]*)\\})?(([^:]*):)?(.*)");
+
+    public static final String ALLOWED_ANSWERS = "allowedAnswers";
+    public static final String ALLOWED_VALUES = "allowedValues";
+    public static final String ANNOTATION = "annotation";
+    public static final String ANNOTATION_ENTRY = "annotationEntry";
+    public static final String AUTHORITY_REQUIREMENT = "authorityRequirement";
+    public static final String BINDING = "binding";
+    public static final String COLUMN = "column";
+    public static final String CONTEXT_ENTRY = "contextEntry";
+    public static final String DECISION_MADE = "decisionMade";
+    public static final String DECISION_MAKER = "decisionMaker";
+    public static final String DECISION_OWNED = "decisionOwned";
+    public static final String DECISION_OWNER = "decisionOwner";
+    public static final String DEFAULT_OUTPUT_ENTRY = "defaultOutputEntry";
+    public static final String DESCRIPTION = "description";
+    public static final String DRG_ELEMENT = "drgElement";
+    public static final String ELEMENT_COLLECTION = "elementCollection";
+    public static final String ENCAPSULATED_DECISION = "encapsulatedDecision";
+    public static final String ENCAPSULATED_LOGIC = "encapsulatedLogic";
+    public static final String EXTENSION_ELEMENTS = "extensionElements";
+    public static final String FORMAL_PARAMETER = "formalParameter";
+    public static final String FUNCTION_ITEM = "functionItem";
+    public static final String IMPACTED_PERFORMANCE_INDICATOR = "impactedPerformanceIndicator";
+    public static final String IMPACTING_DECISION = "impactingDecision";
+    public static final String IMPORT = "import";
+    public static final String IMPORTED_ELEMENT = "importedElement";
+    public static final String IMPORTED_VALUES = "importedValues";
+    public static final String INFORMATION_REQUIREMENT = "informationRequirement";
+    public static final String INPUT = "input";
+    public static final String INPUT_DATA = "inputData";
+    public static final String INPUT_DECISION = "inputDecision";
+    public static final String INPUT_ENTRY = "inputEntry";
+    public static final String INPUT_EXPRESSION = "inputExpression";
+    public static final String INPUT_VALUES = "inputValues";
+    public static final String ITEM_COMPONENT = "itemComponent";
+    public static final String ITEM_DEFINITION = "itemDefinition";
+    public static final String KNOWLEDGE_REQUIREMENT = "knowledgeRequirement";
+    public static final String OUTPUT = "output";
+    public static final String OUTPUT_DECISION = "outputDecision";
+    public static final String OUTPUT_ENTRY = "outputEntry";
+    public static final String OUTPUT_VALUES = "outputValues";
+    public static final String OWNER = "owner";
+    public static final String PARAMETER = "parameter";
+    public static final String PARAMETERS = "parameters";
+    public static final String QUESTION = "question";
+    public static final String REQUIRED_AUTHORITY = "requiredAuthority";
+    public static final String REQUIRED_DECISION = "requiredDecision";
+    public static final String REQUIRED_INPUT = "requiredInput";
+    public static final String REQUIRED_KNOWLEDGE = "requiredKnowledge";
+    public static final String ROW = "row";
+    public static final String RULE = "rule";
+    public static final String SOURCE_REF = "sourceRef";
+    public static final String SUPPORTED_OBJECTIVE = "supportedObjective";
+    public static final String TARGET_REF = "targetRef";
+    public static final String TEXT = "text";
+    public static final String TYPE = "type";
+    public static final String TYPE_REF = "typeRef";
+    public static final String USING_PROCESS = "usingProcess";
+    public static final String USING_TASK = "usingTask";
+    public static final String VARIABLE = "variable";
+
+    /**
+     * Unmarshals the model reading the events of the given StAX reader, which has to be positioned at the start of the document.
+     */
+    public Definitions unmarshal(XMLStreamReader reader) throws XMLStreamException {
+        int event = reader.next();
+        while (event != XMLStreamConstants.START_ELEMENT) {
+            event = reader.next();
+        }
+        Object root = readItem(reader);
+        if (!(root instanceof Definitions)) {
+            throw new XMLStreamException("The root element of a DMN model has to be definitions", reader.getLocation());
+        }
+        return (Definitions) root;
+    }
+
+    /**
+     * Creates the model object for the element with the given local name, or returns null if it is not an element of this DMN version.
+     */
+    protected abstract DMNModelInstrumentedBase createModelObject(String nodeName);
+
+    /**
+     * Creates the reference used for the inputData elements of a decision service, which have the same name of the input data of the model.
+     */
+    protected abstract DMNElementReference createDMNElementReference();
+
+    /**
+     * Reads the QName of a typeRef element, the reader being positioned on its start.
+     */
+    protected abstract QName readTypeRef(XMLStreamReader reader) throws XMLStreamException;
+
+    /**
+     * Returns true if the given object has the attributes and the child elements of a DMNElement in this DMN version.
+     */
+    protected boolean isDMNElement(Object obj) {
+        return obj instanceof DMNElement;
+    }
+
+    /**
+     * Reads the element on which the reader is positioned, leaving the reader on its end.
+     */
+    protected Object readItem(XMLStreamReader reader) throws XMLStreamException {
+        String nodeName = reader.getLocalName();
+        switch (nodeName) {
+            case TEXT:
+            case DESCRIPTION:
+            case QUESTION:
+            case ALLOWED_ANSWERS:
+            case IMPORTED_ELEMENT:
+            case TYPE:
+                return reader.getElementText();
+            case TYPE_REF:
+                return readTypeRef(reader);
+            default:
+                break;
+        }
+
+        DMNModelInstrumentedBase obj = createModelObject(nodeName);
+        if (obj == null) {
+            LOG.debug("Skipping the element {} at {}, which is not part of the DMN model", nodeName, reader.getLocation());
+            skipChildren(reader);
+            return null;
+        }
+        assignAttributes(reader, obj);
+        if (obj instanceof DMNElement.ExtensionElements) {
+            skipChildren(reader);
+        } else {
+            parseElements(reader, obj);
+        }
+        return obj;
+    }
+
+    private void parseElements(XMLStreamReader reader, DMNModelInstrumentedBase parent) throws XMLStreamException {
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String nodeName = reader.getLocalName();
+                Object child = parent instanceof DecisionService && INPUT_DATA.equals(nodeName) ?
+                        readDecisionServiceInputData(reader) :
+                        readItem(reader);
+                if (child instanceof DMNModelInstrumentedBase) {
+                    ((DMNModelInstrumentedBase) child).setParent(parent);
+                    parent.addChildren((DMNModelInstrumentedBase) child);
+                }
+                if (child != null) {
+                    assignChildElement(parent, nodeName, child);
+                }
+            }
+            event = reader.next();
+        }
+    }
+
+    private DMNElementReference readDecisionServiceInputData(XMLStreamReader reader) throws XMLStreamException {
+        DMNElementReference ref = createDMNElementReference();
+        ref.setHref(getAttribute(reader, "href"));
+        skipChildren(reader);
+        return ref;
+    }
+
+    private static void skipChildren(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    protected void assignAttributes(XMLStreamReader reader, DMNModelInstrumentedBase obj) {
+        if (reader.getNamespaceCount() > 0) {
+            Map<String, String> nsContext = obj.getNsContext();
+            for (int nsIndex = 0; nsIndex < reader.getNamespaceCount(); nsIndex++) {
+                String nsPrefix = reader.getNamespacePrefix(nsIndex);
+                nsContext.put(nsPrefix != null ? nsPrefix : XMLConstants.DEFAULT_NS_PREFIX, reader.getNamespaceURI(nsIndex));
+            }
+        }
+        obj.setLocation(reader.getLocation());
+        assignAdditionalAttributes(reader, obj);
+
+        if (isDMNElement(obj)) {
+            DMNElement dmne = (DMNElement) obj;
+            dmne.setId(getAttribute(reader, "id"));
+            dmne.setLabel(getAttribute(reader, "label"));
+            if (obj instanceof NamedElement) {
+                ((NamedElement) obj).setName(getAttribute(reader, "name"));
+            }
+        }
+        if (obj instanceof Expression) {
+            String typeRef = getAttribute(reader, TYPE_REF);
+            if (typeRef != null) {
+                ((Expression) obj).setTypeRef(parseQNameString(typeRef));
+            }
+        }
+
+        if (obj instanceof Definitions) {
+            Definitions def = (Definitions) obj;
+            def.setExpressionLanguage(getAttribute(reader, "expressionLanguage"));
+            def.setTypeLanguage(getAttribute(reader, "typeLanguage"));
+            def.setNamespace(getAttribute(reader, "namespace"));
+            def.setExporter(getAttribute(reader, "exporter"));
+            def.setExporterVersion(getAttribute(reader, "exporterVersion"));
+            if (!def.getNsContext().containsKey(XMLConstants.DEFAULT_NS_PREFIX)) {
+                LOG.warn("This DMN file does not define a default namespace");
+            }
+        } else if (obj instanceof ItemDefinition) {
+            ItemDefinition id = (ItemDefinition) obj;
+            id.setTypeLanguage(getAttribute(reader, "typeLanguage"));
+            id.setIsCollection(Boolean.valueOf(getAttribute(reader, "isCollection")));
+        } else if (obj instanceof InformationItem) {
+            ((InformationItem) obj).setTypeRef(parseQNameString(getAttribute(reader, TYPE_REF)));
+        } else if (obj instanceof ImportedValues) {
+            assignImportAttributes(reader, (Import) obj);
+            ((ImportedValues) obj).setExpressionLanguage(getAttribute(reader, "expressionLanguage"));
+        } else if (obj instanceof Import) {
+            assignImportAttributes(reader, (Import) obj);
+        } else if (obj instanceof BusinessContextElement) {
+            ((BusinessContextElement) obj).setURI(getAttribute(reader, "URI"));
+        } else if (obj instanceof KnowledgeSource) {
+            ((KnowledgeSource) obj).setLocationURI(getAttribute(reader, "locationURI"));
+        } else if (obj instanceof DMNElementReference) {
+            ((DMNElementReference) obj).setHref(getAttribute(reader, "href"));
+        } else if (obj instanceof LiteralExpression) {
+            ((LiteralExpression) obj).setExpressionLanguage(getAttribute(reader, "expressionLanguage"));
+        } else if (obj instanceof UnaryTests) {
+            ((UnaryTests) obj).setExpressionLanguage(getAttribute(reader, "expressionLanguage"));
+        } else if (obj instanceof DecisionTable) {
+            DecisionTable dt = (DecisionTable) obj;
+            String hitPolicyValue = getAttribute(reader, "hitPolicy");
+            String aggregationValue = getAttribute(reader, "aggregation");
+            String preferredOrientationValue = getAttribute(reader, "preferredOrientation");
+            if (hitPolicyValue != null) {
+                dt.setHitPolicy(HitPolicy.fromValue(hitPolicyValue));
+            }
+            if (aggregationValue != null) {
+                dt.setAggregation(BuiltinAggregator.fromValue(aggregationValue));
+            }
+            if (preferredOrientationValue != null) {
+                dt.setPreferredOrientation(DecisionTableOrientation.fromValue(preferredOrientationValue));
+            }
+            dt.setOutputLabel(getAttribute(reader, "outputLabel"));
+        } else if (obj instanceof FunctionDefinition) {
+            String kind = getAttribute(reader, "kind");
+            if (kind != null) {
+                assignFunctionKind((FunctionDefinition) obj, FunctionKind.fromValue(kind));
+            }
+        } else if (obj instanceof FunctionItem) {
+            ((FunctionItem) obj).setOutputTypeRef(parseQNameString(getAttribute(reader, "outputTypeRef")));
+        } else if (obj instanceof OutputClause) {
+            OutputClause oc = (OutputClause) obj;
+            oc.setName(getAttribute(reader, "name"));
+            String typeRefValue = getAttribute(reader, TYPE_REF);
+            if (typeRefValue != null) {
+                oc.setTypeRef(parseQNameString(typeRefValue));
+            }
+        } else if (obj instanceof Association) {
+            String associationDirectionValue = getAttribute(reader, "associationDirection");
+            if (associationDirectionValue != null) {
+                ((Association) obj).setAssociationDirection(AssociationDirection.fromValue(associationDirectionValue));
+            }
+        } else if (obj instanceof TextAnnotation) {
+            ((TextAnnotation) obj).setTextFormat(getAttribute(reader, "textFormat"));
+        } else if (obj instanceof Group) {
+            ((Group) obj).setName(getAttribute(reader, "name"));
+        } else if (obj instanceof RuleAnnotationClause) {
+            ((RuleAnnotationClause) obj).setName(getAttribute(reader, "name"));
+        }
+    }
+
+    private static void assignImportAttributes(XMLStreamReader reader, Import i) {
+        i.setNamespace(getAttribute(reader, "namespace"));
+        i.setLocationURI(getAttribute(reader, "locationURI"));
+        i.setImportType(getAttribute(reader, "importType"));
+    }
+
+    /**
+     * Assigns the kind read from the attribute of a function definition.
+     */
+    protected void assignFunctionKind(FunctionDefinition fd, FunctionKind kind) {
+        fd.setKind(kind);
+    }
+
+    private static void assignAdditionalAttributes(XMLStreamReader reader, DMNModelInstrumentedBase obj) {
+        Map<QName, String> additionalAttributes = null;
+        for (int aIndex = 0; aIndex < reader.getAttributeCount(); aIndex++) {
+            String attributePrefix = reader.getAttributePrefix(aIndex);
+            if (attributePrefix != null && !XMLConstants.DEFAULT_NS_PREFIX.equals(attributePrefix)) {
+                if (additionalAttributes == null) {
+                    additionalAttributes = new HashMap<>();
+                }
+                additionalAttributes.put(new QName(reader.getAttributeNamespace(aIndex), reader.getAttributeLocalName(aIndex), attributePrefix), reader.getAttributeValue(aIndex));
+            }
+        }
+        if (additionalAttributes != null) {
+            obj.setAdditionalAttributes(additionalAttributes);
+        }
+    }
+
+    /**
+     * Returns the value of the attribute with the given name and no namespace prefix, like CustomStaxReader does.
+     */
+    protected static String getAttribute(XMLStreamReader reader, String name) {
+        return reader.getAttributeValue(XMLConstants.DEFAULT_NS_PREFIX, name);
+    }
+
+    protected static QName parseQNameString(String qns) {
+        if (qns == null) {
+            return null;
+        }
+        Matcher m = QNAME_PAT.matcher(qns);
+        if (m.matches()) {
+            return m.group(4) != null ? new QName(m.group(2), m.group(5), m.group(4)) : new QName(m.group(2), m.group(5));
+        }
+        return new QName(qns);
+    }
+
+    protected void assignChildElement(DMNModelInstrumentedBase parent, String nodeName, Object child) {
+        if (parent instanceof Definitions) {
+            assignDefinitionsChild((Definitions) parent, nodeName, child);
+        } else if (parent instanceof ItemDefinition) {
+            ItemDefinition id = (ItemDefinition) parent;
+            if (TYPE_REF.equals(nodeName)) {
+                id.setTypeRef((QName) child);
+            } else if (ALLOWED_VALUES.equals(nodeName)) {
+                id.setAllowedValues((UnaryTests) child);
+            } else if (ITEM_COMPONENT.equals(nodeName)) {
+                id.getItemComponent().add((ItemDefinition) child);
+            } else if (FUNCTION_ITEM.equals(nodeName)) {
+                id.setFunctionItem((FunctionItem) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof InputData) {
+            if (VARIABLE.equals(nodeName)) {
+                ((InputData) parent).setVariable((InformationItem) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Decision) {
+            assignDecisionChild((Decision) parent, nodeName, child);
+        } else if (parent instanceof BusinessKnowledgeModel) {
+            BusinessKnowledgeModel bkm = (BusinessKnowledgeModel) parent;
+            if (ENCAPSULATED_LOGIC.equals(nodeName)) {
+                bkm.setEncapsulatedLogic((FunctionDefinition) child);
+            } else if (KNOWLEDGE_REQUIREMENT.equals(nodeName)) {
+                bkm.getKnowledgeRequirement().add((KnowledgeRequirement) child);
+            } else if (AUTHORITY_REQUIREMENT.equals(nodeName)) {
+                bkm.getAuthorityRequirement().add((AuthorityRequirement) child);
+            } else {
+                assignInvocableChild(bkm, nodeName, child);
+            }
+        } else if (parent instanceof DecisionService) {
+            DecisionService decisionService = (DecisionService) parent;
+            if (OUTPUT_DECISION.equals(nodeName)) {
+                decisionService.getOutputDecision().add((DMNElementReference) child);
+            } else if (ENCAPSULATED_DECISION.equals(nodeName)) {
+                decisionService.getEncapsulatedDecision().add((DMNElementReference) child);
+            } else if (INPUT_DECISION.equals(nodeName)) {
+                decisionService.getInputDecision().add((DMNElementReference) child);
+            } else if (INPUT_DATA.equals(nodeName)) {
+                decisionService.getInputData().add((DMNElementReference) child);
+            } else {
+                assignInvocableChild(decisionService, nodeName, child);
+            }
+        } else if (parent instanceof KnowledgeSource) {
+            KnowledgeSource ks = (KnowledgeSource) parent;
+            if (AUTHORITY_REQUIREMENT.equals(nodeName)) {
+                ks.getAuthorityRequirement().add((AuthorityRequirement) child);
+            } else if (TYPE.equals(nodeName)) {
+                ks.setType((String) child);
+            } else if (OWNER.equals(nodeName)) {
+                ks.setOwner((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Expression) {
+            assignExpressionChild((Expression) parent, nodeName, child);
+        } else if (parent instanceof InformationRequirement) {
+            InformationRequirement ir = (InformationRequirement) parent;
+            if (REQUIRED_INPUT.equals(nodeName)) {
+                ir.setRequiredInput((DMNElementReference) child);
+            } else if (REQUIRED_DECISION.equals(nodeName)) {
+                ir.setRequiredDecision((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof KnowledgeRequirement) {
+            if (REQUIRED_KNOWLEDGE.equals(nodeName)) {
+                ((KnowledgeRequirement) parent).setRequiredKnowledge((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof AuthorityRequirement) {
+            AuthorityRequirement ar = (AuthorityRequirement) parent;
+            if (REQUIRED_DECISION.equals(nodeName)) {
+                ar.setRequiredDecision((DMNElementReference) child);
+            } else if (REQUIRED_INPUT.equals(nodeName)) {
+                ar.setRequiredInput((DMNElementReference) child);
+            } else if (REQUIRED_AUTHORITY.equals(nodeName)) {
+                ar.setRequiredAuthority((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof ContextEntry) {
+            ContextEntry ce = (ContextEntry) parent;
+            if (VARIABLE.equals(nodeName)) {
+                ce.setVariable((InformationItem) child);
+            } else if (child instanceof Expression) {
+                ce.setExpression((Expression) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Binding) {
+            Binding b = (Binding) parent;
+            if (PARAMETER.equals(nodeName)) {
+                b.setParameter((InformationItem) child);
+            } else if (child instanceof Expression) {
+                b.setExpression((Expression) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof DecisionRule) {
+            DecisionRule dr = (DecisionRule) parent;
+            if (INPUT_ENTRY.equals(nodeName)) {
+                dr.getInputEntry().add((UnaryTests) child);
+            } else if (OUTPUT_ENTRY.equals(nodeName)) {
+                dr.getOutputEntry().add((LiteralExpression) child);
+            } else if (ANNOTATION_ENTRY.equals(nodeName)) {
+                dr.getAnnotationEntry().add((RuleAnnotation) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof InputClause) {
+            InputClause ic = (InputClause) parent;
+            if (INPUT_EXPRESSION.equals(nodeName)) {
+                ic.setInputExpression((LiteralExpression) child);
+            } else if (INPUT_VALUES.equals(nodeName)) {
+                ic.setInputValues((UnaryTests) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof OutputClause) {
+            OutputClause oc = (OutputClause) parent;
+            if (OUTPUT_VALUES.equals(nodeName)) {
+                oc.setOutputValues((UnaryTests) child);
+            } else if (DEFAULT_OUTPUT_ENTRY.equals(nodeName)) {
+                oc.setDefaultOutputEntry((LiteralExpression) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof RuleAnnotation) {
+            if (TEXT.equals(nodeName)) {
+                ((RuleAnnotation) parent).setText((String) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof FunctionItem) {
+            if (PARAMETERS.equals(nodeName)) {
+                ((FunctionItem) parent).getParameters().add((InformationItem) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof OrganizationUnit) {
+            OrganizationUnit ou = (OrganizationUnit) parent;
+            if (DECISION_MADE.equals(nodeName)) {
+                ou.getDecisionMade().add((DMNElementReference) child);
+            } else if (DECISION_OWNED.equals(nodeName)) {
+                ou.getDecisionOwned().add((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof PerformanceIndicator) {
+            if (IMPACTING_DECISION.equals(nodeName)) {
+                ((PerformanceIndicator) parent).getImpactingDecision().add((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof ElementCollection) {
+            if (DRG_ELEMENT.equals(nodeName)) {
+                ((ElementCollection) parent).getDrgElement().add((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Association) {
+            Association a = (Association) parent;
+            if (SOURCE_REF.equals(nodeName)) {
+                a.setSourceRef((DMNElementReference) child);
+            } else if (TARGET_REF.equals(nodeName)) {
+                a.setTargetRef((DMNElementReference) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof TextAnnotation) {
+            if (TEXT.equals(nodeName)) {
+                ((TextAnnotation) parent).setText((String) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof ImportedValues) {
+            if (IMPORTED_ELEMENT.equals(nodeName)) {
+                ((ImportedValues) parent).setImportedElement((String) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else {
+            assignDMNElementChild(parent, nodeName, child);
+        }
+    }
+
+    private void assignDefinitionsChild(Definitions def, String nodeName, Object child) {
+        if (IMPORT.equals(nodeName)) {
+            def.getImport().add((Import) child);
+        } else if (ITEM_DEFINITION.equals(nodeName)) {
+            def.getItemDefinition().add((ItemDefinition) child);
+        } else if (child instanceof DRGElement) {
+            def.getDrgElement().add((DRGElement) child);
+        } else if (child instanceof Artifact) {
+            def.getArtifact().add((Artifact) child);
+        } else if (ELEMENT_COLLECTION.equals(nodeName)) {
+            def.getElementCollection().add((ElementCollection) child);
+        } else if (child instanceof BusinessContextElement) {
+            def.getBusinessContextElement().add((BusinessContextElement) child);
+        } else {
+            assignDMNElementChild(def, nodeName, child);
+        }
+    }
+
+    private void assignDecisionChild(Decision dec, String nodeName, Object child) {
+        switch (nodeName) {
+            case QUESTION:
+                dec.setQuestion((String) child);
+                break;
+            case ALLOWED_ANSWERS:
+                dec.setAllowedAnswers((String) child);
+                break;
+            case VARIABLE:
+                dec.setVariable((InformationItem) child);
+                break;
+            case INFORMATION_REQUIREMENT:
+                dec.getInformationRequirement().add((InformationRequirement) child);
+                break;
+            case KNOWLEDGE_REQUIREMENT:
+                dec.getKnowledgeRequirement().add((KnowledgeRequirement) child);
+                break;
+            case AUTHORITY_REQUIREMENT:
+                dec.getAuthorityRequirement().add((AuthorityRequirement) child);
+                break;
+            case SUPPORTED_OBJECTIVE:
+                dec.getSupportedObjective().add((DMNElementReference) child);
+                break;
+            case IMPACTED_PERFORMANCE_INDICATOR:
+                dec.getImpactedPerformanceIndicator().add((DMNElementReference) child);
+                break;
+            case DECISION_MAKER:
+                dec.getDecisionMaker().add((DMNElementReference) child);
+                break;
+            case DECISION_OWNER:
+                dec.getDecisionOwner().add((DMNElementReference) child);
+                break;
+            case USING_PROCESS:
+                dec.getUsingProcess().add((DMNElementReference) child);
+                break;
+            case USING_TASK:
+                dec.getUsingTask().add((DMNElementReference) child);
+                break;
+            default:
+                if (child instanceof Expression) {
+                    dec.setExpression((Expression) child);
+                } else {
+                    assignDMNElementChild(dec, nodeName, child);
+                }
+        }
+    }
+
+    private void assignExpressionChild(Expression parent, String nodeName, Object child) {
+        if (parent instanceof LiteralExpression) {
+            LiteralExpression le = (LiteralExpression) parent;
+            if (TEXT.equals(nodeName)) {
+                le.setText((String) child);
+            } else if (IMPORTED_VALUES.equals(nodeName)) {
+                le.setImportedValues((ImportedValues) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof UnaryTests) {
+            if (TEXT.equals(nodeName)) {
+                ((UnaryTests) parent).setText((String) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof DecisionTable) {
+            DecisionTable dt = (DecisionTable) parent;
+            if (INPUT.equals(nodeName)) {
+                dt.getInput().add((InputClause) child);
+            } else if (OUTPUT.equals(nodeName)) {
+                dt.getOutput().add((OutputClause) child);
+            } else if (ANNOTATION.equals(nodeName)) {
+                dt.getAnnotation().add((RuleAnnotationClause) child);
+            } else if (RULE.equals(nodeName)) {
+                dt.getRule().add((DecisionRule) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Context) {
+            if (CONTEXT_ENTRY.equals(nodeName)) {
+                ((Context) parent).getContextEntry().add((ContextEntry) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof FunctionDefinition) {
+            FunctionDefinition fd = (FunctionDefinition) parent;
+            if (FORMAL_PARAMETER.equals(nodeName)) {
+                fd.getFormalParameter().add((InformationItem) child);
+            } else if (child instanceof Expression) {
+                fd.setExpression((Expression) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Invocation) {
+            Invocation i = (Invocation) parent;
+            if (child instanceof Expression) {
+                i.setExpression((Expression) child);
+            } else if (BINDING.equals(nodeName)) {
+                i.getBinding().add((Binding) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof Relation) {
+            Relation r = (Relation) parent;
+            if (COLUMN.equals(nodeName)) {
+                r.getColumn().add((InformationItem) child);
+            } else if (ROW.equals(nodeName)) {
+                r.getRow().add((org.kie.dmn.model.api.List) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else if (parent instanceof org.kie.dmn.model.api.List) {
+            if (child instanceof Expression) {
+                ((org.kie.dmn.model.api.List) parent).getExpression().add((Expression) child);
+            } else {
+                assignDMNElementChild(parent, nodeName, child);
+            }
+        } else {
+            assignDMNElementChild(parent, nodeName, child);
+        }
+    }
+
+    protected void assignInvocableChild(Invocable invocable, String nodeName, Object child) {
+        if (VARIABLE.equals(nodeName)) {
+            invocable.setVariable((InformationItem) child);
+        } else {
+            assignDMNElementChild(invocable, nodeName, child);
+        }
+    }
+
+    private void assignDMNElementChild(DMNModelInstrumentedBase parent, String nodeName, Object child) {
+        if (!isDMNElement(parent)) {
+            return;
+        }
+        if (DESCRIPTION.equals(nodeName) && child instanceof String) {
+            ((DMNElement) parent).setDescription((String) child);
+        } else if (EXTENSION_ELEMENTS.equals(nodeName) && child instanceof DMNElement.ExtensionElements) {
+            ((DMNElement) parent).setExtensionElements((DMNElement.ExtensionElements) child);
+        }
+    }
+}
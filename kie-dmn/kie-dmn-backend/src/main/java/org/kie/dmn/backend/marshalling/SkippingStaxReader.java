@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.backend.marshalling;
+
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * A StAX reader dropping the whole subtree of the elements with the given qualified names,
+ * so that the unmarshalling never builds the objects for them.
+ * The names are matched on both the namespace and the local part, so that an element of another namespace
+ * with the same local name, like the ones of the extensions, is not dropped.
+ *
+ * It can be created on a reader already positioned on the root element, as done to infer the DMN version
+ * from the namespaces declared there: in this case the root element is replayed by the first call to next(),
+ * as if the reader was positioned at the start of the document.
+ */
+public class SkippingStaxReader extends StreamReaderDelegate {
+
+    private final Set<QName> skippedElements;
+    private boolean replayCurrent;
+
+    public SkippingStaxReader(XMLStreamReader reader, Set<QName> skippedElements) {
+        super(reader);
+        this.skippedElements = skippedElements;
+        this.replayCurrent = reader.getEventType() == START_ELEMENT;
+    }
+
+    @Override
+    public boolean hasNext() throws XMLStreamException {
+        return replayCurrent || super.hasNext();
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        if (replayCurrent) {
+            replayCurrent = false;
+            return getEventType();
+        }
+        int event = super.next();
+        while (event == START_ELEMENT && isSkipped()) {
+            skipElement();
+            event = super.next();
+        }
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while (event == COMMENT || event == PROCESSING_INSTRUCTION || event == SPACE || ((event == CHARACTERS || event == CDATA) && isWhiteSpace())) {
+            event = next();
+        }
+        if (event != START_ELEMENT && event != END_ELEMENT) {
+            throw new XMLStreamException("Expected a start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    private boolean isSkipped() {
+        String localName = getLocalName();
+        String namespaceURI = getNamespaceURI();
+        for (QName skipped : skippedElements) {
+            if (skipped.getLocalPart().equals(localName) && skipped.getNamespaceURI().equals(namespaceURI != null ? namespaceURI : "")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = super.next();
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
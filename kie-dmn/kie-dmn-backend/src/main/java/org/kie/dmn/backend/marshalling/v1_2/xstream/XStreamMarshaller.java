@@ -102,6 +102,7 @@ public class XStreamMarshaller
 
     private static Logger logger = LoggerFactory.getLogger( XStreamMarshaller.class );
     private List<DMNExtensionRegister> extensionRegisters = new ArrayList<>();
+    private volatile XStream unmarshallingXStream;
 
 
     private static StaxDriver staxDriver;
@@ -159,6 +160,29 @@ public class XStreamMarshaller
         return null;
     }
 
+    /**
+     * Unmarshals the model reading the events of the given StAX reader, which has to be positioned at the start of the document.
+     * Differently from the other methods, the XStream configured by this marshaller is built once and reused by each call.
+     */
+    public Definitions unmarshal(XMLStreamReader xmlReader) {
+        try {
+            return (Definitions) getUnmarshallingXStream().unmarshal(staxDriver.createStaxReader(xmlReader));
+        } catch ( Exception e ) {
+            logger.error( "Error unmarshalling DMN model from reader.", e );
+        }
+        return null;
+    }
+
+    private XStream getUnmarshallingXStream() {
+        XStream xStream = unmarshallingXStream;
+        if (xStream == null) {
+            // XStream is thread safe once configured, so a concurrent initialization at worst builds it twice
+            xStream = newXStream();
+            unmarshallingXStream = xStream;
+        }
+        return xStream;
+    }
+
     @Override
     public String marshal(Object o) {
         try ( Writer writer = new StringWriter();
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.backend.marshalling.v1_3.stax;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.kie.dmn.backend.marshalling.AbstractStaxUnmarshaller;
+import org.kie.dmn.model.api.DMNElementReference;
+import org.kie.dmn.model.api.DMNModelInstrumentedBase;
+import org.kie.dmn.model.v1_3.TAssociation;
+import org.kie.dmn.model.v1_3.TAuthorityRequirement;
+import org.kie.dmn.model.v1_3.TBinding;
+import org.kie.dmn.model.v1_3.TBusinessKnowledgeModel;
+import org.kie.dmn.model.v1_3.TContext;
+import org.kie.dmn.model.v1_3.TContextEntry;
+import org.kie.dmn.model.v1_3.TDMNElement;
+import org.kie.dmn.model.v1_3.TDMNElementReference;
+import org.kie.dmn.model.v1_3.TDecision;
+import org.kie.dmn.model.v1_3.TDecisionRule;
+import org.kie.dmn.model.v1_3.TDecisionService;
+import org.kie.dmn.model.v1_3.TDecisionTable;
+import org.kie.dmn.model.v1_3.TDefinitions;
+import org.kie.dmn.model.v1_3.TElementCollection;
+import org.kie.dmn.model.v1_3.TFunctionDefinition;
+import org.kie.dmn.model.v1_3.TFunctionItem;
+import org.kie.dmn.model.v1_3.TGroup;
+import org.kie.dmn.model.v1_3.TImport;
+import org.kie.dmn.model.v1_3.TImportedValues;
+import org.kie.dmn.model.v1_3.TInformationItem;
+import org.kie.dmn.model.v1_3.TInformationRequirement;
+import org.kie.dmn.model.v1_3.TInputClause;
+import org.kie.dmn.model.v1_3.TInputData;
+import org.kie.dmn.model.v1_3.TInvocation;
+import org.kie.dmn.model.v1_3.TItemDefinition;
+import org.kie.dmn.model.v1_3.TKnowledgeRequirement;
+import org.kie.dmn.model.v1_3.TKnowledgeSource;
+import org.kie.dmn.model.v1_3.TLiteralExpression;
+import org.kie.dmn.model.v1_3.TOrganizationUnit;
+import org.kie.dmn.model.v1_3.TOutputClause;
+import org.kie.dmn.model.v1_3.TPerformanceIndicator;
+import org.kie.dmn.model.v1_3.TRelation;
+import org.kie.dmn.model.v1_3.TRuleAnnotation;
+import org.kie.dmn.model.v1_3.TRuleAnnotationClause;
+import org.kie.dmn.model.v1_3.TTextAnnotation;
+import org.kie.dmn.model.v1_3.TUnaryTests;
+
+/**
+ * Unmarshals a DMN v1.3 model reading the events of a StAX reader, building the same model objects as the XStream converters of this version.
+ */
+public class StaxUnmarshaller extends AbstractStaxUnmarshaller {
+
+    @Override
+    protected DMNModelInstrumentedBase createModelObject(String nodeName) {
+        switch (nodeName) {
+            case "definitions":
+                return new TDefinitions();
+            case "inputData":
+                return new TInputData();
+            case "decision":
+                return new TDecision();
+            case "variable":
+            case "column":
+            case "formalParameter":
+            case "parameter":
+            case "parameters":
+            case "informationItem":
+                return new TInformationItem();
+            case "informationRequirement":
+                return new TInformationRequirement();
+            case "knowledgeRequirement":
+                return new TKnowledgeRequirement();
+            case "authorityRequirement":
+                return new TAuthorityRequirement();
+            case "requiredInput":
+            case "requiredDecision":
+            case "requiredKnowledge":
+            case "requiredAuthority":
+            case "decisionMade":
+            case "decisionMaker":
+            case "decisionOwned":
+            case "decisionOwner":
+            case "drgElement":
+            case "encapsulatedDecision":
+            case "impactedPerformanceIndicator":
+            case "impactingDecision":
+            case "inputDecision":
+            case "outputDecision":
+            case "owner":
+            case "sourceRef":
+            case "targetRef":
+            case "supportedObjective":
+            case "usingProcess":
+            case "usingTask":
+                return new TDMNElementReference();
+            case "literalExpression":
+            case "defaultOutputEntry":
+            case "inputExpression":
+            case "outputEntry":
+                return new TLiteralExpression();
+            case "allowedValues":
+            case "inputEntry":
+            case "inputValues":
+            case "outputValues":
+                return new TUnaryTests();
+            case "association":
+                return new TAssociation();
+            case "binding":
+                return new TBinding();
+            case "businessKnowledgeModel":
+                return new TBusinessKnowledgeModel();
+            case "context":
+                return new TContext();
+            case "contextEntry":
+                return new TContextEntry();
+            case "decisionService":
+                return new TDecisionService();
+            case "decisionTable":
+                return new TDecisionTable();
+            case "elementCollection":
+                return new TElementCollection();
+            case "encapsulatedLogic":
+            case "functionDefinition":
+                return new TFunctionDefinition();
+            case "import":
+                return new TImport();
+            case "importedValues":
+                return new TImportedValues();
+            case "input":
+                return new TInputClause();
+            case "invocation":
+                return new TInvocation();
+            case "itemComponent":
+            case "itemDefinition":
+                return new TItemDefinition();
+            case "knowledgeSource":
+                return new TKnowledgeSource();
+            case "organizationUnit":
+                return new TOrganizationUnit();
+            case "output":
+                return new TOutputClause();
+            case "performanceIndicator":
+                return new TPerformanceIndicator();
+            case "relation":
+                return new TRelation();
+            case "rule":
+                return new TDecisionRule();
+            case "textAnnotation":
+                return new TTextAnnotation();
+            case "row":
+            case "list":
+                return new org.kie.dmn.model.v1_3.TList();
+            case "extensionElements":
+                return new TDMNElement.TExtensionElements();
+            case "annotation":
+                return new TRuleAnnotationClause();
+            case "annotationEntry":
+                return new TRuleAnnotation();
+            case "group":
+                return new TGroup();
+            case "functionItem":
+                return new TFunctionItem();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    protected DMNElementReference createDMNElementReference() {
+        return new TDMNElementReference();
+    }
+
+    @Override
+    protected QName readTypeRef(XMLStreamReader reader) throws XMLStreamException {
+        return new QName(reader.getElementText());
+    }
+}
@@ -31,6 +31,15 @@ public final class DMNMarshallerFactory {
         return new XStreamMarshaller(extensionElementRegisters);
     }
 
+    /**
+     * A marshaller unmarshalling the models in a single pass over the XML stream with a StAX unmarshaller, and skipping the DMNDI diagram information,
+     * which is not needed to compile and evaluate them, as well as the extension elements if skipExtensionElements is true.
+     * It is meant for loading models at runtime, as the models it unmarshals miss the skipped elements.
+     */
+    public static DMNMarshaller newStreamingMarshaller(List<DMNExtensionRegister> extensionElementRegisters, boolean skipExtensionElements) {
+        return new StreamingMarshaller(extensionElementRegisters, skipExtensionElements);
+    }
+
     private DMNMarshallerFactory() {
         // Constructing instances is not allowed for this class
     }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.backend.marshalling.v1x;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.kie.dmn.api.marshalling.DMNExtensionRegister;
+import org.kie.dmn.backend.marshalling.AbstractStaxUnmarshaller;
+import org.kie.dmn.backend.marshalling.SkippingStaxReader;
+import org.kie.dmn.model.api.Definitions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A marshaller unmarshalling the models in a single pass over the XML stream with a hand-written StAX unmarshaller,
+ * skipping the DMNDI diagram information and, if requested, the extension elements.
+ *
+ * The extension elements are unmarshalled by the converters the extension registers contribute to XStream, so when they are
+ * kept and there is any register, the models are unmarshalled by XStream, still in a single pass and skipping the DMNDI.
+ * The marshalling is the one of the XStreamMarshaller.
+ */
+public class StreamingMarshaller extends XStreamMarshaller {
+
+    private static final Logger logger = LoggerFactory.getLogger( StreamingMarshaller.class );
+
+    private static final XMLInputFactory inputFactory = createInputFactory();
+
+    private final org.kie.dmn.backend.marshalling.v1_1.stax.StaxUnmarshaller stax11 = new org.kie.dmn.backend.marshalling.v1_1.stax.StaxUnmarshaller();
+    private final org.kie.dmn.backend.marshalling.v1_2.stax.StaxUnmarshaller stax12 = new org.kie.dmn.backend.marshalling.v1_2.stax.StaxUnmarshaller();
+    private final org.kie.dmn.backend.marshalling.v1_3.stax.StaxUnmarshaller stax13 = new org.kie.dmn.backend.marshalling.v1_3.stax.StaxUnmarshaller();
+
+    private final boolean skipExtensionElements;
+    private final boolean useXStream;
+
+    public StreamingMarshaller(List<DMNExtensionRegister> extensionRegisters, boolean skipExtensionElements) {
+        super(extensionRegisters);
+        this.skipExtensionElements = skipExtensionElements;
+        this.useXStream = !skipExtensionElements && !extensionRegisters.isEmpty();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    @Override
+    public Definitions unmarshal(String xml) {
+        return unmarshal(new StringReader(xml));
+    }
+
+    @Override
+    public Definitions unmarshal(Reader isr) {
+        XMLStreamReader xmlReader = null;
+        try {
+            xmlReader = inputFactory.createXMLStreamReader(isr);
+            // the version is inferred from the namespaces declared on the root element, which is then replayed by the skipping reader
+            while (xmlReader.next() != XMLStreamConstants.START_ELEMENT) {
+                // moving to the root element
+            }
+            DMN_VERSION dmnVersion = inferDMNVersionFromRoot(xmlReader);
+            switch (dmnVersion) {
+                case DMN_v1_1:
+                    return unmarshal(xmlReader, org.kie.dmn.model.v1_1.KieDMNModelInstrumentedBase.URI_DMN, null, stax11, xstream11::unmarshal);
+                case DMN_v1_2:
+                    return unmarshal(xmlReader, org.kie.dmn.model.v1_2.KieDMNModelInstrumentedBase.URI_DMN, org.kie.dmn.model.v1_2.KieDMNModelInstrumentedBase.URI_DMNDI, stax12, xstream12::unmarshal);
+                case DMN_v1_3:
+                case UNKNOWN:
+                default:
+                    return unmarshal(xmlReader, org.kie.dmn.model.v1_3.KieDMNModelInstrumentedBase.URI_DMN, org.kie.dmn.model.v1_3.KieDMNModelInstrumentedBase.URI_DMNDI, stax13, xstream13::unmarshal);
+            }
+        } catch (Exception e) {
+            logger.error("Error unmarshalling DMN model from reader.", e);
+        } finally {
+            if (xmlReader != null) {
+                try {
+                    xmlReader.close();
+                } catch (XMLStreamException e) {
+                    logger.debug("Error closing the XML reader.", e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private Definitions unmarshal(XMLStreamReader xmlReader, String dmnURI, String dmndiURI, AbstractStaxUnmarshaller staxUnmarshaller, XStreamUnmarshaller xstreamUnmarshaller) throws XMLStreamException {
+        Set<QName> skippedElements = new HashSet<>();
+        if (dmndiURI != null) {
+            skippedElements.add(new QName(dmndiURI, "DMNDI"));
+        }
+        if (skipExtensionElements) {
+            skippedElements.add(new QName(dmnURI, AbstractStaxUnmarshaller.EXTENSION_ELEMENTS));
+        }
+        SkippingStaxReader skippingReader = new SkippingStaxReader(xmlReader, skippedElements);
+        return useXStream ? xstreamUnmarshaller.unmarshal(skippingReader) : staxUnmarshaller.unmarshal(skippingReader);
+    }
+
+    @FunctionalInterface
+    private interface XStreamUnmarshaller {
+
+        Definitions unmarshal(XMLStreamReader xmlReader);
+    }
+}
@@ -21,9 +21,14 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import com.thoughtworks.xstream.io.xml.QNameMap;
@@ -31,6 +36,7 @@ import com.thoughtworks.xstream.io.xml.StaxDriver;
 import org.kie.dmn.api.marshalling.DMNExtensionRegister;
 import org.kie.dmn.api.marshalling.DMNMarshaller;
 import org.kie.dmn.backend.marshalling.CustomStaxReader;
+import org.kie.dmn.backend.marshalling.SkippingStaxReader;
 import org.kie.dmn.model.api.Definitions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +45,9 @@ public class XStreamMarshaller implements DMNMarshaller {
 
     private static Logger logger = LoggerFactory.getLogger( XStreamMarshaller.class );
     private List<DMNExtensionRegister> extensionRegisters = new ArrayList<>();
-    private final org.kie.dmn.backend.marshalling.v1_1.xstream.XStreamMarshaller xstream11;
-    private final org.kie.dmn.backend.marshalling.v1_2.xstream.XStreamMarshaller xstream12;
-    private final org.kie.dmn.backend.marshalling.v1_3.xstream.XStreamMarshaller xstream13;
+    protected final org.kie.dmn.backend.marshalling.v1_1.xstream.XStreamMarshaller xstream11;
+    protected final org.kie.dmn.backend.marshalling.v1_2.xstream.XStreamMarshaller xstream12;
+    protected final org.kie.dmn.backend.marshalling.v1_3.xstream.XStreamMarshaller xstream13;
     private static final StaxDriver staxDriver = new StaxDriver();
 
     public XStreamMarshaller() {
@@ -123,6 +129,53 @@ public class XStreamMarshaller implements DMNMarshaller {
         return null;
     }
 
+    /**
+     * Unmarshals the model reading the events of the given StAX reader, positioned at the start of the document or on its root element,
+     * so that the caller can observe the same events, e.g. to validate them against the schema, without parsing the XML twice.
+     * The XStream configured for each DMN version is built once and reused by each call.
+     */
+    public Definitions unmarshal(XMLStreamReader xmlReader) {
+        try {
+            while (xmlReader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                xmlReader.next();
+            }
+            DMN_VERSION dmnVersion = inferDMNVersionFromRoot(xmlReader);
+            // the root element, already read to infer the version, is replayed to XStream
+            XMLStreamReader replayingReader = new SkippingStaxReader(xmlReader, Collections.emptySet());
+            switch (dmnVersion) {
+                case DMN_v1_1:
+                    return xstream11.unmarshal(replayingReader);
+                case DMN_v1_2:
+                    return xstream12.unmarshal(replayingReader);
+                case DMN_v1_3:
+                case UNKNOWN:
+                default:
+                    return xstream13.unmarshal(replayingReader);
+            }
+        } catch (XMLStreamException e) {
+            logger.error("Error unmarshalling DMN model from reader.", e);
+        }
+        return null;
+    }
+
+    /**
+     * Infers the DMN version from the namespaces declared on the root element the given reader is positioned on.
+     */
+    public static DMN_VERSION inferDMNVersionFromRoot(XMLStreamReader rootReader) {
+        Set<String> namespaces = new HashSet<>();
+        for (int nsIndex = 0; nsIndex < rootReader.getNamespaceCount(); nsIndex++) {
+            namespaces.add(rootReader.getNamespaceURI(nsIndex));
+        }
+        if (namespaces.contains(org.kie.dmn.model.v1_3.KieDMNModelInstrumentedBase.URI_DMN)) {
+            return DMN_VERSION.DMN_v1_3;
+        } else if (namespaces.contains(org.kie.dmn.model.v1_2.KieDMNModelInstrumentedBase.URI_DMN)) {
+            return DMN_VERSION.DMN_v1_2;
+        } else if (namespaces.contains(org.kie.dmn.model.v1_1.KieDMNModelInstrumentedBase.URI_DMN)) {
+            return DMN_VERSION.DMN_v1_1;
+        }
+        return DMN_VERSION.UNKNOWN;
+    }
+
     @Override
     public String marshal(Object o) {
         if (o instanceof org.kie.dmn.model.v1_3.KieDMNModelInstrumentedBase) {
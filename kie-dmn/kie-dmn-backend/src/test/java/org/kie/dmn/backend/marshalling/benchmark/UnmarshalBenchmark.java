@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.backend.marshalling.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.dmn.api.marshalling.DMNMarshaller;
+import org.kie.dmn.backend.marshalling.v1x.DMNMarshallerFactory;
+import org.kie.dmn.model.api.Definitions;
+import org.kie.dmn.model.v1_3.KieDMNModelInstrumentedBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the default XStream unmarshalling of a large DMN v1.3 model, made of decisions with a decision table each
+ * and of the DMNDI shapes and edges drawing them, with the streaming one.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UnmarshalBenchmark {
+
+    @Param({"1000"})
+    private int numberOfDecisions;
+
+    @Param({"20"})
+    private int numberOfRulesPerDecision;
+
+    private String xml;
+    private DMNMarshaller xstreamMarshaller;
+    private DMNMarshaller streamingMarshaller;
+
+    @Setup(Level.Trial)
+    public void setUpModel() {
+        xml = createModel(numberOfDecisions, numberOfRulesPerDecision);
+        xstreamMarshaller = DMNMarshallerFactory.newDefaultMarshaller();
+        streamingMarshaller = DMNMarshallerFactory.newStreamingMarshaller(Collections.emptyList(), true);
+    }
+
+    @Benchmark
+    public Definitions unmarshalWithXStream() {
+        return xstreamMarshaller.unmarshal(xml);
+    }
+
+    @Benchmark
+    public Definitions unmarshalStreaming() {
+        return streamingMarshaller.unmarshal(xml);
+    }
+
+    private static String createModel(int numberOfDecisions, int numberOfRulesPerDecision) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<definitions xmlns=\"").append(KieDMNModelInstrumentedBase.URI_DMN).append("\"")
+          .append(" xmlns:dmndi=\"").append(KieDMNModelInstrumentedBase.URI_DMNDI).append("\"")
+          .append(" xmlns:dc=\"").append(KieDMNModelInstrumentedBase.URI_DC).append("\"")
+          .append(" xmlns:di=\"").append(KieDMNModelInstrumentedBase.URI_DI).append("\"")
+          .append(" id=\"_benchmark\" name=\"benchmark\" namespace=\"http://www.example.com/benchmark\">\n");
+        sb.append("  <inputData id=\"_age\" name=\"age\">\n");
+        sb.append("    <variable id=\"_age_variable\" name=\"age\" typeRef=\"number\"/>\n");
+        sb.append("  </inputData>\n");
+        for (int d = 0; d < numberOfDecisions; d++) {
+            sb.append("  <decision id=\"_d").append(d).append("\" name=\"decision").append(d).append("\">\n");
+            sb.append("    <variable id=\"_d").append(d).append("_variable\" name=\"decision").append(d).append("\" typeRef=\"string\"/>\n");
+            sb.append("    <informationRequirement id=\"_d").append(d).append("_ir\">\n");
+            sb.append("      <requiredInput href=\"#_age\"/>\n");
+            sb.append("    </informationRequirement>\n");
+            sb.append("    <decisionTable id=\"_d").append(d).append("_dt\" hitPolicy=\"UNIQUE\">\n");
+            sb.append("      <input id=\"_d").append(d).append("_input\">\n");
+            sb.append("        <inputExpression id=\"_d").append(d).append("_inputExpression\" typeRef=\"number\">\n");
+            sb.append("          <text>age</text>\n");
+            sb.append("        </inputExpression>\n");
+            sb.append("      </input>\n");
+            sb.append("      <output id=\"_d").append(d).append("_output\"/>\n");
+            for (int r = 0; r < numberOfRulesPerDecision; r++) {
+                sb.append("      <rule id=\"_d").append(d).append("_r").append(r).append("\">\n");
+                sb.append("        <inputEntry id=\"_d").append(d).append("_r").append(r).append("_in\">\n");
+                sb.append("          <text>[").append(r * 10).append("..").append(r * 10 + 10).append(")</text>\n");
+                sb.append("        </inputEntry>\n");
+                sb.append("        <outputEntry id=\"_d").append(d).append("_r").append(r).append("_out\">\n");
+                sb.append("          <text>\"range ").append(r).append("\"</text>\n");
+                sb.append("        </outputEntry>\n");
+                sb.append("      </rule>\n");
+            }
+            sb.append("    </decisionTable>\n");
+            sb.append("  </decision>\n");
+        }
+        sb.append("  <dmndi:DMNDI>\n");
+        sb.append("    <dmndi:DMNDiagram id=\"_diagram\">\n");
+        sb.append("      <dmndi:DMNShape id=\"_age_shape\" dmnElementRef=\"_age\">\n");
+        sb.append("        <dc:Bounds x=\"0\" y=\"0\" width=\"100\" height=\"50\"/>\n");
+        sb.append("      </dmndi:DMNShape>\n");
+        for (int d = 0; d < numberOfDecisions; d++) {
+            sb.append("      <dmndi:DMNShape id=\"_d").append(d).append("_shape\" dmnElementRef=\"_d").append(d).append("\">\n");
+            sb.append("        <dc:Bounds x=\"").append(d * 150).append("\" y=\"200\" width=\"100\" height=\"50\"/>\n");
+            sb.append("      </dmndi:DMNShape>\n");
+            sb.append("      <dmndi:DMNEdge id=\"_d").append(d).append("_edge\" dmnElementRef=\"_d").append(d).append("_ir\">\n");
+            sb.append("        <di:waypoint x=\"50\" y=\"50\"/>\n");
+            sb.append("        <di:waypoint x=\"").append(d * 150 + 50).append("\" y=\"200\"/>\n");
+            sb.append("      </dmndi:DMNEdge>\n");
+        }
+        sb.append("    </dmndi:DMNDiagram>\n");
+        sb.append("  </dmndi:DMNDI>\n");
+        sb.append("</definitions>\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.backend.marshalling.v1_3;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+import org.kie.dmn.api.marshalling.DMNMarshaller;
+import org.kie.dmn.backend.marshalling.SkippingStaxReader;
+import org.kie.dmn.backend.marshalling.v1_3.extensions.TrisoExtensionRegister;
+import org.kie.dmn.backend.marshalling.v1x.DMNMarshallerFactory;
+import org.kie.dmn.model.api.Definitions;
+import org.kie.dmn.model.v1_3.KieDMNModelInstrumentedBase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingUnmarshalTest {
+
+    private static final List<String> MODELS = Arrays.asList("simple.dmn", "Financial.dmn", "Loan info.dmn", "Recommended Loan Products.dmn",
+                                                             "group.dmn", "dmnedge.dmn", "functionItem.dmn", "decision-list.dmn");
+
+    private static final List<String> MODELS_V1_2 = Arrays.asList("simple.dmn", "ch11example.dmn", "DecisionService20180911v12.dmn", "decision-list.dmn",
+                                                                  "ImportName.dmn", "hardcoded-java-max-call.dmn", "diamondWithColors.dmn");
+
+    private static final List<String> MODELS_V1_1 = Arrays.asList("0001-input-data-string.dmn", "0003-input-data-string-allowed-values.dmn",
+                                                                  "0004-decision-services.dmn", "0005-decision-list.dmn", "ch11example.xml",
+                                                                  "dummy-relation.xml", "hardcoded_function_definition.dmn", "semantic-namespace.xml",
+                                                                  "Hello_World_semantic_namespace_with_extensions.dmn");
+
+    @Test
+    public void testSameModelsAsXStreamButDMNDI() throws Exception {
+        checkSameModelsAsXStreamButDMNDI(MODELS);
+    }
+
+    @Test
+    public void testSameModelsAsXStreamButDMNDIv12() throws Exception {
+        checkSameModelsAsXStreamButDMNDI(inPackage("v1_2", MODELS_V1_2));
+    }
+
+    @Test
+    public void testSameModelsAsXStreamv11() throws Exception {
+        checkSameModelsAsXStreamButDMNDI(inPackage("v1_1", MODELS_V1_1));
+    }
+
+    private void checkSameModelsAsXStreamButDMNDI(List<String> models) throws Exception {
+        DMNMarshaller marshaller = DMNMarshallerFactory.newDefaultMarshaller();
+        DMNMarshaller streaming = DMNMarshallerFactory.newStreamingMarshaller(Collections.emptyList(), false);
+        for (String model : models) {
+            Definitions expected = unmarshal(marshaller, model);
+            Definitions actual = unmarshal(streaming, model);
+            assertNotNull(model, actual);
+            assertNull(model, actual.getDMNDI());
+            assertEquals(model, expected.getClass(), actual.getClass());
+
+            expected.setDMNDI(null);
+            assertEquals(model, marshaller.marshal(expected), marshaller.marshal(actual));
+        }
+    }
+
+    @Test
+    public void testSkipOnlyElementsOfTheDMNNamespaces() throws Exception {
+        String xml = "<definitions xmlns=\"" + KieDMNModelInstrumentedBase.URI_DMN + "\" xmlns:other=\"http://www.example.com/other\">" +
+                     "<other:DMNDI><other:kept/></other:DMNDI>" +
+                     "<extensionElements><other:skipped/></extensionElements>" +
+                     "<other:extensionElements/>" +
+                     "<dmndi:DMNDI xmlns:dmndi=\"" + KieDMNModelInstrumentedBase.URI_DMNDI + "\"><dmndi:skipped/></dmndi:DMNDI>" +
+                     "</definitions>";
+        List<QName> skippedElements = Arrays.asList(new QName(KieDMNModelInstrumentedBase.URI_DMNDI, "DMNDI"),
+                                                    new QName(KieDMNModelInstrumentedBase.URI_DMN, "extensionElements"));
+
+        XMLStreamReader reader = new SkippingStaxReader(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)), new HashSet<>(skippedElements));
+        List<String> elements = new ArrayList<>();
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                elements.add(reader.getLocalName());
+            }
+        }
+        reader.close();
+        assertEquals(Arrays.asList("definitions", "DMNDI", "kept", "extensionElements"), elements);
+    }
+
+    @Test
+    public void testSkipExtensionElements() throws Exception {
+        String model = "Chapter 11 Example.dmn";
+        DMNMarshaller marshaller = DMNMarshallerFactory.newMarshallerWithExtensions(Collections.singletonList(new TrisoExtensionRegister()));
+        assertNotNull(unmarshal(marshaller, model).getExtensionElements());
+
+        Definitions keeping = unmarshal(DMNMarshallerFactory.newStreamingMarshaller(Collections.singletonList(new TrisoExtensionRegister()), false), model);
+        assertNotNull(keeping.getExtensionElements());
+        assertNull(keeping.getDMNDI());
+
+        Definitions skipping = unmarshal(DMNMarshallerFactory.newStreamingMarshaller(Collections.singletonList(new TrisoExtensionRegister()), true), model);
+        assertNull(skipping.getExtensionElements());
+        assertTrue(skipping.getDrgElement().size() > 0);
+        assertEquals(keeping.getDrgElement().size(), skipping.getDrgElement().size());
+    }
+
+    private static List<String> inPackage(String version, List<String> models) {
+        List<String> result = new ArrayList<>();
+        for (String model : models) {
+            result.add("/org/kie/dmn/backend/marshalling/" + version + "/" + model);
+        }
+        return result;
+    }
+
+    private Definitions unmarshal(DMNMarshaller marshaller, String model) throws Exception {
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream(model))) {
+            return marshaller.unmarshal(reader);
+        }
+    }
+}
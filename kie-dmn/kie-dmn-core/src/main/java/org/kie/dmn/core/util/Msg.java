@@ -129,6 +129,7 @@ public final class Msg {
     public static final Message1 DTANALYSISRESULT                                    = new Message1( DMNMessageType.DECISION_TABLE_ANALYSIS, "Decision Table Analysis results: %s");
     public static final Message1 DTANALYSIS_EMPTY                                    = new Message1( DMNMessageType.DECISION_TABLE_ANALYSIS_EMPTY, "Decision Table Analysis of table '%s' finished with no messages to be reported.");
     public static final Message2 DTANALYSIS_ERROR_ANALYSIS_SKIPPED                   = new Message2( DMNMessageType.DECISION_TABLE_ANALYSIS_ERROR, "Skipped Decision Table Analysis of table '%s' because: %s");
+    public static final Message2 DTANALYSIS_INCOMPLETE                               = new Message2( DMNMessageType.DECISION_TABLE_ANALYSIS, "Gap and Overlap Analysis of table '%s' is incomplete, as it exceeded its budget of %s; the reported gaps and overlaps may be partial.");
     public static final Message3 DTANALYSIS_HITPOLICY_PRIORITY_ANALYSIS_SKIPPED      = new Message3( DMNMessageType.DECISION_TABLE_ANALYSIS_ERROR, "Skipped Decision Table Analysis of table '%s' hit policy Priority mask rules for rules: %s %s as they define multiple inputentries");
     public static final Message4 DTANALYSIS_ERROR_RULE_OUTSIDE_DOMAIN                = new Message4( DMNMessageType.DECISION_TABLE_ANALYSIS_ERROR, "Rule %s defines '%s' which is outside the domain min/max %s of column %s");
     public static final Message4 DTANALYSIS_ERROR_RULE_OUTPUT_OUTSIDE_LOV            = new Message4( DMNMessageType.DECISION_TABLE_ANALYSIS_ERROR, "Rule %s defines output '%s' which is outside the column's %s allowed values %s");
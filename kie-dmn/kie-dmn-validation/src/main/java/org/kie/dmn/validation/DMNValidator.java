@@ -18,8 +18,10 @@ package org.kie.dmn.validation;
 
 import java.io.File;
 import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 
+import org.kie.api.io.Resource;
 import org.kie.dmn.api.core.DMNMessage;
 import org.kie.dmn.model.api.Definitions;
 
@@ -123,6 +125,20 @@ public interface DMNValidator {
      */
     List<DMNMessage> validate( Reader reader, Validation... options );
 
+    /**
+     * Validate a batch of models and return the results. The models are
+     * validated together, like with {@link #validateUsing(Validation...)},
+     * so they can DMN-Import each other; the resources are read and the models
+     * are validated in parallel, as far as their imports allow.
+     *
+     * @param resources the models to validate
+     * @param options selects which validations to apply
+     *
+     * @return returns a list of messages from the validation, or an empty
+     *         list otherwise.
+     */
+    List<DMNMessage> validate( Collection<Resource> resources, Validation... options );
+
     /**
      * Release all resources associated with this DMNValidator.
      */
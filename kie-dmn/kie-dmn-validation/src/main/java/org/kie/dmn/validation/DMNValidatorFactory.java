@@ -18,6 +18,7 @@ package org.kie.dmn.validation;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 
 import org.kie.dmn.core.compiler.DMNProfile;
 
@@ -35,6 +36,13 @@ public final class DMNValidatorFactory {
         return new DMNValidatorImpl(cl, dmnProfiles);
     }
 
+    /**
+     * @param dmnValidatorConfig the configuration of the validator, e.g. the budget of the Decision Table Analysis.
+     */
+    public static DMNValidator newValidator(List<DMNProfile> dmnProfiles, Properties dmnValidatorConfig) {
+        return new DMNValidatorImpl(null, dmnProfiles, dmnValidatorConfig);
+    }
+
     private DMNValidatorFactory() {
         // Constructing instances is not allowed for this class
     }
@@ -24,16 +24,28 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
@@ -41,8 +53,11 @@ import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
 import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.model.Model;
 import org.drools.modelcompiler.builder.KieBaseBuilder;
 import org.kie.api.command.BatchExecutionCommand;
+import org.kie.api.io.Resource;
+import org.kie.api.runtime.KieSessionsPool;
 import org.kie.api.runtime.StatelessKieSession;
 import org.kie.dmn.api.core.DMNCompiler;
 import org.kie.dmn.api.core.DMNCompilerConfiguration;
@@ -128,21 +143,65 @@ public class DMNValidatorImpl implements DMNValidator {
     private final List<DMNProfile> dmnProfiles = new ArrayList<>();
     private final DMNCompilerConfiguration dmnCompilerConfig;
 
+    /**
+     * Shared by the parsing of all the models, so that the XStream unmarshalling each DMN version is configured only once.
+     */
+    private final XStreamMarshaller dmnMarshaller;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
     private final InternalDMNDTAnalyser dmnDTValidator;
-    private InternalKnowledgeBase kb11;
-    private InternalKnowledgeBase kb12;
+
+    /**
+     * The validation rules are the same for every validator, so their kbases are built only once
+     * and the sessions validating each model are taken from a pool instead of being created anew.
+     */
+    private static class ValidationKieBases {
+
+        private static final KieSessionsPool POOL11 = newPool(org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V11_MODEL);
+        private static final KieSessionsPool POOL12 = newPool(org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V12_MODEL);
+
+        private static KieSessionsPool newPool(Model versionModel) {
+            InternalKnowledgeBase kb = KieBaseBuilder.createKieBaseFromModel(Arrays.asList(org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V1X_MODEL,
+                                                                                           versionModel));
+            return kb.newKieSessionsPool(Runtime.getRuntime().availableProcessors());
+        }
+
+        private static StatelessKieSession newStatelessKieSession(Definitions dmnModel) {
+            return dmnModel instanceof org.kie.dmn.model.v1_1.KieDMNModelInstrumentedBase ? POOL11.newStatelessKieSession() : POOL12.newStatelessKieSession();
+        }
+    }
+
+    /**
+     * The threads validating and analysing the models of a ValidatorBuilder in parallel, shared by all the validators
+     * and bounded by the available processors. They are not fork/join workers, so that the analysis of each decision
+     * table can still sweep it in parallel, and they do not compete with the other users of the common pool.
+     */
+    private static class ValidationExecutor {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                                                     r -> {
+                                                                                         Thread thread = new Thread(r, "kie-dmn-validation-" + THREAD_COUNT.getAndIncrement());
+                                                                                         thread.setDaemon(true);
+                                                                                         return thread;
+                                                                                     });
+    }
 
     public DMNValidatorImpl(ClassLoader cl, List<DMNProfile> dmnProfiles) {
-        kb11 = KieBaseBuilder.createKieBaseFromModel(Arrays.asList(org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V1X_MODEL,
-                                                                   org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V11_MODEL));
-        kb12 = KieBaseBuilder.createKieBaseFromModel(Arrays.asList(org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V1X_MODEL,
-                                                                   org.kie.dmn.validation.bootstrap.ValidationBootstrapModels.V12_MODEL));
+        this(cl, dmnProfiles, new Properties());
+    }
+
+    public DMNValidatorImpl(ClassLoader cl, List<DMNProfile> dmnProfiles, Properties dmnValidatorConfig) {
         ChainedProperties localChainedProperties = new ChainedProperties();
+        localChainedProperties.addProperties(dmnValidatorConfig);
         this.dmnProfiles.addAll(DMNAssemblerService.getDefaultDMNProfiles(localChainedProperties));
         this.dmnProfiles.addAll(dmnProfiles);
         final ClassLoader classLoader = cl == null ? ClassLoaderUtil.findDefaultClassLoader() : cl;
         this.dmnCompilerConfig = DMNAssemblerService.compilerConfigWithKModulePrefs(classLoader, localChainedProperties, this.dmnProfiles, (DMNCompilerConfigurationImpl) DMNFactory.newCompilerConfiguration());
-        dmnDTValidator = InternalDMNDTAnalyserFactory.newDMNDTAnalyser(this.dmnProfiles);
+        this.dmnMarshaller = new XStreamMarshaller(dmnCompilerConfig.getRegisteredExtensions());
+        dmnDTValidator = InternalDMNDTAnalyserFactory.newDMNDTAnalyser(this.dmnProfiles, localChainedProperties);
     }
     
     @Override
@@ -192,25 +251,46 @@ public class DMNValidatorImpl implements DMNValidator {
 
         @Override
         public List<DMNMessage> theseModels(Reader... readers) {
+            return validateParsedModels(Arrays.stream(readers).map(r -> CompletableFuture.supplyAsync(() -> parseModel(r), ValidationExecutor.EXECUTOR)).collect(toList()));
+        }
+
+        /**
+         * Validate the models read from the resources, parsing them in parallel.
+         * The resources are closed after being read.
+         */
+        public List<DMNMessage> theseResources(Collection<Resource> resources) {
+            return validateParsedModels(resources.stream().map(r -> CompletableFuture.supplyAsync(() -> parseModel(r), ValidationExecutor.EXECUTOR)).collect(toList()));
+        }
+
+        private ParsedModel parseModel(Resource resource) {
+            try (Reader reader = resource.getReader()) {
+                return parseModel(reader);
+            } catch (IOException e) {
+                ParsedModel parsed = new ParsedModel();
+                reportRuntimeProblem(parsed.messages, e);
+                return parsed;
+            }
+        }
+
+        private ParsedModel parseModel(Reader reader) {
+            ParsedModel parsed = new ParsedModel();
+            try {
+                parsed.definitions = validator.unmarshalValidatingSchema(reader, flags.contains(VALIDATE_SCHEMA), parsed.messages);
+            } catch (Exception t) {
+                reportRuntimeProblem(parsed.messages, t);
+            }
+            return parsed;
+        }
+
+        private List<DMNMessage> validateParsedModels(List<CompletableFuture<ParsedModel>> parsedModels) {
             DMNMessageManager results = new DefaultDMNMessagesManager();
             List<Definitions> models = new ArrayList<>();
-            for (Reader reader : readers) {
-                try {
-                    String content = readContent(reader);
-                    if (flags.contains(VALIDATE_SCHEMA)) {
-                        results.addAll(validator.validateSchema(new StringReader(content)));
-                    }
-                    Definitions dmndefs = unmarshalDefinitionsFromReader(validator.dmnCompilerConfig, new StringReader(content));
-                    models.add(dmndefs);
-                } catch (Exception t) {
-                    MsgUtil.reportMessage(LOG,
-                                          DMNMessage.Severity.ERROR,
-                                          null,
-                                          results,
-                                          t,
-                                          null,
-                                          Msg.VALIDATION_RUNTIME_PROBLEM,
-                                          t.getMessage());
+            for (CompletableFuture<ParsedModel> parsing : parsedModels) {
+                // parseModel reports the problems of each model in its own messages
+                ParsedModel parsed = parsing.join();
+                results.addAll(parsed.messages.getMessages());
+                if (parsed.definitions != null) {
+                    models.add(parsed.definitions);
                 }
             }
             if (flags.contains(VALIDATE_MODEL) || flags.contains(VALIDATE_COMPILATION) || flags.contains(ANALYZE_DECISION_TABLE)) {
@@ -267,17 +347,32 @@ public class DMNValidatorImpl implements DMNValidator {
             return models;
         }
 
+        /**
+         * Only the compilation of the models is sequential, as each model needs the ones it imports,
+         * which come before it once sorted: the validation of the models against the rules and the
+         * analysis of their decision tables run in parallel, while the messages are reported in order.
+         */
         private void validateDefinitions(List<Definitions> definitions, DMNMessageManager results) {
-            List<Definitions> otherModel_Definitions = new ArrayList<>();
+            List<CompletableFuture<List<DMNMessage>>> modelValidations = new ArrayList<>();
+            if (flags.contains(VALIDATE_MODEL)) {
+                for (int i = 0; i < definitions.size(); i++) {
+                    Definitions dmnModel = definitions.get(i);
+                    List<Definitions> otherModel_Definitions = definitions.subList(0, i);
+                    modelValidations.add(CompletableFuture.supplyAsync(() -> validator.validateModel(dmnModel, otherModel_Definitions), ValidationExecutor.EXECUTOR));
+                }
+            }
+            List<CompletableFuture<Consumer<DMNMessageManager>>> steps = new ArrayList<>();
             List<DMNModel> otherModel_DMNModels = new ArrayList<>();
-            for (Definitions dmnModel : definitions) {
+            // as when assembling the models of a kjar, a single compiler compiles all of them
+            DMNCompilerImpl compiler = new DMNCompilerImpl(validator.dmnCompilerConfig);
+            for (int i = 0; i < definitions.size(); i++) {
+                Definitions dmnModel = definitions.get(i);
                 try {
                     if (flags.contains(VALIDATE_MODEL)) {
-                        results.addAll(validator.validateModel(dmnModel, otherModel_Definitions));
-                        otherModel_Definitions.add(dmnModel);
+                        List<DMNMessage> modelMessages = modelValidations.get(i).join();
+                        steps.add(completed(r -> r.addAll(modelMessages)));
                     }
                     if (flags.contains(VALIDATE_COMPILATION) || flags.contains(ANALYZE_DECISION_TABLE)) {
-                        DMNCompilerImpl compiler = new DMNCompilerImpl(validator.dmnCompilerConfig);
                         Function<String, Reader> relativeResolver = null;
                         if (importResolver != null) {
                             relativeResolver = locationURI -> importResolver.newReader(dmnModel.getNamespace(),
@@ -289,28 +384,53 @@ public class DMNValidatorImpl implements DMNValidator {
                                                           null,
                                                           relativeResolver);
                         if (model != null) {
-                            results.addAll(model.getMessages());
+                            List<DMNMessage> compilationMessages = model.getMessages();
+                            steps.add(completed(r -> r.addAll(compilationMessages)));
                             otherModel_DMNModels.add(model);
                             if (flags.contains(ANALYZE_DECISION_TABLE)) {
-                                List<DTAnalysis> vs = validator.dmnDTValidator.analyse(model, flags);
-                                List<DMNMessage> dtAnalysisResults = vs.stream().flatMap(a -> a.asDMNMessages().stream()).collect(Collectors.toList());
-                                results.addAllUnfiltered(dtAnalysisResults);
+                                steps.add(CompletableFuture.supplyAsync(() -> {
+                                    List<DTAnalysis> vs = validator.dmnDTValidator.analyse(model, flags);
+                                    List<DMNMessage> dtAnalysisResults = vs.stream().flatMap(a -> a.asDMNMessages().stream()).collect(Collectors.toList());
+                                    return r -> r.addAllUnfiltered(dtAnalysisResults);
+                                }, ValidationExecutor.EXECUTOR));
                             }
                         } else {
                             throw new IllegalStateException("Compiled model is null!");
                         }
                     }
                 } catch (Throwable t) {
-                    MsgUtil.reportMessage(LOG,
-                                          DMNMessage.Severity.ERROR,
-                                          null,
-                                          results,
-                                          t,
-                                          null,
-                                          Msg.VALIDATION_RUNTIME_PROBLEM,
-                                          t.getMessage());
+                    steps.add(completed(r -> reportRuntimeProblem(r, t)));
                 }
             }
+            for (CompletableFuture<Consumer<DMNMessageManager>> step : steps) {
+                try {
+                    step.join().accept(results);
+                } catch (Throwable t) {
+                    reportRuntimeProblem(results, t);
+                }
+            }
+        }
+
+        private static CompletableFuture<Consumer<DMNMessageManager>> completed(Consumer<DMNMessageManager> step) {
+            return CompletableFuture.completedFuture(step);
+        }
+
+        private static void reportRuntimeProblem(DMNMessageManager results, Throwable t) {
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            MsgUtil.reportMessage(LOG,
+                                  DMNMessage.Severity.ERROR,
+                                  null,
+                                  results,
+                                  cause,
+                                  null,
+                                  Msg.VALIDATION_RUNTIME_PROBLEM,
+                                  cause.getMessage());
+        }
+
+        private static class ParsedModel {
+
+            private final DMNMessageManager messages = new DefaultDMNMessagesManager();
+            private Definitions definitions;
         }
 
         private List<Definitions> internalValidatorSortModels(List<Definitions> ms) {
@@ -325,6 +445,11 @@ public class DMNValidatorImpl implements DMNValidator {
         return new ValidatorBuilderImpl(this, options);
     }
 
+    @Override
+    public List<DMNMessage> validate(Collection<Resource> resources, Validation... options) {
+        return new ValidatorBuilderImpl(this, options).theseResources(resources);
+    }
+
     @Override
     public List<DMNMessage> validate(Definitions dmnModel) {
         return validate( dmnModel, VALIDATE_MODEL );
@@ -438,6 +563,67 @@ public class DMNValidatorImpl implements DMNValidator {
         return dmndefs;
     }
 
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Unmarshals the model parsing its XML only once: if requested, the events read by the unmarshalling are validated
+     * at the same time against the schema of the DMN version declared by the root element, reporting the problems found.
+     */
+    private Definitions unmarshalValidatingSchema(Reader reader, boolean validateSchema, DMNMessageManager results) throws XMLStreamException {
+        XMLStreamReader xmlReader = XML_INPUT_FACTORY.createXMLStreamReader(reader);
+        try {
+            try {
+                while (xmlReader.next() != XMLStreamConstants.START_ELEMENT) {
+                    // moving to the root element, declaring the DMN version
+                }
+            } catch (XMLStreamException e) {
+                if (validateSchema) {
+                    reportFailedXMLValidation(results, e);
+                }
+                throw e;
+            }
+            Definitions dmndefs;
+            if (validateSchema) {
+                SchemaValidatingStaxReader schemaValidatingReader = new SchemaValidatingStaxReader(xmlReader, getSchema(XStreamMarshaller.inferDMNVersionFromRoot(xmlReader)));
+                dmndefs = dmnMarshaller.unmarshal(schemaValidatingReader);
+                Exception failure = schemaValidatingReader.finish();
+                if (failure != null) {
+                    reportFailedXMLValidation(results, failure);
+                }
+            } else {
+                dmndefs = dmnMarshaller.unmarshal(xmlReader);
+            }
+            dmndefs.normalize();
+            return dmndefs;
+        } finally {
+            xmlReader.close();
+        }
+    }
+
+    private static Schema getSchema(DMN_VERSION dmnVersion) {
+        switch (dmnVersion) {
+            case DMN_v1_1:
+                return schemav1_1;
+            case DMN_v1_2:
+                return schemav1_2;
+            case DMN_v1_3:
+            case UNKNOWN:
+            default:
+                return schemav1_3;
+        }
+    }
+
+    private void reportFailedXMLValidation(DMNMessageManager results, Exception e) {
+        List<DMNMessage> problems = Collections.singletonList(new DMNMessageImpl(DMNMessage.Severity.ERROR, MsgUtil.createMessage(Msg.FAILED_XML_VALIDATION, e.getMessage()), Msg.FAILED_XML_VALIDATION.getType(), null, e));
+        logDebugMessages(problems);
+        results.addAll(problems);
+    }
+
 
     private void validateModelCompilation(Definitions dmnModel, DMNMessageManager results, EnumSet<Validation> flags) {
         if( flags.contains( VALIDATE_MODEL ) ) {
@@ -509,7 +695,7 @@ public class DMNValidatorImpl implements DMNValidator {
     }
 
     private List<DMNMessage> validateModel(Definitions dmnModel, List<Definitions> otherModel_Definitions) {
-        StatelessKieSession kieSession = dmnModel instanceof org.kie.dmn.model.v1_1.KieDMNModelInstrumentedBase ? kb11.newStatelessKieSession() : kb12.newStatelessKieSession();
+        StatelessKieSession kieSession = ValidationKieBases.newStatelessKieSession(dmnModel);
         MessageReporter reporter = new MessageReporter();
         kieSession.setGlobal( "reporter", reporter );
 
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.validation;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * A StAX reader validating against a schema the events read through it, so that a model can be validated
+ * while it is unmarshalled, parsing its XML only once.
+ *
+ * It has to be created on a reader positioned on the root element. As the Validator used to validate a whole document,
+ * it stops at the first error, which is kept to be reported, while the events keep flowing to the unmarshaller.
+ * Once the unmarshalling is over, {@link #finish()} reads the rest of the document, so that its end is validated too.
+ */
+class SchemaValidatingStaxReader extends StreamReaderDelegate {
+
+    private final ValidatorHandler validatorHandler;
+    private Exception failure;
+
+    SchemaValidatingStaxReader(XMLStreamReader reader, Schema schema) {
+        super(reader);
+        this.validatorHandler = schema.newValidatorHandler();
+        try {
+            validatorHandler.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            validatorHandler.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            validatorHandler.setDocumentLocator(new StaxLocator());
+            validatorHandler.startDocument();
+            startElement();
+        } catch (SAXException e) {
+            failure = e;
+        }
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event;
+        try {
+            event = super.next();
+        } catch (XMLStreamException e) {
+            // a document that is not well-formed is not valid either
+            if (failure == null) {
+                failure = e;
+            }
+            throw e;
+        }
+        if (failure == null) {
+            try {
+                validate(event);
+            } catch (SAXException e) {
+                failure = e;
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Reads and validates the rest of the document, returning the first error found by the validation, if any.
+     */
+    Exception finish() {
+        try {
+            while (failure == null && hasNext()) {
+                next();
+            }
+        } catch (XMLStreamException e) {
+            failure = e;
+        }
+        return failure;
+    }
+
+    private void validate(int event) throws SAXException {
+        switch (event) {
+            case START_ELEMENT:
+                startElement();
+                break;
+            case END_ELEMENT:
+                validatorHandler.endElement(getNamespaceURIOrEmpty(), getLocalName(), qualifiedName(getPrefix(), getLocalName()));
+                for (int i = 0; i < getNamespaceCount(); i++) {
+                    validatorHandler.endPrefixMapping(getNamespacePrefixOrEmpty(i));
+                }
+                break;
+            case CHARACTERS:
+            case CDATA:
+            case SPACE:
+                validatorHandler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                break;
+            case PROCESSING_INSTRUCTION:
+                validatorHandler.processingInstruction(getPITarget(), getPIData());
+                break;
+            case END_DOCUMENT:
+                validatorHandler.endDocument();
+                break;
+            default:
+                // comments and the other events do not take part in the validation
+        }
+    }
+
+    private void startElement() throws SAXException {
+        for (int i = 0; i < getNamespaceCount(); i++) {
+            validatorHandler.startPrefixMapping(getNamespacePrefixOrEmpty(i), getNamespaceURI(i));
+        }
+        AttributesImpl attributes = new AttributesImpl();
+        for (int i = 0; i < getAttributeCount(); i++) {
+            String attributeNamespace = getAttributeNamespace(i);
+            attributes.addAttribute(attributeNamespace != null ? attributeNamespace : "",
+                                    getAttributeLocalName(i),
+                                    qualifiedName(getAttributePrefix(i), getAttributeLocalName(i)),
+                                    getAttributeType(i),
+                                    getAttributeValue(i));
+        }
+        validatorHandler.startElement(getNamespaceURIOrEmpty(), getLocalName(), qualifiedName(getPrefix(), getLocalName()), attributes);
+    }
+
+    private String getNamespaceURIOrEmpty() {
+        String namespaceURI = getNamespaceURI();
+        return namespaceURI != null ? namespaceURI : "";
+    }
+
+    private String getNamespacePrefixOrEmpty(int index) {
+        String prefix = getNamespacePrefix(index);
+        return prefix != null ? prefix : "";
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private class StaxLocator implements Locator {
+
+        @Override
+        public String getPublicId() {
+            Location location = getLocation();
+            return location != null ? location.getPublicId() : null;
+        }
+
+        @Override
+        public String getSystemId() {
+            Location location = getLocation();
+            return location != null ? location.getSystemId() : null;
+        }
+
+        @Override
+        public int getLineNumber() {
+            Location location = getLocation();
+            return location != null ? location.getLineNumber() : -1;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            Location location = getLocation();
+            return location != null ? location.getColumnNumber() : -1;
+        }
+    }
+}
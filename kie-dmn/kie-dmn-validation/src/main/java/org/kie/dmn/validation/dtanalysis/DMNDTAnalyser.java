@@ -25,6 +25,11 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -84,11 +89,23 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
     private final org.kie.dmn.feel.FEEL FEEL;
     private final DMNDTAnalyserValueFromNodeVisitor valueFromNodeVisitor;
     private final DMNDTAnalyserOutputClauseVisitor outputClauseVisitor;
+    private final DTAnalysisBudget budget;
+    private final boolean parallel;
 
     public DMNDTAnalyser(List<DMNProfile> dmnProfiles) {
+        this(dmnProfiles, DTAnalysisBudget.UNLIMITED, false);
+    }
+
+    /**
+     * @param budget bounds the Gap and Overlap Analysis of each table, which is reported as incomplete if exceeding it.
+     * @param parallel if true, the Gap and Overlap Analysis sweeps the intervals of the first column in parallel.
+     */
+    public DMNDTAnalyser(List<DMNProfile> dmnProfiles, DTAnalysisBudget budget, boolean parallel) {
         FEEL = org.kie.dmn.feel.FEEL.newInstance((List) dmnProfiles);
         valueFromNodeVisitor = new DMNDTAnalyserValueFromNodeVisitor((List) dmnProfiles);
         outputClauseVisitor = new DMNDTAnalyserOutputClauseVisitor((List) dmnProfiles);
+        this.budget = budget;
+        this.parallel = parallel;
     }
 
     @Override
@@ -123,14 +140,26 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
         DTAnalysis analysis = new DTAnalysis(dt, ddtaTable);
         analysis.computeOutputInLOV();
         if (!dt.getHitPolicy().equals(HitPolicy.COLLECT)) {
+            DTAnalysisBudget.Meter meter = budget.start();
+            // with a single column there is nothing to fork, as each interval of the sweep is a leaf;
+            // when already running on a fork/join pool, the sweep stays sequential not to block its worker on the joins.
+            boolean parallelSweep = parallel && ddtaTable.inputCols() > 1 && !ForkJoinTask.inForkJoinPool();
             if (ddtaTable.getColIDsStringWithoutEnum().isEmpty()) {
                 LOG.debug("findGaps");
-                findGaps(analysis, ddtaTable, 0, new Interval[ddtaTable.inputCols()], Collections.emptyList());
+                SweepResults<Hyperrectangle> gaps = new SweepResults<>(parallelSweep);
+                findGaps(gaps, ddtaTable, 0, new Interval[ddtaTable.inputCols()], Collections.emptyList(), meter);
+                gaps.collect().forEach(analysis::addGap);
             } else {
                 LOG.debug("findGaps Skipped because getColIDsStringWithoutEnum is not empty: {}", ddtaTable.getColIDsStringWithoutEnum());
             }
             LOG.debug("findOverlaps");
-            findOverlaps(analysis, ddtaTable, 0, new Interval[ddtaTable.inputCols()], Collections.emptyList());
+            SweepResults<Overlap> overlaps = new SweepResults<>(parallelSweep);
+            findOverlaps(overlaps, ddtaTable, 0, new Interval[ddtaTable.inputCols()], Collections.emptyList(), meter);
+            overlaps.collect().forEach(analysis::addOverlap);
+            if (meter.isExhausted()) {
+                LOG.debug("findGaps(), findOverlaps() stopped after {} steps, exceeding the budget of {}", meter.getSteps(), budget);
+                analysis.setIncomplete(budget.toString());
+            }
         } else {
             LOG.debug("findGaps(), findOverlaps() are Skipped because getHitPolicy is COLLECT.");
         }
@@ -353,8 +382,11 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
                           .orElse(null);
     }
 
-    private void findOverlaps(DTAnalysis analysis, DDTATable ddtaTable, int jColIdx, Interval[] currentIntervals, Collection<Integer> activeRules) {
+    private static void findOverlaps(SweepResults<Overlap> analysis, DDTATable ddtaTable, int jColIdx, Interval[] currentIntervals, Collection<Integer> activeRules, DTAnalysisBudget.Meter meter) {
         LOG.debug("findOverlaps jColIdx {}, currentIntervals {}, activeRules {}", jColIdx, currentIntervals, activeRules);
+        if (!meter.step()) {
+            return;
+        }
         if (jColIdx < ddtaTable.inputCols()) {
             List<Bound> bounds = findBoundsSorted(ddtaTable, jColIdx, activeRules);
             List<Interval> activeIntervals = new ArrayList<>();
@@ -368,7 +400,8 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
                                                              currentBound.isLowerBound() ? Interval.invertBoundary(currentBound.getBoundaryType()) : currentBound.getBoundaryType(),
                                                              0, 0);
                     currentIntervals[jColIdx] = analysisInterval;
-                    findOverlaps(analysis, ddtaTable, jColIdx + 1, currentIntervals, activeIntervalsToRules(activeIntervals));
+                    Collection<Integer> nextActiveRules = activeIntervalsToRules(activeIntervals);
+                    analysis.branch(currentIntervals, (results, intervals) -> findOverlaps(results, ddtaTable, jColIdx + 1, intervals, nextActiveRules, meter));
                 }
                 if (currentBound.isLowerBound()) {
                     activeIntervals.add(currentBound.getParent());
@@ -382,7 +415,7 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
             if (activeRules.size() > 1) {
                 Hyperrectangle overlap = new Hyperrectangle(ddtaTable.inputCols(), Arrays.asList(currentIntervals));
                 LOG.debug("OVERLAP DETECTED {}", overlap);
-                analysis.addOverlap(new Overlap(activeRules, overlap));
+                analysis.add(new Overlap(activeRules, overlap));
             }
         } else {
             throw new IllegalStateException();
@@ -390,8 +423,11 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
         LOG.debug(".");
     }
 
-    private static void findGaps(DTAnalysis analysis, DDTATable ddtaTable, int jColIdx, Interval[] currentIntervals, Collection<Integer> activeRules) {
+    private static void findGaps(SweepResults<Hyperrectangle> analysis, DDTATable ddtaTable, int jColIdx, Interval[] currentIntervals, Collection<Integer> activeRules, DTAnalysisBudget.Meter meter) {
         LOG.debug("findGaps jColIdx {}, currentIntervals {}, activeRules {}", jColIdx, currentIntervals, activeRules);
+        if (!meter.step()) {
+            return;
+        }
         if (jColIdx < ddtaTable.inputCols()) {
             findBoundsSorted(ddtaTable, jColIdx, activeRules);
             List<Bound> bounds = findBoundsSorted(ddtaTable, jColIdx, activeRules);
@@ -401,7 +437,7 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
             if (!domainRange.getLowerBound().equals(bounds.get(0))) {
                 currentIntervals[jColIdx] = lastDimensionUncoveredInterval(domainRange.getLowerBound(), bounds.get(0), domainRange);
                 Hyperrectangle gap = new Hyperrectangle(ddtaTable.inputCols(), buildEdgesForHyperrectangleFromIntervals(currentIntervals, jColIdx));
-                analysis.addGap(gap);
+                analysis.add(gap);
                 LOG.debug("STARTLEFT GAP DETECTED {}", gap);
             }
             // cycle rule's interval bounds
@@ -413,7 +449,7 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
                     currentIntervals[jColIdx] = lastDimensionUncoveredInterval(lastBound, currentBound, domainRange);
                     Hyperrectangle gap = new Hyperrectangle(ddtaTable.inputCols(), buildEdgesForHyperrectangleFromIntervals(currentIntervals, jColIdx));
                     LOG.debug("GAP DETECTED {}", gap);
-                    analysis.addGap(gap);
+                    analysis.add(gap);
                 }
                 if (!activeIntervals.isEmpty() && canBeNewCurrInterval(lastBound, currentBound)) {
                     Interval missingInterval = new Interval(lastBound.isUpperBound() ? Interval.invertBoundary(lastBound.getBoundaryType()) : lastBound.getBoundaryType(),
@@ -422,7 +458,8 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
                                                             currentBound.isLowerBound() ? Interval.invertBoundary(currentBound.getBoundaryType()) : currentBound.getBoundaryType(),
                                                             0, 0);
                     currentIntervals[jColIdx] = missingInterval;
-                    findGaps(analysis, ddtaTable, jColIdx + 1, currentIntervals, activeIntervalsToRules(activeIntervals));
+                    Collection<Integer> nextActiveRules = activeIntervalsToRules(activeIntervals);
+                    analysis.branch(currentIntervals, (results, intervals) -> findGaps(results, ddtaTable, jColIdx + 1, intervals, nextActiveRules, meter));
                 }
                 if (currentBound.isLowerBound()) {
                     activeIntervals.add(currentBound.getParent());
@@ -436,13 +473,92 @@ public class DMNDTAnalyser implements InternalDMNDTAnalyser {
                 currentIntervals[jColIdx] = lastDimensionUncoveredInterval(lastBound, domainRange.getUpperBound(), domainRange);
                 Hyperrectangle gap = new Hyperrectangle(ddtaTable.inputCols(), buildEdgesForHyperrectangleFromIntervals(currentIntervals, jColIdx));
                 LOG.debug("ENDRIGHT GAP DETECTED {}", gap);
-                analysis.addGap(gap);
+                analysis.add(gap);
             }
             currentIntervals[jColIdx] = null; // facilitate debugging.
         }
         LOG.debug(".");
     }
 
+    /**
+     * The pool dedicated to the parallel sweeps, shared by all the analysers and bounded by the available processors,
+     * so that the analysis does not compete with the other users of the common pool. It is created on the first parallel sweep.
+     */
+    private static class SweepPool {
+
+        private static final int MAX_PARALLELISM = 4;
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM),
+                                                                  pool -> {
+                                                                      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                                                                      thread.setName("kie-dmn-dtanalysis-" + thread.getPoolIndex());
+                                                                      return thread;
+                                                                  },
+                                                                  null,
+                                                                  false);
+
+        private static final AtomicLong FORKED_BRANCHES = new AtomicLong();
+    }
+
+    /**
+     * Returns the number of branches of the sweeps forked on the dedicated pool so far, by all the analysers.
+     */
+    static long getForkedBranchesCount() {
+        return SweepPool.FORKED_BRANCHES.get();
+    }
+
+    /**
+     * Collects the gaps or overlaps found by a sweep in the same order of a sequential sweep.
+     * When parallel, each branch into the second column is forked on its own copy of the current intervals,
+     * and its results are kept in a separate part, which is joined in place when collecting.
+     */
+    private static class SweepResults<T> {
+
+        private final boolean parallel;
+        private final List<Object> parts = new ArrayList<>();
+        private List<T> current;
+
+        private SweepResults(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        private void add(T result) {
+            if (current == null) {
+                current = new ArrayList<>();
+                parts.add(current);
+            }
+            current.add(result);
+        }
+
+        private void branch(Interval[] currentIntervals, BiConsumer<SweepResults<T>, Interval[]> sweep) {
+            if (!parallel) {
+                sweep.accept(this, currentIntervals);
+                return;
+            }
+            Interval[] forkedIntervals = currentIntervals.clone();
+            SweepResults<T> forkedResults = new SweepResults<>(false);
+            SweepPool.FORKED_BRANCHES.incrementAndGet();
+            parts.add(SweepPool.POOL.submit(() -> {
+                sweep.accept(forkedResults, forkedIntervals);
+                return forkedResults.collect();
+            }));
+            current = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> collect() {
+            List<T> results = new ArrayList<>();
+            for (Object part : parts) {
+                if (part instanceof ForkJoinTask) {
+                    results.addAll(((ForkJoinTask<List<T>>) part).join());
+                } else {
+                    results.addAll((List<T>) part);
+                }
+            }
+            return results;
+        }
+    }
+
     private static List<Bound> findBoundsSorted(DDTATable ddtaTable, int jColIdx, Collection<Integer> activeRules) {
         List<Interval> intervals = ddtaTable.projectOnColumnIdx(jColIdx);
         if (!activeRules.isEmpty()) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.validation.dtanalysis;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kie.dmn.core.assembler.DMNAssemblerService;
+import org.kie.internal.utils.ChainedProperties;
+
+/**
+ * Bounds the time and the number of steps spent by the Gap and Overlap Analysis of each decision table.
+ * A step is a visit of a column for a given combination of the intervals of the previous columns,
+ * so the number of steps grows with the product of the bounds of the columns.
+ * A value of 0 means unlimited.
+ */
+public class DTAnalysisBudget {
+
+    public static final String TIMEOUT_PROPERTY = DMNAssemblerService.ORG_KIE_DMN_PREFIX + ".validation.dtanalysis.timeout";
+    public static final String MAX_STEPS_PROPERTY = DMNAssemblerService.ORG_KIE_DMN_PREFIX + ".validation.dtanalysis.maxSteps";
+    public static final String PARALLEL_PROPERTY = DMNAssemblerService.ORG_KIE_DMN_PREFIX + ".validation.dtanalysis.parallel";
+
+    public static final DTAnalysisBudget UNLIMITED = new DTAnalysisBudget(0, 0);
+
+    private final long timeoutMillis;
+    private final long maxSteps;
+
+    public DTAnalysisBudget(long timeoutMillis, long maxSteps) {
+        if (timeoutMillis < 0 || maxSteps < 0) {
+            throw new IllegalArgumentException("Decision Table Analysis budget cannot be negative: timeout " + timeoutMillis + "ms, maxSteps " + maxSteps);
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.maxSteps = maxSteps;
+    }
+
+    public static DTAnalysisBudget fromProperties(ChainedProperties chainedProperties) {
+        long timeout = Long.parseLong(getProperty(chainedProperties, TIMEOUT_PROPERTY, "0"));
+        long maxSteps = Long.parseLong(getProperty(chainedProperties, MAX_STEPS_PROPERTY, "0"));
+        return timeout == 0 && maxSteps == 0 ? UNLIMITED : new DTAnalysisBudget(timeout, maxSteps);
+    }
+
+    public static boolean isParallel(ChainedProperties chainedProperties) {
+        return Boolean.parseBoolean(getProperty(chainedProperties, PARALLEL_PROPERTY, "true"));
+    }
+
+    private static String getProperty(ChainedProperties chainedProperties, String key, String defaultValue) {
+        return chainedProperties.getProperty(key, System.getProperty(key, defaultValue)).trim();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    public boolean isUnlimited() {
+        return timeoutMillis == 0 && maxSteps == 0;
+    }
+
+    /**
+     * Starts to meter a single analysis against this budget.
+     */
+    public Meter start() {
+        return new Meter(this);
+    }
+
+    @Override
+    public String toString() {
+        if (isUnlimited()) {
+            return "unlimited";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (timeoutMillis > 0) {
+            sb.append(timeoutMillis).append("ms");
+        }
+        if (maxSteps > 0) {
+            sb.append(sb.length() > 0 ? " and " : "").append(maxSteps).append(" steps");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The consumption of the budget by a single analysis, shared by all the threads sweeping the same table.
+     */
+    public static class Meter {
+
+        private final DTAnalysisBudget budget;
+        private final long deadline;
+        private final AtomicLong steps = new AtomicLong();
+        private volatile boolean exhausted;
+
+        private Meter(DTAnalysisBudget budget) {
+            this.budget = budget;
+            this.deadline = budget.timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget.timeoutMillis) : 0;
+        }
+
+        /**
+         * Accounts a step of the analysis, returning false if the budget is exhausted and the analysis should stop.
+         */
+        public boolean step() {
+            if (exhausted) {
+                return false;
+            }
+            if (budget.isUnlimited()) {
+                return true;
+            }
+            long count = steps.incrementAndGet();
+            if ((budget.maxSteps > 0 && count > budget.maxSteps) || (deadline != 0 && System.nanoTime() - deadline > 0)) {
+                exhausted = true;
+                return false;
+            }
+            return true;
+        }
+
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        public long getSteps() {
+            return steps.get();
+        }
+
+        public DTAnalysisBudget getBudget() {
+            return budget;
+        }
+    }
+}
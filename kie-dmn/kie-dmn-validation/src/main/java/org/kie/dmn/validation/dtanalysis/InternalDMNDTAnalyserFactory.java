@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.kie.dmn.core.compiler.DMNProfile;
 import org.kie.dmn.validation.DMNValidatorFactory;
+import org.kie.internal.utils.ChainedProperties;
 
 /**
  * For internal optimizations only,
@@ -31,6 +32,13 @@ public class InternalDMNDTAnalyserFactory {
         return new DMNDTAnalyser(dmnProfiles);
     }
 
+    /**
+     * Configures the budget and the parallelism of the Gap and Overlap Analysis from the given properties.
+     */
+    public static InternalDMNDTAnalyser newDMNDTAnalyser(List<DMNProfile> dmnProfiles, ChainedProperties chainedProperties) {
+        return new DMNDTAnalyser(dmnProfiles, DTAnalysisBudget.fromProperties(chainedProperties), DTAnalysisBudget.isParallel(chainedProperties));
+    }
+
     private InternalDMNDTAnalyserFactory() {
         // It is forbidden to create new instances of util classes.
     }
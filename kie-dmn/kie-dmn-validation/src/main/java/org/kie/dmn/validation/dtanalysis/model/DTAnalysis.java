@@ -62,6 +62,7 @@ public class DTAnalysis {
     private final DDTATable ddtaTable;
     private final Collection<DMNMessage> passThruMessages = new ArrayList<>();
     private List<PosNegBlock> selectedBlocks;
+    private String exceededBudget;
 
     public DTAnalysis(DecisionTable sourceDT, DDTATable ddtaTable) {
         this.sourceDT = sourceDT;
@@ -83,6 +84,17 @@ public class DTAnalysis {
         return error != null;
     }
 
+    /**
+     * Marks the Gap and Overlap Analysis as stopped before completion, so gaps and overlaps may be partial.
+     */
+    public void setIncomplete(String exceededBudget) {
+        this.exceededBudget = exceededBudget;
+    }
+
+    public boolean isIncomplete() {
+        return exceededBudget != null;
+    }
+
     public DDTATable getDdtaTable() {
         return ddtaTable;
     }
@@ -163,6 +175,14 @@ public class DTAnalysis {
             return results;
         }
         results.addAll(passThruMessages());
+        if (isIncomplete()) {
+            results.add(new DMNDTAnalysisMessage(this,
+                                                 Severity.WARN,
+                                                 MsgUtil.createMessage(Msg.DTANALYSIS_INCOMPLETE,
+                                                                       nameOrIDOfTable(),
+                                                                       exceededBudget),
+                                                 Msg.DTANALYSIS_INCOMPLETE.getType()));
+        }
         results.addAll(gapsAsMessages());
         results.addAll(overlapsAsMessages());
         results.addAll(maskedAndMisleadingRulesAsMessagesIfPriority());
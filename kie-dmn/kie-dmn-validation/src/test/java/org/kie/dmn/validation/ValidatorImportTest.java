@@ -37,6 +37,7 @@ import org.kie.dmn.model.api.DMNElementReference;
 import org.kie.dmn.model.api.Definitions;
 import org.kie.dmn.validation.DMNValidator.Validation;
 import org.kie.dmn.validation.DMNValidator.ValidatorBuilder.ValidatorImportReaderResolver;
+import org.kie.internal.io.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,6 +89,24 @@ public class ValidatorImportTest extends AbstractValidatorTest {
         assertThat(ValidatorUtil.formatMessages(messages), messages.size(), is(0));
     }
 
+    @Test
+    public void testBaseModelOKFromResourcesBatch() {
+        final List<DMNMessage> messages = validator.validate(Arrays.asList(ResourceFactory.newFileResource(getFile("import/Import-base-model.dmn")),
+                                                                           ResourceFactory.newFileResource(getFile("import/Base-model.dmn"))),
+                                                             Validation.VALIDATE_MODEL,
+                                                             Validation.VALIDATE_COMPILATION);
+        assertThat(ValidatorUtil.formatMessages(messages), messages.size(), is(0));
+    }
+
+    @Test
+    public void testWrongImportBaseModelFromResourcesBatch() {
+        final List<DMNMessage> messages = validator.validate(Arrays.asList(ResourceFactory.newFileResource(getFile("import/Base-model.dmn")),
+                                                                           ResourceFactory.newFileResource(getFile("import/Wrong-Import-base-model.dmn"))),
+                                                             Validation.VALIDATE_MODEL);
+        assertThat(ValidatorUtil.formatMessages(messages), messages.size(), is(1));
+        assertTrue(messages.stream().anyMatch(p -> p.getMessageType().equals(DMNMessageType.REQ_NOT_FOUND)));
+    }
+
     @Test
     public void testBaseModelImportModelNameFromFileInput() throws IOException {
         final List<DMNMessage> messages = validator.validateUsing(Validation.VALIDATE_MODEL)
@@ -20,8 +20,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -36,6 +40,8 @@ import org.kie.dmn.core.DMNInputRuntimeTest;
 import org.kie.dmn.core.DMNRuntimeTest;
 import org.kie.dmn.core.decisionservices.DMNDecisionServicesTest;
 import org.kie.dmn.core.imports.ImportsTest;
+import org.kie.dmn.core.util.Msg;
+import org.kie.dmn.core.util.MsgUtil;
 import org.kie.dmn.core.util.DMNRuntimeUtil;
 import org.kie.dmn.core.v1_3.DMN13specificTest;
 import org.kie.dmn.model.api.DMNElement;
@@ -456,6 +462,47 @@ public class ValidatorTest extends AbstractValidatorTest {
                                                    p.getSourceId().equals("_841ed91c-db69-401e-890b-08a5bf44222d")));
     }
 
+    @Test
+    public void testSchemaValidatedWhileUnmarshallingAsBefore() {
+        // the builder validates the schema while unmarshalling, reporting the same problem of the validation of the whole document
+        List<DMNMessage> batch = validator.validateUsing(VALIDATE_SCHEMA).theseModels(getReader("invalidXml.dmn"));
+        List<DMNMessage> single = validator.validate(getReader("invalidXml.dmn"), VALIDATE_SCHEMA);
+        assertThat(ValidatorUtil.formatMessages(single), single.size(), is(1));
+        assertThat(ValidatorUtil.formatMessages(batch),
+                   describe(batch.stream().filter(m -> m.getMessageType() == DMNMessageType.FAILED_XML_VALIDATION).collect(Collectors.toList())),
+                   is(describe(single)));
+    }
+
+    @Test
+    public void testBatchReportsParsingProblemsInInputOrder() {
+        List<Supplier<Reader>> models = new ArrayList<>();
+        models.add(() -> getReader("NAME_IS_VALID.dmn"));
+        models.add(() -> getReader("invalidXml.dmn"));
+        models.add(() -> new StringReader("not a DMN model"));
+        models.add(() -> getReader("simple.dmn", DMN13specificTest.class));
+        models.add(() -> new StringReader("<definitions xmlns=\"https://www.omg.org/spec/DMN/20191111/MODEL/\"><decision></definitions>"));
+
+        // the models are parsed in parallel, but their problems are reported as if parsing them one after the other
+        List<String> expected = new ArrayList<>();
+        for (Supplier<Reader> model : models) {
+            expected.addAll(describe(validator.validateUsing(VALIDATE_SCHEMA).theseModels(model.get())));
+        }
+        expected.add(describe(Msg.VALIDATION_STOPPED.getType(), MsgUtil.createMessage(Msg.VALIDATION_STOPPED)));
+
+        List<DMNMessage> batch = validator.validateUsing(VALIDATE_SCHEMA, VALIDATE_MODEL)
+                                          .theseModels(models.stream().map(Supplier::get).toArray(Reader[]::new));
+        assertThat(ValidatorUtil.formatMessages(batch), describe(batch), is(expected));
+        assertTrue(ValidatorUtil.formatMessages(batch), expected.size() > 4);
+    }
+
+    private static List<String> describe(List<DMNMessage> messages) {
+        return messages.stream().map(m -> describe(m.getMessageType(), m.getMessage())).collect(Collectors.toList());
+    }
+
+    private static String describe(DMNMessageType type, String message) {
+        return type + ": " + message;
+    }
+
     @Test
     public void testDMNv1_3_ch11example2() {
         List<DMNMessage> validate = validator.validateUsing(VALIDATE_SCHEMA,
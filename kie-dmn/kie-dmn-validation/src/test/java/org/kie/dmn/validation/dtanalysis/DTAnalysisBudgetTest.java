@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.validation.dtanalysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.kie.dmn.api.core.DMNMessage;
+import org.kie.dmn.validation.DMNValidator;
+import org.kie.dmn.validation.DMNValidatorFactory;
+import org.kie.dmn.validation.dtanalysis.model.DTAnalysis;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.kie.dmn.validation.DMNValidator.Validation.ANALYZE_DECISION_TABLE;
+import static org.kie.dmn.validation.DMNValidator.Validation.VALIDATE_COMPILATION;
+
+public class DTAnalysisBudgetTest extends AbstractDTAnalysisTest {
+
+    private static final String CUBE3_DT_ID = "_4b41743d-ff04-4855-bf0b-993d475a9d62";
+
+    @Test
+    public void testSequentialSameResultsAsParallel() {
+        DTAnalysis parallel = getAnalysis(validator.validate(getReader("GapsCube3.dmn"), VALIDATE_COMPILATION, ANALYZE_DECISION_TABLE), CUBE3_DT_ID);
+
+        List<DMNMessage> validate = validateWithProperty(DTAnalysisBudget.PARALLEL_PROPERTY, "false");
+        DTAnalysis sequential = getAnalysis(validate, CUBE3_DT_ID);
+
+        assertThat(new ArrayList<>(sequential.getGaps()), is(new ArrayList<>(parallel.getGaps())));
+        assertThat(sequential.getOverlaps(), is(parallel.getOverlaps()));
+        assertThat(sequential.isIncomplete(), is(false));
+    }
+
+    @Test
+    public void testSequentialWhenValidatingOnAForkJoinPool() throws Exception {
+        DTAnalysis parallel = getAnalysis(validator.validate(getReader("GapsCube3.dmn"), VALIDATE_COMPILATION, ANALYZE_DECISION_TABLE), CUBE3_DT_ID);
+
+        // the sweep is not forked when the validation already runs on a fork/join pool, and it finds the same gaps and overlaps.
+        ForkJoinPool callerPool = new ForkJoinPool(1);
+        try {
+            long forkedBefore = DMNDTAnalyser.getForkedBranchesCount();
+            List<DMNMessage> validate = callerPool.submit(() -> validator.validate(getReader("GapsCube3.dmn"), VALIDATE_COMPILATION, ANALYZE_DECISION_TABLE)).get();
+            DTAnalysis sequential = getAnalysis(validate, CUBE3_DT_ID);
+
+            assertThat(DMNDTAnalyser.getForkedBranchesCount(), is(forkedBefore));
+            assertThat(new ArrayList<>(sequential.getGaps()), is(new ArrayList<>(parallel.getGaps())));
+            assertThat(sequential.getOverlaps(), is(parallel.getOverlaps()));
+        } finally {
+            callerPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelSweepThroughTheValidatorBuilder() {
+        DTAnalysis parallel = getAnalysis(validator.validate(getReader("GapsCube3.dmn"), VALIDATE_COMPILATION, ANALYZE_DECISION_TABLE), CUBE3_DT_ID);
+
+        // the builder analyses the models on its own threads, which are not fork/join workers, so the table is still swept in parallel
+        long forkedBefore = DMNDTAnalyser.getForkedBranchesCount();
+        List<DMNMessage> validate = validator.validateUsing(VALIDATE_COMPILATION, ANALYZE_DECISION_TABLE).theseModels(getReader("GapsCube3.dmn"));
+        DTAnalysis analysis = getAnalysis(validate, CUBE3_DT_ID);
+
+        assertThat(DMNDTAnalyser.getForkedBranchesCount() > forkedBefore, is(true));
+        assertThat(new ArrayList<>(analysis.getGaps()), is(new ArrayList<>(parallel.getGaps())));
+        assertThat(analysis.getOverlaps(), is(parallel.getOverlaps()));
+    }
+
+    @Test
+    public void testExceededBudget() {
+        List<DMNMessage> validate = validateWithProperty(DTAnalysisBudget.MAX_STEPS_PROPERTY, "1");
+        DTAnalysis analysis = getAnalysis(validate, CUBE3_DT_ID);
+
+        assertThat(analysis.isIncomplete(), is(true));
+        // only the gaps along the first column are found, before the sweep of the next columns is stopped.
+        assertThat(analysis.getGaps().size() < 4, is(true));
+        assertThat(validate.stream().filter(m -> m.getMessage().startsWith("Gap and Overlap Analysis of table")).count(), is(1L));
+    }
+
+    private List<DMNMessage> validateWithProperty(String key, String value) {
+        Properties dmnValidatorConfig = new Properties();
+        dmnValidatorConfig.setProperty(key, value);
+        DMNValidator budgetValidator = DMNValidatorFactory.newValidator(Collections.emptyList(), dmnValidatorConfig);
+        try {
+            return budgetValidator.validate(getReader("GapsCube3.dmn"), VALIDATE_COMPILATION, ANALYZE_DECISION_TABLE);
+        } finally {
+            budgetValidator.dispose();
+        }
+    }
+}